@@ -0,0 +1,103 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.agents.util;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//Third-party libraries
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//Application-internal dependencies
+import omero.gateway.model.ImageData;
+
+/**
+ * Benchmarks the sorting of the nodes displayed in the browsers, using
+ * synthetic images with random names.
+ *
+ * @since 5.8.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ViewerSorterBenchmark
+{
+
+    /** The number of images. */
+    @Param({"1000", "10000"})
+    public int count;
+
+    /** The images to sort. */
+    private List<Object> images;
+
+    /** The names of the images. */
+    private List<Object> names;
+
+    @Setup
+    public void setUp()
+    {
+        Random r = new Random(42);
+        images = new ArrayList<Object>(count);
+        names = new ArrayList<Object>(count);
+        ImageData img;
+        String name;
+        for (int i = 0; i < count; i++) {
+            name = "Image_"+Integer.toString(r.nextInt(), 36)+".tif";
+            img = new ImageData();
+            img.setName(name);
+            images.add(img);
+            names.add(name);
+        }
+    }
+
+    @Benchmark
+    public List<?> sortImages()
+    {
+        return new ViewerSorter().sort(images);
+    }
+
+    @Benchmark
+    public List<?> sortNames()
+    {
+        ViewerSorter sorter = new ViewerSorter();
+        sorter.setCaseSensitive(true);
+        return sorter.sort(names);
+    }
+
+}
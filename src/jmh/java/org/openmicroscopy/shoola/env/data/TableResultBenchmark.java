@@ -0,0 +1,156 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//Third-party libraries
+import omero.grid.BoolColumn;
+import omero.grid.Column;
+import omero.grid.Data;
+import omero.grid.DoubleColumn;
+import omero.grid.ImageColumn;
+import omero.grid.LongColumn;
+import omero.grid.RoiColumn;
+import omero.grid.StringColumn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.env.data.model.ColumnarTableResult;
+
+/**
+ * Benchmarks the scan of a column of an <i>OMERO</i> table read in
+ * windows, using a synthetic table with a column of each type.
+ *
+ * @since 5.8.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TableResultBenchmark
+{
+
+    /** The number of rows. */
+    @Param({"1000", "100000"})
+    public int rows;
+
+    /** The table data. */
+    private Data data;
+
+    /**
+     * Sets the name of the specified column.
+     *
+     * @param c The column.
+     * @param name The name.
+     * @return See above.
+     */
+    private static Column name(Column c, String name)
+    {
+        c.name = name;
+        c.description = "";
+        return c;
+    }
+
+    @Setup
+    public void setUp()
+    {
+        Random r = new Random(42);
+        long[] ids = new long[rows];
+        double[] values = new double[rows];
+        String[] names = new String[rows];
+        boolean[] flags = new boolean[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = i;
+            values[i] = r.nextDouble();
+            names[i] = "row "+i;
+            flags[i] = r.nextBoolean();
+        }
+        ImageColumn images = new ImageColumn();
+        images.values = ids;
+        RoiColumn rois = new RoiColumn();
+        rois.values = ids;
+        LongColumn longs = new LongColumn();
+        longs.values = ids;
+        DoubleColumn doubles = new DoubleColumn();
+        doubles.values = values;
+        StringColumn strings = new StringColumn();
+        strings.size = 16;
+        strings.values = names;
+        BoolColumn bools = new BoolColumn();
+        bools.values = flags;
+        data = new Data();
+        data.rowNumbers = ids;
+        data.columns = new Column[] {name(images, "Image"),
+                name(rois, "Roi"), name(longs, "Count"),
+                name(doubles, "Area"), name(strings, "Name"),
+                name(bools, "Valid")};
+    }
+
+    @Benchmark
+    public double scanColumnarTableResult()
+        throws Exception
+    {
+        final Object[] columns = TableWindowReader.columnsOf(data);
+        ColumnarTableResult table = new ColumnarTableResult(
+                new String[columns.length], new String[columns.length], rows,
+                new HashMap<Integer, Integer>(),
+                new ColumnarTableResult.WindowReader()
+        {
+            public Object[] read(long start, int length)
+            {
+                Object[] window = new Object[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    window[i] = Array.newInstance(
+                            columns[i].getClass().getComponentType(), length);
+                    System.arraycopy(columns[i], (int) start, window[i], 0,
+                            length);
+                }
+                return window;
+            }
+
+            public void close() {}
+        });
+        double sum = 0;
+        for (long row = 0; row < rows; row++)
+            sum += table.getDouble(row, 3);
+        return sum;
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd.roi;
+
+
+//Java imports
+import java.awt.Point;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//Third-party libraries
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.util.roi.figures.MeasureEllipseFigure;
+
+/**
+ * Benchmarks the iteration of the points of a shape over a plane as done
+ * by {@link PointIterator#iterate}, notifying the statistics observers of
+ * each pixel value.  {@link PointIterator} reads the plane through the
+ * gateway, so a synthetic in-memory plane is used instead: the
+ * benchmark measures the per-point work, not the plane retrieval.
+ *
+ * @since 5.8.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PointIteratorBenchmark
+{
+
+    /** The width and height of the plane. */
+    private static final int PLANE_SIZE = 1024;
+
+    /** The diameter of the shape. */
+    @Param({"64", "256"})
+    public int size;
+
+    /** The pixel values of the plane. */
+    private double[] plane;
+
+    /** The points of the shape. */
+    private List<Point> points;
+
+    /**
+     * Iterates over the points as {@link PointIterator} does.
+     *
+     * @param observer The observer to notify.
+     * @return The number of points iterated.
+     */
+    private int iterate(PointIteratorObserver observer)
+    {
+        observer.iterationStarted();
+        observer.onStartPlane(0, 0, 0, points.size());
+        int length = 0;
+        for (Point p : points) {
+            if (p.x < 0 || p.x >= PLANE_SIZE || p.y < 0 || p.y >= PLANE_SIZE)
+                continue;
+            observer.update(plane[p.y*PLANE_SIZE+p.x], 0, 0, 0, p);
+            length++;
+        }
+        observer.onEndPlane(0, 0, 0, length);
+        observer.iterationFinished();
+        return length;
+    }
+
+    @Setup
+    public void setUp()
+    {
+        Random r = new Random(42);
+        plane = new double[PLANE_SIZE*PLANE_SIZE];
+        for (int i = 0; i < plane.length; i++)
+            plane[i] = r.nextInt(65536);
+        points = new MeasureEllipseFigure(100, 100, size, size).getPoints();
+    }
+
+    @Benchmark
+    public ROIShapeStats iterateWithValues()
+    {
+        ROIShapeStats stats = new ROIShapeStats();
+        iterate(stats);
+        return stats;
+    }
+
+    @Benchmark
+    public ROIShapeStatsSimple iterateSimple()
+    {
+        ROIShapeStatsSimple stats = new ROIShapeStatsSimple();
+        iterate(stats);
+        return stats;
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.image;
+
+
+//Java imports
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//Third-party libraries
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.util.image.geom.Factory;
+import org.openmicroscopy.shoola.util.image.io.WriterImage;
+
+/**
+ * Benchmarks the creation, magnification and decoding of the rendered
+ * images, using a synthetic packed RGB plane.
+ *
+ * @since 5.8.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ImageBenchmark
+{
+
+    /** The width and height of the plane. */
+    @Param({"256", "1024"})
+    public int size;
+
+    /** The packed RGB values of the plane. */
+    private int[] buf;
+
+    /** The image created from {@link #buf}. */
+    private BufferedImage image;
+
+    /** The image encoded as JPEG, as retrieved from the server. */
+    private byte[] encoded;
+
+    @Setup
+    public void setUp()
+        throws Exception
+    {
+        Random r = new Random(42);
+        buf = new int[size*size];
+        for (int i = 0; i < buf.length; i++)
+            buf[i] = r.nextInt() & 0xffffff;
+        image = Factory.createImage(buf, 32, size, size);
+        encoded = WriterImage.imageToByteStream(image);
+    }
+
+    @Benchmark
+    public BufferedImage createImage()
+    {
+        return Factory.createImage(buf, 32, size, size);
+    }
+
+    @Benchmark
+    public BufferedImage magnifyImage()
+    {
+        return Factory.magnifyImage(2, image);
+    }
+
+    @Benchmark
+    public BufferedImage bytesToImage()
+        throws Exception
+    {
+        return WriterImage.bytesToImage(encoded);
+    }
+
+}
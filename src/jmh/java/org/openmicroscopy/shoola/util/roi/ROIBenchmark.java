@@ -0,0 +1,190 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.roi;
+
+
+//Java imports
+import java.awt.Point;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//Third-party libraries
+import org.jhotdraw.geom.BezierPath.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.util.roi.figures.MeasureBezierFigure;
+import org.openmicroscopy.shoola.util.roi.figures.MeasureEllipseFigure;
+import org.openmicroscopy.shoola.util.roi.figures.MeasureLineFigure;
+import org.openmicroscopy.shoola.util.roi.model.ROI;
+import org.openmicroscopy.shoola.util.roi.model.ROIShape;
+import org.openmicroscopy.shoola.util.roi.model.ShapeList;
+import org.openmicroscopy.shoola.util.roi.model.util.Coord3D;
+
+/**
+ * Benchmarks the computation of the points under the figures, the look-up
+ * of the ROIs and the parsing of the ROIs saved as XML, using synthetic
+ * ROIs spread over the planes of an image.
+ *
+ * @since 5.8.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ROIBenchmark
+{
+
+    /** The number of planes the ROIs are spread over. */
+    private static final int PLANES = 10;
+
+    /** The number of vertices of the polygons and polylines. */
+    private static final int VERTICES = 32;
+
+    /** The width and height of the figures. */
+    @Param({"64", "256"})
+    public int size;
+
+    /** The number of ROIs. */
+    @Param({"1000"})
+    public int count;
+
+    /** An ellipse. */
+    private MeasureEllipseFigure ellipse;
+
+    /** A closed bezier figure i.e. a polygon. */
+    private MeasureBezierFigure polygon;
+
+    /** An open bezier figure i.e. a polyline. */
+    private MeasureBezierFigure polyline;
+
+    /** A line. */
+    private MeasureLineFigure line;
+
+    /** The component hosting the ROIs. */
+    private ROIComponent component;
+
+    /** The identifiers of the ROIs. */
+    private long[] ids;
+
+    /** The ROIs saved as XML. */
+    private byte[] xml;
+
+    /** Used to pick the ROIs to look up. */
+    private Random random;
+
+    /**
+     * Creates a bezier figure whose vertices lie on a circle.
+     *
+     * @param closed Pass <code>true</code> to close the figure.
+     * @return See above.
+     */
+    private MeasureBezierFigure createBezier(boolean closed)
+    {
+        MeasureBezierFigure fig = new MeasureBezierFigure(closed);
+        double r = size/2.0, a;
+        for (int i = 0; i < VERTICES; i++) {
+            a = 2*Math.PI*i/VERTICES;
+            fig.addNode(new Node(r+r*Math.cos(a), r+r*Math.sin(a)));
+        }
+        return fig;
+    }
+
+    @Setup
+    public void setUp()
+        throws Exception
+    {
+        ellipse = new MeasureEllipseFigure(0, 0, size, size/2);
+        polygon = createBezier(true);
+        polyline = createBezier(false);
+        line = new MeasureLineFigure();
+        line.removeAllNodes();
+        line.addNode(new Node(0, 0));
+        line.addNode(new Node(size, size/3));
+
+        component = new ROIComponent();
+        ids = new long[count];
+        Coord3D c;
+        ROI roi;
+        for (int i = 0; i < count; i++) {
+            c = new Coord3D(i%PLANES, 0);
+            roi = component.addROI(new MeasureEllipseFigure(i%500, i%300,
+                    size, size), c, true);
+            ids[i] = roi.getID();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        component.saveROI(out);
+        xml = out.toByteArray();
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public List<Point> ellipsePoints() { return ellipse.getPoints(); }
+
+    @Benchmark
+    public List<Point> polygonPoints() { return polygon.getPoints(); }
+
+    @Benchmark
+    public List<Point> polylinePoints() { return polyline.getPoints(); }
+
+    @Benchmark
+    public List<Point> linePoints() { return line.getPoints(); }
+
+    @Benchmark
+    public ROIShape getShape()
+        throws Exception
+    {
+        int i = random.nextInt(count);
+        return component.getShape(ids[i], new Coord3D(i%PLANES, 0));
+    }
+
+    @Benchmark
+    public ShapeList getShapeList()
+        throws Exception
+    {
+        return component.getShapeList(new Coord3D(random.nextInt(PLANES), 0));
+    }
+
+    @Benchmark
+    public List<ROI> parseXML()
+        throws Exception
+    {
+        ROIComponent c = new ROIComponent();
+        return c.loadROI(new ByteArrayInputStream(xml));
+    }
+
+}
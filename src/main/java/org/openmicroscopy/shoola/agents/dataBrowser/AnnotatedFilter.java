@@ -22,6 +22,7 @@ package org.openmicroscopy.shoola.agents.dataBrowser;
 
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -48,7 +49,7 @@ import omero.gateway.model.TextualAnnotationData;
  * @since OME3.0
  */
 public class AnnotatedFilter 
-	extends DataBrowserLoader
+	extends AnnotationFilter
 {
 
 	/** The collection of nodes to filter. */
@@ -117,6 +118,21 @@ public class AnnotatedFilter
 		}
 	}
 	
+	/**
+	 * Returns the nodes to filter.
+	 * @see AnnotationFilter#getNodes()
+	 */
+	protected Collection<DataObject> getNodes() { return nodes.values(); }
+
+	/**
+	 * Filters the indexed nodes by annotated state.
+	 * @see AnnotationFilter#filter(AnnotationIndex)
+	 */
+	protected BitSet filter(AnnotationIndex index)
+	{
+		return index.filterByAnnotated(annotationType, annotated);
+	}
+
 	/** 
 	 * Cancels the data loading. 
 	 * @see DataBrowserLoader#cancel()
@@ -0,0 +1,86 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package org.openmicroscopy.shoola.agents.dataBrowser;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+import org.openmicroscopy.shoola.agents.dataBrowser.view.DataBrowser;
+import omero.gateway.SecurityContext;
+import omero.gateway.model.DataObject;
+
+/**
+ * Top class of the filters by annotation. A filter is evaluated using the
+ * {@link AnnotationIndex} of the viewer when the annotations of the nodes
+ * are indexed, and on the server otherwise by invoking {@link #load()}.
+ *
+ * @since 5.8.5
+ */
+public abstract class AnnotationFilter
+	extends DataBrowserLoader
+{
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param viewer The viewer this data loader is for.
+	 *               Mustn't be <code>null</code>.
+	 * @param ctx The security context.
+	 */
+	protected AnnotationFilter(DataBrowser viewer, SecurityContext ctx)
+	{
+		super(viewer, ctx);
+	}
+
+	/**
+	 * Returns the nodes to filter.
+	 *
+	 * @return See above.
+	 */
+	protected abstract Collection<DataObject> getNodes();
+
+	/**
+	 * Returns the positions, in the passed index, of the nodes matching
+	 * the filter.
+	 *
+	 * @param index The index to use.
+	 * @return See above.
+	 */
+	protected abstract BitSet filter(AnnotationIndex index);
+
+	/**
+	 * Filters the nodes using the passed index and feeds the result back to
+	 * the viewer. Returns <code>false</code> without filtering if the
+	 * annotations of some nodes are not indexed, <code>true</code>
+	 * otherwise.
+	 *
+	 * @param index The index to use.
+	 * @return See above.
+	 */
+	public boolean apply(AnnotationIndex index)
+	{
+		Collection<DataObject> nodes = getNodes();
+		if (index == null || !index.isLoaded(nodes)) return false;
+		viewer.setFilteredNodes(index.select(filter(index), nodes), null);
+		return true;
+	}
+
+}
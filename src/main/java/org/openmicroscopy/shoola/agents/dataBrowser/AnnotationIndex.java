@@ -0,0 +1,482 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package org.openmicroscopy.shoola.agents.dataBrowser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import omero.gateway.model.AnnotationData;
+import omero.gateway.model.DataObject;
+import omero.gateway.model.RatingAnnotationData;
+import omero.gateway.model.TagAnnotationData;
+import omero.gateway.model.TextualAnnotationData;
+
+/**
+ * In-memory index of the annotations linked to the nodes displayed by a
+ * browser so that the filters by rate, tags, comments or annotated state
+ * can be evaluated without contacting the server.
+ * <p>Each node is identified by its position in the sorted array of node's
+ * ids and the sets of nodes are {@link BitSet}s over those positions:
+ * one set per tag value, one set per distinct comment, the tagged and
+ * commented nodes. The rating of the user currently logged in is kept in a
+ * byte array.</p>
+ * <p>A node is only used to filter once its annotations have been indexed.
+ * Each node has a version increased when it is invalidated, so that the
+ * result of a call started before the invalidation is not indexed.</p>
+ *
+ * @since 5.8.5
+ */
+public class AnnotationIndex
+{
+
+	/** The sorted ids of the nodes. */
+	private final long[] ids;
+
+	/** The type of the nodes. */
+	private final Class nodeType;
+
+	/** The id of the user currently logged in. */
+	private final long userID;
+
+	/** The version of each node, increased when a node is invalidated. */
+	private final int[] versions;
+
+	/** The nodes whose annotations are indexed and up to date. */
+	private final BitSet loaded;
+
+	/** The nodes rated by the user currently logged in or by others. */
+	private final BitSet rated;
+
+	/** The rating of the user currently logged in, <code>0</code> if none. */
+	private final byte[] ratings;
+
+	/** The tagged nodes. */
+	private final BitSet tagged;
+
+	/** The commented nodes. */
+	private final BitSet commented;
+
+	/** The nodes for each tag value. */
+	private final Map<String, BitSet> tags;
+
+	/** The nodes for each distinct comment. */
+	private final Map<String, BitSet> comments;
+
+	/**
+	 * Adds the passed node to the set mapped to the specified key.
+	 *
+	 * @param map The map to handle.
+	 * @param key The key.
+	 * @param index The position of the node.
+	 */
+	private static void add(Map<String, BitSet> map, String key, int index)
+	{
+		if (key == null) return;
+		BitSet set = map.get(key);
+		if (set == null) {
+			set = new BitSet();
+			map.put(key, set);
+		}
+		set.set(index);
+	}
+
+	/**
+	 * Removes the passed node from the sets of the specified map and
+	 * removes the sets which are then empty.
+	 *
+	 * @param map The map to handle.
+	 * @param index The position of the node.
+	 */
+	private static void remove(Map<String, BitSet> map, int index)
+	{
+		Iterator<Entry<String, BitSet>> i = map.entrySet().iterator();
+		BitSet set;
+		while (i.hasNext()) {
+			set = i.next().getValue();
+			set.clear(index);
+			if (set.isEmpty()) i.remove();
+		}
+	}
+
+	/**
+	 * Removes the annotations of the specified node from the index.
+	 *
+	 * @param index The position of the node.
+	 */
+	private void clear(int index)
+	{
+		rated.clear(index);
+		ratings[index] = 0;
+		tagged.clear(index);
+		commented.clear(index);
+		remove(tags, index);
+		remove(comments, index);
+	}
+
+	/**
+	 * Indexes the annotations of the specified node.
+	 *
+	 * @param index The position of the node.
+	 * @param annotations The annotations linked to the node.
+	 */
+	private void index(int index, Collection<AnnotationData> annotations)
+	{
+		if (annotations == null) return;
+		Iterator<AnnotationData> i = annotations.iterator();
+		AnnotationData data;
+		while (i.hasNext()) {
+			data = i.next();
+			if (data instanceof RatingAnnotationData) {
+				rated.set(index);
+				if (data.getOwner() != null &&
+						data.getOwner().getId() == userID)
+					ratings[index] = (byte)
+						((RatingAnnotationData) data).getRating();
+			} else if (data instanceof TagAnnotationData) {
+				tagged.set(index);
+				add(tags, ((TagAnnotationData) data).getTagValue(), index);
+			} else if (data instanceof TextualAnnotationData) {
+				commented.set(index);
+				add(comments, ((TextualAnnotationData) data).getText(), index);
+			}
+		}
+	}
+
+	/**
+	 * Returns the position of the specified node or <code>-1</code> if the
+	 * node is not indexed.
+	 *
+	 * @param id The id of the node.
+	 * @return See above.
+	 */
+	private int indexOf(long id)
+	{
+		int index = Arrays.binarySearch(ids, id);
+		return index < 0 ? -1 : index;
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param nodes The nodes to index. Mustn't be <code>null</code>.
+	 * @param userID The id of the user currently logged in.
+	 */
+	public AnnotationIndex(Collection<DataObject> nodes, long userID)
+	{
+		if (nodes == null || nodes.size() == 0)
+			throw new IllegalArgumentException("No nodes to index.");
+		this.userID = userID;
+		Set<Long> s = new HashSet<Long>();
+		Iterator<DataObject> i = nodes.iterator();
+		DataObject data;
+		Class type = null;
+		while (i.hasNext()) {
+			data = i.next();
+			type = data.getClass();
+			s.add(data.getId());
+		}
+		nodeType = type;
+		int n = s.size();
+		ids = new long[n];
+		int index = 0;
+		Iterator<Long> j = s.iterator();
+		while (j.hasNext())
+			ids[index++] = j.next();
+		Arrays.sort(ids);
+		versions = new int[n];
+		ratings = new byte[n];
+		loaded = new BitSet(n);
+		rated = new BitSet(n);
+		tagged = new BitSet(n);
+		commented = new BitSet(n);
+		tags = new HashMap<String, BitSet>();
+		comments = new HashMap<String, BitSet>();
+	}
+
+	/**
+	 * Returns the type of the indexed nodes.
+	 *
+	 * @return See above.
+	 */
+	public Class getNodeType() { return nodeType; }
+
+	/**
+	 * Returns <code>true</code> if all the specified nodes are part of the
+	 * index, <code>false</code> otherwise.
+	 *
+	 * @param objects The nodes to check.
+	 * @return See above.
+	 */
+	public boolean contains(Collection<DataObject> objects)
+	{
+		if (objects == null) return false;
+		Iterator<DataObject> i = objects.iterator();
+		DataObject data;
+		while (i.hasNext()) {
+			data = i.next();
+			if (data == null || data.getClass() != nodeType ||
+					indexOf(data.getId()) < 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns <code>true</code> if the annotations of all the specified
+	 * nodes are indexed and up to date, <code>false</code> otherwise.
+	 *
+	 * @param objects The nodes to check.
+	 * @return See above.
+	 */
+	public synchronized boolean isLoaded(Collection<DataObject> objects)
+	{
+		if (objects == null) return false;
+		Iterator<DataObject> i = objects.iterator();
+		DataObject data;
+		int index;
+		while (i.hasNext()) {
+			data = i.next();
+			if (data == null || data.getClass() != nodeType) return false;
+			index = indexOf(data.getId());
+			if (index < 0 || !loaded.get(index)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the ids of the nodes whose annotations are not indexed or not
+	 * up to date.
+	 *
+	 * @return See above.
+	 */
+	public synchronized List<Long> getStaleIds()
+	{
+		List<Long> l = new ArrayList<Long>();
+		for (int i = loaded.nextClearBit(0); i < ids.length;
+				i = loaded.nextClearBit(i+1))
+			l.add(ids[i]);
+		return l;
+	}
+
+	/**
+	 * Marks the annotations of the specified nodes as to be loaded again.
+	 * Returns the ids of the nodes which are part of the index.
+	 *
+	 * @param objects The annotated nodes.
+	 * @return See above.
+	 */
+	public synchronized List<Long> invalidate(Collection<DataObject> objects)
+	{
+		List<Long> l = new ArrayList<Long>();
+		if (objects == null) return l;
+		Iterator<DataObject> i = objects.iterator();
+		DataObject data;
+		int index;
+		while (i.hasNext()) {
+			data = i.next();
+			if (data == null || data.getClass() != nodeType) continue;
+			index = indexOf(data.getId());
+			if (index >= 0) {
+				versions[index]++;
+				loaded.clear(index);
+				l.add(ids[index]);
+			}
+		}
+		return l;
+	}
+
+	/**
+	 * Returns the versions of the specified nodes. The versions have to be
+	 * passed back to {@link #index(List, int[], Map)} when the annotations
+	 * have been loaded.
+	 *
+	 * @param nodeIds The ids of the nodes to load the annotations for.
+	 * @return See above.
+	 */
+	public synchronized int[] getVersions(List<Long> nodeIds)
+	{
+		int[] values = new int[nodeIds.size()];
+		int index;
+		for (int i = 0; i < values.length; i++) {
+			index = indexOf(nodeIds.get(i));
+			values[i] = index < 0 ? -1 : versions[index];
+		}
+		return values;
+	}
+
+	/**
+	 * Replaces the annotations of the specified nodes by the loaded ones.
+	 * The nodes invalidated since the versions were read are skipped.
+	 *
+	 * @param nodeIds The ids of the nodes the annotations were loaded for.
+	 * @param nodeVersions The versions of the nodes when the loading started.
+	 * @param annotations The annotations linked to the nodes.
+	 */
+	public synchronized void index(List<Long> nodeIds, int[] nodeVersions,
+			Map<Long, Collection<AnnotationData>> annotations)
+	{
+		if (nodeIds == null || nodeVersions == null) return;
+		long id;
+		int index;
+		for (int i = 0; i < nodeVersions.length; i++) {
+			id = nodeIds.get(i);
+			index = indexOf(id);
+			if (index < 0 || versions[index] != nodeVersions[i]) continue;
+			clear(index);
+			if (annotations != null) index(index, annotations.get(id));
+			loaded.set(index);
+		}
+	}
+
+	/**
+	 * Returns the nodes rated at or above the specified level, or the nodes
+	 * not rated at all if the level is {@link RateFilter#UNRATED}.
+	 *
+	 * @param level One of the rating level defined by {@link RateFilter}.
+	 * @return See above.
+	 */
+	public synchronized BitSet filterByRate(int level)
+	{
+		BitSet result;
+		if (level == RateFilter.UNRATED) {
+			result = new BitSet(ids.length);
+			result.set(0, ids.length);
+			result.andNot(rated);
+			return result;
+		}
+		result = new BitSet(ids.length);
+		for (int i = rated.nextSetBit(0); i >= 0; i = rated.nextSetBit(i+1)) {
+			if (ratings[i] >= level) result.set(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the nodes tagged with one of the specified tags. Returns the
+	 * tagged nodes if no tag is specified.
+	 *
+	 * @param values The values of the tags.
+	 * @return See above.
+	 */
+	public synchronized BitSet filterByTags(List<String> values)
+	{
+		BitSet result = new BitSet(ids.length);
+		if (values == null || values.size() == 0) {
+			result.or(tagged);
+			return result;
+		}
+		Iterator<String> i = values.iterator();
+		BitSet set;
+		while (i.hasNext()) {
+			set = tags.get(i.next());
+			if (set != null) result.or(set);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the nodes with a comment containing one of the specified
+	 * terms. Returns the commented nodes if no term is specified.
+	 *
+	 * @param terms The terms to find.
+	 * @return See above.
+	 */
+	public synchronized BitSet filterByComments(List<String> terms)
+	{
+		BitSet result = new BitSet(ids.length);
+		if (terms == null || terms.size() == 0) {
+			result.or(commented);
+			return result;
+		}
+		Iterator<Entry<String, BitSet>> i = comments.entrySet().iterator();
+		Entry<String, BitSet> e;
+		Iterator<String> j;
+		while (i.hasNext()) {
+			e = i.next();
+			j = terms.iterator();
+			while (j.hasNext()) {
+				if (e.getKey().contains(j.next())) {
+					result.or(e.getValue());
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the nodes annotated or not with the specified type of
+	 * annotations.
+	 *
+	 * @param annotationType Either {@link TagAnnotationData} or
+	 *                       {@link TextualAnnotationData}.
+	 * @param annotated Pass <code>true</code> to return the annotated nodes,
+	 *                  <code>false</code> otherwise.
+	 * @return See above.
+	 */
+	public synchronized BitSet filterByAnnotated(Class annotationType,
+			boolean annotated)
+	{
+		BitSet set = TagAnnotationData.class.equals(annotationType) ?
+				tagged : commented;
+		BitSet result = new BitSet(ids.length);
+		if (annotated) result.or(set);
+		else {
+			result.set(0, ids.length);
+			result.andNot(set);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the specified nodes which are in the passed set.
+	 *
+	 * @param set The set of positions returned by one of the filtering
+	 *            methods.
+	 * @param objects The nodes to filter.
+	 * @return See above.
+	 */
+	public List<DataObject> select(BitSet set, Collection<DataObject> objects)
+	{
+		List<DataObject> result = new ArrayList<DataObject>();
+		if (set == null || objects == null) return result;
+		Iterator<DataObject> i = objects.iterator();
+		DataObject data;
+		int index;
+		while (i.hasNext()) {
+			data = i.next();
+			if (data == null || data.getClass() != nodeType) continue;
+			index = indexOf(data.getId());
+			if (index >= 0 && set.get(index)) result.add(data);
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package org.openmicroscopy.shoola.agents.dataBrowser;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.openmicroscopy.shoola.agents.dataBrowser.view.DataBrowser;
+import omero.gateway.SecurityContext;
+import org.openmicroscopy.shoola.env.data.views.CallHandle;
+import omero.gateway.model.AnnotationData;
+
+/**
+ * Loads, in one call, the annotations linked to the specified nodes and
+ * adds them to an {@link AnnotationIndex}.
+ * This class calls the <code>loadLinkedAnnotations</code> method in the
+ * <code>MetadataHandlerView</code>.
+ *
+ * @since 5.8.5
+ */
+public class AnnotationIndexLoader
+	extends DataBrowserLoader
+{
+
+	/** The index to populate. */
+	private final AnnotationIndex index;
+
+	/** The ids of the nodes to load the annotations for. */
+	private final List<Long> nodeIds;
+
+	/** The versions of the nodes when the loading started. */
+	private int[] versions;
+
+	/** Handle to the asynchronous call so that we can cancel it. */
+	private CallHandle handle;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param viewer The viewer this data loader is for.
+	 *               Mustn't be <code>null</code>.
+	 * @param ctx The security context.
+	 * @param index The index to populate. Mustn't be <code>null</code>.
+	 * @param nodeIds The ids of the nodes to load the annotations for.
+	 *                Mustn't be <code>null</code>.
+	 */
+	public AnnotationIndexLoader(DataBrowser viewer, SecurityContext ctx,
+			AnnotationIndex index, List<Long> nodeIds)
+	{
+		super(viewer, ctx);
+		if (index == null)
+			throw new IllegalArgumentException("No index.");
+		if (nodeIds == null || nodeIds.size() == 0)
+			throw new IllegalArgumentException("No nodes to index.");
+		this.index = index;
+		this.nodeIds = nodeIds;
+	}
+
+	/**
+	 * Cancels the data loading.
+	 * @see DataBrowserLoader#cancel()
+	 */
+	public void cancel() { handle.cancel(); }
+
+	/**
+	 * Loads the annotations linked to the nodes.
+	 * @see DataBrowserLoader#load()
+	 */
+	public void load()
+	{
+		versions = index.getVersions(nodeIds);
+		handle = mhView.loadLinkedAnnotations(ctx, index.getNodeType(),
+				nodeIds, -1, this);
+	}
+
+	/**
+	 * Notifies the viewer that the nodes could not be indexed so that the
+	 * filters are evaluated on the server.
+	 * @see DataBrowserLoader#handleException(Throwable)
+	 */
+	public void handleException(Throwable exc)
+	{
+		registry.getLogger().warn(this, "Cannot index the annotations: "+exc);
+		if (viewer.getState() == DataBrowser.DISCARDED) return;
+		viewer.onAnnotationsIndexed(index);
+	}
+
+	/**
+	 * Feeds the result back to the viewer.
+	 * @see DataBrowserLoader#handleResult(Object)
+	 */
+	public void handleResult(Object result)
+	{
+		if (viewer.getState() == DataBrowser.DISCARDED) return;  //Async cancel.
+		index.index(nodeIds, versions,
+				(Map<Long, Collection<AnnotationData>>) result);
+		viewer.onAnnotationsIndexed(index);
+	}
+
+}
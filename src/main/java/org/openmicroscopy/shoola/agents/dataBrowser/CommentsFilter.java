@@ -22,6 +22,7 @@ package org.openmicroscopy.shoola.agents.dataBrowser;
 
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -47,7 +48,7 @@ import omero.gateway.model.TextualAnnotationData;
  * @since OME3.0
  */
 public class CommentsFilter 
-	extends DataBrowserLoader
+	extends AnnotationFilter
 {
 
 	/** The collection of nodes to filter. */
@@ -96,6 +97,21 @@ public class CommentsFilter
 		}
 	}
 
+	/**
+	 * Returns the nodes to filter.
+	 * @see AnnotationFilter#getNodes()
+	 */
+	protected Collection<DataObject> getNodes() { return nodes.values(); }
+
+	/**
+	 * Filters the indexed nodes by comments.
+	 * @see AnnotationFilter#filter(AnnotationIndex)
+	 */
+	protected BitSet filter(AnnotationIndex index)
+	{
+		return index.filterByComments(comments);
+	}
+
 	/** 
 	 * Cancels the data loading. 
 	 * @see DataBrowserLoader#cancel()
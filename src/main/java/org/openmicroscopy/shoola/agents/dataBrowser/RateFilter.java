@@ -21,6 +21,7 @@
 package org.openmicroscopy.shoola.agents.dataBrowser;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -46,7 +47,7 @@ import omero.gateway.model.RatingAnnotationData;
  * @since OME3.0
  */
 public class RateFilter
-	extends DataBrowserLoader
+	extends AnnotationFilter
 {
 
 	/** Indicates to retrieve the node rated one or higher. */
@@ -152,6 +153,21 @@ public class RateFilter
 		}
 	}
 
+	/**
+	 * Returns the nodes to filter.
+	 * @see AnnotationFilter#getNodes()
+	 */
+	protected Collection<DataObject> getNodes() { return nodes.values(); }
+
+	/**
+	 * Filters the indexed nodes by rate.
+	 * @see AnnotationFilter#filter(AnnotationIndex)
+	 */
+	protected BitSet filter(AnnotationIndex index)
+	{
+		return index.filterByRate(ratingLevel);
+	}
+
 	/** 
 	 * Cancels the data loading. 
 	 * @see DataBrowserLoader#cancel()
@@ -21,6 +21,7 @@
 package org.openmicroscopy.shoola.agents.dataBrowser;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -46,7 +47,7 @@ import omero.gateway.model.TagAnnotationData;
  * @since OME3.0
  */
 public class TagsFilter 
-	extends DataBrowserLoader
+	extends AnnotationFilter
 {
 
 	/** The collection of nodes to filter. */
@@ -95,6 +96,21 @@ public class TagsFilter
 		}
 	}
 
+	/**
+	 * Returns the nodes to filter.
+	 * @see AnnotationFilter#getNodes()
+	 */
+	protected Collection<DataObject> getNodes() { return nodes.values(); }
+
+	/**
+	 * Filters the indexed nodes by tags.
+	 * @see AnnotationFilter#filter(AnnotationIndex)
+	 */
+	protected BitSet filter(AnnotationIndex index)
+	{
+		return index.filterByTags(tags);
+	}
+
 	/** 
 	 * Cancels the data loading. 
 	 * @see DataBrowserLoader#cancel()
@@ -21,6 +21,7 @@
 package org.openmicroscopy.shoola.agents.dataBrowser;
 
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -228,6 +229,33 @@ public class ThumbnailLoader
         }
     }
     
+    /** 
+     * Feeds the thumbnails of a batch of notifications back to the viewer
+     * in one go, so that the status is refreshed once per batch.
+     * @see DataBrowserLoader#update(List)
+     */
+    public void update(List<DSCallFeedbackEvent> events)
+    {
+        if (!thumbnail) {
+            super.update(events);
+            return;
+        }
+        if (viewer.getState() == DataBrowser.DISCARDED) return;  //Async cancel.
+        List<ThumbnailData> l = new ArrayList<ThumbnailData>();
+        Object result;
+        for (DSCallFeedbackEvent fe : events) {
+            result = fe.getPartialResult();
+            if (result instanceof ThumbnailData)
+                l.add((ThumbnailData) result);
+            else if (result instanceof List) {
+                for (Object o : (List<?>) result) {
+                    if (o instanceof ThumbnailData) l.add((ThumbnailData) o);
+                }
+            }
+        }
+        viewer.setThumbnails(l, max);
+    }
+    
     /**
      * Does nothing as the asynchronous call returns <code>null</code>.
      * The actual pay-load (thumbnails) is delivered progressively
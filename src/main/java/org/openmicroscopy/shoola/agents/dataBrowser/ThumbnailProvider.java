@@ -24,6 +24,7 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
@@ -33,6 +34,8 @@ import org.openmicroscopy.shoola.agents.dataBrowser.browser.Thumbnail;
 import org.openmicroscopy.shoola.agents.dataBrowser.view.DataBrowserFactory;
 import org.openmicroscopy.shoola.env.config.Registry;
 import org.openmicroscopy.shoola.util.image.geom.Factory;
+import org.openmicroscopy.shoola.util.image.io.EncoderException;
+import org.openmicroscopy.shoola.util.image.io.WriterImage;
 
 import omero.gateway.model.DataObject;
 import omero.gateway.model.ExperimenterData;
@@ -98,9 +101,15 @@ public class ThumbnailProvider
     /** The {@link BufferedImage} representing a thumbnail of maximum size. */
     private BufferedImage   fullScaleThumb;
     
-    /** The {@link BufferedImage} representing the thumbnail displayed. */
+    /** 
+     * The {@link BufferedImage} representing the thumbnail displayed.
+     * Computed on demand from {@link #pyramid} when painted.
+     */
     private BufferedImage   displayThumb;
     
+    /** The magnified versions of {@link #fullScaleThumb}. */
+    private ThumbnailPyramid pyramid;
+    
     /** 
      * The {@link BufferedImage} representing the full size image for 
      * the slide show. 
@@ -116,6 +125,74 @@ public class ThumbnailProvider
     /** Flag indicating if the thumbnail is valid or not. */
     private boolean			valid;
     
+    /** 
+     * The compressed copy of {@link #fullScaleThumb} kept when the images
+     * are evicted by the {@link ThumbnailsManager}.
+     */
+    private byte[]          cachedThumb;
+    
+    /** The size of the evicted {@link #fullScaleThumb}. */
+    private Dimension       cachedSize;
+    
+    /**
+     * Loads the {@link #fullScaleThumb} back from the compressed copy
+     * if it has been evicted.
+     */
+    private void restore()
+    {
+        if (fullScaleThumb != null || cachedThumb == null) return;
+        try {
+            fullScaleThumb = WriterImage.bytesToImage(cachedThumb);
+        } catch (EncoderException e) {
+            cachedThumb = null;
+            return;
+        }
+        if (fullScaleThumb == null) return;
+        cachedSize = null;
+        pyramid = ThumbnailPyramid.create(fullScaleThumb, this);
+        ThumbnailsManager.account(this);
+    }
+    
+    /**
+     * Returns the {@link #fullScaleThumb} magnified by the specified factor,
+     * using the pyramid if available.
+     * 
+     * @param f The magnification factor.
+     * @return See above.
+     */
+    private BufferedImage magnify(double f)
+    {
+        restore();
+        if (fullScaleThumb == null) return null;
+        if (pyramid != null && pyramid.isBuilt()) {
+            BufferedImage img = pyramid.getImage(f);
+            if (img != null) return img;
+        }
+        return Factory.magnifyImage(f, fullScaleThumb);
+    }
+    
+    /**
+     * Adds a border to the thumbnail magnified by the specified factor.
+     * Returns <code>null</code> if the thumbnail is not loaded.
+     * 
+     * @param f The magnification factor.
+     * @return See above.
+     */
+    private BufferedImage createIconImage(double f)
+    {
+        BufferedImage img = magnify(f);
+        if (img == null) return null;
+        BufferedImage newImg = new BufferedImage(img.getWidth()+2*BORDER, 
+                img.getHeight()+2*BORDER, img.getType());
+        Graphics g = newImg.getGraphics();
+        Graphics2D g2D = (Graphics2D) g;
+        g2D.setColor(BORDER_COLOR);
+        g2D.fillRect(0, 0, newImg.getWidth(), newImg.getHeight());
+        g2D.drawImage(img, null, BORDER, BORDER);
+        g2D.dispose();
+        return newImg;
+    }
+    
     //TODO: this duplicates code in env.data.views.calls.ThumbnailLoader,
     //but we need size b/f img is retrieved -- b/c we vis tree need to be
     //laid out.  Sort this out.
@@ -192,7 +269,86 @@ public class ThumbnailProvider
     {
     	flush();
     	fullScaleThumb = t;
-        if (fullScaleThumb != null) scale(scalingFactor);
+        if (fullScaleThumb != null) {
+            pyramid = ThumbnailPyramid.create(fullScaleThumb, this);
+            scale(scalingFactor);
+            ThumbnailsManager.account(this);
+        }
+    }
+    
+    /**
+     * Invoked on the Event Dispatching Thread when the magnified versions
+     * of the thumbnail are available.
+     * 
+     * @param p The pyramid that has been built.
+     */
+    void onPyramidBuilt(ThumbnailPyramid p)
+    {
+        if (p != pyramid || p.getSource() != fullScaleThumb) return;
+        displayThumb = null;
+        iconThumb = null;
+        ThumbnailsManager.account(this);
+        if (display != null) display.repaint();
+    }
+    
+    /**
+     * Returns <code>true</code> if the node hosting the thumbnail is
+     * visible on screen, <code>false</code> otherwise.
+     * 
+     * @return See above.
+     */
+    boolean isOnScreen()
+    {
+        if (display == null || !display.isShowing()) return false;
+        Rectangle r = display.getVisibleRect();
+        return r.width > 0 && r.height > 0;
+    }
+    
+    /**
+     * Returns the memory used by the images in bytes.
+     * 
+     * @return See above.
+     */
+    long getMemoryUsage()
+    {
+        long bytes = ThumbnailsManager.sizeOf(fullScaleThumb);
+        bytes += ThumbnailsManager.sizeOf(fullSizeImage);
+        if (pyramid != null) {
+            bytes += pyramid.getMemoryUsage();
+            if (!pyramid.isLevel(displayThumb))
+                bytes += ThumbnailsManager.sizeOf(displayThumb);
+        } else if (displayThumb != fullScaleThumb) {
+            bytes += ThumbnailsManager.sizeOf(displayThumb);
+        }
+        if (cachedThumb != null) bytes += cachedThumb.length;
+        return bytes;
+    }
+    
+    /**
+     * Releases the images. A compressed copy of the {@link #fullScaleThumb}
+     * is kept so that the images can be loaded back when required.
+     * The full size image is loaded again from the server if required and
+     * the levels of the pyramid, if any, are flushed.
+     */
+    void evict()
+    {
+        if (fullScaleThumb != null && cachedThumb == null) {
+            try {
+                cachedThumb = WriterImage.imageToByteStream(fullScaleThumb,
+                        WriterImage.PNG);
+            } catch (EncoderException e) {
+                //Cannot release the thumbnail, keep it.
+                return;
+            }
+        }
+        if (fullScaleThumb != null)
+            cachedSize = new Dimension(fullScaleThumb.getWidth(),
+                    fullScaleThumb.getHeight());
+        fullSizeImage = null;
+        displayThumb = null;
+        fullScaleThumb = null;
+        if (pyramid != null) pyramid.flush();
+        pyramid = null;
     }
     
     /**
@@ -213,7 +369,18 @@ public class ThumbnailProvider
      * Implemented as specified by the {@link Thumbnail} I/F.
      * @see Thumbnail#getDisplayedImage()
      */
-    public BufferedImage getDisplayedImage() { return displayThumb; }
+    public BufferedImage getDisplayedImage()
+    {
+        if (displayThumb != null) {
+            ThumbnailsManager.touch(this);
+            return displayThumb;
+        }
+        restore();
+        if (fullScaleThumb == null) return null;
+        displayThumb = magnify(scalingFactor);
+        ThumbnailsManager.account(this);
+        return displayThumb;
+    }
 
     /**
      * Implemented as specified by the {@link Thumbnail} I/F.
@@ -224,10 +391,17 @@ public class ThumbnailProvider
         if (f < MIN_SCALING_FACTOR || f > MAX_SCALING_FACTOR) return;
         scalingFactor = f;
         int w = (int) (originalWidth*f), h = (int) (originalHeight*f);
-        if (fullScaleThumb != null) {
-            displayThumb = Factory.magnifyImage(f, fullScaleThumb);
-            w = displayThumb.getWidth();
-            h = displayThumb.getHeight();
+        displayThumb = null;
+        //The displayed image is only computed when painted.
+        Dimension d = null;
+        if (fullScaleThumb != null)
+            d = ThumbnailPyramid.getScaledSize(fullScaleThumb, f);
+        else if (cachedSize != null)
+            d = ThumbnailPyramid.getScaledSize(cachedSize.width,
+                    cachedSize.height, f);
+        if (d != null) {
+            w = d.width;
+            h = d.height;
         }  
         if (display != null) {  //Shouldn't happen.
             display.setCanvasSize(w, h);
@@ -257,7 +431,11 @@ public class ThumbnailProvider
      * Implemented as specified by the {@link Thumbnail} I/F.
      * @see Thumbnail#getFullScaleThumb()
      */
-    public BufferedImage getFullScaleThumb() { return fullScaleThumb; }
+    public BufferedImage getFullScaleThumb()
+    {
+        restore();
+        return fullScaleThumb;
+    }
     
     /**
      * Implemented as specified by the {@link Thumbnail} I/F.
@@ -265,7 +443,7 @@ public class ThumbnailProvider
      */
     public BufferedImage getZoomedFullScaleThumb()
     {
-    	return Factory.magnifyImage(ZOOM_FACTOR, fullScaleThumb);
+    	return magnify(ZOOM_FACTOR);
     }
     
     /**
@@ -275,17 +453,9 @@ public class ThumbnailProvider
     public Icon getIcon() 
     {
         if (iconThumb != null) return iconThumb;
-        if (fullScaleThumb == null) return null;
-        BufferedImage img = Factory.magnifyImage(ICON_ZOOM, fullScaleThumb);
-        BufferedImage newImg = new BufferedImage(img.getWidth()+2*BORDER, 
-                img.getHeight()+2*BORDER, img.getType());
-        Graphics g = newImg.getGraphics();
-        Graphics2D g2D = (Graphics2D) g;
-        g2D.setColor(BORDER_COLOR);
-        g2D.fillRect(0, 0, newImg.getWidth(), newImg.getHeight());
-        g2D.drawImage(img, null, BORDER, BORDER);
-        iconThumb = new ImageIcon(newImg);
-        img.flush();
+        BufferedImage img = createIconImage(ICON_ZOOM);
+        if (img == null) return null;
+        iconThumb = new ImageIcon(img);
         return iconThumb;
     }
     
@@ -296,24 +466,19 @@ public class ThumbnailProvider
     public Icon getIcon(double magnification)
     {
     	if (magnification <= 0) magnification = ICON_ZOOM;
-    	if (fullScaleThumb == null) return null;
-        BufferedImage img = Factory.magnifyImage(magnification, fullScaleThumb);
-        BufferedImage newImg = new BufferedImage(img.getWidth()+2*BORDER, 
-                img.getHeight()+2*BORDER, img.getType());
-        Graphics g = newImg.getGraphics();
-        Graphics2D g2D = (Graphics2D) g;
-        g2D.setColor(BORDER_COLOR);
-        g2D.fillRect(0, 0, newImg.getWidth(), newImg.getHeight());
-        g2D.drawImage(img, null, BORDER, BORDER);
-        img.flush();
-        return new ImageIcon(newImg);
+        BufferedImage img = createIconImage(magnification);
+        if (img == null) return null;
+        return new ImageIcon(img);
     }
 
 	/**
 	 * Implemented as specified by the {@link Thumbnail} I/F.
 	 * @see Thumbnail#isThumbnailLoaded()
 	 */
-	public boolean isThumbnailLoaded() { return fullScaleThumb != null; }
+	public boolean isThumbnailLoaded()
+	{
+		return fullScaleThumb != null || cachedThumb != null;
+	}
 
 	/**
 	 * Implemented as specified by the {@link Thumbnail} I/F.
@@ -322,6 +487,7 @@ public class ThumbnailProvider
 	public void setFullSizeImage(BufferedImage image)
 	{ 
 		fullSizeImage = image;
+		if (fullSizeImage != null) ThumbnailsManager.account(this);
 	}
 
     /**
@@ -348,5 +514,11 @@ public class ThumbnailProvider
 		fullSizeImage = null;
 		displayThumb = null;
 		fullScaleThumb = null;
+		iconThumb = null;
+		cachedThumb = null;
+		cachedSize = null;
+		if (pyramid != null) pyramid.flush();
+		pyramid = null;
+		ThumbnailsManager.release(this);
 	}
 }
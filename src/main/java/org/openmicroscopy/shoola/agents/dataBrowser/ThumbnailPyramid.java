@@ -0,0 +1,360 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package org.openmicroscopy.shoola.agents.dataBrowser;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.LinkedList;
+
+import javax.swing.SwingUtilities;
+
+import org.openmicroscopy.shoola.agents.dataBrowser.browser.Thumbnail;
+import org.openmicroscopy.shoola.env.LookupNames;
+import org.openmicroscopy.shoola.env.config.Registry;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
+import org.openmicroscopy.shoola.util.concur.tasks.Prioritized;
+import org.openmicroscopy.shoola.util.image.geom.Factory;
+
+/**
+ * Pre-computed reduced versions of a thumbnail at the fixed scales
+ * {@link #LEVELS}, from {@link Thumbnail#MIN_SCALING_FACTOR} to the
+ * thumbnail itself. An image at an arbitrary magnification factor is
+ * derived from the nearest level that is at least as big, so only a cheap
+ * bilinear adjustment is required when the magnification changes.
+ * Magnification factors greater than <code>1</code> are derived from the
+ * thumbnail, as enlarged levels would not add any detail.
+ * <p>The levels are resampled off the Event Dispatching Thread by a single
+ * task handed to the container's {@link CmdProcessor}, which drains the
+ * queue of pending pyramids. The owner is then notified on the Event
+ * Dispatching Thread.</p>
+ *
+ * @since 5.8.5
+ */
+class ThumbnailPyramid
+{
+
+    /**
+     * The task draining the queue of pending pyramids. It runs in the
+     * background so that it doesn't compete with the loading of data.
+     */
+    private static class Builder
+        implements Runnable, Prioritized
+    {
+
+        public void run()
+        {
+            ThumbnailPyramid next;
+            while ((next = next()) != null) {
+                if (!next.tryBuild()) continue;
+                final ThumbnailPyramid built = next;
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() { built.owner.onPyramidBuilt(built); }
+                });
+            }
+        }
+
+        public int getPriority() { return BACKGROUND; }
+
+        public Object getGroup() { return ThumbnailPyramid.class; }
+
+    }
+
+    /** The fixed magnification factors of the levels, in ascending order. */
+    static final double[] LEVELS = {0.25, 0.5, 0.75, 1.0};
+
+    /** The pyramids waiting to be built. */
+    private static final LinkedList<ThumbnailPyramid> PENDING =
+            new LinkedList<ThumbnailPyramid>();
+
+    /** Flag indicating if a task is currently draining {@link #PENDING}. */
+    private static boolean draining;
+
+    /** The thumbnail the levels are computed from. */
+    private final BufferedImage source;
+
+    /** The provider to notify when the levels are available. */
+    private final ThumbnailProvider owner;
+
+    /** The levels, <code>null</code> until the pyramid is built. */
+    private volatile BufferedImage[] levels;
+
+    /**
+     * Returns the next pyramid to build or <code>null</code> if none, in
+     * which case the draining task exits.
+     *
+     * @return See above.
+     */
+    private static synchronized ThumbnailPyramid next()
+    {
+        ThumbnailPyramid p = PENDING.poll();
+        if (p == null) draining = false;
+        return p;
+    }
+
+    /**
+     * Adds the specified pyramid to the queue and starts the draining task
+     * if required. Builds the pyramid in the caller's thread if no
+     * processor is available.
+     *
+     * @param p The pyramid to build.
+     */
+    private static void enqueue(ThumbnailPyramid p)
+    {
+        CmdProcessor processor = null;
+        Registry reg = DataBrowserAgent.getRegistry();
+        if (reg != null)
+            processor = (CmdProcessor) reg.lookup(LookupNames.CMD_PROCESSOR);
+        if (processor == null) {
+            if (p.tryBuild()) p.owner.onPyramidBuilt(p);
+            return;
+        }
+        synchronized (ThumbnailPyramid.class) {
+            PENDING.add(p);
+            if (draining) return;
+            draining = true;
+        }
+        processor.exec(new Builder());
+    }
+
+    /**
+     * Returns the index of the level an image magnified by the specified
+     * factor is derived from i.e. the smallest level at least as big,
+     * or the thumbnail itself if the factor is greater than <code>1</code>.
+     *
+     * @param f The magnification factor.
+     * @return See above.
+     */
+    static int getLevelIndex(double f)
+    {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i] >= f) return i;
+        }
+        return LEVELS.length-1;
+    }
+
+    /**
+     * Returns the size of the specified image magnified by the passed
+     * factor. This is the size of the image returned by
+     * {@link Factory#magnifyImage(double, BufferedImage)}.
+     *
+     * @param img The image to magnify.
+     * @param f The magnification factor.
+     * @return See above.
+     */
+    static Dimension getScaledSize(BufferedImage img, double f)
+    {
+        return getScaledSize(img.getWidth(), img.getHeight(), f);
+    }
+
+    /**
+     * Returns the size of an image of the specified size magnified by the
+     * passed factor.
+     *
+     * @param w The width of the image to magnify.
+     * @param h The height of the image to magnify.
+     * @param f The magnification factor.
+     * @return See above.
+     */
+    static Dimension getScaledSize(int w, int h, double f)
+    {
+        AffineTransform at = new AffineTransform();
+        at.scale(f, f);
+        Rectangle bounds = new Rectangle(0, 0, w, h);
+        bounds = at.createTransformedShape(bounds).getBounds();
+        return new Dimension(bounds.width, bounds.height);
+    }
+
+    /**
+     * Creates and schedules a new pyramid for the specified thumbnail.
+     *
+     * @param source The thumbnail to compute the levels from.
+     * @param owner The provider to notify when the levels are available.
+     * @return See above.
+     */
+    static ThumbnailPyramid create(BufferedImage source,
+            ThumbnailProvider owner)
+    {
+        ThumbnailPyramid p = new ThumbnailPyramid(source, owner);
+        enqueue(p);
+        return p;
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param source The thumbnail to compute the levels from.
+     * @param owner The provider to notify when the levels are available.
+     */
+    ThumbnailPyramid(BufferedImage source, ThumbnailProvider owner)
+    {
+        this.source = source;
+        this.owner = owner;
+    }
+
+    /**
+     * Resamples the thumbnail at each level. Each level is computed from
+     * the previous bigger one so that each step reduces the size by at most
+     * a factor of two.
+     */
+    void build()
+    {
+        BufferedImage[] images = new BufferedImage[LEVELS.length];
+        int last = LEVELS.length-1;
+        images[last] = source;
+        Dimension d;
+        for (int i = last-1; i >= 0; i--) {
+            d = getScaledSize(source, LEVELS[i]);
+            images[i] = resize(images[i+1], d.width, d.height);
+        }
+        levels = images;
+    }
+
+    /**
+     * Builds the levels, logging the failure if any. The owner then keeps
+     * resampling the thumbnail on demand.
+     *
+     * @return <code>true</code> if the levels are available,
+     *         <code>false</code> otherwise.
+     */
+    boolean tryBuild()
+    {
+        try {
+            build();
+            return true;
+        } catch (Throwable e) {
+            Registry reg = DataBrowserAgent.getRegistry();
+            if (reg != null)
+                reg.getLogger().warn(this,
+                        "Cannot build the thumbnail pyramid: "+e);
+            return false;
+        }
+    }
+
+    /**
+     * Draws the specified image at the given size using a bilinear
+     * interpolation.
+     *
+     * @param img The image to resize.
+     * @param w The width of the new image.
+     * @param h The height of the new image.
+     * @return See above.
+     */
+    private BufferedImage resize(BufferedImage img, int w, int h)
+    {
+        int type = img.getType();
+        if (type == BufferedImage.TYPE_CUSTOM)
+            type = BufferedImage.TYPE_INT_ARGB;
+        BufferedImage result = new BufferedImage(Math.max(w, 1),
+                Math.max(h, 1), type);
+        Graphics2D g2 = result.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2.drawImage(img, 0, 0, result.getWidth(), result.getHeight(), null);
+        g2.dispose();
+        return result;
+    }
+
+    /**
+     * Returns the thumbnail the levels are computed from.
+     *
+     * @return See above.
+     */
+    BufferedImage getSource() { return source; }
+
+    /**
+     * Returns <code>true</code> if the levels are available,
+     * <code>false</code> otherwise.
+     *
+     * @return See above.
+     */
+    boolean isBuilt() { return levels != null; }
+
+    /**
+     * Returns the thumbnail magnified by the specified factor.
+     * The level matching the factor is returned as is, otherwise the
+     * image is derived from the nearest bigger level. Returns
+     * <code>null</code> if the pyramid is not built yet.
+     *
+     * @param f The magnification factor.
+     * @return See above.
+     */
+    BufferedImage getImage(double f)
+    {
+        BufferedImage[] images = levels;
+        if (images == null) return null;
+        BufferedImage level = images[getLevelIndex(f)];
+        Dimension d = getScaledSize(source, f);
+        if (level.getWidth() == d.width && level.getHeight() == d.height)
+            return level;
+        return resize(level, d.width, d.height);
+    }
+
+    /**
+     * Returns <code>true</code> if the specified image is one of the levels,
+     * <code>false</code> otherwise.
+     *
+     * @param img The image to check.
+     * @return See above.
+     */
+    boolean isLevel(BufferedImage img)
+    {
+        BufferedImage[] images = levels;
+        if (images == null || img == null) return false;
+        for (int i = 0; i < images.length; i++) {
+            if (images[i] == img) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the memory used by the levels in bytes, the thumbnail itself
+     * excluded.
+     *
+     * @return See above.
+     */
+    long getMemoryUsage()
+    {
+        BufferedImage[] images = levels;
+        if (images == null) return 0;
+        long bytes = 0;
+        for (int i = 0; i < images.length; i++) {
+            if (images[i] != source)
+                bytes += ThumbnailsManager.sizeOf(images[i]);
+        }
+        return bytes;
+    }
+
+    /** Releases the levels. */
+    void flush()
+    {
+        BufferedImage[] images = levels;
+        levels = null;
+        if (images == null) return;
+        for (int i = 0; i < images.length; i++) {
+            if (images[i] != source) images[i].flush();
+        }
+    }
+
+}
@@ -21,10 +21,15 @@
 package org.openmicroscopy.shoola.agents.dataBrowser;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -32,6 +37,7 @@ import org.openmicroscopy.shoola.agents.dataBrowser.browser.ImageDisplay;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.ImageNode;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.Thumbnail;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.WellImageSet;
+import org.openmicroscopy.shoola.env.config.Registry;
 
 import omero.gateway.model.ExperimenterData;
 import omero.gateway.model.ImageData;
@@ -48,6 +54,11 @@ import omero.gateway.model.ImageData;
  * {@link ImageNode} to represent the same Image in a visualization tree,
  * usually just one thumbnail is required to display all the nodes.  This
  * class enforces the sharing strategy. 
+ * <p>This class also accounts for the memory used by the images of all the
+ * {@link ThumbnailProvider}s of all the open browsers. When the budget
+ * set in the configuration file is exceeded, the images of the least
+ * recently used providers that are not on screen are evicted. Those
+ * images are loaded back from a compressed copy when required.</p>
  *
  * @author  Jean-Marie Burel &nbsp;&nbsp;&nbsp;&nbsp;
  * <a href="mailto:j.burel@dundee.ac.uk">j.burel@dundee.ac.uk</a>
@@ -59,6 +70,175 @@ import omero.gateway.model.ImageData;
 public class ThumbnailsManager
 {
 	
+	/** The entry in the configuration file for the memory budget in MB. */
+	private static final String MEMORY_BUDGET = "/views/ThumbnailsMemoryBudget";
+	
+	/** The default memory budget in MB. */
+	private static final int DEFAULT_MEMORY_BUDGET = 128;
+	
+	/** 
+	 * The fraction of the budget the memory usage is reduced to when the
+	 * budget is exceeded, so that the eviction does not run every time
+	 * an image is added.
+	 */
+	private static final double LOW_WATERMARK = 0.75;
+	
+	/** 
+	 * The memory used by each provider in bytes, in access order i.e. the
+	 * least recently used provider is first.
+	 */
+	private static final Map<ThumbnailProvider, Long> RESIDENT = 
+		new LinkedHashMap<ThumbnailProvider, Long>(16, 0.75f, true);
+	
+	/** The memory used by all the providers in bytes. */
+	private static long usedMemory;
+	
+	/** The memory budget in bytes, read from the configuration file. */
+	private static long memoryBudget = -1;
+	
+	/**
+	 * Returns the memory budget in bytes.
+	 * 
+	 * @return See above.
+	 */
+	private static long getMemoryBudget()
+	{
+		if (memoryBudget > 0) return memoryBudget;
+		int mb = DEFAULT_MEMORY_BUDGET;
+		Registry reg = DataBrowserAgent.getRegistry();
+		if (reg != null) {
+			Object value = reg.lookup(MEMORY_BUDGET);
+			if (value instanceof Integer && ((Integer) value) > 0)
+				mb = (Integer) value;
+		}
+		memoryBudget = mb*1024L*1024L;
+		return memoryBudget;
+	}
+	
+	/**
+	 * Evicts the images of the least recently used providers that are not
+	 * on screen until the memory usage is below {@link #LOW_WATERMARK} of
+	 * the budget. The entries are updated in place so that the evicted
+	 * providers keep their position in the access order.
+	 * 
+	 * @param keep The provider whose images must be kept.
+	 */
+	private static void evict(ThumbnailProvider keep)
+	{
+		long budget = getMemoryBudget();
+		if (usedMemory <= budget) return;
+		long target = (long) (budget*LOW_WATERMARK);
+		Iterator<Map.Entry<ThumbnailProvider, Long>> i =
+				RESIDENT.entrySet().iterator();
+		Map.Entry<ThumbnailProvider, Long> e;
+		ThumbnailProvider p;
+		long bytes;
+		while (i.hasNext() && usedMemory > target) {
+			e = i.next();
+			p = e.getKey();
+			if (p == keep || p.isOnScreen()) continue;
+			p.evict();
+			bytes = p.getMemoryUsage();
+			usedMemory += bytes-e.getValue();
+			if (bytes > 0) e.setValue(bytes);
+			else i.remove();
+		}
+	}
+	
+	/**
+	 * Sets the memory used by the specified provider.
+	 * 
+	 * @param p The provider.
+	 * @param bytes The memory used in bytes.
+	 */
+	private static void update(ThumbnailProvider p, long bytes)
+	{
+		Long previous = RESIDENT.remove(p);
+		if (previous != null) usedMemory -= previous;
+		if (bytes > 0) {
+			RESIDENT.put(p, bytes);
+			usedMemory += bytes;
+		}
+	}
+	
+	/**
+	 * Returns the number of bytes used by the pixels of the specified image.
+	 * If the image is a view on the pixels of a bigger image e.g. a plate
+	 * atlas, only the area of the view is counted so that the bigger image
+	 * is accounted for once across all its views.
+	 * 
+	 * @param img The image to handle.
+	 * @return See above.
+	 */
+	static long sizeOf(BufferedImage img)
+	{
+		if (img == null) return 0;
+		WritableRaster raster = img.getRaster();
+		DataBuffer buffer = raster.getDataBuffer();
+		int bits = DataBuffer.getDataTypeSize(buffer.getDataType());
+		if (raster.getParent() != null)
+			return (long) raster.getWidth()*raster.getHeight()*
+					raster.getNumDataElements()*bits/8;
+		return (long) buffer.getSize()*buffer.getNumBanks()*bits/8;
+	}
+	
+	/**
+	 * Records the memory currently used by the specified provider and marks
+	 * it as the most recently used. Evicts the images of other providers
+	 * if the budget is exceeded.
+	 * 
+	 * @param p The provider to handle.
+	 */
+	static synchronized void account(ThumbnailProvider p)
+	{
+		update(p, p.getMemoryUsage());
+		evict(p);
+	}
+	
+	/**
+	 * Marks the specified provider as the most recently used.
+	 * 
+	 * @param p The provider to handle.
+	 */
+	static synchronized void touch(ThumbnailProvider p) { RESIDENT.get(p); }
+	
+	/**
+	 * Stops accounting for the memory used by the specified provider.
+	 * 
+	 * @param p The provider to handle.
+	 */
+	static synchronized void release(ThumbnailProvider p) { update(p, 0); }
+	
+	/**
+	 * Returns the memory used by the images of all the providers in bytes.
+	 * 
+	 * @return See above.
+	 */
+	public static synchronized long getMemoryUsage() { return usedMemory; }
+	
+	/**
+	 * Returns the providers whose memory is accounted for, the least
+	 * recently used first. Used by the tests.
+	 * 
+	 * @return See above.
+	 */
+	static synchronized List<ThumbnailProvider> getResidentProviders()
+	{
+		return new ArrayList<ThumbnailProvider>(RESIDENT.keySet());
+	}
+	
+	/**
+	 * Sets the memory budget in bytes. Pass a negative value to read it
+	 * again from the configuration file. Used by the tests.
+	 * 
+	 * @param bytes The memory budget in bytes.
+	 */
+	static synchronized void setMemoryBudget(long bytes)
+	{
+		memoryBudget = bytes;
+	}
+	
+
 	/** How many different Images we have. */
     private int     			totalIDs;
     
@@ -22,10 +22,12 @@ package org.openmicroscopy.shoola.agents.dataBrowser.browser;
 
 
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import javax.swing.JComponent;
+import javax.swing.event.ChangeListener;
 
 import org.openmicroscopy.shoola.agents.dataBrowser.layout.Layout;
 import org.openmicroscopy.shoola.util.ui.component.ObservableComponent;
@@ -463,4 +465,34 @@ public interface Browser
          */
 	public void setSelectedDisplay(Point coords, boolean multiSel);
 
+	/**
+	 * Returns the area of the browser currently visible on screen,
+	 * in the coordinates of the nodes.
+	 * 
+	 * @return See above.
+	 */
+	public Rectangle getViewRect();
+	
+	/**
+	 * Registers a listener notified when the area of the browser visible
+	 * on screen changes e.g. when the user scrolls.
+	 * 
+	 * @param listener The listener to register.
+	 */
+	public void addViewportListener(ChangeListener listener);
+
+	/**
+	 * Returns the index of the names and descriptions of the nodes.
+	 * The index is built again if nodes have been added or removed since.
+	 * 
+	 * @return See above.
+	 */
+	public NameIndex getNameIndex();
+
+	/**
+	 * Discards the index of the names and descriptions of the nodes.
+	 * Invoked when the objects hosted by the nodes have been renamed.
+	 */
+	public void invalidateNameIndex();
+
 }
@@ -34,6 +34,7 @@ import java.util.Set;
 import javax.swing.JComponent;
 import javax.swing.JScrollBar;
 import javax.swing.JScrollPane;
+import javax.swing.event.ChangeListener;
 
 import org.apache.commons.collections4.CollectionUtils;
 
@@ -109,6 +110,9 @@ class BrowserModel
 	/** The collection of original images. */
 	private Set<ImageDisplay>	originalNodes;
 	
+	/** The index of the node's names, built when first required. */
+	private NameIndex			nameIndex;
+	
 	/**
 	 * Adds the children of the passed node to its internal desktop.
 	 * This method should be invoked when user switches between layout.
@@ -759,6 +763,7 @@ class BrowserModel
 	public void refresh(Collection<ImageDisplay> nodes, 
 			List<ImageDisplay> selected)
 	{
+		nameIndex = null;
 		rootDisplay.removeAllChildrenDisplay();
 		if (nodes == null) return;
 		Iterator<ImageDisplay> i = nodes.iterator();
@@ -904,4 +909,42 @@ class BrowserModel
 		}
 	}
 
+	/**
+	 * Implemented as specified by the {@link Browser} interface.
+	 * @see Browser#getViewRect()
+	 */
+	public Rectangle getViewRect()
+	{
+		JScrollPane pane = rootDisplay.getDeskDecorator();
+		return pane.getViewport().getViewRect();
+	}
+	
+	/**
+	 * Implemented as specified by the {@link Browser} interface.
+	 * @see Browser#addViewportListener(ChangeListener)
+	 */
+	public void addViewportListener(ChangeListener listener)
+	{
+		if (listener == null) return;
+		JScrollPane pane = rootDisplay.getDeskDecorator();
+		pane.getViewport().addChangeListener(listener);
+	}
+
+	/**
+	 * Implemented as specified by the {@link Browser} interface.
+	 * @see Browser#getNameIndex()
+	 */
+	public NameIndex getNameIndex()
+	{
+		if (nameIndex == null || !nameIndex.isValid())
+			nameIndex = new NameIndex(rootDisplay);
+		return nameIndex;
+	}
+
+	/**
+	 * Implemented as specified by the {@link Browser} interface.
+	 * @see Browser#invalidateNameIndex()
+	 */
+	public void invalidateNameIndex() { nameIndex = null; }
+
 }
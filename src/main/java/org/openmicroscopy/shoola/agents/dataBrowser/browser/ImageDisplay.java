@@ -132,6 +132,22 @@ public abstract class ImageDisplay
     /** The annotation count.*/
     private int count;
     
+    /**
+     * The number of changes to the nodes of the subtree rooted at this
+     * node, used to tell if the index of the names is out of date.
+     */
+    private int modifications;
+    
+    /**
+     * Records a change to the nodes of the subtree rooted at this node
+     * and of the subtrees rooted at its ancestors.
+     */
+    private void nodesChanged()
+    {
+        for (ImageDisplay n = this; n != null; n = n.parentDisplay)
+            n.modifications++;
+    }
+    
     /**
      * Returns the owner of the data object or <code>null</code>.
      * 
@@ -243,6 +259,7 @@ public abstract class ImageDisplay
         child.parentDisplay = this;
         childrenDisplay.add(child);
         ((JLayeredPane) getInternalDesktop()).add(child, Integer.valueOf(0));
+        nodesChanged();
     }
     
     /**
@@ -264,6 +281,7 @@ public abstract class ImageDisplay
             child.parentDisplay.childrenDisplay.remove(child);
             child.parentDisplay.getInternalDesktop().remove(child);
             child.parentDisplay = null;
+            nodesChanged();
         }
     }
     
@@ -291,8 +309,18 @@ public abstract class ImageDisplay
             throw new NullPointerException("No hierarchy object.");
         hierarchyObject = ho;
         setToolTipText(toString());
+        nodesChanged();
     }
     
+    /**
+     * Returns the number of changes to the nodes of the subtree rooted at
+     * this node i.e. the nodes added or removed and the hierarchy objects
+     * replaced.
+     * 
+     * @return See above.
+     */
+    int getModifications() { return modifications; }
+    
     /**
      * Returns the original object in the image hierarchy which is visualized 
      * by this node.
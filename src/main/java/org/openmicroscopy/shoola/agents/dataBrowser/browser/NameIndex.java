@@ -0,0 +1,534 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package org.openmicroscopy.shoola.agents.dataBrowser.browser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import omero.gateway.model.DatasetData;
+import omero.gateway.model.ImageData;
+import omero.gateway.model.PlateData;
+import omero.gateway.model.ProjectData;
+import omero.gateway.model.ScreenData;
+
+/**
+ * Index of the names and descriptions of the nodes of a browser, used to
+ * determine the few nodes which may match a search pattern instead of
+ * visiting every node.
+ * <p>For the names and for the descriptions, the index keeps the lower case
+ * values, the positions of the nodes sorted by value to answer the
+ * patterns anchored at the beginning, and for each trigram the sorted
+ * positions of the nodes containing it. The literals which must be part
+ * of any match are extracted from the pattern and only the nodes
+ * containing all of them are returned. The candidates still have to be
+ * checked against the pattern.</p>
+ *
+ * @since 5.8.5
+ */
+public class NameIndex
+{
+
+	/** The minimum length of a literal to look up the trigrams. */
+	private static final int GRAM = 3;
+
+	/**
+	 * The escaped letters matching a class of characters or a boundary.
+	 * Any other escaped letter or digit, e.g. a back reference or a
+	 * character written in hexadecimal, is not handled.
+	 */
+	private static final String CLASS_ESCAPES = "dDwWsSbBhHvVRXAzZGpP";
+
+	/** Finds an inline flag turning the comments mode on. */
+	private static final Pattern INLINE_COMMENTS =
+			Pattern.compile("\\(\\?[a-zA-Z-]*x");
+
+	/** The root of the indexed nodes. */
+	private final ImageDisplay root;
+
+	/** The number of changes to the nodes when the index was built. */
+	private final int modifications;
+
+	/** The indexed nodes, in the order they are visited. */
+	private final ImageDisplay[] nodes;
+
+	/** The index of the names. */
+	private final Field names;
+
+	/** The index of the descriptions. */
+	private final Field descriptions;
+
+	/**
+	 * The literals extracted from a pattern. Each literal has to be found
+	 * in the text matching the pattern.
+	 */
+	private static class Query
+	{
+
+		/** The literal the text has to start with or <code>null</code>. */
+		private String prefix;
+
+		/** The literals the text has to contain. */
+		private final List<String> literals = new ArrayList<String>();
+
+	}
+
+	/** Collects the sorted positions of the nodes containing a trigram. */
+	private static class Postings
+	{
+
+		/** The positions. */
+		private int[] positions = new int[4];
+
+		/** The number of positions. */
+		private int size;
+
+		/**
+		 * Adds the specified position if not already added. The positions
+		 * are added in ascending order.
+		 *
+		 * @param position The position to add.
+		 */
+		private void add(int position)
+		{
+			if (size > 0 && positions[size-1] == position) return;
+			if (size == positions.length)
+				positions = Arrays.copyOf(positions, size*2);
+			positions[size++] = position;
+		}
+
+		/**
+		 * Returns the positions.
+		 *
+		 * @return See above.
+		 */
+		private int[] toArray() { return Arrays.copyOf(positions, size); }
+
+	}
+
+	/** The index of one of the text fields of the nodes. */
+	private static class Field
+	{
+
+		/** The trimmed values in lower case. */
+		private final String[] text;
+
+		/** The positions of the nodes with a value, sorted by value. */
+		private final int[] sorted;
+
+		/** The sorted positions of the nodes for each trigram. */
+		private final Map<Long, int[]> grams;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param values The values to index.
+		 */
+		private Field(String[] values)
+		{
+			int n = values.length;
+			text = new String[n];
+			List<Integer> l = new ArrayList<Integer>();
+			Map<Long, Postings> m = new HashMap<Long, Postings>();
+			String value;
+			Postings p;
+			long key;
+			for (int i = 0; i < n; i++) {
+				if (values[i] == null) continue;
+				value = toLowerCase(values[i].trim());
+				text[i] = value;
+				l.add(i);
+				for (int j = 0; j+GRAM <= value.length(); j++) {
+					key = gram(value, j);
+					p = m.get(key);
+					if (p == null) {
+						p = new Postings();
+						m.put(key, p);
+					}
+					p.add(i);
+				}
+			}
+			Integer[] order = l.toArray(new Integer[l.size()]);
+			Arrays.sort(order, new Comparator<Integer>() {
+				public int compare(Integer o1, Integer o2) {
+					return text[o1].compareTo(text[o2]);
+				}
+			});
+			sorted = new int[order.length];
+			for (int i = 0; i < order.length; i++)
+				sorted[i] = order[i];
+			grams = new HashMap<Long, int[]>(m.size());
+			Iterator<Map.Entry<Long, Postings>> i = m.entrySet().iterator();
+			Map.Entry<Long, Postings> e;
+			while (i.hasNext()) {
+				e = i.next();
+				grams.put(e.getKey(), e.getValue().toArray());
+			}
+		}
+
+		/**
+		 * Returns the positions of the nodes whose value starts with the
+		 * specified prefix.
+		 *
+		 * @param prefix The prefix in lower case.
+		 * @return See above.
+		 */
+		private BitSet startsWith(String prefix)
+		{
+			int low = 0;
+			int high = sorted.length;
+			int mid;
+			while (low < high) {
+				mid = (low+high) >>> 1;
+				if (text[sorted[mid]].compareTo(prefix) < 0) low = mid+1;
+				else high = mid;
+			}
+			BitSet result = new BitSet(text.length);
+			for (int i = low; i < sorted.length; i++) {
+				if (!text[sorted[i]].startsWith(prefix)) break;
+				result.set(sorted[i]);
+			}
+			return result;
+		}
+
+		/**
+		 * Returns the positions of the nodes whose value contains all the
+		 * trigrams of the specified literal.
+		 *
+		 * @param literal The literal in lower case, at least
+		 *                {@link NameIndex#GRAM} characters long.
+		 * @return See above.
+		 */
+		private BitSet contains(String literal)
+		{
+			int[] found = null;
+			int[] positions;
+			for (int j = 0; j+GRAM <= literal.length(); j++) {
+				positions = grams.get(gram(literal, j));
+				if (positions == null) return new BitSet();
+				found = found == null ? positions : intersect(found, positions);
+				if (found.length == 0) break;
+			}
+			BitSet result = new BitSet(text.length);
+			for (int i = 0; i < found.length; i++)
+				result.set(found[i]);
+			return result;
+		}
+
+		/**
+		 * Returns the positions of the nodes whose value may match the
+		 * specified query.
+		 *
+		 * @param query The query.
+		 * @return See above.
+		 */
+		private BitSet find(Query query)
+		{
+			BitSet result = null;
+			if (query.prefix != null) result = startsWith(query.prefix);
+			Iterator<String> i = query.literals.iterator();
+			String literal;
+			while (i.hasNext()) {
+				literal = i.next();
+				if (literal.length() < GRAM) continue;
+				if (result == null) result = contains(literal);
+				else result.and(contains(literal));
+			}
+			if (result == null) {
+				result = new BitSet(text.length);
+				for (int j = 0; j < sorted.length; j++)
+					result.set(sorted[j]);
+			}
+			return result;
+		}
+
+	}
+
+	/**
+	 * Returns the trigram starting at the specified index, encoded as a
+	 * long.
+	 *
+	 * @param value The value to handle.
+	 * @param index The index of the first character.
+	 * @return See above.
+	 */
+	private static long gram(String value, int index)
+	{
+		return ((long) value.charAt(index) << 32) |
+				((long) value.charAt(index+1) << 16) | value.charAt(index+2);
+	}
+
+	/**
+	 * Converts each character to lower case so that the length of the
+	 * string is preserved.
+	 *
+	 * @param value The value to convert.
+	 * @return See above.
+	 */
+	private static String toLowerCase(String value)
+	{
+		char[] chars = value.toCharArray();
+		for (int i = 0; i < chars.length; i++)
+			chars[i] = Character.toLowerCase(chars[i]);
+		return new String(chars);
+	}
+
+	/**
+	 * Returns the intersection of the specified sorted arrays.
+	 *
+	 * @param a The first array.
+	 * @param b The second array.
+	 * @return See above.
+	 */
+	private static int[] intersect(int[] a, int[] b)
+	{
+		int[] result = new int[Math.min(a.length, b.length)];
+		int i = 0, j = 0, n = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) i++;
+			else if (a[i] > b[j]) j++;
+			else {
+				result[n++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, n);
+	}
+
+	/**
+	 * Returns the index of the character closing the group or the class
+	 * opened at the specified index, or <code>-1</code>.
+	 *
+	 * @param regex The regular expression.
+	 * @param index The index of the opening character.
+	 * @return See above.
+	 */
+	private static int skip(String regex, int index)
+	{
+		char open = regex.charAt(index);
+		char close = open == '(' ? ')' : (open == '[' ? ']' : '}');
+		int depth = 0;
+		char c;
+		for (int i = index; i < regex.length(); i++) {
+			c = regex.charAt(i);
+			if (c == '\\') i++;
+			else if (c == open) depth++;
+			else if (c == close && --depth == 0) return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Extracts the literals which have to be part of any text matching the
+	 * specified pattern. Returns <code>null</code> if they cannot be
+	 * determined e.g. the pattern contains an alternation or an escape
+	 * sequence other than an escaped symbol or a class of characters.
+	 *
+	 * @param pattern The pattern to handle.
+	 * @return See above.
+	 */
+	private static Query parse(Pattern pattern)
+	{
+		int flags = pattern.flags();
+		String regex = pattern.pattern();
+		Query query = new Query();
+		if ((flags & Pattern.LITERAL) != 0) {
+			query.literals.add(toLowerCase(regex));
+			return query;
+		}
+		if ((flags & Pattern.COMMENTS) != 0 ||
+				INLINE_COMMENTS.matcher(regex).find()) return null;
+		boolean anchored = regex.startsWith("^") &&
+				(flags & Pattern.MULTILINE) == 0;
+		boolean start = anchored;
+		StringBuilder literal = new StringBuilder();
+		int i = anchored ? 1 : 0;
+		int end;
+		char c;
+		while (i <= regex.length()) {
+			c = i < regex.length() ? regex.charAt(i) : 0;
+			if (i < regex.length() && c == '\\' && i+1 < regex.length() &&
+					!Character.isLetterOrDigit(regex.charAt(i+1))) {
+				literal.append(Character.toLowerCase(regex.charAt(i+1)));
+				i += 2;
+				continue;
+			}
+			if (i < regex.length() && c != '\\' && ".^$|()[]{}*+?".indexOf(c) < 0) {
+				literal.append(Character.toLowerCase(c));
+				i++;
+				continue;
+			}
+			if (c == '|') return null;
+			//The quantified character is optional.
+			if ((c == '*' || c == '?' || c == '{') && literal.length() > 0)
+				literal.setLength(literal.length()-1);
+			if (literal.length() > 0) {
+				if (start) query.prefix = literal.toString();
+				query.literals.add(literal.toString());
+				literal.setLength(0);
+			}
+			start = false;
+			if (i == regex.length()) break;
+			if (c == '(' || c == '[' || c == '{') {
+				end = skip(regex, i);
+				if (end < 0) return null;
+				i = end+1;
+			} else if (c == '\\') {
+				if (CLASS_ESCAPES.indexOf(regex.charAt(i+1)) < 0) return null;
+				i += 2;
+			} else i++;
+		}
+		return query;
+	}
+
+	/**
+	 * Returns the positions of the specified values which may match the
+	 * pattern, as {@link #getCandidates(Pattern)} does for the names and
+	 * the descriptions of the nodes.
+	 *
+	 * @param values The trimmed values.
+	 * @param pattern The pattern to find.
+	 * @return See above.
+	 */
+	static BitSet getCandidates(String[] values, Pattern pattern)
+	{
+		Query query = parse(pattern);
+		if (query != null) return new Field(values).find(query);
+		BitSet result = new BitSet(values.length);
+		result.set(0, values.length);
+		return result;
+	}
+
+	/**
+	 * Returns the name of the specified object.
+	 *
+	 * @param userObject The object hosted by a node.
+	 * @return See above.
+	 */
+	public static String getName(Object userObject)
+	{
+		if (userObject instanceof ProjectData)
+			return ((ProjectData) userObject).getName();
+		else if (userObject instanceof DatasetData)
+			return ((DatasetData) userObject).getName();
+		else if (userObject instanceof ImageData)
+			return ((ImageData) userObject).getName();
+		else if (userObject instanceof ScreenData)
+			return ((ScreenData) userObject).getName();
+		else if (userObject instanceof PlateData)
+			return ((PlateData) userObject).getName();
+		return null;
+	}
+
+	/**
+	 * Returns the description of the specified object.
+	 *
+	 * @param userObject The object hosted by a node.
+	 * @return See above.
+	 */
+	public static String getDescription(Object userObject)
+	{
+		if (userObject instanceof ProjectData)
+			return ((ProjectData) userObject).getDescription();
+		else if (userObject instanceof DatasetData)
+			return ((DatasetData) userObject).getDescription();
+		else if (userObject instanceof ImageData)
+			return ((ImageData) userObject).getDescription();
+		else if (userObject instanceof ScreenData)
+			return ((ScreenData) userObject).getDescription();
+		else if (userObject instanceof PlateData)
+			return ((PlateData) userObject).getDescription();
+		return null;
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param root The root of the nodes to index.
+	 *             Mustn't be <code>null</code>.
+	 */
+	public NameIndex(ImageDisplay root)
+	{
+		if (root == null)
+			throw new IllegalArgumentException("No nodes to index.");
+		this.root = root;
+		modifications = root.getModifications();
+		final List<ImageDisplay> l = new ArrayList<ImageDisplay>();
+		root.accept(new ImageDisplayVisitor() {
+			public void visit(ImageNode node) { l.add(node); }
+			public void visit(ImageSet node) { l.add(node); }
+		}, ImageDisplayVisitor.ALL_NODES);
+		nodes = l.toArray(new ImageDisplay[l.size()]);
+		String[] n = new String[nodes.length];
+		String[] d = new String[nodes.length];
+		Object ho;
+		for (int i = 0; i < nodes.length; i++) {
+			ho = nodes[i].getHierarchyObject();
+			n[i] = getName(ho);
+			d[i] = getDescription(ho);
+		}
+		names = new Field(n);
+		descriptions = new Field(d);
+	}
+
+	/**
+	 * Returns <code>true</code> if no node has been added or removed and
+	 * no hierarchy object replaced since the index was built,
+	 * <code>false</code> otherwise. The objects renamed in place are not
+	 * detected, the index has to be discarded by the browser instead.
+	 *
+	 * @return See above.
+	 */
+	public boolean isValid()
+	{
+		return root.getModifications() == modifications;
+	}
+
+	/**
+	 * Returns the nodes whose name or description may match the specified
+	 * pattern, in the order they are visited.
+	 *
+	 * @param pattern The pattern to find.
+	 * @return See above.
+	 */
+	public List<ImageDisplay> getCandidates(Pattern pattern)
+	{
+		List<ImageDisplay> result = new ArrayList<ImageDisplay>();
+		Query query = pattern == null ? null : parse(pattern);
+		if (query == null) {
+			result.addAll(Arrays.asList(nodes));
+			return result;
+		}
+		BitSet found = names.find(query);
+		found.or(descriptions.find(query));
+		for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i+1))
+			result.add(nodes[i]);
+		return result;
+	}
+
+}
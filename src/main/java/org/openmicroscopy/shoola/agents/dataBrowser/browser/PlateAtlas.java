@@ -0,0 +1,214 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package org.openmicroscopy.shoola.agents.dataBrowser.browser;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.WritableRaster;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hosts the thumbnails of one field for all the wells of a plate.
+ * Each well occupies a cell of the atlas, located by its row and column,
+ * and the thumbnail of a well is a view on the pixels of the atlas so that
+ * no image is allocated per well.
+ * <p>The wells are grouped in square tiles of {@link #TILE_SIZE} wells.
+ * The thumbnails are requested one tile at a time, only for the tiles
+ * displayed on screen, and the pixels are allocated per tile.
+ * A tile is only weakly referenced by the atlas: its pixels are kept by the
+ * views of its wells and are released once all those views have been
+ * evicted by the <code>ThumbnailsManager</code>, which accounts for the
+ * area of each view.</p>
+ *
+ * @since 5.8.5
+ */
+public class PlateAtlas
+{
+
+	/** The number of wells along each side of a tile. */
+	public static final int TILE_SIZE = 8;
+
+	/** The number of rows of the plate. */
+	private final int rows;
+
+	/** The number of columns of the plate. */
+	private final int columns;
+
+	/** The width of a cell. */
+	private final int cellWidth;
+
+	/** The height of a cell. */
+	private final int cellHeight;
+
+	/** The number of tiles per row. */
+	private final int tileColumns;
+
+	/** The indexes of the tiles whose thumbnails have been requested. */
+	private final Set<Integer> requestedTiles;
+
+	/** The pixels of the tiles, created when first required. */
+	private final Map<Integer, WeakReference<WritableRaster>> tiles;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param rows The number of rows of the plate.
+	 * @param columns The number of columns of the plate.
+	 * @param cellWidth The width of a cell.
+	 * @param cellHeight The height of a cell.
+	 */
+	public PlateAtlas(int rows, int columns, int cellWidth, int cellHeight)
+	{
+		if (rows <= 0 || columns <= 0)
+			throw new IllegalArgumentException("No wells.");
+		if (cellWidth <= 0 || cellHeight <= 0)
+			throw new IllegalArgumentException("Cell size not valid.");
+		this.rows = rows;
+		this.columns = columns;
+		this.cellWidth = cellWidth;
+		this.cellHeight = cellHeight;
+		tileColumns = (columns+TILE_SIZE-1)/TILE_SIZE;
+		requestedTiles = new HashSet<Integer>();
+		tiles = new HashMap<Integer, WeakReference<WritableRaster>>();
+	}
+
+	/**
+	 * Returns the image hosting the thumbnails of the specified tile,
+	 * creating its pixels if they have been released.
+	 *
+	 * @param index The index of the tile.
+	 * @return See above.
+	 */
+	private BufferedImage getTile(int index)
+	{
+		ColorModel cm = ColorModel.getRGBdefault();
+		WeakReference<WritableRaster> ref = tiles.get(index);
+		WritableRaster raster = ref == null ? null : ref.get();
+		if (raster == null) {
+			int column = (index%tileColumns)*TILE_SIZE;
+			int row = (index/tileColumns)*TILE_SIZE;
+			int w = Math.min(TILE_SIZE, columns-column)*cellWidth;
+			int h = Math.min(TILE_SIZE, rows-row)*cellHeight;
+			raster = cm.createCompatibleWritableRaster(w, h);
+			tiles.put(index, new WeakReference<WritableRaster>(raster));
+		}
+		return new BufferedImage(cm, raster, false, null);
+	}
+
+	/**
+	 * Returns the index of the tile hosting the specified well.
+	 *
+	 * @param row The row of the well.
+	 * @param column The column of the well.
+	 * @return See above.
+	 */
+	public int getTileIndex(int row, int column)
+	{
+		return (row/TILE_SIZE)*tileColumns+column/TILE_SIZE;
+	}
+
+	/**
+	 * Returns <code>true</code> if the thumbnails of the specified tile
+	 * have been requested, <code>false</code> otherwise.
+	 *
+	 * @param index The index of the tile.
+	 * @return See above.
+	 */
+	public boolean isTileRequested(int index)
+	{
+		return requestedTiles.contains(index);
+	}
+
+	/**
+	 * Marks the thumbnails of the specified tile as requested.
+	 *
+	 * @param index The index of the tile.
+	 */
+	public void setTileRequested(int index) { requestedTiles.add(index); }
+
+	/**
+	 * Marks the thumbnails of the specified tile as to be requested again.
+	 *
+	 * @param index The index of the tile.
+	 */
+	public void resetTile(int index) { requestedTiles.remove(index); }
+
+	/** Marks the thumbnails of all the tiles as to be requested again. */
+	public void reset() { requestedTiles.clear(); }
+
+	/**
+	 * Copies the specified thumbnail into the cell of the passed well and
+	 * returns the view on the cell. The thumbnail is returned unchanged if
+	 * it does not fit in a cell or if the well is not on the plate.
+	 *
+	 * @param row The row of the well.
+	 * @param column The column of the well.
+	 * @param thumb The thumbnail to copy.
+	 * @return See above.
+	 */
+	public BufferedImage setThumbnail(int row, int column, BufferedImage thumb)
+	{
+		if (thumb == null) return null;
+		if (row < 0 || row >= rows || column < 0 || column >= columns)
+			return thumb;
+		int w = thumb.getWidth();
+		int h = thumb.getHeight();
+		if (w > cellWidth || h > cellHeight) return thumb;
+		BufferedImage image = getTile(getTileIndex(row, column));
+		int x = (column%TILE_SIZE)*cellWidth;
+		int y = (row%TILE_SIZE)*cellHeight;
+		Graphics2D g2 = image.createGraphics();
+		g2.setComposite(AlphaComposite.Clear);
+		g2.fillRect(x, y, cellWidth, cellHeight);
+		g2.setComposite(AlphaComposite.Src);
+		g2.drawImage(thumb, x, y, null);
+		g2.dispose();
+		return image.getSubimage(x, y, w, h);
+	}
+
+	/**
+	 * Returns the number of tiles whose pixels are still allocated.
+	 *
+	 * @return See above.
+	 */
+	public int getAllocatedTiles()
+	{
+		int n = 0;
+		for (WeakReference<WritableRaster> ref : tiles.values()) {
+			if (ref.get() != null) n++;
+		}
+		return n;
+	}
+
+	/** Releases the tiles. */
+	public void flush()
+	{
+		tiles.clear();
+		requestedTiles.clear();
+	}
+
+}
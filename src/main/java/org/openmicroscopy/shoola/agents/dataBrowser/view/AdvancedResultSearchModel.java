@@ -24,9 +24,11 @@ import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.openmicroscopy.shoola.agents.dataBrowser.DataBrowserLoader;
 import org.openmicroscopy.shoola.agents.dataBrowser.SearchThumbnailLoader;
@@ -58,8 +60,11 @@ import omero.gateway.model.ScreenData;
  */
 public class AdvancedResultSearchModel extends DataBrowserModel {
 
-    /** Maximum number of thumbnails to load */
-    private static final int MAX_THUMBS = 100;
+    /**
+     * Number of thumbnails loaded when the results are first displayed, the
+     * others are loaded as the rows become visible.
+     */
+    private static final int INITIAL_THUMBS = 20;
 
     /** Holds all the ImageDisplays */
     private List<ImageDisplay> displays = new ArrayList<ImageDisplay>();
@@ -72,6 +77,12 @@ public class AdvancedResultSearchModel extends DataBrowserModel {
 
     /** Reference to the search results */
     private SearchResultCollection results;
+
+    /** The images found, by identifier */
+    private Map<Long, ImageData> images = new HashMap<Long, ImageData>();
+
+    /** The identifiers of the images whose thumbnails have been requested */
+    private Set<Long> requested = new HashSet<Long>();
     
     /**
      * Creates a new instance.
@@ -86,27 +97,57 @@ public class AdvancedResultSearchModel extends DataBrowserModel {
             throw new IllegalArgumentException("No results.");
         
         this.results = results;
+        displays.addAll(createDisplays(results));
+        browser = BrowserFactory.createBrowser(displays);
+    }
 
-        displays.addAll(createDisplays(results.getDataObjects(-1,
+    /**
+     * Creates the {@link ImageDisplay}s for the given results, grouped by
+     * type.
+     * 
+     * @param results The results to handle.
+     * @return See above.
+     */
+    private List<ImageDisplay> createDisplays(SearchResultCollection results) {
+        List<ImageDisplay> result = new ArrayList<ImageDisplay>();
+        result.addAll(createDisplays(results.getDataObjects(-1,
                 ProjectData.class)));
         
-        displays.addAll(createDisplays(results.getDataObjects(-1,
+        result.addAll(createDisplays(results.getDataObjects(-1,
                 ScreenData.class)));
         
-        displays.addAll(createDisplays(results.getDataObjects(-1,
+        result.addAll(createDisplays(results.getDataObjects(-1,
                 DatasetData.class)));
 
-        displays.addAll(createDisplays(results.getDataObjects(-1,
+        result.addAll(createDisplays(results.getDataObjects(-1,
                 PlateData.class)));
         
-        displays.addAll(createDisplays(results.getDataObjects(-1,
+        result.addAll(createDisplays(results.getDataObjects(-1,
                 PlateAcquisitionData.class)));
         
-        List<DataObject> imgs = results.getDataObjects(-1, ImageData.class);
-        List<ImageDisplay> imgNodes = createDisplays(imgs);
-        displays.addAll(imgNodes);
+        result.addAll(createDisplays(results.getDataObjects(-1,
+                ImageData.class)));
+        return result;
+    }
 
-        browser = BrowserFactory.createBrowser(displays);
+    /**
+     * Adds a page of results to the ones already displayed.
+     * 
+     * @param page The results to add.
+     */
+    void addResults(SearchResultCollection page) {
+        if (page == null || page.isEmpty())
+            return;
+        results.addAll(page);
+        List<ImageDisplay> nodes = createDisplays(page);
+        displays.addAll(nodes);
+        if (searchResultView == null)
+            return;
+        List<DataObject> objs = new ArrayList<DataObject>(nodes.size());
+        for (ImageDisplay d : nodes) {
+            objs.add((DataObject) d.getHierarchyObject());
+        }
+        searchResultView.addObjects(objs);
     }
 
     /**
@@ -132,6 +173,7 @@ public class AdvancedResultSearchModel extends DataBrowserModel {
 
             if (dataObj instanceof ImageData) {
                 d = new ImageNode("", dataObj, null);
+                images.put(dataObj.getId(), (ImageData) dataObj);
             } else if (dataObj instanceof ProjectData
                     || dataObj instanceof DatasetData
                     || dataObj instanceof ScreenData
@@ -149,31 +191,34 @@ public class AdvancedResultSearchModel extends DataBrowserModel {
 
     @Override
     void loadData(boolean refresh, Collection ids) {
-        loadThumbs();
+        List<ImageData> imgs = new ArrayList<ImageData>();
+        for (ImageDisplay d : displays) {
+            if (imgs.size() >= INITIAL_THUMBS)
+                break;
+            if (d.getHierarchyObject() instanceof ImageData)
+                imgs.add((ImageData) d.getHierarchyObject());
+        }
+        loadThumbs(imgs);
     }
 
     /**
-     * Starts a loader for each group to load the thumbnails
+     * Starts a loader for each group to load the thumbnails of the passed
+     * images which have not been requested yet.
+     * 
+     * @param imgs The images to handle.
      */
-    private void loadThumbs() {
-
-        int count = 0;
+    void loadThumbs(Collection<ImageData> imgs) {
         Map<Long, List<ImageData>> map = new HashMap<Long, List<ImageData>>();
-        for (ImageDisplay d : displays) {
-            DataObject obj = (DataObject) d.getHierarchyObject();
-            if (!(obj instanceof ImageData))
+        for (ImageData obj : imgs) {
+            if (!requested.add(obj.getId()))
                 continue;
 
-            if (count >= MAX_THUMBS)
-                break;
-
             List<ImageData> objs = map.get(obj.getGroupId());
             if (objs == null) {
                 objs = new ArrayList<ImageData>();
                 map.put(obj.getGroupId(), objs);
             }
-            objs.add((ImageData) obj);
-            count++;
+            objs.add(obj);
         }
 
         for (Entry<Long, List<ImageData>> e : map.entrySet()) {
@@ -217,16 +262,12 @@ public class AdvancedResultSearchModel extends DataBrowserModel {
      * @param img
      */
     public void setThumbnail(long imgId, BufferedImage img) {
-        for (ImageDisplay d : displays) {
-            if (d.getHierarchyObject() instanceof ImageData
-                    && ((ImageData) d.getHierarchyObject()).getId() == imgId) {
-                ImageData refObj = (ImageData) d.getHierarchyObject();
-                ThumbnailProvider thumb = new ThumbnailProvider(refObj);
-                thumb.setFullScaleThumb(img);
-                thumbs.put(refObj, thumb);
-                break;
-            }
-        }
+        ImageData refObj = images.get(imgId);
+        if (refObj == null)
+            return;
+        ThumbnailProvider thumb = new ThumbnailProvider(refObj);
+        thumb.setFullScaleThumb(img);
+        thumbs.put(refObj, thumb);
     }
 
     /**
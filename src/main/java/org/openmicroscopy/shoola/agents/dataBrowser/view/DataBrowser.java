@@ -29,6 +29,7 @@ import java.util.Map;
 
 import javax.swing.JComponent;
 
+import org.openmicroscopy.shoola.agents.dataBrowser.AnnotationIndex;
 import org.openmicroscopy.shoola.agents.dataBrowser.RateFilter;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.Browser;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.CellDisplay;
@@ -47,6 +48,7 @@ import org.openmicroscopy.shoola.util.ui.component.ObservableComponent;
 
 import omero.gateway.model.DataObject;
 import omero.gateway.model.ExperimenterData;
+import omero.gateway.model.SearchResultCollection;
 
 
 /** 
@@ -316,6 +318,17 @@ public interface DataBrowser
     public void setThumbnail(Object ref, BufferedImage thumb, boolean valid, 
     		int maxEntries);
     
+    /**
+     * Call-back used by a data loader to set a batch of thumbnails
+     * retrieved since the last notification. The status is refreshed once
+     * for the whole batch.
+     * 
+     * @param thumbnails The thumbnails to set.
+     * @param maxEntries The number of thumbnails to load.
+     * @see org.openmicroscopy.shoola.agents.dataBrowser.ThumbnailLoader
+     */
+    public void setThumbnails(List<ThumbnailData> thumbnails, int maxEntries);
+    
     /**
      * Call-back used by data loaders to provide the viewer with feedback about
      * the data retrieval.
@@ -415,6 +428,14 @@ public interface DataBrowser
 	 */
 	public void setFilteredNodes(List<DataObject> objects, List<String> names);
 
+	/**
+	 * Indicates that the annotations of some nodes have been added to the
+	 * passed index. Applies the filter waiting for the index if any.
+	 * 
+	 * @param index The updated index.
+	 */
+	public void onAnnotationsIndexed(AnnotationIndex index);
+
 	/**
 	 * Filters the images.
 	 * 
@@ -567,6 +588,13 @@ public interface DataBrowser
 	 */
 	public void reloadThumbnails(Collection ids);
 
+	/**
+	 * Adds a page of results to the ones displayed by the search browser.
+	 * 
+	 * @param results The results to add.
+	 */
+	public void addSearchResult(SearchResultCollection results);
+
 	/** Sets the original rendering settings. */
 	public void setOriginalSettings();
 
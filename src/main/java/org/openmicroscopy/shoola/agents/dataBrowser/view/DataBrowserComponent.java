@@ -36,8 +36,11 @@ import java.util.regex.PatternSyntaxException;
 
 import javax.swing.Icon;
 import javax.swing.JComponent;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.openmicroscopy.shoola.agents.dataBrowser.AnnotationIndex;
 import org.openmicroscopy.shoola.agents.dataBrowser.DataBrowserAgent;
 import org.openmicroscopy.shoola.agents.dataBrowser.IconManager;
 import org.openmicroscopy.shoola.agents.dataBrowser.ThumbnailProvider;
@@ -84,6 +87,7 @@ import omero.gateway.model.DatasetData;
 import omero.gateway.model.ExperimenterData;
 import omero.gateway.model.GroupData;
 import omero.gateway.model.ImageData;
+import omero.gateway.model.SearchResultCollection;
 import omero.gateway.model.TagAnnotationData;
 import omero.gateway.model.TextualAnnotationData;
 import omero.gateway.model.WellData;
@@ -181,6 +185,7 @@ class DataBrowserComponent
 		model.getBrowser().accept(visitor);
 		List<ImageDisplay> nodes = visitor.getFoundNodes();
 		if (nodes == null || nodes.size() == 0) return;
+		model.invalidateAnnotations(containers);
 		Iterator<ImageDisplay> i = nodes.iterator();
 		while (i.hasNext()) {
 			i.next().setAnnotationCount(count);
@@ -235,6 +240,14 @@ class DataBrowserComponent
 	    	ResetNodesVisitor visitor = new ResetNodesVisitor(null, false);
 	    	browser.accept(visitor, ImageDisplayVisitor.IMAGE_SET_ONLY);
 	    	browser.addPropertyChangeListener(controller);
+	    	if (model instanceof WellsModel) {
+	    		//Load the thumbnails of the wells as they are displayed.
+	    		browser.addViewportListener(new ChangeListener() {
+					public void stateChanged(ChangeEvent e) {
+						((WellsModel) model).loadVisibleWells();
+					}
+				});
+	    	}
 		}
 		fireStateChange();
 	}
@@ -289,6 +302,26 @@ class DataBrowserComponent
 		if (previousState != model.getState()) fireStateChange();
 	}
 
+	/**
+	 * Implemented as specified by the {@link DataBrowser} interface.
+	 * @see DataBrowser#setThumbnails(List, int)
+	 */
+	public void setThumbnails(List<ThumbnailData> thumbnails, int maxEntries)
+	{
+		if (CollectionUtils.isEmpty(thumbnails)) return;
+		int previousState = model.getState();
+		int perc = 0;
+		Object ref;
+		for (ThumbnailData td : thumbnails) {
+			ref = td.getRefObject();
+			if (ref == null) ref = td.getImageID();
+			perc = model.setThumbnail(ref, td.getThumbnail(), td.isValidImage(),
+					maxEntries);
+		}
+		view.setStatus((perc == 100) ? "Done" : "", perc == 100, perc);
+		if (previousState != model.getState()) fireStateChange();
+	}
+
 	/**
 	 * Implemented as specified by the {@link DataBrowser} interface.
 	 * @see DataBrowser#setSelectedDisplays(List)
@@ -561,7 +594,7 @@ class DataBrowserComponent
         }
 		//view.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
 		RegexFinder finder = new RegexFinder(pattern);
-		browser.accept(finder);
+		finder.analyse(browser.getNameIndex());
 		List<ImageDisplay> nodes = finder.getFoundNodes();
 		browser.setFilterNodes(nodes);
 		view.layoutUI();
@@ -632,6 +665,16 @@ class DataBrowserComponent
 		fireStateChange();
 	}
 
+	/**
+	 * Implemented as specified by the {@link DataBrowser} interface.
+	 * @see DataBrowser#onAnnotationsIndexed(AnnotationIndex)
+	 */
+	public void onAnnotationsIndexed(AnnotationIndex index)
+	{
+		if (model.getState() == DISCARDED) return;
+		model.onAnnotationsIndexed(index);
+	}
+
 	/**
 	 * Implemented as specified by the {@link DataBrowser} interface.
 	 * @see DataBrowser#filterByContext(FilterContext)
@@ -1072,6 +1115,17 @@ class DataBrowserComponent
 		fireStateChange();
 	}
 
+	/**
+	 * Implemented as specified by the {@link DataBrowser} interface.
+	 * @see DataBrowser#addSearchResult(SearchResultCollection)
+	 */
+	public void addSearchResult(SearchResultCollection results)
+	{
+		if (model.getState() == DISCARDED) return;
+		if (!(model instanceof AdvancedResultSearchModel)) return;
+		((AdvancedResultSearchModel) model).addResults(results);
+	}
+
 	/**
 	 * Implemented as specified by the {@link DataBrowser} interface.
 	 * @see DataBrowser#setOriginalSettings()
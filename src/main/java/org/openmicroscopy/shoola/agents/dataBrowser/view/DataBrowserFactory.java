@@ -34,6 +34,7 @@ import java.util.Set;
 import java.util.Map.Entry;
 import java.util.prefs.Preferences;
 
+import org.openmicroscopy.shoola.agents.dataBrowser.browser.Browser;
 import org.openmicroscopy.shoola.agents.util.browser.TreeImageDisplay;
 import org.openmicroscopy.shoola.agents.util.browser.TreeImageTimeSet;
 
@@ -356,6 +357,30 @@ public class DataBrowserFactory
 		singleton.searchBrowser = null;
 	}
 	
+	/**
+	 * Notifies the browsers that objects have been updated e.g. renamed,
+	 * so that the index of the names of the nodes is built again.
+	 */
+	public static void onDataObjectsUpdated()
+	{
+		Iterator<DataBrowser> v = singleton.browsers.values().iterator();
+		while (v.hasNext())
+			invalidateNameIndex(v.next());
+		invalidateNameIndex(singleton.searchBrowser);
+	}
+	
+	/**
+	 * Discards the index of the names of the nodes of the specified browser.
+	 * 
+	 * @param db The browser to handle.
+	 */
+	private static void invalidateNameIndex(DataBrowser db)
+	{
+		if (db == null) return;
+		Browser browser = db.getBrowser();
+		if (browser != null) browser.invalidateNameIndex();
+	}
+	
 	/**
 	 * Notifies the model that the user has annotated data.
 	 * 
@@ -31,6 +31,9 @@ import java.util.List;
 import java.util.Set;
 
 import org.openmicroscopy.shoola.agents.dataBrowser.AnnotatedFilter;
+import org.openmicroscopy.shoola.agents.dataBrowser.AnnotationFilter;
+import org.openmicroscopy.shoola.agents.dataBrowser.AnnotationIndex;
+import org.openmicroscopy.shoola.agents.dataBrowser.AnnotationIndexLoader;
 import org.openmicroscopy.shoola.agents.dataBrowser.CommentsFilter;
 import org.openmicroscopy.shoola.agents.dataBrowser.DataBrowserAgent;
 import org.openmicroscopy.shoola.agents.dataBrowser.DataBrowserLoader;
@@ -186,6 +189,15 @@ abstract class DataBrowserModel
     
 	/** The display mode.*/
     protected int displayMode;
+
+    /** The annotations linked to the nodes, used to filter locally. */
+    private AnnotationIndex annotationIndex;
+
+    /** The filter waiting for the annotations to be indexed. */
+    private AnnotationFilter pendingFilter;
+
+    /** The number of calls indexing the annotations. */
+    private int indexing;
     
     /**
 	 * Invokes the value is not set. 
@@ -553,6 +565,75 @@ abstract class DataBrowserModel
 	 */
 	void setState(int state) { this.state = state; }
 	
+	/**
+	 * Starts an asynchronous call to index the annotations linked to the
+	 * specified nodes.
+	 * 
+	 * @param ids The ids of the nodes.
+	 */
+	private void fireAnnotationIndexing(List<Long> ids)
+	{
+		if (ids == null || ids.size() == 0) return;
+		indexing++;
+		AnnotationIndexLoader loader = new AnnotationIndexLoader(component,
+				ctx, annotationIndex, ids);
+		loader.load();
+	}
+
+	/**
+	 * Filters the nodes using the annotation index if the annotations of
+	 * the nodes are indexed. Otherwise the filter is applied when the
+	 * annotations have been indexed.
+	 * 
+	 * @param filter The filter to apply.
+	 * @param nodes The collection of <code>DataObject</code>s to filter.
+	 */
+	private void fireFiltering(AnnotationFilter filter,
+			Collection<DataObject> nodes)
+	{
+		if (annotationIndex == null || !annotationIndex.contains(nodes)) {
+			annotationIndex = new AnnotationIndex(nodes,
+					getCurrentUser().getId());
+			indexing = 0;
+		}
+		if (filter.apply(annotationIndex)) return;
+		pendingFilter = filter;
+		if (indexing == 0)
+			fireAnnotationIndexing(annotationIndex.getStaleIds());
+	}
+
+	/**
+	 * Applies the filter waiting for the annotations to be indexed.
+	 * The filter is evaluated on the server if the annotations of some
+	 * nodes could not be indexed.
+	 * 
+	 * @param index The updated index.
+	 */
+	void onAnnotationsIndexed(AnnotationIndex index)
+	{
+		if (index != annotationIndex) return;
+		if (indexing > 0) indexing--;
+		if (pendingFilter == null) return;
+		if (pendingFilter.apply(annotationIndex)) {
+			pendingFilter = null;
+		} else if (indexing == 0) {
+			AnnotationFilter filter = pendingFilter;
+			pendingFilter = null;
+			filter.load();
+		}
+	}
+
+	/**
+	 * Indexes again the annotations linked to the specified nodes.
+	 * 
+	 * @param nodes The annotated nodes.
+	 */
+	void invalidateAnnotations(List<DataObject> nodes)
+	{
+		if (annotationIndex == null) return;
+		fireAnnotationIndexing(annotationIndex.invalidate(nodes));
+	}
+
 	/**
 	 * Filters the passed <code>DataObject</code>s by rate.
 	 * 
@@ -563,8 +644,7 @@ abstract class DataBrowserModel
 	void fireFilteringByRate(int rate, Set nodes)
 	{
 		state = DataBrowser.FILTERING;
-		RateFilter loader = new RateFilter(component, ctx, rate, nodes);
-		loader.load();
+		fireFiltering(new RateFilter(component, ctx, rate, nodes), nodes);
 	}
 	
 	/**
@@ -576,8 +656,7 @@ abstract class DataBrowserModel
 	void fireFilteringByTags(List<String> tags, Set<DataObject> nodes)
 	{
 		state = DataBrowser.FILTERING;
-		TagsFilter loader = new TagsFilter(component, ctx, tags, nodes);
-		loader.load();
+		fireFiltering(new TagsFilter(component, ctx, tags, nodes), nodes);
 	}
 	
 	/**
@@ -589,9 +668,8 @@ abstract class DataBrowserModel
 	void fireFilteringByComments(List<String> comments, Set<DataObject> nodes)
 	{
 		state = DataBrowser.FILTERING;
-		CommentsFilter loader = new CommentsFilter(component, ctx, comments,
+		fireFiltering(new CommentsFilter(component, ctx, comments, nodes),
 				nodes);
-		loader.load();
 	}
 
 	/**
@@ -621,9 +699,8 @@ abstract class DataBrowserModel
 			                   Set<DataObject> nodes)
 	{
 		state = DataBrowser.FILTERING;
-		AnnotatedFilter loader = new AnnotatedFilter(component, ctx,
-				annotationType, annotated, nodes);
-		loader.load();
+		fireFiltering(new AnnotatedFilter(component, ctx, annotationType,
+				annotated, nodes), nodes);
 	}
 	
 	/** Starts an asynchronous call to load the existing tags. */
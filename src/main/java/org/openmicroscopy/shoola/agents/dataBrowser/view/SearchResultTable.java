@@ -24,6 +24,7 @@ package org.openmicroscopy.shoola.agents.dataBrowser.view;
 import java.awt.Component;
 import java.awt.FlowLayout;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
@@ -44,6 +45,7 @@ import javax.swing.event.CellEditorListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellEditor;
 import javax.swing.table.TableCellRenderer;
 
@@ -215,6 +217,44 @@ public class SearchResultTable extends JXTable {
         getColumn(4).setWidth(wB);
     }
 
+    /**
+     * Notifies the table model that objects have been added to the
+     * underlying search results, keeping the sorting and the selection.
+     */
+    void rowsAdded() {
+        if (getModel() instanceof SearchResultTableModel)
+            ((DefaultTableModel) getModel()).setRowCount(data.size());
+        else
+            refreshTable();
+    }
+
+    /**
+     * Starts loading the thumbnails of the images displayed in the visible
+     * rows e.g. when the user scrolls the results.
+     */
+    void loadVisibleThumbnails() {
+        if (!(getModel() instanceof SearchResultTableModel)
+                || getRowCount() == 0)
+            return;
+        Rectangle r = getVisibleRect();
+        int first = rowAtPoint(r.getLocation());
+        if (first < 0)
+            return;
+        int last = rowAtPoint(new Point(r.x, r.y + r.height - 1));
+        if (last < 0)
+            last = getRowCount() - 1;
+        List<ImageData> images = new ArrayList<ImageData>();
+        Object obj;
+        for (int row = first; row <= last; row++) {
+            obj = getModel().getValueAt(convertRowIndexToModel(row),
+                    SearchResultTableModel.VIEWBUTTON_COLUMN_INDEX);
+            if (obj instanceof ImageData)
+                images.add((ImageData) obj);
+        }
+        if (!images.isEmpty())
+            model.loadThumbs(images);
+    }
+
     private JButton createActionButton(final DataObject obj) {
         JButton button = null;
 
@@ -30,6 +30,8 @@ import java.util.List;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.ImageDisplay;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.ImageNode;
@@ -73,6 +75,9 @@ class SearchResultView extends JPanel {
     /** Reference to the 'content' panel, either the table showing 
         the results or the panel indicating that there are no results */
     private Component contentPanel;
+
+    /** The scroll pane hosting the {@link #contentPanel}. */
+    private JScrollPane scrollPane;
     
     /**
      * Initializes the components composing the display.
@@ -105,7 +110,34 @@ class SearchResultView extends JPanel {
 
         setLayout(new BorderLayout());
 
-        add(new JScrollPane(contentPanel), BorderLayout.CENTER);
+        scrollPane = new JScrollPane(contentPanel);
+        //Load the thumbnails of the rows as they are displayed.
+        scrollPane.getViewport().addChangeListener(new ChangeListener() {
+            public void stateChanged(ChangeEvent e) {
+                if (objsTable != null)
+                    objsTable.loadVisibleThumbnails();
+            }
+        });
+        add(scrollPane, BorderLayout.CENTER);
+    }
+
+    /**
+     * Adds the passed objects to the ones already displayed.
+     * 
+     * @param nodes The objects to add.
+     */
+    void addObjects(List<DataObject> nodes) {
+        if (nodes.isEmpty())
+            return;
+        objs.addAll(nodes);
+        if (objsTable == null) {
+            objsTable = new SearchResultTable(this, objs, browserModel);
+            contentPanel = objsTable;
+            scrollPane.setViewportView(contentPanel);
+            objsTable.refreshTable();
+        } else {
+            objsTable.rowsAdded();
+        }
     }
 
     /**
@@ -23,6 +23,9 @@ package org.openmicroscopy.shoola.agents.dataBrowser.view;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -34,6 +37,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.openmicroscopy.shoola.agents.dataBrowser.DataBrowserAgent;
@@ -41,12 +45,14 @@ import org.openmicroscopy.shoola.agents.dataBrowser.DataBrowserLoader;
 import org.openmicroscopy.shoola.agents.dataBrowser.DataBrowserTranslator;
 import org.openmicroscopy.shoola.agents.dataBrowser.PlateSaver;
 import org.openmicroscopy.shoola.agents.dataBrowser.ThumbnailFieldsLoader;
+import org.openmicroscopy.shoola.agents.dataBrowser.ThumbnailLoader;
 import org.openmicroscopy.shoola.agents.dataBrowser.ThumbnailProvider;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.BrowserFactory;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.CellDisplay;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.ImageDisplay;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.ImageNode;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.ImageSet;
+import org.openmicroscopy.shoola.agents.dataBrowser.browser.PlateAtlas;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.Thumbnail;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.WellImageSet;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.WellSampleNode;
@@ -127,6 +133,139 @@ class WellsModel
 	/** The selected nodes. Note: Can contain wells and fields! */
 	private List<WellSampleNode> selectedNodes;
 	
+	/** 
+	 * The atlases hosting the thumbnails, one per field. An atlas is only
+	 * created when the field is viewed.
+	 */
+	private Map<Integer, PlateAtlas> atlases;
+	
+	/** Maps the id of the image of the selected field onto its well. */
+	private Map<Long, WellImageSet> selectedImages;
+	
+	/**
+	 * Returns the atlas hosting the thumbnails of the selected field.
+	 * 
+	 * @return See above.
+	 */
+	private PlateAtlas getAtlas()
+	{
+		PlateAtlas atlas = atlases.get(defaultFieldIndex);
+		if (atlas == null) {
+			atlas = new PlateAtlas(rows, columns, 
+					ThumbnailProvider.THUMB_MAX_WIDTH,
+					ThumbnailProvider.THUMB_MAX_HEIGHT);
+			atlases.put(defaultFieldIndex, atlas);
+		}
+		return atlas;
+	}
+	
+	/**
+	 * Returns the well whose selected field is the specified image,
+	 * or <code>null</code>.
+	 * 
+	 * @param imageID The id of the image.
+	 * @return See above.
+	 */
+	private WellImageSet getWellForImage(long imageID)
+	{
+		if (selectedImages == null) {
+			selectedImages = new HashMap<Long, WellImageSet>();
+			Iterator<ImageDisplay> i = wellNodes.iterator();
+			WellImageSet well;
+			WellSampleData data;
+			while (i.hasNext()) {
+				well = (WellImageSet) i.next();
+				data = (WellSampleData)
+						well.getSelectedWellSample().getHierarchyObject();
+				if (data.getId() >= 0)
+					selectedImages.put(data.getImage().getId(), well);
+			}
+		}
+		return selectedImages.get(imageID);
+	}
+	
+	/**
+	 * Returns the area of the plate to load the thumbnails for. This is the
+	 * visible area of the browser or the size of the screen if the browser
+	 * is not displayed yet.
+	 * 
+	 * @return See above.
+	 */
+	private Rectangle getVisibleArea()
+	{
+		Rectangle r = browser.getViewRect();
+		if (r == null || r.isEmpty())
+			r = new Rectangle(Toolkit.getDefaultToolkit().getScreenSize());
+		return r;
+	}
+	
+	/**
+	 * Creates one loader per tile of the atlas for the visible wells whose
+	 * thumbnail has not been requested yet. The wells of the tile are loaded
+	 * together, visible or not.
+	 * 
+	 * @param ids The ids of the images to reload, or <code>null</code>.
+	 * @return See above.
+	 */
+	private List<DataBrowserLoader> createTileLoaders(Collection ids)
+	{
+		PlateAtlas atlas = getAtlas();
+		Rectangle area = getVisibleArea();
+		Map<Integer, List<DataObject>> tiles = 
+				new TreeMap<Integer, List<DataObject>>();
+		Set<Integer> visible = new HashSet<Integer>();
+		Iterator<ImageDisplay> i = wellNodes.iterator();
+		WellImageSet well;
+		ImageNode selected;
+		WellSampleData data;
+		ImageData img;
+		List<DataObject> images;
+		int index;
+		while (i.hasNext()) {
+			well = (WellImageSet) i.next();
+			selected = well.getSelectedWellSample();
+			index = atlas.getTileIndex(well.getRow(), well.getColumn());
+			if (!atlas.isTileRequested(index) &&
+					selected.getBounds().intersects(area))
+				visible.add(index);
+			data = (WellSampleData) selected.getHierarchyObject();
+			if (data.getId() < 0 || atlas.isTileRequested(index)) continue;
+			img = data.getImage();
+			if (CollectionUtils.isNotEmpty(ids) && !ids.contains(img.getId()))
+				continue;
+			if (CollectionUtils.isEmpty(ids) &&
+					selected.getThumbnail().isThumbnailLoaded())
+				continue;
+			images = tiles.get(index);
+			if (images == null) {
+				images = new ArrayList<DataObject>();
+				tiles.put(index, images);
+			}
+			images.add(img);
+		}
+		if (visible.isEmpty()) return null;
+		int n = 0;
+		Iterator<Integer> j = visible.iterator();
+		while (j.hasNext()) {
+			index = j.next();
+			atlas.setTileRequested(index);
+			images = tiles.get(index);
+			if (images != null) n += images.size();
+		}
+		if (n == 0) return null;
+		List<DataBrowserLoader> loaders = new ArrayList<DataBrowserLoader>();
+		Iterator<Map.Entry<Integer, List<DataObject>>> k =
+				tiles.entrySet().iterator();
+		Map.Entry<Integer, List<DataObject>> e;
+		while (k.hasNext()) {
+			e = k.next();
+			if (visible.contains(e.getKey()))
+				loaders.add(new ThumbnailLoader(component, ctx,
+						sorter.sort(e.getValue()), n));
+		}
+		return loaders;
+	}
+	
 	/** 
 	 * Sorts the passed nodes by row.
 	 * 
@@ -250,6 +389,7 @@ class WellsModel
 			throw new IllegalArgumentException("No wells.");
 		this.withThumbnails = withThumbnails;
 		selectedNodes = new ArrayList<WellSampleNode>();
+		atlases = new HashMap<Integer, PlateAtlas>();
 		wellDimension = null;
 		this.parent = parent;
 		wellNodes = sortByRow(DataBrowserTranslator.transformHierarchy(wells));
@@ -529,6 +669,7 @@ class WellsModel
 	{
 		if (index < 0 || index >= fieldsNumber) return;
 		defaultFieldIndex = index;
+		selectedImages = null;
 		Set<ImageDisplay> samples = new HashSet<ImageDisplay>();
 		List<ImageDisplay> l = getNodes();
 		Iterator<ImageDisplay> i = l.iterator();
@@ -723,7 +864,42 @@ class WellsModel
     }
 	
 	/**
-	 * Creates a concrete loader.
+	 * Starts loading the thumbnails of the wells which became visible
+	 * e.g. when the user scrolls the plate.
+	 */
+	void loadVisibleWells()
+	{
+		if (!withThumbnails || state == DataBrowser.DISCARDED) return;
+		List<DataBrowserLoader> loaders = createTileLoaders(null);
+		if (loaders == null) return;
+		state = DataBrowser.LOADING;
+		Iterator<DataBrowserLoader> i = loaders.iterator();
+		while (i.hasNext()) {
+			i.next().load();
+		}
+	}
+	
+	/**
+	 * Overridden to copy the thumbnail of the selected field into the
+	 * atlas so that the wells share a single image.
+	 * @see DataBrowserModel#setThumbnail(Object, BufferedImage, boolean, int)
+	 */
+	int setThumbnail(Object ref, BufferedImage thumb, boolean valid,
+			int maxEntries)
+	{
+		if (ref instanceof Long && thumb != null) {
+			WellImageSet well = getWellForImage((Long) ref);
+			if (well != null)
+				thumb = getAtlas().setThumbnail(well.getRow(),
+						well.getColumn(), thumb);
+		}
+		return super.setThumbnail(ref, thumb, valid, maxEntries);
+	}
+	
+	/**
+	 * Creates the loaders for the visible tiles of the selected field.
+	 * The thumbnails of the other tiles are loaded when the user scrolls,
+	 * see {@link #loadVisibleWells()}.
 	 * @see DataBrowserModel#createDataLoader(boolean, Collection)
 	 */
 	protected  List<DataBrowserLoader> createDataLoader(boolean refresh, 
@@ -735,33 +911,33 @@ class WellsModel
 		List<ImageDisplay> l = getNodes();
 		Iterator<ImageDisplay> i = l.iterator();
 		ImageSet node;
-		List<DataObject> images = new ArrayList<DataObject>();
 		ImageNode selected;
 		WellSampleData data;
 		Thumbnail thumb;
+		PlateAtlas atlas = getAtlas();
+		WellImageSet well;
 		while (i.hasNext()) {
 			node = (ImageSet) i.next();
 			if (node instanceof WellImageSet) {
-				selected = ((WellImageSet) node).getSelectedWellSample();
+				well = (WellImageSet) node;
+				selected = well.getSelectedWellSample();
 				data = (WellSampleData) selected.getHierarchyObject();
+				thumb = selected.getThumbnail();
 				if (data.getId() < 0) {
-					thumb = selected.getThumbnail();
-					thumb.setValid(false);
-					thumb.setFullScaleThumb(
+					if (!thumb.isThumbnailLoaded()) {
+						thumb.setValid(false);
+						thumb.setFullScaleThumb(
 							Factory.createDefaultImageThumbnail(
 									wellDimension.width, wellDimension.height));
-				}
-				else {
-					ImageData img = data.getImage();
-					if(CollectionUtils.isEmpty(ids) || ids.contains(img.getId()))
-						images.add(data.getImage());
+					}
+				} else if (refresh && (CollectionUtils.isEmpty(ids) ||
+						ids.contains(data.getImage().getId()))) {
+					atlas.resetTile(atlas.getTileIndex(well.getRow(),
+							well.getColumn()));
 				}
 			}
 		}
-
-		if (images.size() == 0) 
-			return null;
-		return createThumbnailsLoader(sorter.sort(images));
+		return createTileLoaders(ids);
 	}
 	
 	/**
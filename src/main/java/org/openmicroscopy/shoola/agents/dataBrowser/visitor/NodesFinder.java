@@ -21,8 +21,12 @@
 package org.openmicroscopy.shoola.agents.dataBrowser.visitor;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.ImageDisplay;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.ImageDisplayVisitor;
@@ -51,6 +55,9 @@ public class NodesFinder
     /** The collection of <code>DataObject</code>s to find. */
     private List<DataObject> nodes;
 
+    /** The ids of the <code>DataObject</code>s to find, by type. */
+    private Map<Class<?>, Set<Long>> idsByType;
+
     /**
      * Checks if the passed node is contained in the list.
      *
@@ -64,17 +71,9 @@ public class NodesFinder
             foundNodes.add(node);
             return;
         }
-        Iterator<DataObject> i = nodes.iterator();
-        DataObject object;
-        Class<?> k = o.getClass();
-        long id = ((DataObject) o).getId();
-        while (i.hasNext()) {
-            object = i.next();
-            if (k.equals(object.getClass()) && id == object.getId()) {
-                foundNodes.add(node);
-                break;
-            }
-        }
+        Set<Long> ids = idsByType.get(o.getClass());
+        if (ids != null && ids.contains(((DataObject) o).getId()))
+            foundNodes.add(node);
     }
 
     /** Creates a new instance.*/
@@ -94,6 +93,19 @@ public class NodesFinder
             throw new IllegalArgumentException("No nodes to find.");
         this.nodes = nodes;
         foundNodes = new ArrayList<ImageDisplay>();
+        idsByType = new HashMap<Class<?>, Set<Long>>();
+        Iterator<DataObject> i = nodes.iterator();
+        DataObject object;
+        Set<Long> ids;
+        while (i.hasNext()) {
+            object = i.next();
+            ids = idsByType.get(object.getClass());
+            if (ids == null) {
+                ids = new HashSet<Long>();
+                idsByType.put(object.getClass(), ids);
+            }
+            ids.add(object.getId());
+        }
     }
 
     /**
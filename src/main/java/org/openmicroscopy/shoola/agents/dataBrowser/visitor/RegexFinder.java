@@ -22,20 +22,18 @@ package org.openmicroscopy.shoola.agents.dataBrowser.visitor;
 
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.ImageDisplay;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.ImageDisplayVisitor;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.ImageNode;
 import org.openmicroscopy.shoola.agents.dataBrowser.browser.ImageSet;
+import org.openmicroscopy.shoola.agents.dataBrowser.browser.NameIndex;
 import org.openmicroscopy.shoola.util.ui.RegExFactory;
-import omero.gateway.model.DatasetData;
-import omero.gateway.model.ImageData;
-import omero.gateway.model.PlateData;
-import omero.gateway.model.ProjectData;
-import omero.gateway.model.ScreenData;
 
 /** 
  * Finds the nodes matching the specified pattern.
@@ -57,47 +55,8 @@ public class RegexFinder
     /** The collection of found nodes. */
     private List<ImageDisplay>	foundNodes;
     
-    /**
-     * Returns the name of the specified object.
-     * 
-     * @param userObject The <code>DataObject</code> hosted by the visited node.
-     * @return See above.
-     */
-    private String getName(Object userObject)
-    {
-        if (userObject instanceof ProjectData) 
-            return ((ProjectData) userObject).getName();
-        else if (userObject instanceof DatasetData) 
-            return ((DatasetData) userObject).getName();
-        else if (userObject instanceof ImageData) 
-            return ((ImageData) userObject).getName();
-        else if (userObject instanceof ScreenData) 
-            return ((ScreenData) userObject).getName();
-        else if (userObject instanceof PlateData) 
-            return ((PlateData) userObject).getName();
-        return null;
-    }
-    
-    /**
-     * Returns the description of the specified object.
-     * 
-     * @param userObject The <code>DataObject</code> hosted by the visited node.
-     * @return See above.
-     */
-    private String getDescription(Object userObject)
-    {
-        if (userObject instanceof ProjectData) 
-            return ((ProjectData) userObject).getDescription();
-        else if (userObject instanceof DatasetData) 
-            return ((DatasetData) userObject).getDescription();
-        else if (userObject instanceof ImageData) 
-            return ((ImageData) userObject).getDescription();
-        else if (userObject instanceof ScreenData) 
-            return ((ScreenData) userObject).getDescription();
-        else if (userObject instanceof PlateData) 
-            return ((PlateData) userObject).getDescription();
-        return null;
-    }
+    /** The found nodes, used to check if a node has already been found. */
+    private Set<ImageDisplay>	found;
     
     /**
      * Finds the pattern.
@@ -106,20 +65,25 @@ public class RegexFinder
      */
     private void foundNode(ImageDisplay node)
     {
+        if (found.contains(node)) return;
         Object userObject = node.getHierarchyObject();
-        String name = getName(userObject);
+        String name = NameIndex.getName(userObject);
         if (name != null) {
         	name = name.trim();
-        	if (RegExFactory.find(pattern, name) && !foundNodes.contains(node))
+        	if (RegExFactory.find(pattern, name)) {
+        		found.add(node);
         		foundNodes.add(node);
+        		return;
+        	}
         }
         	
-        String description = getDescription(userObject);
+        String description = NameIndex.getDescription(userObject);
         if (description != null) {
         	description = description.trim();
-        	if (RegExFactory.find(pattern, description) 
-        			&& !foundNodes.contains(node))
+        	if (RegExFactory.find(pattern, description)) {
+        		found.add(node);
         		foundNodes.add(node);
+        	}
         } 
     }
     
@@ -134,6 +98,18 @@ public class RegexFinder
     		throw new IllegalArgumentException("No pattern specified.");
     	this.pattern = pattern;
     	foundNodes = new ArrayList<ImageDisplay>();
+    	found = new HashSet<ImageDisplay>();
+    }
+    
+    /** 
+     * Analyzes the nodes of the passed index which may match the pattern.
+     *  
+     * @param index The index of the nodes.
+     */
+    public void analyse(NameIndex index)
+    {
+    	if (index == null) return;
+    	analyse(index.getCandidates(pattern));
     }
     
     /** 
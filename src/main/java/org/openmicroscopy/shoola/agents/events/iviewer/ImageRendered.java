@@ -29,6 +29,7 @@ import java.awt.image.BufferedImage;
 //Third-party libraries
 
 //Application-internal dependencies
+import org.openmicroscopy.shoola.env.event.EventBus;
 import org.openmicroscopy.shoola.env.event.RequestEvent;
 
 /** 
@@ -96,4 +97,18 @@ public class ImageRendered
      */
     public Object getRenderedImage() { return renderedImage; }
     
+    /**
+     * Overridden so that only the images rendered for the same pixels set
+     * are coalesced.
+     * @see RequestEvent#getCoalescingKey()
+     */
+    public Object getCoalescingKey() { return pixelsID; }
+    
+    /**
+     * Overridden so that only the latest event is delivered when several
+     * are pending.
+     * @see RequestEvent#getCoalescingPolicy()
+     */
+    public int getCoalescingPolicy() { return EventBus.KEEP_LATEST; }
+    
 }
@@ -30,6 +30,7 @@ import java.awt.Rectangle;
 //Third-party libraries
 
 //Application-internal dependencies
+import org.openmicroscopy.shoola.env.event.EventBus;
 import org.openmicroscopy.shoola.env.event.RequestEvent;
 
 /**
@@ -93,4 +94,18 @@ public class ImageViewport
 	 */
 	public long getPixelsID() { return pixelsID; }
 	
+	/**
+	 * Overridden so that only the viewports of the same pixels set
+	 * are coalesced.
+	 * @see RequestEvent#getCoalescingKey()
+	 */
+	public Object getCoalescingKey() { return pixelsID; }
+	
+	/**
+	 * Overridden so that only the latest event is delivered when several
+	 * are pending.
+	 * @see RequestEvent#getCoalescingPolicy()
+	 */
+	public int getCoalescingPolicy() { return EventBus.KEEP_LATEST; }
+	
 }
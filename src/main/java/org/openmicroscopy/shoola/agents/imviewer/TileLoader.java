@@ -25,6 +25,7 @@ package org.openmicroscopy.shoola.agents.imviewer;
 
 //Java imports
 import java.util.Collection;
+import java.util.List;
 
 //Third-party libraries
 
@@ -157,4 +158,26 @@ public class TileLoader
         } 
     }
 
+    /** 
+     * Feeds a batch of tiles back to the viewer, so that the viewer is
+     * refreshed once per batch.
+     * @see DataBrowserLoader#update(List)
+     */
+    public void update(List<DSCallFeedbackEvent> events)
+    {
+        if (viewer.getState() == DataBrowser.DISCARDED) return;  //Async cancel.
+        DSCallFeedbackEvent fe = events.get(events.size()-1);
+        String status = fe.getStatus();
+        if (status == null) status = "";
+        viewer.setStatus(status, fe.getPercentDone());
+        int n = 0;
+        for (DSCallFeedbackEvent e : events) {
+            if (e.getPartialResult() != null) n++;
+        }
+        if (n == 0) return;
+        count += n;
+        if (count == tiles.size()) viewer.setTileCount(count);
+        else viewer.setTileCount(0);
+    }
+
 }
@@ -31,6 +31,7 @@ import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.CallHandle;
 import omero.log.LogMessage;
 import omero.gateway.model.ROIData;
+import omero.gateway.model.ShapeData;
 
 /**
  * Save the ROIs for a given image.
@@ -55,6 +56,12 @@ public class ROISaver
 	/** The ROI data to save. */
 	private List<ROIData> roiList;
 	
+	/**
+	 * The shapes to delete or <code>null</code> if all the ROIs are saved
+	 * and not only the changes.
+	 */
+	private List<ShapeData> toDelete;
+	
 	/** Handle to the asynchronous call so that we can cancel it. */
     private CallHandle  handle;
    
@@ -82,6 +89,28 @@ public class ROISaver
 		this.roiList = roiList;
 		this.close = close;
 	}
+
+	/**
+	 * Creates a new instance to only save the changes made to the ROIs
+	 * since they were loaded.
+	 * 
+	 * @param viewer	The viewer this data loader is for.
+	 *                  Mustn't be <code>null</code>.
+	 * @param ctx The security context.
+	 * @param imageID	The id of the image the ROIs are related to.
+	 * @param userID	The id of the user.
+	 * @param roiList	The new ROIs and the modified shapes of the stored ROIs.
+	 * @param toDelete The shapes to delete.
+	 * @param close Pass <code>true</code> to discard the viewer if an error
+	 *              occurred.
+	 */
+	public ROISaver(MeasurementViewer viewer, SecurityContext ctx,
+			long imageID, long userID, List<ROIData> roiList,
+			List<ShapeData> toDelete, boolean close)
+	{
+		this(viewer, ctx, imageID, userID, roiList, close);
+		this.toDelete = toDelete;
+	}
 	
 	/**
      * Loads the ROI.
@@ -89,7 +118,10 @@ public class ROISaver
      */
     public void load()
     {
-    	handle = idView.saveROI(ctx, imageID, userID, roiList , this);
+    	if (toDelete != null)
+    		handle = idView.saveROIChanges(ctx, imageID, roiList, toDelete,
+    				this);
+    	else handle = idView.saveROI(ctx, imageID, userID, roiList , this);
     }
     
     /**
@@ -656,6 +656,8 @@ class MeasurementViewerControl
 		                    key != MeasurementAttributes.SHOWMEASUREMENT &&
 		                    key != AnnotationKeys.TAG &&
 		                    key != AnnotationKeys.FOLDERS) {
+		                if (fig.getROIShape() != null)
+		                    fig.getROIShape().setDirty(true);
 		                model.setDataChanged();
 		            }
 				}
@@ -103,6 +103,7 @@ import omero.gateway.model.GroupData;
 import omero.gateway.model.ImageData;
 import omero.gateway.model.PixelsData;
 import omero.gateway.model.ROIData;
+import omero.gateway.model.ShapeData;
 import omero.gateway.util.PojoMapper;
 import omero.gateway.util.Pojos;
 import ome.model.units.BigResult;
@@ -1203,7 +1204,8 @@ class MeasurementViewerModel
 	}
 
 	/**
-	 * Saves the current ROISet in the ROI component to server.
+	 * Saves the changes made to the ROIs in the ROI component since they
+	 * were loaded to the server.
 	 *
 	 * @param async Pass <code>true</code> to save the ROI asynchronously,
 	 * 				 <code>false</code> otherwise.
@@ -1212,22 +1214,26 @@ class MeasurementViewerModel
 	void saveROIToServer(boolean async, boolean close)
 	{
 		try {
-			List<ROIData> roiList = getROIData();
+			List<ROIData> roiList = roiComponent.saveModifiedROI(getImage());
+			List<ShapeData> toDelete = roiComponent.getRemovedShapes();
 			ExperimenterData exp =
 				(ExperimenterData) MeasurementAgent.getUserDetails();
-			if (roiList.size() == 0) return;
+			if (roiList.size() == 0 && toDelete.size() == 0) {
+				if (event != null) notifyDataChanged(false);
+				return;
+			}
 			roiComponent.reset();
 			if (async) {
 				currentSaver = new ROISaver(component, getSecurityContext(),
-						getImageID(), exp.getId(), roiList, close);
+						getImageID(), exp.getId(), roiList, toDelete, close);
 				state = MeasurementViewer.SAVING_ROI;
 				currentSaver.load();
 				notifyDataChanged(false);
 			} else {
 				OmeroImageService svc =
 					MeasurementAgent.getRegistry().getImageService();
-				svc.saveROI(getSecurityContext(), getImageID(), exp.getId(),
-						roiList);
+				svc.saveROIChanges(getSecurityContext(), getImageID(),
+						roiList, toDelete);
 				state = MeasurementViewer.READY;
 				event = null;
 			}
@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.List;
 
 import org.openmicroscopy.shoola.agents.metadata.view.MetadataViewer;
+import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackEvent;
 import org.openmicroscopy.shoola.env.data.model.TimeRefObject;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.CallHandle;
@@ -76,7 +77,7 @@ public class DataBatchSaver
 		Collection<DataObject> data, List<AnnotationData> toAdd,
 		List<Object> toRemove, int loaderID)
 	{
-		super(viewer, null, loaderID);
+		super(viewer, ctx, loaderID);
 		if (data == null)
 			throw new IllegalArgumentException("No object specified.");
 		this.data = data;
@@ -100,7 +101,7 @@ public class DataBatchSaver
 		TimeRefObject timeRefObject, List<AnnotationData> toAdd,
 		List<Object> toRemove, int loaderID)
 	{
-		super(viewer, null, loaderID);
+		super(viewer, ctx, loaderID);
 		if (timeRefObject == null)
 			throw new IllegalArgumentException("No object specified.");
 		this.timeRefObject = timeRefObject;
@@ -129,6 +130,17 @@ public class DataBatchSaver
 	 */
 	public void cancel() { handle.cancel(); }
 
+	/**
+	 * Feeds the progress of the batch annotation back to the viewer.
+	 * @see MetadataLoader#update(DSCallFeedbackEvent)
+	 */
+	public void update(DSCallFeedbackEvent fe)
+	{
+		if (viewer.getState() == MetadataViewer.DISCARDED) return;
+		if (fe.getPartialResult() != null)
+			viewer.setBatchSavingProgress(fe.getPercentDone());
+	}
+
 	/**
      * Feeds the result back to the viewer.
      * @see MetadataLoader#handleResult(Object)
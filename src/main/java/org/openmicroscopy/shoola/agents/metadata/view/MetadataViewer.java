@@ -723,4 +723,11 @@ public interface MetadataViewer
      *            The data
      */
     public void setHistogramData(int ch, int[] data);
+
+    /**
+     * Sets the progress of the batch annotation.
+     * 
+     * @param perc The percentage of objects saved.
+     */
+    public void setBatchSavingProgress(int perc);
 }
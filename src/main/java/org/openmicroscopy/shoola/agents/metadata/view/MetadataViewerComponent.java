@@ -1325,4 +1325,14 @@ class MetadataViewerComponent
     public void setHistogramData(int ch, int[] data) {
         model.getEditor().getRenderer().setHistogramData(ch, data);
     }
+
+    /**
+     * Implemented as specified by the {@link MetadataViewer} interface.
+     * @see MetadataViewer#setBatchSavingProgress(int)
+     */
+    @Override
+    public void setBatchSavingProgress(int perc) {
+        if (model.getState() != BATCH_SAVING) return;
+        controller.setBatchSavingProgress(perc);
+    }
 }
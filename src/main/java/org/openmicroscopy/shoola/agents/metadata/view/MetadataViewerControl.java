@@ -135,6 +135,17 @@ class MetadataViewerControl
 	 */
 	MetadataViewerAction getAction(Integer id) { return actionsMap.get(id); }
 
+	/**
+	 * Sets the progress of the batch annotation.
+	 * 
+	 * @param perc The percentage of objects saved.
+	 */
+	void setBatchSavingProgress(int perc)
+	{
+		loadingWindow.setStatus("Batch annotations: "+perc+"%");
+		loadingWindow.setProgress(perc);
+	}
+
 	/**
 	 * Reacts to state changes in the {@link MetadataViewer}.
 	 * @see ChangeListener#stateChanged(ChangeEvent)
@@ -47,7 +47,9 @@ import omero.gateway.model.TagAnnotationData;
  * Note that Images are retrieved if the {@link #withImages} flag is set to
  * <code>true</code>.
  * This class calls the <code>loadContainerHierarchy</code> method in the
- * <code>DataManagerView</code>.
+ * <code>DataManagerView</code>. The images of a Dataset are loaded in pages
+ * of {@link #LEAVES_PAGE} images using the <code>loadContainerLeaves</code>
+ * method, the first page being displayed before the next one is requested.
  *
  * @author  Jean-Marie Burel &nbsp;&nbsp;&nbsp;&nbsp;
  * <a href="mailto:j.burel@dundee.ac.uk">j.burel@dundee.ac.uk</a>
@@ -84,6 +86,9 @@ public class ExperimenterDataLoader
     /** Indicates that the root node is of type <code>File Data</code>. */
     public static final int FILE_DATA = 7;
     
+    /** The number of images of a dataset loaded at once. */
+    public static final int LEAVES_PAGE = 500;
+    
     /** 
      * Flag to indicate if the images are also retrieved.
      * Value set to <code>true</code> to retrieve the images,
@@ -106,6 +111,12 @@ public class ExperimenterDataLoader
     /** One of the constants defined by this class. */
     private int					type;
     
+    /** The index of the first image of the page to load. */
+    private int					offset;
+    
+    /** Flag indicating that the loading has been cancelled. */
+    private boolean				cancelled;
+    
     /**
      * Returns the class corresponding to the specified type.
      * Returns <code>null</code> if the type is not supported,
@@ -128,6 +139,17 @@ public class ExperimenterDataLoader
         return null;
     }
    
+    /**
+     * Returns <code>true</code> if the images of the parent are loaded
+     * in pages, <code>false</code> otherwise.
+     * 
+     * @return See above.
+     */
+    private boolean isPaged()
+    {
+    	return parent != null && parent.getUserObject() instanceof DatasetData;
+    }
+    
     /**
      * Creates a new instance. 
      * 
@@ -197,6 +219,9 @@ public class ExperimenterDataLoader
     			if (parent == null) {
             		handle = dmView.loadContainerHierarchy(ctx,
             				rootNodeType, null, withImages, expID, this);
+            	} else if (isPaged()) {
+            		handle = dmView.loadContainerLeaves(ctx, DatasetData.class,
+            				parent.getUserObjectId(), offset, LEAVES_PAGE, this);
             	} else {
             		handle = dmView.loadContainerHierarchy(ctx, rootNodeType,
             				Arrays.asList(parent.getUserObjectId()),
@@ -210,7 +235,11 @@ public class ExperimenterDataLoader
      * Cancels the data loading.
      * @see DataBrowserLoader#cancel()
      */
-    public void cancel() { handle.cancel(); }
+    public void cancel()
+    {
+    	cancelled = true;
+    	handle.cancel();
+    }
 
     /**
      * Feeds the result back to the viewer.
@@ -229,7 +258,18 @@ public class ExperimenterDataLoader
         }
         if (parent == null) 
         	viewer.setExperimenterData(expNode, (Collection) result);
-        else {
+        else if (isPaged()) {
+        	Collection nodes = (Collection) result;
+        	boolean last = nodes.size() < LEAVES_PAGE;
+        	if (offset == 0) {
+        		viewer.setLeaves(nodes.isEmpty() ? null : nodes, parent,
+        				expNode);
+        	} else viewer.addLeaves(nodes, parent, expNode, last);
+        	//Stop if the node has been removed from the tree in the meantime.
+        	if (last || cancelled || parent.getParent() == null) return;
+        	offset += nodes.size();
+        	load();
+        } else {
         	Collection nodes = (Collection) result;
         	if(nodes.isEmpty()) {
         	    viewer.setLeaves(null, parent, expNode);
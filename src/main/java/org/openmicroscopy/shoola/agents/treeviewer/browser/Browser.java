@@ -268,6 +268,20 @@ public interface Browser
     public void setLeaves(Collection leaves, TreeImageSet parent, 
     					TreeImageSet expNode);
     
+    /**
+     * Call-back used by a data loader to add the leaves of a following page
+     * to a node whose first leaves have been set using
+     * {@link #setLeaves(Collection, TreeImageSet, TreeImageSet)}.
+     * 
+     * @param leaves    The collection of leaves.
+     * @param parent    The parent of the leaves.
+     * @param expNode	The experimenter the data belonged to.
+     * @param last		Pass <code>true</code> if it is the last page,
+     * 					<code>false</code> otherwise.
+     */
+    public void addLeaves(Collection leaves, TreeImageSet parent,
+    					TreeImageSet expNode, boolean last);
+    
     /** 
      * Returns the type of this browser.
      * 
@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -603,6 +604,29 @@ class BrowserComponent
         fireStateChange();
     }
     
+    /**
+     * Implemented as specified by the {@link Browser} interface.
+     * @see Browser#addLeaves(Collection, TreeImageSet, TreeImageSet, boolean)
+     */
+    public void addLeaves(Collection leaves, TreeImageSet parent,
+    					TreeImageSet expNode, boolean last)
+    {
+        if (model.getState() == DISCARDED) return;
+        if (leaves != null && !leaves.isEmpty())
+            view.addLeavesViews(
+                    TreeViewerTranslator.transformHierarchy(leaves), parent,
+                    last);
+        else if (last)
+            view.addLeavesViews(Collections.EMPTY_SET, parent, last);
+        if (!last || parent != getLastSelectedDisplay()) return;
+        //Displays all the leaves as when the node is selected again.
+        Set s = new HashSet();
+        Iterator i = parent.getChildrenDisplay().iterator();
+        while (i.hasNext())
+            s.add(((TreeImageDisplay) i.next()).getUserObject());
+        model.getParentModel().setLeaves(parent, s);
+    }
+    
     /**
      * Implemented as specified by the {@link Browser} interface.
      * @see Browser#setSelectedDisplay(TreeImageDisplay)
@@ -299,6 +299,8 @@ class BrowserModel
      * Starts the asynchronous retrieval of the leaves contained in the 
      * currently selected <code>TreeImageDisplay</code> objects needed
      * by this model and sets the state to {@link Browser#LOADING_LEAVES}.
+     * The images of a dataset are loaded in pages, the state is set back to
+     * {@link Browser#READY} once the first page is displayed.
      * 
 	 * @param expNode 	The node hosting the experimenter.
 	 * @param node		The parent of the data. Pass <code>null</code>
@@ -2202,6 +2202,51 @@ class BrowserUI
         }
     }
     
+    /**
+     * Adds the specified nodes to the children already displayed by
+     * the passed parent, without rebuilding the existing nodes.
+     * The pages are ordered by name on the server, so the children are
+     * sorted again with the current sorter once the last page is added.
+     * 
+     * @param nodes     The nodes to add.
+     * @param parent    The parent of the nodes.
+     * @param last      Pass <code>true</code> if it is the last page,
+     *                  <code>false</code> otherwise.
+     */
+    void addLeavesViews(Collection nodes, TreeImageSet parent, boolean last)
+    {
+        DefaultTreeModel dtm = (DefaultTreeModel) treeDisplay.getModel();
+        PartialNameVisitor visitor = null;
+        if (!isPartialName()) visitor = new PartialNameVisitor(false);
+        List sorted = sorter.sort(nodes);
+        int[] indices = new int[sorted.size()];
+        int index = 0;
+        Iterator i = sorted.iterator();
+        TreeImageDisplay display;
+        while (i.hasNext()) {
+            display = (TreeImageDisplay) i.next();
+            parent.addChildDisplay(display);
+            indices[index++] = parent.getChildCount();
+            parent.add(display);
+            if (visitor != null)
+                display.accept(visitor,
+                        TreeImageDisplayVisitor.TREEIMAGE_NODE_ONLY);
+        }
+        if (indices.length > 0) dtm.nodesWereInserted(parent, indices);
+        if (!last) return;
+        sorted = sorter.sort(parent.getChildrenDisplay());
+        boolean sameOrder = sorted.size() == parent.getChildCount();
+        for (int j = 0; sameOrder && j < sorted.size(); j++)
+            sameOrder = sorted.get(j) == parent.getChildAt(j);
+        if (sameOrder) return;
+        parent.removeAllChildren();
+        i = sorted.iterator();
+        while (i.hasNext())
+            parent.add((TreeImageDisplay) i.next());
+        dtm.reload(parent);
+        expandNode(parent);
+    }
+    
 	/**
 	 * Adds a new experimenter to the tree.
 	 * 
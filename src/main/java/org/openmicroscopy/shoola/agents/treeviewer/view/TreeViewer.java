@@ -786,6 +786,13 @@ public interface TreeViewer
 	 */
 	public void setSearchResult(Object result);
 
+	/**
+	 * Adds a page of results to the ones already displayed.
+	 * 
+	 * @param result The results to add.
+	 */
+	public void addSearchResult(Object result);
+
 	/** 
 	 * Brings up the dialog used to add metadata to a collection of 
 	 * images selected either by the user or as linked to a dataset
@@ -189,6 +189,9 @@ class TreeViewerComponent
 	
 	/** The dialog displaying the selected script.*/
 	private ScriptingDialog     scriptDialog;
+	
+	/** Refreshes the nodes when a data object is refreshed. */
+	private PropertyChangeListener refreshListener;
 
 	/**
 	 * Moves the object.
@@ -918,6 +921,32 @@ class TreeViewerComponent
 		controller.initialize(view);
 		view.initialize(controller, model, bounds);
 		model.getMetadataViewer().addPropertyChangeListener(controller);
+		refreshListener = new PropertyChangeListener() {
+			
+			public void propertyChange(PropertyChangeEvent evt) {
+				onObjectRefreshed((DataObject) evt.getNewValue());
+			}
+		};
+		TreeViewerAgent.getRegistry().getDataService().getIdentityMap()
+			.addPropertyChangeListener(refreshListener);
+	}
+	
+	/**
+	 * Updates the nodes hosting the specified object, refreshed after being
+	 * retrieved again e.g. by another agent.
+	 * 
+	 * @param data The refreshed object.
+	 */
+	void onObjectRefreshed(DataObject data)
+	{
+		if (model.getState() == DISCARDED || data == null) return;
+		Iterator<Browser> i = model.getBrowsers().values().iterator();
+		Browser browser;
+		while (i.hasNext()) {
+			browser = i.next();
+			browser.accept(new UpdateVisitor(browser, data));
+			browser.getUI().repaint();
+		}
 	}
 
 	/**
@@ -1052,6 +1081,11 @@ class TreeViewerComponent
 	 */
 	public void discard()
 	{
+		if (refreshListener != null) {
+			TreeViewerAgent.getRegistry().getDataService().getIdentityMap()
+				.removePropertyChangeListener(refreshListener);
+			refreshListener = null;
+		}
 		Map<Integer, Browser> browsers = getBrowsers();
 		Iterator<Browser> i = browsers.values().iterator();
 		while (i.hasNext())
@@ -1730,9 +1764,12 @@ class TreeViewerComponent
 			DataBrowserFactory.discardAll();
 			view.removeAllFromWorkingPane();
 		}
-		if (operation == UPDATE_OBJECT && browser != null) {
-			browser.accept(new UpdateVisitor(browser, data));
-			browser.getUI().repaint();
+		if (operation == UPDATE_OBJECT) {
+			DataBrowserFactory.onDataObjectsUpdated();
+			if (browser != null) {
+				browser.accept(new UpdateVisitor(browser, data));
+				browser.getUI().repaint();
+			}
 		}
 		setStatus(false, "", true);
 		view.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
@@ -3148,6 +3185,17 @@ class TreeViewerComponent
 		}
 	}
 
+	/**
+	 * Implemented as specified by the {@link TreeViewer} interface.
+	 * @see TreeViewer#addSearchResult(Object)
+	 */
+	public void addSearchResult(Object result)
+	{
+		if (!(result instanceof SearchResultCollection)) return;
+		DataBrowser db = DataBrowserFactory.getSearchBrowser();
+		if (db != null) db.addSearchResult((SearchResultCollection) result);
+	}
+
 	/**
 	 * Implemented as specified by the {@link TreeViewer} interface.
 	 * @see TreeViewer#addMetadata()
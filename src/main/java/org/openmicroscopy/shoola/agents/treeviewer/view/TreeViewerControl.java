@@ -1275,6 +1275,8 @@ class TreeViewerControl
 			cmd.execute();
 		} else if (Finder.RESULTS_FOUND_PROPERTY.equals(name)) {
 			model.setSearchResult(pce.getNewValue());
+		} else if (Finder.RESULTS_ADDED_PROPERTY.equals(name)) {
+			model.addSearchResult(pce.getNewValue());
 		} else if (GenericDialog.SAVE_GENERIC_PROPERTY.equals(name)) {
 			Object parent = pce.getNewValue();
 			if (parent instanceof MetadataViewer) {
@@ -96,6 +96,9 @@ public class AdvancedFinder
 	
 	/** Host the result per group.*/
 	private SearchResultCollection results = new SearchResultCollection();
+
+	/** Flag indicating that the first page of results has been received. */
+	private boolean firstPage;
 	
 	/** The identifier of the group.*/
 	private long groupId;
@@ -212,6 +215,8 @@ public class AdvancedFinder
 		    searchContext.setGroupId(ctx.getSelectedGroup());
 		}
 
+		if (loader != null) loader.cancel();
+		firstPage = false;
 		loader = new AdvancedFinderLoader(this, secCtx, searchContext);
 		loader.load();
 		state = Finder.SEARCH;
@@ -361,6 +366,30 @@ public class AdvancedFinder
             setSearchEnabled(result.size());
             firePropertyChange(RESULTS_FOUND_PROPERTY, null, results);
 	}
+
+	/** 
+	 * Implemented as specified by {@link Finder} I/F
+	 * @see Finder#addResult(SearchResultCollection, boolean)
+	 */
+	public void addResult(SearchResultCollection result, boolean last)
+	{
+	    if (result.isError()) {
+	        setResult(result);
+	        return;
+	    }
+	    if (!firstPage) {
+	        firstPage = true;
+	        results = new SearchResultCollection();
+	        results.addAll(result);
+	        firePropertyChange(RESULTS_FOUND_PROPERTY, null, result);
+	    } else {
+	        results.addAll(result);
+	        firePropertyChange(RESULTS_ADDED_PROPERTY, null, result);
+	    }
+	    if (last) setSearchEnabled(results.size());
+	    else setSearchEnabled(results.size()+" results found, searching...",
+	            false);
+	}
 	
 	/** 
 	 * Implemented as specified by {@link Finder} I/F
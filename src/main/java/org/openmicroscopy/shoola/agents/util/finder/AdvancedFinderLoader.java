@@ -56,6 +56,9 @@ public class AdvancedFinderLoader
 	extends FinderLoader
 {
 
+	/** The maximum number of results delivered per page. */
+	private static final int PAGE_SIZE = 100;
+
 	/** Collection of terms to search for. */
 	private SearchParameters searchContext;
 	
@@ -86,7 +89,8 @@ public class AdvancedFinderLoader
      */
     public void load()
     {
-    	handle = dhView.advancedSearchFor(ctx.get(0), searchContext, this);
+    	handle = dhView.advancedSearchFor(ctx.get(0), searchContext, PAGE_SIZE,
+    			this);
     }
 
     /** 
@@ -95,13 +99,14 @@ public class AdvancedFinderLoader
      */
     public void update(DSCallFeedbackEvent fe) 
     {
-    	
+    	if (viewer.getState() == Finder.DISCARDED) return;  //Async cancel.
+    	Object page = fe.getPartialResult();
+    	if (page instanceof SearchResultCollection)
+    		viewer.addResult((SearchResultCollection) page, false);
     }
     
     /**
-     * Does nothing as the asynchronous call returns <code>null</code>.
-     * The actual pay-load (result) is delivered progressively
-     * during the updates.
+     * Does nothing as the last page is the result of the call.
      * @see DataBrowserLoader#handleNullResult()
      */
     public void handleNullResult() {}
@@ -119,7 +124,7 @@ public class AdvancedFinderLoader
     public void handleResult(Object result)
     {
     	if (viewer.getState() == Finder.DISCARDED) return;  //Async cancel.
-        viewer.setResult((SearchResultCollection) result);
+        viewer.addResult((SearchResultCollection) result, true);
     }
 
 
@@ -44,6 +44,12 @@ public interface Finder
 	 * the passed criteria have been found.
 	 */
 	public static final String RESULTS_FOUND_PROPERTY = "resultsFound";
+
+	/** 
+	 * Bound property indicating that more results matching 
+	 * the passed criteria have been found.
+	 */
+	public static final String RESULTS_ADDED_PROPERTY = "resultsAdded";
 	
 	/** Identified the <code>DISCARD</code> state. */
 	public static final int DISCARDED = 100;
@@ -80,6 +86,15 @@ public interface Finder
 	 */
 	public void setResult(SearchResultCollection result);
 
+	/**
+	 * Adds a page of results to the ones already found.
+	 *
+	 * @param result The value to add.
+	 * @param last Pass <code>true</code> if it is the last page,
+	 *             <code>false</code> otherwise.
+	 */
+	public void addResult(SearchResultCollection result, boolean last);
+
 	/** 
 	 * Sets the collection of tags. 
 	 * 
@@ -144,6 +144,12 @@ public class QuickFinder
 	 */
 	public void setResult(SearchResultCollection result) {}
 
+	/** 
+	 * Implemented as specified by {@link Finder} I/F
+	 * @see Finder#addResult(SearchResultCollection, boolean)
+	 */
+	public void addResult(SearchResultCollection result, boolean last) {}
+
 	/** 
 	 * Implemented as specified by {@link Finder} I/F
 	 * @see Finder#setExistingTags(Collection)
@@ -280,6 +280,19 @@ public class LookupNames
      */
     public static final String RE_TIMEOUT = "/services/RE/timeout";
 
+    /**
+     * Field to access the time after which an idle raw pixels store is
+     * closed. The value is in milliseconds.
+     */
+    public static final String RE_PIXELS_STORE_IDLE =
+            "/services/RE/pixelsStoreIdle";
+
+    /**
+     * Field to access the size of the cache of the raw planes.
+     * The value is in megabytes.
+     */
+    public static final String RE_PLANE_CACHE_SZ = "/services/RE/planeCacheSz";
+
     @Deprecated
     public static final String RE_STACK_BUF_SZ = "/services/RE/stackBufSz";
 
@@ -291,6 +304,92 @@ public class LookupNames
 
     public static final String CMD_PROCESSOR = "/services/CmdProcessor";
 
+    /**
+     * Field to access the maximum number of prefetching and background
+     * commands run at the same time. If not positive, each command is run
+     * in its own thread.
+     */
+    public static final String CMD_PROCESSOR_WORKERS =
+            "/services/CmdProcessor/workers";
+
+    /**
+     * Field to access the maximum number of calls run at the same time by a
+     * batch call tree whose calls are independent of each other.
+     */
+    public static final String CMD_PROCESSOR_PARALLELISM =
+            "/services/CmdProcessor/parallelism";
+
+    /**
+     * Field to access the interval, in seconds, between two dumps of the
+     * data calls statistics to the log. If not positive, the statistics
+     * are not logged.
+     */
+    public static final String CMD_PROCESSOR_METRICS_LOG =
+            "/services/CmdProcessor/metricsLog";
+
+    /**
+     * Field to access the flag indicating to deliver the events posted on
+     * the event bus asynchronously.
+     */
+    public static final String EVENT_BUS_ASYNCHRONOUS =
+            "/services/EventBus/asynchronous";
+
+    /**
+     * Field to access the flag indicating to trace the calls to the data
+     * services.
+     */
+    public static final String SERVICES_TRACE = "/services/data/trace";
+
+    /** Field to access the tracer of the calls to the data services. */
+    public static final String SERVICES_TRACER = "/services/data/tracer";
+
+    /**
+     * Field to access the directory the calls to the data services are
+     * recorded to or replayed from. No calls are recorded if not set.
+     */
+    public static final String SERVICES_ARCHIVE = "/services/data/archive";
+
+    /**
+     * Field to access the archive mode, either {@link #SERVICES_ARCHIVE_RECORD}
+     * or {@link #SERVICES_ARCHIVE_REPLAY}.
+     */
+    public static final String SERVICES_ARCHIVE_MODE =
+            "/services/data/archiveMode";
+
+    /** Indicates to record the calls to the data services. */
+    public static final String SERVICES_ARCHIVE_RECORD = "record";
+
+    /** Indicates to replay the calls instead of connecting to the server. */
+    public static final String SERVICES_ARCHIVE_REPLAY = "replay";
+
+    /**
+     * Field to access the latency, in milliseconds, injected in each
+     * replayed call.
+     */
+    public static final String SERVICES_REPLAY_LATENCY =
+            "/services/data/replayLatency";
+
+    /**
+     * Field to access the bandwidth, in kilobytes per second, at which the
+     * replayed results are served. <code>0</code> for no limit.
+     */
+    public static final String SERVICES_REPLAY_BANDWIDTH =
+            "/services/data/replayBandwidth";
+
+    /**
+     * Field to access the maximum number of sessions used concurrently to
+     * download a file.
+     */
+    public static final String DOWNLOAD_SESSIONS =
+            "/services/data/downloadSessions";
+
+    /**
+     * Field to access the time in milliseconds after which the cached
+     * annotations, tags and tag sets are discarded.
+     */
+    public static final String METADATA_CACHE_TTL =
+            "/services/data/metadataCacheTTL";
+
     public static final String MONITOR_FACTORY =
             "/services/data/views/MonitorFactory";
 
@@ -22,6 +22,8 @@ package org.openmicroscopy.shoola.env.data;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.List;
@@ -146,6 +148,27 @@ public class DataServicesFactory
 	/** The Administration service adapter. */
 	private AdminService				admin;
 
+	/** The archive the calls are recorded to or replayed from. */
+	private ServiceArchive				archive;
+
+	/**
+	 * Flag indicating that the calls are replayed from the archive
+	 * instead of sent to the server.
+	 */
+	private boolean						replay;
+
+	/**
+	 * The values bound to the registries when connecting, which are
+	 * recorded to replay the session.
+	 */
+	private static final String[] SESSION_KEYS = {
+		LookupNames.CURRENT_USER_DETAILS, LookupNames.USER_GROUP_DETAILS,
+		LookupNames.USERS_DETAILS, LookupNames.CAN_CREATE,
+		LookupNames.USER_ADMINISTRATOR, LookupNames.PRIV_FULL,
+		LookupNames.PRIV_EDIT_USER, LookupNames.PRIV_EDIT_GROUP,
+		LookupNames.PRIV_GROUP_ADD, LookupNames.PRIV_MOVE_GROUP,
+		LookupNames.PRIV_UPLOAD_SCRIPT, LookupNames.PRIV_SUDO};
+
 	/**
 	 * Attempts to create a new instance.
      * 
@@ -160,6 +183,20 @@ public class DataServicesFactory
 		container = c;
 		//Check what to do if null.
         omeroGateway = new OMEROGateway(this);
+        Integer idle = (Integer) registry.lookup(
+                LookupNames.RE_PIXELS_STORE_IDLE);
+        Integer planes = (Integer) registry.lookup(
+                LookupNames.RE_PLANE_CACHE_SZ);
+        omeroGateway.setPixelsAccess(idle == null ? 0 : idle.intValue(),
+                planes == null ? 0 : planes.intValue()*1024L*1024L);
+        Integer sessions = (Integer) registry.lookup(
+                LookupNames.DOWNLOAD_SESSIONS);
+        if (sessions != null)
+            omeroGateway.setDownloadSessions(sessions.intValue());
+        Integer ttl = (Integer) registry.lookup(
+                LookupNames.METADATA_CACHE_TTL);
+        if (ttl != null)
+            omeroGateway.setMetadataCacheTTL(ttl.intValue());
         
 		//Create the adapters.
         ds = new OmeroDataServiceImpl(omeroGateway, registry);
@@ -167,6 +204,42 @@ public class DataServicesFactory
         ms = new OmeroMetadataServiceImpl(omeroGateway, registry);
         admin = new AdminServiceImpl(omeroGateway, registry);
         
+        //Record the calls to the adapters or replay them if requested.
+        String dir = (String) registry.lookup(LookupNames.SERVICES_ARCHIVE);
+        if (CommonsLangUtils.isNotBlank(dir)) {
+            archive = new ServiceArchive(new File(dir.trim()),
+                    registry.getLogger());
+            replay = LookupNames.SERVICES_ARCHIVE_REPLAY.equals(
+                    registry.lookup(LookupNames.SERVICES_ARCHIVE_MODE));
+            if (replay) {
+                Integer latency = (Integer) registry.lookup(
+                        LookupNames.SERVICES_REPLAY_LATENCY);
+                Integer bandwidth = (Integer) registry.lookup(
+                        LookupNames.SERVICES_REPLAY_BANDWIDTH);
+                archive.setNetwork(latency == null ? 0 : latency.intValue(),
+                        bandwidth == null ? 0 : bandwidth.intValue());
+                ds = archive.replay(OmeroDataService.class);
+                is = archive.replay(OmeroImageService.class);
+                ms = archive.replay(OmeroMetadataService.class);
+                admin = archive.replay(AdminService.class);
+            } else {
+                ds = archive.record(OmeroDataService.class, ds);
+                is = archive.record(OmeroImageService.class, is);
+                ms = archive.record(OmeroMetadataService.class, ms);
+                admin = archive.record(AdminService.class, admin);
+            }
+        }
+        
+        //Trace the calls to the adapters if requested.
+        if (Boolean.TRUE.equals(registry.lookup(LookupNames.SERVICES_TRACE))) {
+            ServiceTracer tracer = new ServiceTracer();
+            ds = tracer.trace(OmeroDataService.class, ds);
+            is = tracer.trace(OmeroImageService.class, is);
+            ms = tracer.trace(OmeroMetadataService.class, ms);
+            admin = tracer.trace(AdminService.class, admin);
+            registry.bind(LookupNames.SERVICES_TRACER, tracer);
+        }
+        
         // pass the adapters on to the registry
         RegistryFactory.linkOS(ds, registry);
         RegistryFactory.linkMS(ms, registry);
@@ -512,6 +585,10 @@ public class DataServicesFactory
         }
         uc.setApplicationName(name);
         uc.setCheckNetwork(true);
+        if (replay) {
+            replaySession(uc);
+            return;
+        }
         ExperimenterData exp = omeroGateway.connect(uc);
 
 		//check client server version
@@ -761,6 +838,61 @@ public class DataServicesFactory
                 reg.bind(LookupNames.MDE_IMPORT_ENABLED, registry.lookup(LookupNames.MDE_IMPORT_ENABLED));
 			}
 		}
+		if (archive != null) recordSession();
+	}
+
+	/** Saves the values bound when connecting to the archive. */
+	private void recordSession()
+	{
+		Map<String, Object> details = new HashMap<String, Object>();
+		for (String key : SESSION_KEYS)
+			details.put(key, registry.lookup(key));
+		try {
+			archive.saveSession(details);
+		} catch (IOException e) {
+			LogMessage msg = new LogMessage(
+					"Could not record the session details", e);
+			registry.getLogger().warn(this, msg);
+		}
+	}
+
+	/**
+	 * Binds the values recorded when connecting instead of connecting to
+	 * the server.
+	 *
+	 * @param uc The user's credentials.
+	 * @throws DSOutOfServiceException If no session was recorded.
+	 */
+	private void replaySession(UserCredentials uc)
+		throws DSOutOfServiceException
+	{
+		Map<String, Object> details;
+		try {
+			details = archive.loadSession();
+		} catch (IOException e) {
+			throw new DSOutOfServiceException("No session to replay", e);
+		}
+		compatible = true;
+		uc.setAdministrator(Boolean.TRUE.equals(
+				details.get(LookupNames.USER_ADMINISTRATOR)));
+		Integer quality = determineImageQuality(uc.getSpeedLevel());
+		List agents = (List) registry.lookup(LookupNames.AGENTS);
+		List<Registry> registries = new ArrayList<Registry>();
+		registries.add(registry);
+		Iterator i = agents.iterator();
+		AgentInfo agentInfo;
+		while (i.hasNext()) {
+			agentInfo = (AgentInfo) i.next();
+			if (agentInfo.isActive()) registries.add(agentInfo.getRegistry());
+		}
+		for (Registry reg : registries) {
+			for (Entry<String, Object> e : details.entrySet())
+				reg.bind(e.getKey(), e.getValue());
+			reg.bind(LookupNames.IMAGE_QUALITY_LEVEL, quality);
+		}
+		registry.getLogger().info(this, "Replaying the session recorded in "+
+				registry.lookup(LookupNames.SERVICES_ARCHIVE));
+		registry.getEventBus().post(new ConnectedEvent());
 	}
 	
 	/**
@@ -771,7 +903,10 @@ public class DataServicesFactory
 	 * 
 	 * @return	<code>true</code> if connected, <code>false</code> otherwise.
 	 */
-	public boolean isConnected() { return omeroGateway.isConnected(); }
+	public boolean isConnected()
+	{
+		return replay || omeroGateway.isConnected();
+	}
 	
 	/**
 	 * Returns <code>true</code> if the client and server are compatible,
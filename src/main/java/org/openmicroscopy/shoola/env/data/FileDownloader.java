@@ -0,0 +1,447 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+//Third-party libraries
+
+//Application-internal dependencies
+import ome.util.checksum.ChecksumProvider;
+import ome.util.checksum.ChecksumProviderFactory;
+import ome.util.checksum.ChecksumType;
+import omero.api.RawFileStorePrx;
+import omero.gateway.Gateway;
+import omero.gateway.SecurityContext;
+import org.openmicroscopy.shoola.env.data.util.CallCancellation;
+import org.openmicroscopy.shoola.util.concur.tasks.CancelToken;
+
+/**
+ * Downloads an original file in ranges fetched concurrently over several
+ * raw file stores, writing each range at its position in the file.
+ * <p>The completed ranges are recorded in a journal next to the file, so
+ * that an interrupted download resumes where it stopped instead of starting
+ * from zero. The journal is removed once the file is complete and, if the
+ * server holds its SHA1 hash, verified.</p>
+ * <p>The thread calling {@link #download()} fetches ranges itself and the
+ * other stores are served by a pool shared by all the downloads, so that
+ * the number of threads downloading is bounded whatever the number of
+ * files downloaded at once.</p>
+ *
+ * @since 5.8.5
+ */
+class FileDownloader
+{
+
+    /** The size of the ranges, in bytes. */
+    static final int RANGE_SIZE = 8*1024*1024;
+
+    /** The extension of the journal. */
+    static final String JOURNAL_EXTENSION = ".download";
+
+    /** The maximum number of threads shared by all the downloads. */
+    static final int MAX_THREADS = 8;
+
+    /** The threads shared by all the downloads. */
+    private static final ExecutorService WORKERS;
+
+    static {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_THREADS,
+                MAX_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            private int count;
+            public synchronized Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "FileDownloader-"+(++count));
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        pool.allowCoreThreadTimeOut(true);
+        WORKERS = pool;
+    }
+
+    /** Reference to the gateway. */
+    private final Gateway gw;
+
+    /** The security context. */
+    private final SecurityContext ctx;
+
+    /** The identifier of the original file. */
+    private final long fileID;
+
+    /** The file to write to. */
+    private final File file;
+
+    /** The journal of the completed ranges. */
+    private final File journal;
+
+    /** The SHA1 hash of the file, <code>null</code> if not known. */
+    private final String hash;
+
+    /** The maximum number of stores used concurrently. */
+    private final int sessions;
+
+    /** The number of bytes read per call. */
+    private final int blockSize;
+
+    /** The checksum providers. */
+    private final ChecksumProviderFactory checksums;
+
+    /** The size of the file. */
+    private long size;
+
+    /** The number of ranges. */
+    private int ranges;
+
+    /** The completed ranges. */
+    private BitSet done;
+
+    /** The index of the next range to check. */
+    private int next;
+
+    /** Set when a range failed, so that the other stores stop. */
+    private volatile boolean failed;
+
+    /**
+     * Returns the index of the next range to fetch or <code>-1</code> if
+     * none.
+     *
+     * @return See above.
+     */
+    private synchronized int nextRange()
+    {
+        if (failed) return -1;
+        next = done.nextClearBit(next);
+        if (next >= ranges) return -1;
+        return next++;
+    }
+
+    /**
+     * Marks the specified range as completed and saves the journal.
+     * The content of the file is forced to the disk first, so that the
+     * journal never records a range which could be lost.
+     *
+     * @param index The index of the range.
+     * @param channel The channel the range was written to.
+     * @throws IOException If the file or the journal cannot be written.
+     */
+    private synchronized void completed(int index, FileChannel channel)
+        throws IOException
+    {
+        channel.force(false);
+        done.set(index);
+        Properties p = new Properties();
+        p.setProperty("fileID", String.valueOf(fileID));
+        p.setProperty("size", String.valueOf(size));
+        p.setProperty("range", String.valueOf(RANGE_SIZE));
+        if (hash != null) p.setProperty("hash", hash);
+        StringBuffer buf = new StringBuffer();
+        long[] words = done.toLongArray();
+        for (int i = 0; i < words.length; i++) {
+            if (i > 0) buf.append(",");
+            buf.append(Long.toHexString(words[i]));
+        }
+        p.setProperty("done", buf.toString());
+        OutputStream out = new FileOutputStream(journal);
+        try {
+            p.store(out, null);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Loads the ranges completed by a previous download of the same file.
+     *
+     * @return See above, empty if the download cannot be resumed.
+     */
+    private BitSet loadJournal()
+    {
+        if (!journal.exists() || !file.exists()) return new BitSet();
+        Properties p = new Properties();
+        try {
+            InputStream in = new FileInputStream(journal);
+            try {
+                p.load(in);
+            } finally {
+                in.close();
+            }
+            if (Long.parseLong(p.getProperty("fileID")) != fileID ||
+                Long.parseLong(p.getProperty("size")) != size ||
+                Integer.parseInt(p.getProperty("range")) != RANGE_SIZE ||
+                (hash != null && !hash.equals(p.getProperty("hash"))) ||
+                file.length() != size)
+                return new BitSet();
+            String value = p.getProperty("done", "");
+            if (value.length() == 0) return new BitSet();
+            String[] values = value.split(",");
+            long[] words = new long[values.length];
+            for (int i = 0; i < values.length; i++)
+                words[i] = Long.parseUnsignedLong(values[i], 16);
+            return BitSet.valueOf(words);
+        } catch (Exception e) {
+            return new BitSet();
+        }
+    }
+
+    /**
+     * Fetches the ranges until none is left.
+     *
+     * @param store The store to read from.
+     * @param channel The channel to write to.
+     * @throws Exception If an error occurred while reading or writing.
+     */
+    private void fetch(RawFileStorePrx store, FileChannel channel)
+        throws Exception
+    {
+        int index;
+        long offset, end;
+        int length;
+        byte[] bytes;
+        ByteBuffer buffer;
+        while ((index = nextRange()) >= 0) {
+            offset = (long) index*RANGE_SIZE;
+            end = Math.min(size, offset+RANGE_SIZE);
+            while (offset < end) {
+                if (failed) return;
+                length = (int) Math.min(blockSize, end-offset);
+                bytes = read(store, offset, length);
+                buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining())
+                    offset += channel.write(buffer, offset);
+            }
+            completed(index, channel);
+        }
+    }
+
+    /**
+     * Opens a store positioned on the file.
+     *
+     * @return See above.
+     * @throws Exception If the store cannot be opened.
+     */
+    private RawFileStorePrx open()
+        throws Exception
+    {
+        RawFileStorePrx store = createStore();
+        try {
+            store.setFileId(fileID);
+        } catch (Exception e) {
+            close(store);
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Creates a raw file store.
+     *
+     * @return See above.
+     * @throws Exception If the store couldn't be created.
+     */
+    RawFileStorePrx createStore()
+        throws Exception
+    {
+        return gw.getRawFileService(ctx);
+    }
+
+    /**
+     * Reads a block of the file with the specified store. The read is
+     * aborted if the data call is cancelled.
+     *
+     * @param store The store to read with.
+     * @param offset The position of the block.
+     * @param length The length of the block.
+     * @return See above.
+     * @throws Exception If the block couldn't be read.
+     */
+    byte[] read(RawFileStorePrx store, long offset, int length)
+        throws Exception
+    {
+        return store.end_read(CallCancellation.await(
+                store.begin_read(offset, length)));
+    }
+
+    /**
+     * Closes the specified store.
+     *
+     * @param store The store to close.
+     */
+    void close(RawFileStorePrx store)
+    {
+        gw.closeService(ctx, store);
+    }
+
+    /**
+     * Returns the SHA1 hash of the downloaded file.
+     *
+     * @return See above.
+     */
+    private String computeHash()
+    {
+        ChecksumProvider provider = checksums.getProvider(ChecksumType.SHA1);
+        provider.putFile(file.getAbsolutePath());
+        return provider.checksumAsString();
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param gw Reference to the gateway.
+     * @param ctx The security context.
+     * @param fileID The identifier of the original file.
+     * @param file The file to write to.
+     * @param hash The SHA1 hash of the file, <code>null</code> if not known.
+     * @param sessions The maximum number of stores used concurrently.
+     * @param blockSize The number of bytes read per call.
+     * @param checksums The checksum providers.
+     */
+    FileDownloader(Gateway gw, SecurityContext ctx, long fileID, File file,
+            String hash, int sessions, int blockSize,
+            ChecksumProviderFactory checksums)
+    {
+        this.gw = gw;
+        this.ctx = ctx;
+        this.fileID = fileID;
+        this.file = file;
+        this.hash = hash;
+        this.sessions = Math.max(1, sessions);
+        this.blockSize = blockSize;
+        this.checksums = checksums;
+        journal = new File(file.getPath()+JOURNAL_EXTENSION);
+    }
+
+    /**
+     * Downloads the file, resuming a previous download if any.
+     * The partially downloaded file and the journal are kept if the
+     * download fails so that it can be resumed.
+     *
+     * @return The file.
+     * @throws Exception If the download failed or the file doesn't match
+     *                   the hash held by the server.
+     */
+    File download()
+        throws Exception
+    {
+        final RawFileStorePrx first = open();
+        final List<RawFileStorePrx> stores = new ArrayList<RawFileStorePrx>();
+        stores.add(first);
+        List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        RandomAccessFile raf = null;
+        try {
+            size = first.size();
+            ranges = (int) ((size+RANGE_SIZE-1)/RANGE_SIZE);
+            done = loadJournal();
+            raf = new RandomAccessFile(file, "rw");
+            if (done.isEmpty()) raf.setLength(size);
+            final FileChannel channel = raf.getChannel();
+            int pending = ranges-done.cardinality();
+            int n = Math.min(sessions, pending);
+            if (n > 1) {
+                final CancelToken token = CancelToken.current();
+                for (int i = 1; i < n; i++) {
+                    futures.add(WORKERS.submit(new Callable<Object>() {
+                        public Object call() throws Exception {
+                            CancelToken previous = CancelToken.setCurrent(token);
+                            try {
+                                RawFileStorePrx store = open();
+                                synchronized (stores) {
+                                    stores.add(store);
+                                }
+                                fetch(store, channel);
+                            } catch (Exception e) {
+                                failed = true;
+                                throw e;
+                            } finally {
+                                CancelToken.setCurrent(previous);
+                            }
+                            return null;
+                        }
+                    }));
+                }
+                Exception error = null;
+                try {
+                    fetch(first, channel);
+                } catch (Exception e) {
+                    failed = true;
+                    error = e;
+                }
+                //The ranges are all fetched or failed, drop the stores
+                //still waiting for a shared thread.
+                for (Future<Object> f : futures)
+                    f.cancel(false);
+                for (Future<Object> f : futures) {
+                    try {
+                        f.get();
+                    } catch (CancellationException e) {
+                        //not started
+                    } catch (ExecutionException e) {
+                        if (error == null)
+                            error = e.getCause() instanceof Exception ?
+                                    (Exception) e.getCause() : e;
+                    }
+                }
+                if (error != null) throw error;
+            } else if (n == 1) fetch(first, channel);
+            channel.force(false);
+        } finally {
+            for (Future<Object> f : futures)
+                f.cancel(false);
+            if (raf != null) raf.close();
+            synchronized (stores) {
+                for (RawFileStorePrx store : stores)
+                    close(store);
+            }
+        }
+        if (hash != null && !hash.equalsIgnoreCase(computeHash())) {
+            file.delete();
+            journal.delete();
+            throw new IOException("Checksum mismatch on download: "+file);
+        }
+        journal.delete();
+        return file;
+    }
+
+}
@@ -47,6 +47,7 @@ import omero.gateway.facility.TransferFacility;
 import omero.gateway.model.FolderData;
 import omero.gateway.model.PixelsData;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.openmicroscopy.shoola.util.CommonsLangUtils;
 
 import com.google.common.collect.ArrayListMultimap;
@@ -60,11 +61,17 @@ import org.openmicroscopy.shoola.env.data.model.MovieExportParam;
 import org.openmicroscopy.shoola.env.data.model.FigureParam;
 import org.openmicroscopy.shoola.env.data.model.SaveAsParam;
 import org.openmicroscopy.shoola.env.data.model.ScriptObject;
+import org.openmicroscopy.shoola.env.data.model.ColumnarTableResult;
 import org.openmicroscopy.shoola.env.data.model.TableParameters;
+import org.openmicroscopy.shoola.env.data.util.CallCancellation;
+import org.openmicroscopy.shoola.env.data.util.IdentityMap;
+import org.openmicroscopy.shoola.env.data.util.MetadataCache;
 import org.openmicroscopy.shoola.env.data.util.ModelMapper;
+import org.openmicroscopy.shoola.env.data.util.PlaneCache;
 
 import omero.gateway.util.PojoMapper;
 
+import org.openmicroscopy.shoola.env.data.util.SearchCursor;
 import org.openmicroscopy.shoola.env.data.util.SearchDataContext;
 
 import omero.gateway.Gateway;
@@ -145,10 +152,8 @@ import omero.cmd.HandlePrx;
 import omero.cmd.Request;
 import omero.cmd.Response;
 import omero.constants.projection.ProjectionType;
-import omero.grid.BoolColumn;
 import omero.grid.Column;
 import omero.grid.Data;
-import omero.grid.DoubleColumn;
 import omero.grid.ImageColumn;
 import omero.grid.ImportProcessPrx;
 import omero.grid.ImportRequest;
@@ -158,7 +163,6 @@ import omero.grid.RepositoryMap;
 import omero.grid.RepositoryPrx;
 import omero.grid.RoiColumn;
 import omero.grid.SharedResourcesPrx;
-import omero.grid.StringColumn;
 import omero.grid.TablePrx;
 import omero.grid.WellColumn;
 import omero.model.ChecksumAlgorithm;
@@ -199,8 +203,10 @@ import omero.model.Project;
 import omero.model.ProjectI;
 import omero.model.RectangleI;
 import omero.model.RenderingDef;
+import omero.model.Roi;
 import omero.model.Screen;
 import omero.model.ScreenI;
+import omero.model.Shape;
 import omero.model.TagAnnotation;
 import omero.model.TagAnnotationI;
 import omero.model.Well;
@@ -239,6 +245,7 @@ import omero.gateway.model.ROIData;
 import omero.gateway.model.RatingAnnotationData;
 import omero.gateway.model.RectangleData;
 import omero.gateway.model.ScreenData;
+import omero.gateway.model.ShapeData;
 import omero.gateway.model.TagAnnotationData;
 import omero.gateway.model.TermAnnotationData;
 import omero.gateway.model.TextData;
@@ -324,8 +331,8 @@ class OMEROGateway
 	 */
 	static final int						MAX_RETRIEVAL = 50;//100;
 
-	/** Maximum number of rows to retrieve at one time from a table. */
-	private static final int				MAX_TABLE_ROW_RETRIEVAL = 100000;
+	/** The maximum number of ROIs saved at once. */
+	private static final int				ROI_BATCH_SIZE = 500;
 
 	/** The collection of escaping characters we allow in the search. */
 	private static final List<Character>	SUPPORTED_SPECIAL_CHAR;
@@ -381,13 +388,25 @@ class OMEROGateway
 	 */
 	private DataServicesFactory dsFactory;
 
-	/** Map hosting the enumeration required for metadata. */
-	private Map<String, List<EnumerationObject>> enumerations;
+	/** The annotations, tags and enumerations already retrieved. */
+	private MetadataCache metadataCache;
+
+	/** The single copy of the images and containers shared by the agents. */
+	private IdentityMap identityMap;
 
 	/** Keep track of the file system view. */
 	private Map<Long, FSFileSystemView> fsViews;
 	
 	private Gateway gw;
+
+	/** The raw pixels stores kept open between the retrieval of planes. */
+	private RawPixelsStorePool pixelsStores;
+
+	/** The raw planes already retrieved. */
+	private PlaneCache planeCache;
+
+	/** The maximum number of stores used concurrently to download a file. */
+	private int downloadSessions = 1;
 	
     // Keep track of the rendering engines currently in use
     private Map<SecurityContext, Set<Long>> renderingEngines = new HashMap<SecurityContext, Set<Long>>();
@@ -624,122 +643,76 @@ class OMEROGateway
 	}
 
 	/**
-	 * Translates a set of table results into an array.
-	 * @param src Source data from the table.
-	 * @param dst Destination array.
-	 * @param offset Offset within the destination array from which to copy
-	 * data into.
-	 * @param length Number of rows of data to be copied.
-	 */
-	private void translateTableResult(Data src, Object[][] dst, int offset,
-	                                  int length, Map<Integer, Integer> indexes)
-	{
-		Column[] cols = src.columns;
-		Column column;
-		for (int i = 0; i < cols.length; i++) {
-			column = cols[i];
-			if (column instanceof LongColumn) {
-				for (int j = 0; j < length; j++) {
-					dst[j + offset][i] =
-						((LongColumn) column).values[j];
-				}
-			} else if (column instanceof DoubleColumn) {
-				for (int j = 0; j < length; j++) {
-					dst[j + offset][i] =
-						((DoubleColumn) column).values[j];
-				}
-			} else if (column instanceof StringColumn) {
-				for (int j = 0; j < length; j++) {
-					dst[j + offset][i] =
-						((StringColumn) column).values[j];
-				}
-			} else if (column instanceof BoolColumn) {
-				for (int j = 0; j < length; j++) {
-					dst[j + offset][i] =
-						((BoolColumn) column).values[j];
-				}
-			} else if (column instanceof RoiColumn) {
-				indexes.put(TableResult.ROI_COLUMN_INDEX, i);
-				for (int j = 0; j < length; j++) {
-					dst[j + offset][i] =
-						((RoiColumn) column).values[j];
-				}
-			} else if (column instanceof ImageColumn) {
-				indexes.put(TableResult.IMAGE_COLUMN_INDEX, i);
-				for (int j = 0; j < length; j++) {
-					dst[j + offset][i] =
-						((ImageColumn) column).values[j];
-				}
-			} else if (column instanceof WellColumn) {
-				indexes.put(TableResult.WELL_COLUMN_INDEX, i);
-				for (int j = 0; j < length; j++) {
-					dst[j + offset][i] =
-						((WellColumn) column).values[j];
-				}
-			}
-		}
-	}
-
-	/**
-	 * Transforms a set of rows for the passed table.
+	 * Creates a result reading the rows of the passed table on demand,
+	 * in windows, instead of all at once. The table is left open.
 	 *
-	 * @param table The table to convert.
-	 * @param rows The rows of the table to convert.
-	 * @return See above
+	 * @param ctx The security context.
+	 * @param fileID The identifier of the original file hosting the table.
+	 * @param table The table to read.
+	 * @return See above.
 	 * @throws DSAccessException If an error occurred while trying to
 	 *                           retrieve data from OMEDS service.
 	 */
-	private TableResult createTableResult(TablePrx table, long[] rows)
+	private ColumnarTableResult createColumnarTableResult(SecurityContext ctx,
+			long fileID, TablePrx table)
 		throws DSAccessException
 	{
-		if (table == null) return null;
+		TableWindowReader reader = null;
 		try {
 			Column[] cols = table.getHeaders();
 			String[] headers = new String[cols.length];
 			String[] headersDescriptions = new String[cols.length];
+			Map<Integer, Integer> indexes = new HashMap<Integer, Integer>();
 			for (int i = 0; i < cols.length; i++) {
 				headers[i] = cols[i].name;
 				headersDescriptions[i] = cols[i].description;
+				if (cols[i] instanceof RoiColumn)
+					indexes.put(TableResult.ROI_COLUMN_INDEX, i);
+				else if (cols[i] instanceof ImageColumn)
+					indexes.put(TableResult.IMAGE_COLUMN_INDEX, i);
+				else if (cols[i] instanceof WellColumn)
+					indexes.put(TableResult.WELL_COLUMN_INDEX, i);
 			}
-			int totalRowCount = rows.length;
-			Object[][] data = new Object[totalRowCount][cols.length];
-			Data d;
-			long[] columns = new long[cols.length];
-			for (int i = 0; i < cols.length; i++) {
-				columns[i] = i;
-			}
-
-			int rowOffset = 0;
-			int rowCount = 0;
-			int rowsToGo = totalRowCount;
-			long[] rowSubset;
-			Map<Integer, Integer> indexes = new HashMap<Integer, Integer>();
-			while (rowsToGo > 0) {
-				rowCount = (int) Math.min(MAX_TABLE_ROW_RETRIEVAL,
-				                          totalRowCount - rowOffset);
-				rowSubset = new long[rowCount];
-				System.arraycopy(rows, rowOffset, rowSubset, 0, rowCount);
-				d = table.slice(columns, rowSubset);
-				for (int i = 0; i < cols.length; i++) {
-					translateTableResult(d, data, rowOffset, rowCount, indexes);
-				}
-				rowOffset += rowCount;
-				rowsToGo -= rowCount;
-			}
-			table.close();
-			TableResult tr = new TableResult(data, headers);
-			tr.setIndexes(indexes);
-			return tr;
+			reader = new TableWindowReader(this, ctx, fileID, cols.length,
+					table);
+			return new ColumnarTableResult(headers, headersDescriptions,
+					table.getNumberOfRows(), indexes, reader);
 		} catch (Exception e) {
-			try {
-				if (table != null) table.close();
-			} catch (Exception ex) {
-				//Digest exception
+			if (reader != null) reader.close();
+			else {
+				try {
+					table.close();
+				} catch (Exception ex) {
+					//Digest exception
+				}
 			}
 			throw new DSAccessException("Unable to read the table.", e);
 		}
 	}
 
+	/**
+	 * Opens the table hosted by the specified file.
+	 *
+	 * @param ctx The security context.
+	 * @param fileID The identifier of the original file hosting the table.
+	 * @return See above.
+	 * @throws DSOutOfServiceException If the connection is broken, or not
+	 *                                 logged in.
+	 * @throws DSAccessException If an error occurred while trying to
+	 *                           retrieve data from OMEDS service.
+	 */
+	TablePrx openTable(SecurityContext ctx, long fileID)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		try {
+			return getSharedResources(ctx).openTable(
+					new OriginalFileI(fileID, false));
+		} catch (Exception e) {
+			handleException(e, "Cannot open the table: "+fileID);
+		}
+		return null;
+	}
+
 	/**
 	 * Helper method to handle exceptions thrown by the connection library.
 	 * Methods in this class are required to fill in a meaningful context
@@ -789,6 +762,8 @@ class OMEROGateway
 	 */
 	boolean handleConnectionException(Throwable e)
 	{
+		//The call failed because it was cancelled, not b/c of the connection.
+		if (CallCancellation.isCancelled()) return true;
 		ConnectionExceptionHandler handler = new ConnectionExceptionHandler();
 		int index = handler.handleConnectionException(e);
 		if (index < 0) return true;
@@ -1324,11 +1299,73 @@ class OMEROGateway
 		if (dsFactory == null)
 			throw new IllegalArgumentException("No Data service factory.");
 		this.dsFactory = dsFactory;
-		enumerations = new HashMap<String, List<EnumerationObject>>();
+		metadataCache = new MetadataCache(0);
+		identityMap = new IdentityMap();
 		
 		this.gw = new Gateway(dsFactory.getLogger());
+		pixelsStores = new RawPixelsStorePool(gw);
+		planeCache = new PlaneCache(0);
+	}
+
+	/**
+	 * Sets how long the raw pixels stores are kept open when idle and the
+	 * size of the raw planes cache.
+	 *
+	 * @param idleTime The time in milliseconds, <code>0</code> to close the
+	 *                 stores after each plane.
+	 * @param cacheSize The size of the cache in bytes, <code>0</code> to
+	 *                  disable the cache.
+	 */
+	void setPixelsAccess(long idleTime, long cacheSize)
+	{
+		pixelsStores.setIdleTime(idleTime);
+		planeCache.setBudget(cacheSize);
 	}
 
+	/**
+	 * Sets the maximum number of stores used concurrently to download a
+	 * file.
+	 *
+	 * @param sessions The number of stores.
+	 */
+	void setDownloadSessions(int sessions)
+	{
+		downloadSessions = Math.max(1, sessions);
+	}
+
+	/**
+	 * Returns the cache of the raw planes.
+	 *
+	 * @return See above.
+	 */
+	PlaneCache getPlaneCache() { return planeCache; }
+
+	/**
+	 * Sets the time after which the cached annotations, tags and tag sets
+	 * are discarded so that changes made by other users are picked up.
+	 *
+	 * @param timeToLive The time in milliseconds, <code>0</code> to disable
+	 *                   the cache.
+	 */
+	void setMetadataCacheTTL(long timeToLive)
+	{
+		metadataCache.setTimeToLive(timeToLive);
+	}
+
+	/**
+	 * Returns the cache of the annotations, tags and enumerations.
+	 *
+	 * @return See above.
+	 */
+	MetadataCache getMetadataCache() { return metadataCache; }
+
+	/**
+	 * Returns the map holding the single copy of the images and containers.
+	 *
+	 * @return See above.
+	 */
+	IdentityMap getIdentityMap() { return identityMap; }
+
 	public Gateway getGateway() {
 	    return this.gw;
 	}
@@ -1619,6 +1656,10 @@ class OMEROGateway
 	}
 
 	void logout() {
+	    pixelsStores.clear();
+	    planeCache.clear();
+	    metadataCache.clear();
+	    identityMap.clear();
 	    gw.disconnect();
 	}
 
@@ -1832,6 +1873,70 @@ class OMEROGateway
 		return new HashSet();
 	}
 
+	/**
+	 * Retrieves a page of the images contained in the specified dataset,
+	 * sorted by name, so that large datasets can be displayed before all
+	 * their images are loaded.
+	 *
+	 * @param ctx The security context.
+	 * @param datasetID The identifier of the dataset.
+	 * @param offset The index of the first image to retrieve.
+	 * @param limit The maximum number of images to retrieve.
+	 * @return See above.
+	 * @throws DSOutOfServiceException If the connection is broken, or not logged in
+	 * @throws DSAccessException If an error occurred while trying to
+	 * retrieve data from OMERO service.
+	 */
+	List<ImageData> loadContainerLeaves(SecurityContext ctx, long datasetID,
+			int offset, int limit)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		List<ImageData> images = new ArrayList<ImageData>();
+		try {
+			IQueryPrx service = gw.getQueryService(ctx);
+			//Page the identifiers first, fetching the collections of the
+			//images would otherwise force the paging in memory.
+			ParametersI param = new ParametersI();
+			param.addLong("id", datasetID);
+			param.page(offset, limit);
+			String sql = "select img.id from Image as img "
+					+ "join img.datasetLinks as link "
+					+ "where link.parent.id = :id "
+					+ "order by lower(img.name), img.id";
+			List<List<RType>> rows = service.projection(sql, param);
+			if (rows == null || rows.isEmpty()) return images;
+			List<Long> ids = new ArrayList<Long>(rows.size());
+			for (List<RType> row : rows)
+				ids.add(((RLong) row.get(0)).getValue());
+			param = new ParametersI();
+			param.addLongs("ids", ids);
+			StringBuilder sb = new StringBuilder();
+			sb.append("select img from Image as img ");
+			sb.append("join fetch img.details.owner ");
+			sb.append("join fetch img.details.creationEvent ");
+			sb.append("left outer join fetch "
+					+ "img.annotationLinksCountPerOwner img_a_c ");
+			sb.append("left outer join fetch img.pixels as pix ");
+			sb.append("left outer join fetch pix.pixelsType as pt ");
+			sb.append("where img.id in (:ids)");
+			Map<Long, ImageData> m = new HashMap<Long, ImageData>();
+			Iterator<IObject> i = service.findAllByQuery(sb.toString(),
+					param).iterator();
+			ImageData img;
+			while (i.hasNext()) {
+				img = (ImageData) PojoMapper.asDataObject(i.next());
+				m.put(img.getId(), img);
+			}
+			for (Long id : ids) {
+				img = m.get(id);
+				if (img != null) images.add(img);
+			}
+		} catch (Throwable t) {
+			handleException(t, "Cannot find images for dataset "+datasetID+".");
+		}
+		return images;
+	}
+
     /**
      * Retrieves the images imported by the current user.
      * @param ctx
@@ -1974,6 +2079,29 @@ class OMEROGateway
 		return new ArrayList<IObject>();
 	}
 
+	/**
+	 * Creates the specified objects without loading them back, e.g. the
+	 * links created during a batch annotation.
+	 *
+	 * @param ctx The security context.
+	 * @param objects The objects to create.
+	 * @throws DSOutOfServiceException If the connection is broken, or not logged in
+	 * @throws DSAccessException If an error occurred while trying to
+	 * retrieve data from OMERO service.
+	 */
+	void saveArray(SecurityContext ctx, List<IObject> objects)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		try {
+		    IUpdatePrx service = gw.getUpdateService(ctx);
+			service.saveArray(objects);
+		} catch (Throwable t) {
+			handleException(t, "Cannot create the objects.");
+		} finally {
+			metadataCache.invalidate(objects);
+		}
+	}
+
 	/**
 	 * Deletes the specified object.
 	 *
@@ -2013,6 +2141,8 @@ class OMEROGateway
                 throw new Exception("Cannot delete the object.");
         } catch (Throwable t) {
             handleException(t, "Cannot delete the object.");
+        } finally {
+            metadataCache.invalidate(objects);
         }
 	}
 
@@ -2037,6 +2167,8 @@ class OMEROGateway
 			return service.saveAndReturnObject(object, options);
 		} catch (Throwable t) {
 			handleException(t, "Cannot update the object.");
+		} finally {
+			metadataCache.invalidate(object);
 		}
 		return null;
 	}
@@ -2064,6 +2196,8 @@ class OMEROGateway
 			return service.saveAndReturnObject(object, options);
 		} catch (Throwable t) {
 			handleException(t, "Cannot update the object.");
+		} finally {
+			metadataCache.invalidate(object);
 		}
 		return null;
 	}
@@ -2088,6 +2222,8 @@ class OMEROGateway
 			return service.saveAndReturnArray(objects);
 		} catch (Throwable t) {
 			handleException(t, "Cannot update the object.");
+		} finally {
+			metadataCache.invalidate(objects);
 		}
 		return new ArrayList<IObject>();
 	}
@@ -2113,6 +2249,8 @@ class OMEROGateway
 			return findIObject(ctx, r);
 		} catch (Throwable t) {
 			handleException(t, "Cannot update the object.");
+		} finally {
+			metadataCache.invalidate(object);
 		}
 		return null;
 	}
@@ -2147,6 +2285,8 @@ class OMEROGateway
 			return r;
 		} catch (Throwable t) {
 			handleException(t, "Cannot update the object.");
+		} finally {
+			metadataCache.invalidate(objects);
 		}
 		return new ArrayList<IObject>();
 	}
@@ -2330,8 +2470,10 @@ class OMEROGateway
 		ThumbnailStorePrx service = null;
 		try {
 		    service = gw.getThumbnailService(ctx);
-			return service.getThumbnailByLongestSideSet(
-					omero.rtypes.rint(maxLength), pixelsID);
+			return service.end_getThumbnailByLongestSideSet(
+					CallCancellation.await(
+					service.begin_getThumbnailByLongestSideSet(
+					omero.rtypes.rint(maxLength), pixelsID)));
 		} catch (Throwable t) {
 			handleConnectionException(t);
 			if (t instanceof ServerError) {
@@ -3065,6 +3207,40 @@ class OMEROGateway
 		return fc.downloadImage(ctx, dir.getAbsolutePath(), image.getId());
 	}
 
+	/**
+	 * Reads the specified block of the file. The read is cancelled if the
+	 * data call that issued it is.
+	 *
+	 * @param store The store to read from.
+	 * @param offset The position of the block.
+	 * @param length The length of the block.
+	 * @return See above.
+	 * @throws ServerError If an error occurred while reading.
+	 */
+	private byte[] read(RawFileStorePrx store, long offset, int length)
+		throws ServerError
+	{
+		return store.end_read(CallCancellation.await(
+				store.begin_read(offset, length)));
+	}
+
+	/**
+	 * Reads the specified block of the exported file. The read is cancelled
+	 * if the data call that issued it is.
+	 *
+	 * @param store The store to read from.
+	 * @param offset The position of the block.
+	 * @param length The length of the block.
+	 * @return See above.
+	 * @throws ServerError If an error occurred while reading.
+	 */
+	private byte[] read(ExporterPrx store, long offset, int length)
+		throws ServerError
+	{
+		return store.end_read(CallCancellation.await(
+				store.begin_read(offset, length)));
+	}
+
 	/**
 	 * Downloads a file previously uploaded to the server.
 	 *
@@ -3102,46 +3278,63 @@ class OMEROGateway
 		OriginalFile of = getOriginalFile(ctx, fileID);
 		if (of == null) return null;
 
-		final String path = file.getAbsolutePath();
-
-		RawFileStorePrx store = null;
+		String hash = null;
+		ChecksumAlgorithm hasher = of.getHasher();
+		if (of.getHash() != null && hasher != null && hasher.isLoaded() &&
+				ChecksumAlgorithmSHA1160.value.equals(
+						hasher.getValue().getValue()))
+			hash = of.getHash().getValue();
+		FileDownloader downloader = new FileDownloader(gw, ctx, fileID, file,
+				hash, downloadSessions, INC, checksumProviderFactory);
 		try {
-		    store = gw.getRawFileService(ctx);
-			store.setFileId(fileID);
+			downloader.download();
+		} catch (IOException e) {
+			throw new DSAccessException("Cannot download the file to " +
+					file.getAbsolutePath(), e);
 		} catch (Throwable e) {
-		    gw.closeService(ctx, store);
-			handleException(e, "Cannot set the file's id.");
-			return null; // Never reached.
+			handleException(e, "Cannot download the file: "+fileID);
 		}
+		return file;
+	}
 
-		try {
-			long size = -1;
-			long offset = 0;
-			FileOutputStream stream = new FileOutputStream(file);
-			try {
-				try {
-				    size = store.size();
-					for (offset = 0; (offset+INC) < size;) {
-						stream.write(store.read(offset, INC));
-						offset += INC;
-					}
-				} finally {
-					stream.write(store.read(offset, (int) (size-offset)));
-					stream.close();
-				}
-			} catch (Exception e) {
-				if (stream != null) stream.close();
-				if (file != null) file.delete();
+	/**
+	 * Downloads the files hosted by the specified annotations straight into
+	 * a zip.
+	 *
+	 * @param ctx The security context.
+	 * @param zip The zip to create.
+	 * @param files The annotations hosting the files.
+	 * @return See above.
+	 * @throws DSOutOfServiceException If the connection is broken, or not logged in
+	 * @throws DSAccessException If an error occurred while trying to
+	 * retrieve data from OMERO service.
+	 */
+	File downloadAsZip(SecurityContext ctx, File zip,
+			Collection<FileAnnotationData> files)
+		throws DSAccessException, DSOutOfServiceException
+	{
+		ZipDownloader downloader = new ZipDownloader(gw, ctx, zip,
+				downloadSessions);
+		long size;
+		OriginalFile of;
+		for (FileAnnotationData fa : files) {
+			size = fa.getFileSize();
+			if (size < 0) {
+				of = getOriginalFile(ctx, fa.getFileID());
+				if (of == null || of.getSize() == null) continue;
+				size = of.getSize().getValue();
 			}
+			downloader.add(fa.getFileName(), fa.getFileID(), size);
+		}
+		try {
+			return downloader.download();
 		} catch (IOException e) {
-			if (file != null) file.delete();
-			gw.closeService(ctx, store);
-			throw new DSAccessException("Cannot create file  " +path, e);
-		} finally {
-		    gw.closeService(ctx, store);
+			throw new DSAccessException("Cannot create the zip " +
+					zip.getAbsolutePath(), e);
+		} catch (Throwable e) {
+			handleException(e, "Cannot download the files.");
 		}
-
-		return file;
+		return null;
 	}
 
 	/**
@@ -3164,6 +3357,7 @@ class OMEROGateway
 			param.map.put("id", omero.rtypes.rlong(id));
 			of = (OriginalFile) svc.findByQuery(
 					"select p from OriginalFile as p " +
+					"left outer join fetch p.hasher " +
 					"where p.id = :id", param);
 		} catch (Exception e) {
 			handleException(e, "Cannot retrieve original file");
@@ -3441,7 +3635,7 @@ class OMEROGateway
                     final Chmod2 chmod = Requests.chmod().target(group.asGroup()).toPerms(r).build();
                     List<Request> l = new ArrayList<Request>();
                     l.add(chmod);
-                    return new RequestCallback(gw.submit(ctx, l, null));
+                    return submitCommands(ctx, l, null);
                 } catch (Throwable e) {
                     handleException(e, "Cannot update the group's permissions. ");
                 }
@@ -3450,6 +3644,30 @@ class OMEROGateway
             return null;
         }
 	
+	/**
+	 * Submits the specified commands. The commands run asynchronously so the
+	 * metadata cache is invalidated when they are submitted and again once
+	 * they have completed, successfully or not, since the values read in the
+	 * meantime may be out of date.
+	 *
+	 * @param ctx The security context.
+	 * @param commands The commands to submit.
+	 * @param target The security context of the target group or
+	 *               <code>null</code>.
+	 * @return See above.
+	 * @throws Throwable If the commands cannot be submitted.
+	 */
+	private RequestCallback submitCommands(SecurityContext ctx,
+			List<Request> commands, SecurityContext target)
+		throws Throwable
+	{
+		metadataCache.invalidateAll();
+		return new RequestCallback(gw.submit(ctx, commands, target),
+				new Runnable() {
+			public void run() { metadataCache.invalidateAll(); }
+		});
+	}
+
 	/**
 	 * Updates the specified group.
 	 *
@@ -3612,11 +3830,15 @@ class OMEROGateway
 			long pixelsID, int z, int t, int c)
 		throws DSOutOfServiceException, DSAccessException, FSAccessException
 	{
+		byte[] plane = planeCache.get(pixelsID, z, c, t);
+		if (plane != null) return plane;
 		RawPixelsStorePrx service = null;
+		boolean reuse = false;
 		try {
-		    service = gw.getPixelsStore(ctx);
-			service.setPixelsId(pixelsID, false);
-			byte[] plane = service.getPlane(z, c, t);
+		    service = pixelsStores.acquire(ctx, pixelsID);
+			plane = service.getPlane(z, c, t);
+			reuse = true;
+			planeCache.put(pixelsID, z, c, t, plane);
 			return plane;
 		} catch (Throwable e) {
 			if (e instanceof ValidationException) return null;
@@ -3625,7 +3847,7 @@ class OMEROGateway
 			handleFSException(e, s);
 			handleException(e, s);
 		} finally {
-		    if (service != null) gw.closeService(ctx, service);
+		    pixelsStores.release(pixelsID, service, reuse);
 		}
 		return null;
 	}
@@ -4261,6 +4483,25 @@ class OMEROGateway
         }
         return new SearchResultCollection();
     }
+
+    /**
+     * Opens a cursor reading the results of the search one page at a time.
+     * The cursor has to be closed if not read to the end.
+     *
+     * @param ctx The security context.
+     * @param context The context of the search.
+     * @param pageSize The maximum number of results per page.
+     * @return See above.
+     * @throws DSOutOfServiceException If the connection is broken, or not
+     *                                 logged in.
+     */
+    SearchCursor openSearch(SecurityContext ctx, SearchParameters context,
+            int pageSize)
+            throws DSOutOfServiceException {
+        if (!gw.isConnected())
+            throw new DSOutOfServiceException("Not connected.");
+        return new PagedSearch(gw, ctx, context, pageSize);
+    }
         
 	/**
 	 * Searches for data.
@@ -5024,10 +5265,10 @@ class OMEROGateway
 	{
 	   
 		List<EnumerationObject> r;
+		r = metadataCache.getEnumerations(klassName);
+		if (r != null) return r;
 		try {
 		    ITypesPrx service = gw.getTypesService(ctx);
-			r = enumerations.get(klassName);
-			if (r != null) return r;
 			List<IObject> l = service.allEnumerations(klassName);
 			r = new ArrayList<EnumerationObject>();
 			if (l == null) return r;
@@ -5035,7 +5276,7 @@ class OMEROGateway
 			while (i.hasNext()) {
 				r.add(new EnumerationObject(i.next()));
 			}
-			enumerations.put(klassName, r);
+			metadataCache.putEnumerations(klassName, r);
 			return r;
 		} catch (Exception e) {
 			handleException(e, "Cannot find the enumeration's value.");
@@ -5841,6 +6082,8 @@ class OMEROGateway
 
 	/**
 	 * Loads the table associated to a given node.
+	 * The tables with a column of wells only keep the last row of each well.
+	 * The other tables are returned closed, their rows are read on demand.
 	 *
 	 * @param ctx The security context.
 	 * @param parameters The parameters used to retrieve the table.
@@ -5860,8 +6103,8 @@ class OMEROGateway
 		List<TableResult> results = new ArrayList<TableResult>();
 		try {
 		    SharedResourcesPrx svc = getSharedResources(ctx);
-			long[] rows;
-			TableResult result;
+			ColumnarTableResult result;
+			int index;
 			List<Long> ids;
 			if (parameters.getNodeType() != null) {
 				//TMP solution
@@ -5890,12 +6133,17 @@ class OMEROGateway
 					id = i.next();
 					tablePrx = svc.openTable(new OriginalFileI(id, false));
 					if (tablePrx != null) {
-						rows = new long[(int) tablePrx.getNumberOfRows()];
-						for (int j = 0; j < rows.length; j++)
-							rows[j] = j;
-						result = createTableResult(tablePrx, rows);
-						if (result != null)
-							results.add(result);
+						result = createColumnarTableResult(ctx, id, tablePrx);
+						try {
+							//Keep only the row of each well, the UI does not
+							//have to read the table.
+							index = result.getColumnIndex(
+									TableResult.WELL_COLUMN_INDEX);
+							if (index >= 0) results.add(result.groupBy(index));
+							else results.add(result);
+						} finally {
+							result.close();
+						}
 					}
 				}
 			}
@@ -5956,6 +6204,110 @@ class OMEROGateway
 		return Collections.EMPTY_LIST;
 	}
 
+	/**
+	 * Replaces the shapes of the stored ROI by the modified shapes of the
+	 * passed ROI and adds the new shapes to it.
+	 *
+	 * @param stored The ROI loaded from the server.
+	 * @param changes The ROI hosting the new and modified shapes.
+	 */
+	static void mergeShapes(Roi stored, Roi changes)
+	{
+		Map<Long, Integer> indexes = new HashMap<Long, Integer>();
+		Shape shape;
+		for (int i = 0; i < stored.sizeOfShapes(); i++) {
+			shape = stored.getShape(i);
+			if (shape != null && shape.getId() != null)
+				indexes.put(shape.getId().getValue(), i);
+		}
+		Integer index;
+		Iterator<Shape> i = changes.copyShapes().iterator();
+		while (i.hasNext()) {
+			shape = i.next();
+			shape.setRoi(stored);
+			if (shape.getId() == null) {
+				stored.addShape(shape);
+			} else {
+				index = indexes.get(shape.getId().getValue());
+				if (index != null) stored.setShape(index, shape);
+			}
+		}
+	}
+
+	/**
+	 * Saves the changes made to the ROIs of the image since they were
+	 * loaded. The removed shapes are deleted, the stored ROIs are only
+	 * loaded and updated if they have new or modified shapes and the new
+	 * ROIs are created. The ROIs are saved in batches.
+	 *
+	 * @param ctx The security context.
+	 * @param imageID The image's ID.
+	 * @param roiList The new ROIs and the stored ROIs hosting only their
+	 *                new or modified shapes.
+	 * @param toDelete The shapes to delete.
+	 * @return The saved ROIs.
+	 * @throws DSOutOfServiceException  If the connection is broken, or logged
+	 *                                  in.
+	 * @throws DSAccessException        If an error occurred while trying to
+	 *                                  retrieve data from OMEDS service.
+	 */
+	Collection<ROIData> saveROIChanges(SecurityContext ctx, long imageID,
+			List<ROIData> roiList, List<ShapeData> toDelete)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		List<ROIData> result = new ArrayList<ROIData>();
+		try {
+			if (CollectionUtils.isNotEmpty(toDelete)) {
+				List<IObject> shapes = new ArrayList<IObject>(toDelete.size());
+				Iterator<ShapeData> j = toDelete.iterator();
+				while (j.hasNext())
+					shapes.add(j.next().asIObject());
+				deleteObjects(ctx, shapes);
+			}
+			if (CollectionUtils.isEmpty(roiList)) return result;
+			List<IObject> toSave = new ArrayList<IObject>();
+			Map<Long, Roi> modified = new HashMap<Long, Roi>();
+			Iterator<ROIData> i = roiList.iterator();
+			ROIData data;
+			Roi roi;
+			while (i.hasNext()) {
+				data = i.next();
+				roi = (Roi) data.asIObject();
+				if (data.isClientSide() || roi.getId() == null) {
+					roi.setImage(new ImageI(imageID, false));
+					toSave.add(roi);
+				} else modified.put(roi.getId().getValue(), roi);
+			}
+			if (!modified.isEmpty()) {
+				IQueryPrx service = gw.getQueryService(ctx);
+				ParametersI param = new ParametersI();
+				param.addIds(modified.keySet());
+				List<IObject> stored = service.findAllByQuery(
+						"select distinct r from Roi as r "
+						+ "left outer join fetch r.shapes "
+						+ "where r.id in (:ids)", param);
+				Iterator<IObject> k = stored.iterator();
+				while (k.hasNext()) {
+					roi = (Roi) k.next();
+					mergeShapes(roi, modified.get(roi.getId().getValue()));
+					toSave.add(roi);
+				}
+			}
+			IUpdatePrx update = gw.getUpdateService(ctx);
+			Iterator<List<IObject>> b = ListUtils.partition(toSave,
+					ROI_BATCH_SIZE).iterator();
+			Iterator<IObject> k;
+			while (b.hasNext()) {
+				k = update.saveAndReturnArray(b.next()).iterator();
+				while (k.hasNext())
+					result.add(new ROIData((Roi) k.next()));
+			}
+		} catch (Throwable t) {
+			handleException(t, "Cannot save the ROI for image: "+imageID);
+		}
+		return result;
+	}
+
 	/**
 	 * Loads the <code>FileAnnotationData</code>s for the passed image.
 	 *
@@ -6042,11 +6394,11 @@ class OMEROGateway
 					long offset = 0;
 					try {
 						for (offset = 0; (offset+INC) < size;) {
-							stream.write(store.read(offset, INC));
+							stream.write(read(store, offset, INC));
 							offset += INC;
 						}
 					} finally {
-						stream.write(store.read(offset, (int) (size-offset)));
+						stream.write(read(store, offset, (int) (size-offset)));
 						stream.close();
 					}
 				} catch (Exception e) {
@@ -7061,7 +7413,7 @@ class OMEROGateway
 			commands.add(Requests.chgrp().target(objects).toGroup(target.getGroupID()).build());
 			commands.addAll(saves);
 			
-			return new RequestCallback(gw.submit(ctx, commands, target));
+			return submitCommands(ctx, commands, target);
 		} catch (Throwable e) {
 			handleException(e, "Cannot transfer the data.");
 		}
@@ -7171,6 +7523,8 @@ class OMEROGateway
             DSAccessException {
         if (ctx == null)
             return;
+        pixelsStores.close(ctx.getGroupID());
+        metadataCache.clear(ctx.getGroupID());
         try {
             gw.closeConnector(ctx);
         } catch (Throwable t) {
@@ -7275,7 +7629,7 @@ class OMEROGateway
 		throws ProcessException, DSOutOfServiceException, DSAccessException
 	{
 		try {
-			return new RequestCallback(gw.submit(ctx, commands, null));
+			return submitCommands(ctx, commands, null);
 		} catch (Throwable e) {
 			handleException(e, "Cannot execute the command.");
 			// Never reached
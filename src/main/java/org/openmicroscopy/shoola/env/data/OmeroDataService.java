@@ -31,6 +31,8 @@ import omero.api.StatefulServiceInterfacePrx;
 
 import omero.gateway.model.FolderData;
 import org.openmicroscopy.shoola.env.data.model.DeletableObject;
+import org.openmicroscopy.shoola.env.data.util.IdentityMap;
+import org.openmicroscopy.shoola.env.data.util.SearchCursor;
 
 import omero.gateway.SecurityContext;
 import omero.gateway.exception.DSAccessException;
@@ -83,6 +85,26 @@ public interface OmeroDataService
 			long userID)
 		throws DSOutOfServiceException, DSAccessException;
 
+	/**
+	 * Retrieves a page of the images contained in the specified container,
+	 * sorted by name. This allows to display the first images of a large
+	 * container without waiting for all of them.
+	 *
+	 * @param ctx The security context.
+	 * @param rootNodeType The type of the container. Can only be
+	 *                     <code>Dataset</code>.
+	 * @param rootNodeID The identifier of the container.
+	 * @param offset The index of the first image to retrieve.
+	 * @param limit The maximum number of images to retrieve.
+	 * @return See above.
+	 * @throws DSOutOfServiceException If the connection is broken, or not logged in
+	 * @throws DSAccessException If an error occurred while trying to
+	 * retrieve data from OMERO service.
+	 */
+	public Collection<ImageData> loadContainerLeaves(SecurityContext ctx,
+			Class rootNodeType, long rootNodeID, int offset, int limit)
+		throws DSOutOfServiceException, DSAccessException;
+
 	/**
 	 * Retrieves hierarchy trees rooted by a given node.
 	 * i.e. the requested node as root and all of its descendants.
@@ -345,6 +367,26 @@ public interface OmeroDataService
 	public SearchResultCollection search(SecurityContext ctx,
 	        SearchParameters context)
 		throws DSOutOfServiceException, DSAccessException;
+
+	/**
+	 * Opens a cursor returning the objects specified by the context of the
+	 * search one page at a time, so that the first results can be displayed
+	 * before the search is complete. The cursor has to be closed if not
+	 * read to the end.
+	 *
+	 * @param ctx The security context.
+	 * @param context The context of the search.
+	 * @param pageSize The maximum number of results returned by the search
+	 *                 service per page.
+	 * @return See above.
+	 * @throws DSOutOfServiceException  If the connection is broken, or logged
+	 *                                  in.
+	 * @throws DSAccessException        If an error occurred while trying to
+	 *                                  retrieve data from OMEDS service.
+	 */
+	public SearchCursor openSearch(SecurityContext ctx,
+	        SearchParameters context, int pageSize)
+		throws DSOutOfServiceException, DSAccessException;
         
 	/**
 	 * Finds the objects containing the object identifying by the specified
@@ -505,4 +547,13 @@ public interface OmeroDataService
 			throws ExecutionException, DSOutOfServiceException, DSAccessException;
 
 	public int getROICount(SecurityContext ctx, long imageId) throws DSOutOfServiceException, DSAccessException;
+
+	/**
+	 * Returns the map holding the single copy of the images and containers
+	 * shared by the agents. Listen to it to be notified when one of them is
+	 * refreshed.
+	 *
+	 * @return See above.
+	 */
+	public IdentityMap getIdentityMap();
 }
@@ -66,7 +66,9 @@ import org.openmicroscopy.shoola.env.config.AgentInfo;
 import org.openmicroscopy.shoola.env.config.Registry;
 import org.openmicroscopy.shoola.env.data.login.UserCredentials;
 import org.openmicroscopy.shoola.env.data.model.DeletableObject;
+import org.openmicroscopy.shoola.env.data.util.IdentityMap;
 import org.openmicroscopy.shoola.env.data.util.ModelMapper;
+import org.openmicroscopy.shoola.env.data.util.SearchCursor;
 
 import omero.gateway.util.PojoMapper;
 
@@ -223,8 +225,27 @@ class OmeroDataServiceImpl
 					ScreenData.class.equals(rootNodeType))
 				param.orphan();
 		}
-		return gateway.loadContainerHierarchy(ctx, rootNodeType, rootNodeIDs,
-				param);
+		return gateway.getIdentityMap().canonicalAll(
+				gateway.loadContainerHierarchy(ctx, rootNodeType, rootNodeIDs,
+						param));
+	}
+
+	/**
+	 * Implemented as specified by {@link OmeroDataService}.
+	 * @see OmeroDataService#loadContainerLeaves(SecurityContext, Class, long,
+	 * int, int)
+	 */
+	public Collection<ImageData> loadContainerLeaves(SecurityContext ctx,
+			Class rootNodeType, long rootNodeID, int offset, int limit)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		if (!DatasetData.class.equals(rootNodeType))
+			throw new IllegalArgumentException("Type not supported: "+
+					rootNodeType);
+		if (offset < 0 || limit <= 0)
+			throw new IllegalArgumentException("Page not valid.");
+		return gateway.getIdentityMap().canonicalAll(
+				gateway.loadContainerLeaves(ctx, rootNodeID, offset, limit));
 	}
 
 	/**
@@ -237,7 +258,8 @@ class OmeroDataServiceImpl
 	{
 		ParametersI param = new ParametersI();
 		param.exp(omero.rtypes.rlong(userID));
-		return gateway.loadContainerHierarchy(ctx, rootNodeType, null, param);
+		return gateway.getIdentityMap().canonicalAll(
+				gateway.loadContainerHierarchy(ctx, rootNodeType, null, param));
 	}
 
 	/**
@@ -251,7 +273,8 @@ class OmeroDataServiceImpl
 		ParametersI po = new ParametersI();
 		po.leaves();
 		po.exp(omero.rtypes.rlong(userID));
-		return gateway.findContainerHierarchy(ctx, rootNodeType, leavesIDs, po);
+		return gateway.getIdentityMap().canonicalAll(
+				gateway.findContainerHierarchy(ctx, rootNodeType, leavesIDs, po));
 	}
 
 	/**
@@ -266,7 +289,8 @@ class OmeroDataServiceImpl
 			throw new IllegalArgumentException("No type specified.");
 		ParametersI po = new ParametersI();
 		if (userID >= 0) po.exp(omero.rtypes.rlong(userID));
-		return gateway.getContainerImages(ctx, nodeType, nodeIDs, po);
+		return gateway.getIdentityMap().canonicalAll(
+				gateway.getContainerImages(ctx, nodeType, nodeIDs, po));
 	}
 
 	/**
@@ -278,7 +302,8 @@ class OmeroDataServiceImpl
 			orphan)
 		throws DSOutOfServiceException, DSAccessException
 	{
-		return gateway.getUserImages(ctx, userID, orphan);
+		return gateway.getIdentityMap().canonicalAll(
+				gateway.getUserImages(ctx, userID, orphan));
 	}
 
 	/**
@@ -366,7 +391,8 @@ class OmeroDataServiceImpl
 		ModelMapper.fillIObject(oldObject, ho);
 		ModelMapper.unloadCollections(ho);
 		IObject updated = gateway.updateObject(ctx, ho, new Parameters());
-		return PojoMapper.asDataObject(updated);
+		return gateway.getIdentityMap().canonical(
+				PojoMapper.asDataObject(updated));
 	}
 
 	/**
@@ -594,6 +620,111 @@ class OmeroDataServiceImpl
 		if (!context.isValid())
 			throw new IllegalArgumentException("Search context not valid.");
 		
+		SearchResultCollection results = findIdMatches(ctx, context);
+		
+		// search by text:
+		SearchResultCollection searchResults = gateway.search(ctx, context);
+		results.addAll(searchResults);
+		if (searchResults.isError()) 
+		    results.setError(searchResults.getError());
+
+                // loads the images PixelsData (needed for thumbnail request)
+                initializeImages(results);
+		
+		return results;
+	}
+
+	/**
+	 * Implemented as specified by {@link OmeroDataService}.
+	 */
+	public SearchCursor openSearch(final SecurityContext ctx,
+	        SearchParameters context, int pageSize)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		if (ctx == null)
+			throw new IllegalArgumentException("No security context defined.");
+		if (context == null)
+			throw new IllegalArgumentException("No search context defined.");
+		if (!context.isValid())
+			throw new IllegalArgumentException("Search context not valid.");
+		if (pageSize <= 0)
+			throw new IllegalArgumentException("Page size not valid.");
+		final SearchCursor cursor = addMatches(findIdMatches(ctx, context),
+		        gateway.openSearch(ctx, context, pageSize));
+		return new SearchCursor() {
+
+		    public boolean hasNext() { return cursor.hasNext(); }
+
+		    public SearchResultCollection next()
+		        throws DSOutOfServiceException, DSAccessException
+		    {
+		        SearchResultCollection page = cursor.next();
+		        // loads the images PixelsData (needed for thumbnail request)
+		        initializeImages(page);
+		        return page;
+		    }
+
+		    public void close() { cursor.close(); }
+		};
+	}
+
+	/**
+	 * Returns a cursor adding the passed matches to the first page of the
+	 * specified cursor.
+	 *
+	 * @param matches The objects whose identifiers are the terms of the
+	 *                search.
+	 * @param cursor The cursor over the results of the search.
+	 * @return See above.
+	 */
+	static SearchCursor addMatches(final SearchResultCollection matches,
+	        final SearchCursor cursor)
+	{
+		return new SearchCursor() {
+
+		    /** Flag indicating that the first page has been read. */
+		    private boolean started;
+
+		    public boolean hasNext()
+		    {
+		        return !started || cursor.hasNext();
+		    }
+
+		    public SearchResultCollection next()
+		        throws DSOutOfServiceException, DSAccessException
+		    {
+		        SearchResultCollection page = new SearchResultCollection();
+		        if (!started) {
+		            started = true;
+		            page.addAll(matches);
+		        }
+		        if (cursor.hasNext()) {
+		            SearchResultCollection results = cursor.next();
+		            page.addAll(results);
+		            if (results.isError())
+		                page.setError(results.getError());
+		        }
+		        return page;
+		    }
+
+		    public void close() { cursor.close(); }
+		};
+	}
+
+	/**
+	 * Returns the objects whose identifiers are the terms of the search,
+	 * if the terms are identifiers only.
+	 *
+	 * @param ctx The security context.
+	 * @param context The context of the search.
+	 * @return See above.
+	 * @throws DSOutOfServiceException If the connection is broken, or not
+	 *                                 logged in.
+	 */
+	private SearchResultCollection findIdMatches(SecurityContext ctx,
+	        SearchParameters context)
+		throws DSOutOfServiceException
+	{
 		SearchResultCollection results = new SearchResultCollection();
 		
 		// If terms contain ids only, just add them as potential result to the results, 
@@ -625,16 +756,6 @@ class OmeroDataServiceImpl
 		// search by ID:
 		if(!results.isEmpty())
 		    findByIds(ctx, results);
-		
-		// search by text:
-		SearchResultCollection searchResults = gateway.search(ctx, context);
-		results.addAll(searchResults);
-		if (searchResults.isError()) 
-		    results.setError(searchResults.getError());
-
-                // loads the images PixelsData (needed for thumbnail request)
-                initializeImages(results);
-		
 		return results;
 	}
     	
@@ -1169,6 +1290,15 @@ class OmeroDataServiceImpl
 		return gateway.saveROIFolders(ctx, folders);
 	}
 
+	/**
+	 * Implemented as specified by {@link OmeroDataService}.
+	 * @see OmeroDataService#getIdentityMap()
+	 */
+	public IdentityMap getIdentityMap()
+	{
+		return gateway.getIdentityMap();
+	}
+
 	public int getROICount(SecurityContext ctx, long imageId) throws DSOutOfServiceException, DSAccessException {
 		return gateway.getROICount(ctx, imageId);
 	}
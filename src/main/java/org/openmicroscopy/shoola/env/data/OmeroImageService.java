@@ -56,6 +56,7 @@ import omero.gateway.model.DataObject;
 import omero.gateway.model.ImageData;
 import omero.gateway.model.PixelsData;
 import omero.gateway.model.ROIData;
+import omero.gateway.model.ShapeData;
 
 /** 
  * List of methods to view images or thumbnails.
@@ -583,6 +584,26 @@ public interface OmeroImageService
 		long userID, List<ROIData> roiList)
 		throws DSOutOfServiceException, DSAccessException;
 
+	/**
+	 * Saves the changes made to the ROIs of the specified image since they
+	 * were loaded i.e. the new ROIs, the new or modified shapes of the
+	 * stored ROIs and the removed shapes.
+	 * 
+	 * @param ctx The security context.
+	 * @param imageID The image's ID.
+	 * @param roiList The new ROIs and the stored ROIs hosting only their
+	 *                new or modified shapes.
+	 * @param toDelete The shapes to delete.
+	 * @return The saved ROIs.
+	 * @throws DSOutOfServiceException  If the connection is broken, or logged
+	 *                                  in.
+	 * @throws DSAccessException        If an error occurred while trying to 
+	 *                                  retrieve data from OMEDS service.
+	 */
+	public Collection<ROIData> saveROIChanges(SecurityContext ctx,
+		long imageID, List<ROIData> roiList, List<ShapeData> toDelete)
+		throws DSOutOfServiceException, DSAccessException;
+
 	/**
 	 * Creates a figure composed of the specified objects.
 	 * 
@@ -127,6 +127,7 @@ import omero.gateway.model.ImageData;
 import omero.gateway.model.PixelsData;
 import omero.gateway.model.ROIData;
 import omero.gateway.model.ScreenData;
+import omero.gateway.model.ShapeData;
 import omero.gateway.model.TagAnnotationData;
 import omero.gateway.model.MapAnnotationData;
 
@@ -1527,6 +1528,19 @@ class OmeroImageServiceImpl
 		return gateway.saveROI(ctx, imageID, userID, roiList);
 	}
 
+	/**
+	 * Implemented as specified by {@link OmeroImageService}.
+	 * @see OmeroImageService#saveROIChanges(SecurityContext, long, List, List)
+	 */
+	public Collection<ROIData> saveROIChanges(SecurityContext ctx,
+		long imageID, List<ROIData> roiList, List<ShapeData> toDelete)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		if (imageID <= 0)
+			throw new IllegalArgumentException("No image specified.");
+		return gateway.saveROIChanges(ctx, imageID, roiList, toDelete);
+	}
+
 	/**
      * Applies the transforms to the specified XML file.
      *
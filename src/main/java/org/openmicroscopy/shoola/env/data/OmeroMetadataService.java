@@ -73,6 +73,12 @@ import omero.gateway.model.FileAnnotationData;
 public interface OmeroMetadataService
 {
 
+	/** 
+	 * The maximum number of objects annotated at once during a batch
+	 * annotation.
+	 */
+	public static final int BATCH_SIZE = 1000;
+
 	/** Identifies that the file is of type movie. */
 	public static final int MOVIE = 2;
 	
@@ -388,6 +394,78 @@ public interface OmeroMetadataService
 	public Object saveBatchData(SecurityContext ctx, TimeRefObject data, 
 		List<AnnotationData> toAdd, List<Object> toRemove, long userID)
 		throws DSOutOfServiceException, DSAccessException;
+
+	/**
+	 * Returns the objects a batch annotation applies to i.e. the images of
+	 * the datasets, the wells of the plates and the images, without
+	 * duplicates. The modified images are saved.
+	 * 
+	 * @param ctx The security context.
+	 * @param data The objects selected.
+	 * @return See above.
+	 * @throws DSOutOfServiceException  If the connection is broken, or logged
+	 *                                   in.
+	 * @throws DSAccessException        If an error occurred while trying to 
+	 *                                  retrieve data from OMEDS service.
+	 */
+	public List<DataObject> loadBatchTargets(SecurityContext ctx,
+		Collection<DataObject> data)
+		throws DSOutOfServiceException, DSAccessException;
+
+	/**
+	 * Returns the images imported during the passed period, which a batch
+	 * annotation applies to.
+	 * 
+	 * @param ctx The security context.
+	 * @param data The object hosting the time period.
+	 * @param userID The id of the user.
+	 * @return See above.
+	 * @throws DSOutOfServiceException  If the connection is broken, or logged
+	 *                                   in.
+	 * @throws DSAccessException        If an error occurred while trying to 
+	 *                                  retrieve data from OMEDS service.
+	 */
+	public List<DataObject> loadBatchTargets(SecurityContext ctx,
+		TimeRefObject data, long userID)
+		throws DSOutOfServiceException, DSAccessException;
+
+	/**
+	 * Creates the annotations which have not been saved yet and updates
+	 * the others, before linking them to objects.
+	 * 
+	 * @param ctx The security context.
+	 * @param toAdd The annotations to prepare.
+	 * @return The saved annotations.
+	 * @throws DSOutOfServiceException  If the connection is broken, or logged
+	 *                                   in.
+	 * @throws DSAccessException        If an error occurred while trying to 
+	 *                                  retrieve data from OMEDS service.
+	 */
+	public List<AnnotationData> prepareAnnotations(SecurityContext ctx,
+		List<AnnotationData> toAdd)
+		throws DSOutOfServiceException, DSAccessException;
+
+	/**
+	 * Links the saved annotations to, and removes the specified annotations
+	 * from, the passed objects. The existing links are looked up with one
+	 * query per type of object and the new links are created in one call,
+	 * so the objects should be passed in chunks of at most
+	 * {@link #BATCH_SIZE}.
+	 * 
+	 * @param ctx The security context.
+	 * @param data The objects to annotate.
+	 * @param annotations The saved annotations to link.
+	 * @param toRemove The annotations to remove.
+	 * @return The number of links created.
+	 * @throws DSOutOfServiceException  If the connection is broken, or logged
+	 *                                   in.
+	 * @throws DSAccessException        If an error occurred while trying to 
+	 *                                  retrieve data from OMEDS service.
+	 */
+	public int saveAnnotationLinks(SecurityContext ctx,
+		Collection<DataObject> data, List<AnnotationData> annotations,
+		List<Object> toRemove)
+		throws DSOutOfServiceException, DSAccessException;
 	
 	/**
 	 * Downloads a file previously uploaded to the server.
@@ -403,6 +481,23 @@ public interface OmeroMetadataService
 	 */
 	public File downloadFile(SecurityContext ctx, File file, long fileID)
 		throws DSOutOfServiceException, DSAccessException;
+
+	/**
+	 * Downloads the files hosted by the specified annotations straight into
+	 * a zip, without writing them to a temporary folder.
+	 * 
+	 * @param ctx The security context.
+	 * @param zip The zip to create.
+	 * @param files The annotations hosting the files.
+	 * @return See above.
+	 * @throws DSOutOfServiceException  If the connection is broken, or logged
+	 *                                   in.
+	 * @throws DSAccessException        If an error occurred while trying to 
+	 *                                  retrieve data from OMEDS service.
+	 */
+	public File downloadFilesAsZip(SecurityContext ctx, File zip,
+			Collection<FileAnnotationData> files)
+		throws DSOutOfServiceException, DSAccessException;
 	
 	/**
 	 * Loads the ratings associated to the passed objects.
@@ -421,6 +516,27 @@ public interface OmeroMetadataService
 			Class nodeType, List<Long> nodeIds, long userID) 
 		throws DSOutOfServiceException, DSAccessException;
 
+	/**
+	 * Loads, in one call, the annotations of any type linked to the passed
+	 * objects. Returns a map whose keys are the object's id and the values
+	 * are a collection of annotations linked to that object.
+	 * 
+	 * @param ctx The security context.
+	 * @param nodeType  The type of object.
+	 * @param nodeIds The ids of the object.
+	 * @param userID The id of the user who added the annotations or
+	 *               <code>-1</code> if the user is not specified.
+	 * @return See above.
+	 * @throws DSOutOfServiceException  If the connection is broken, or logged
+	 *                                   in.
+	 * @throws DSAccessException        If an error occurred while trying to 
+	 *                                  retrieve data from OMEDS service.
+	 */
+	public Map<Long, Collection<AnnotationData>> loadLinkedAnnotations(
+			SecurityContext ctx, Class nodeType, List<Long> nodeIds,
+			long userID)
+		throws DSOutOfServiceException, DSAccessException;
+
 	/**
 	 * Returns a sub-collection of the passed collection of nodes
 	 * annotated by the passed type of annotation.
@@ -87,6 +87,7 @@ import org.openmicroscopy.shoola.env.data.model.AnnotationLinkData;
 import org.openmicroscopy.shoola.env.data.model.TableParameters;
 import org.openmicroscopy.shoola.env.data.model.TimeRefObject;
 import org.openmicroscopy.shoola.env.data.util.FilterContext;
+import org.openmicroscopy.shoola.env.data.util.MetadataCache;
 import org.openmicroscopy.shoola.env.data.util.ModelMapper;
 
 import omero.gateway.util.PojoMapper;
@@ -1107,48 +1108,66 @@ class OmeroMetadataServiceImpl
             usersIDs = new ArrayList<Long>(1);
             usersIDs.add(userID);
         }
-	    Map map = gateway.loadAnnotations(ctx, klass, ids, null, usersIDs,
-                new Parameters());
-        Multimap<Long, IObject> linkMap = ArrayListMultimap.create();
-        if (!(klass.equals(TagAnnotationData.class) ||
-                klass.equals(FileAnnotationData.class))) {
-            Collection values = map.values();
-            Iterator k = values.iterator();
-            List<Long> annotationIds = new ArrayList<Long>();
-            while (k.hasNext()) {
-                Collection l = (Collection) k.next();
-                Iterator j = l.iterator();
-                while (j.hasNext()) {
-                    AnnotationData object = (AnnotationData) j.next();
-                    if (!annotationIds.contains(object.getId()))
-                        annotationIds.add(object.getId());
-                    
+        //Only load the annotations of the objects not cached
+        MetadataCache cache = gateway.getMetadataCache();
+        long groupID = ctx.getGroupID();
+        boolean withLinks = !(klass.equals(TagAnnotationData.class) ||
+                klass.equals(FileAnnotationData.class));
+        Map<Long, MetadataCache.Bundle> bundles =
+                new HashMap<Long, MetadataCache.Bundle>();
+        List<Long> missing = new ArrayList<Long>();
+        MetadataCache.Bundle b;
+        for (Long id : ids) {
+            b = cache.getBundle(groupID, klass, id, userID);
+            if (b != null && (!withLinks || b.hasLinks()))
+                bundles.put(id, b);
+            else if (!missing.contains(id)) missing.add(id);
+        }
+        if (!missing.isEmpty()) {
+            Map map = gateway.loadAnnotations(ctx, klass, missing, null,
+                    usersIDs, new Parameters());
+            Multimap<Long, IObject> linkMap = ArrayListMultimap.create();
+            if (withLinks) {
+                Collection values = map.values();
+                Iterator k = values.iterator();
+                List<Long> annotationIds = new ArrayList<Long>();
+                while (k.hasNext()) {
+                    Collection l = (Collection) k.next();
+                    Iterator j = l.iterator();
+                    while (j.hasNext()) {
+                        AnnotationData object = (AnnotationData) j.next();
+                        if (!annotationIds.contains(object.getId()))
+                            annotationIds.add(object.getId());
+                    }
+                }
+                if (CollectionUtils.isNotEmpty(annotationIds)) {
+                    linkMap = gateway.findAnnotationLinks(ctx, klass, missing,
+                            annotationIds, userID);
                 }
-               
             }
-            if (CollectionUtils.isNotEmpty(annotationIds)) {
-                linkMap = gateway.findAnnotationLinks(ctx, klass, ids,
-                        annotationIds, userID);
+            for (Long id : missing) {
+                bundles.put(id, cache.putBundle(groupID, klass, id, userID,
+                        (Collection) map.get(id),
+                        withLinks ? linkMap.get(id) : null));
             }
         }
         //format the results
         Iterator<DataObject> i = data.iterator();
         StructuredDataResults r;
-        List<IObject> links;
         DataObject n;
         while (i.hasNext()) {
             n = i.next();
-            if (n != null && ids.contains(n.getId())) {
+            if (n != null && bundles.containsKey(n.getId())) {
+                b = bundles.get(n.getId());
                 r = new StructuredDataResults(n);
-                loadStructuredData(ctx, userID,
-                        (Collection) map.get(n.getId()), r, false);
+                loadStructuredData(ctx, userID, b.getAnnotations(), r, false);
                 results.put(n, r);
                 if (n instanceof ImageData) {
                     ImageData img = (ImageData) n;
                     if(filesetMap.get(img.getFilesetId()) != null)
                         r.getTransferLinks().addAll(filesetMap.get(img.getFilesetId()));
                 }
-                formatAnnotationLinks(linkMap.get(n.getId()), r);
+                formatAnnotationLinks(b.getLinks(), r);
             }
         }
 	}
@@ -1388,11 +1407,18 @@ class OmeroMetadataServiceImpl
 			ids = new ArrayList<Long>(1);
 			ids.add(userID);
 		}
+		MetadataCache cache = gateway.getMetadataCache();
+		MetadataCache.Bundle b = cache.getBundle(ctx.getGroupID(), type, id,
+				userID);
+		if (b != null) return b.getAnnotations();
 		List<Long> objects = new ArrayList<Long>(1);
 		objects.add(id);
 		Map map = gateway.loadAnnotations(ctx, type, objects, null, ids,
 				new Parameters());
-		return (Collection) map.get(id);
+		Collection result = (Collection) map.get(id);
+		if (result == null) return null;
+		return cache.putBundle(ctx.getGroupID(), type, id, userID, result,
+				null).getAnnotations();
 	}
 
 	/**
@@ -1403,15 +1429,23 @@ class OmeroMetadataServiceImpl
 	        String nameSpace, long userID)
 	                throws DSOutOfServiceException, DSAccessException
 	{
+	    MetadataCache cache = gateway.getMetadataCache();
+	    Collection cached = cache.getList(ctx.getGroupID(), annotationType,
+	            nameSpace, userID);
+	    if (cached != null) return cached;
 	    ParametersI po = new ParametersI();
 	    if (userID >= 0) po.exp(omero.rtypes.rlong(userID));
 	    List<String> toInclude = new ArrayList<String>();
 	    List<String> toExclude = new ArrayList<String>();
 	    if (nameSpace != null) 
 	        toInclude.add(nameSpace);
+        Collection result;
         if (TagAnnotationData.class.equals(annotationType)) {
             po.orphan();
-            return gateway.loadTagSets(ctx, po);
+            result = gateway.loadTagSets(ctx, po);
+            cache.putList(ctx.getGroupID(), result, annotationType, nameSpace,
+                    userID);
+            return result;
         }
 	    if (FileAnnotationData.class.equals(annotationType)) {
 	        if (!FileAnnotationData.COMPANION_FILE_NS.equals(nameSpace))
@@ -1423,8 +1457,11 @@ class OmeroMetadataServiceImpl
 	        if (!FileAnnotationData.LOG_FILE_NS.equals(nameSpace))
 	            toExclude.add(FileAnnotationData.LOG_FILE_NS);
 	    }
-	    return gateway.loadSpecificAnnotation(ctx, annotationType, toInclude,
+	    result = gateway.loadSpecificAnnotation(ctx, annotationType, toInclude,
 	            toExclude, po);
+	    cache.putList(ctx.getGroupID(), result, annotationType, nameSpace,
+	            userID);
+	    return result;
 	}
 
 	/**
@@ -1502,108 +1539,159 @@ class OmeroMetadataServiceImpl
 		Collection<DataObject> data, List<AnnotationData> toAdd,
 		List<Object> toRemove, long userID) 
 			throws DSOutOfServiceException, DSAccessException
+	{
+		List<DataObject> targets = loadBatchTargets(ctx, data);
+		saveAnnotationLinks(ctx, targets, prepareAnnotations(ctx, toAdd),
+				toRemove, BATCH_SIZE);
+		return targets;
+	}
+	
+	/**
+	 * Implemented as specified by {@link OmeroDataService}.
+	 * @see OmeroMetadataService#saveBatchData(SecurityContext, TimeRefObject, List, List, long)
+	 */
+	public Object saveBatchData(SecurityContext ctx, TimeRefObject data,
+		List<AnnotationData> toAdd, List<Object> toRemove, long userID)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		List<DataObject> targets = loadBatchTargets(ctx, data, userID);
+		saveAnnotationLinks(ctx, targets, prepareAnnotations(ctx, toAdd),
+				toRemove, BATCH_SIZE);
+		return targets;
+	}
+
+	/**
+	 * Links the annotations to, and removes the specified annotations from,
+	 * the passed objects, one chunk at a time. The other objects to remove,
+	 * e.g. the annotation links, are deleted directly so only handled with
+	 * the first chunk.
+	 * 
+	 * @param ctx The security context.
+	 * @param data The objects to annotate.
+	 * @param annotations The saved annotations to link.
+	 * @param toRemove The annotations to remove.
+	 * @param chunkSize The number of objects handled at once.
+	 * @throws DSOutOfServiceException If the connection is broken, or not logged in
+	 * @throws DSAccessException If an error occurred while trying to 
+	 * retrieve data from OMEDS service.
+	 */
+	private void saveAnnotationLinks(SecurityContext ctx, List<DataObject> data,
+		List<AnnotationData> annotations, List<Object> toRemove, int chunkSize)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		if (data.isEmpty()) return;
+		List<Object> annotationsToRemove = getAnnotationsToRemove(toRemove);
+		Iterator<List<DataObject>> i = ListUtils.partition(data,
+				chunkSize).iterator();
+		List<Object> remove = toRemove;
+		while (i.hasNext()) {
+			saveAnnotationLinks(ctx, i.next(), annotations, remove);
+			remove = annotationsToRemove;
+		}
+	}
+
+	/**
+	 * Returns the annotations among the objects to remove, i.e. the objects
+	 * to handle for every chunk of a batch annotation.
+	 * 
+	 * @param toRemove The objects to remove, may be <code>null</code>.
+	 * @return See above.
+	 */
+	static List<Object> getAnnotationsToRemove(List<Object> toRemove)
+	{
+		if (toRemove == null) return null;
+		List<Object> annotations = new ArrayList<Object>();
+		Iterator<Object> i = toRemove.iterator();
+		Object o;
+		while (i.hasNext()) {
+			o = i.next();
+			if (o instanceof AnnotationData || o instanceof Annotation)
+				annotations.add(o);
+		}
+		return annotations;
+	}
+
+	/**
+	 * Groups the passed objects by type, one lookup of the existing links
+	 * being made per type.
+	 * 
+	 * @param data The objects to group.
+	 * @return See above.
+	 */
+	static Map<Class<?>, List<DataObject>> groupByType(
+		Collection<DataObject> data)
+	{
+		Map<Class<?>, List<DataObject>> types =
+				new HashMap<Class<?>, List<DataObject>>();
+		Iterator<DataObject> i = data.iterator();
+		DataObject object;
+		List<DataObject> l;
+		while (i.hasNext()) {
+			object = i.next();
+			l = types.get(object.getClass());
+			if (l == null) {
+				l = new ArrayList<DataObject>();
+				types.put(object.getClass(), l);
+			}
+			l.add(object);
+		}
+		return types;
+	}
+
+	/**
+	 * Implemented as specified by {@link OmeroDataService}.
+	 * @see OmeroMetadataService#loadBatchTargets(SecurityContext, Collection)
+	 */
+	public List<DataObject> loadBatchTargets(SecurityContext ctx,
+		Collection<DataObject> data)
+		throws DSOutOfServiceException, DSAccessException
 	{
 		if (data == null)
 			throw new IllegalArgumentException("No data to save");
 		OmeroDataService service = context.getDataService();
-		Iterator i;
+		List<DataObject> targets = new ArrayList<DataObject>();
+		Set<List<Object>> added = new HashSet<List<Object>>();
+		List<Long> datasets = new ArrayList<Long>();
+		List<DataObject> children = new ArrayList<DataObject>();
 		Iterator<DataObject> j = data.iterator();
-		DataObject object, child;
-		List<Long> ids;
-		Collection images = null;
-		Parameters po = new Parameters();
-		Iterator k;
-		List result = null;
-		//First create the new annotations 
-		List<AnnotationData> annotations = prepareAnnotationToAdd(ctx, toAdd);
-		List<Long> childrenIds = new ArrayList<Long>();
-		final List<IObject> toDelete = new ArrayList<IObject>();
+		DataObject object;
+		Collection images;
 		while (j.hasNext()) {
 			object = j.next();
-			if (result == null) result = new ArrayList();
-			//Need code for tag 
 			if (object instanceof DatasetData) {
-				//retrieve all images in the dataset.
-				//Tmp solution, this code should be pushed server side.
-				ids = new ArrayList<Long>(1);
-				ids.add(object.getId());
-				images = gateway.getContainerImages(ctx, DatasetData.class,
-						ids, po);
-				if (images != null) {
-					k = images.iterator();
-					while (k.hasNext()) {
-						child = (DataObject) k.next();
-						if (!childrenIds.contains(child.getId())) {
-							result.add(child);
-							childrenIds.add(child.getId());
-							if (annotations != null) {
-								i = annotations.iterator();
-								while (i.hasNext())
-									linkAnnotation(ctx, child,
-											(AnnotationData) i.next());
-							}
-							if (toRemove != null) {
-								i = toRemove.iterator();
-								while (i.hasNext())
-									toDelete.addAll(getRemoveAnnotation(ctx, i.next(), child));
-							}
-						}
-					}
-				}
+				datasets.add(object.getId());
 			} else if (object instanceof PlateData) {
 				//Load all the wells
 				images = gateway.loadPlateWells(ctx, object.getId(), -1);
-				if (images != null) {
-					k = images.iterator();
-					while (k.hasNext()) {
-						child = (DataObject) k.next();
-						if (!childrenIds.contains(child.getId())) {
-							result.add(child);
-							childrenIds.add(child.getId());
-							if (annotations != null) {
-								i = annotations.iterator();
-								while (i.hasNext())
-									linkAnnotation(ctx, child, 
-											(AnnotationData) i.next());
-							}
-							if (toRemove != null) {
-								i = toRemove.iterator();
-								while (i.hasNext())
-									toDelete.addAll(getRemoveAnnotation(ctx, (AnnotationData) i.next(), child));
-							}
-						}
-					}
-				}
+				if (images != null) children.addAll(images);
 			} else if (object instanceof ImageData) {
-				service.updateDataObject(ctx, object);
-				if (annotations != null) {
-					i = annotations.iterator();
-					while (i.hasNext())
-						linkAnnotation(ctx, object, (AnnotationData) i.next());
-						//annotate(object, (AnnotationData) i.next());
-				}
-				if (toRemove != null) {
-					i = toRemove.iterator();
-					while (i.hasNext())
-						toDelete.addAll(getRemoveAnnotation(ctx, (AnnotationData) i.next(), object));
-				}
+				if (object.isLoaded() && object.isDirty())
+					object = service.updateDataObject(ctx, object);
+				children.add(object);
 			}
 		}
-		try {
-		    gateway.deleteObjects(ctx, toDelete);
-		} catch (Exception e) {
-		    /* do nothing */
+		if (!datasets.isEmpty()) {
+			//retrieve all images in the datasets.
+			images = gateway.getContainerImages(ctx, DatasetData.class,
+					datasets, new Parameters());
+			if (images != null) children.addAll(images);
 		}
-		if (result == null) return data;
-		return result;
+		j = children.iterator();
+		while (j.hasNext()) {
+			object = j.next();
+			if (added.add(Arrays.<Object>asList(object.getClass(),
+					object.getId())))
+				targets.add(object);
+		}
+		return targets;
 	}
-	
+
 	/**
 	 * Implemented as specified by {@link OmeroDataService}.
-	 * @see OmeroMetadataService#saveBatchData(SecurityContext, TimeRefObject, List, List, long)
+	 * @see OmeroMetadataService#loadBatchTargets(SecurityContext, TimeRefObject, long)
 	 */
-	public Object saveBatchData(SecurityContext ctx, TimeRefObject data,
-		List<AnnotationData> toAdd, List<Object> toRemove, long userID)
+	public List<DataObject> loadBatchTargets(SecurityContext ctx,
+		TimeRefObject data, long userID)
 		throws DSOutOfServiceException, DSAccessException
 	{
 		if (data == null)
@@ -1611,37 +1699,282 @@ class OmeroMetadataServiceImpl
 		OmeroDataService service = context.getDataService();
 		Collection images = service.getImagesPeriod(ctx, data.getStartTime(),
 			data.getEndTime(), userID, true);
-		List r = new ArrayList();
-		if (images == null) return r;
-		Iterator i = images.iterator();
-		DataObject child;
-		Iterator j;
-		//First create the new annotations 
-		List<AnnotationData> annotations = prepareAnnotationToAdd(ctx, toAdd);
-		final List<IObject> toDelete = new ArrayList<IObject>();
-		while (i.hasNext()) {
-			child = (DataObject) i.next();
-			r.add(child);
-			if (annotations != null) {
-				j = annotations.iterator();
-				while (j.hasNext()) 
-					linkAnnotation(ctx, child, (AnnotationData) i.next());
-			}
-			if (toRemove != null) {
-				j = toRemove.iterator();
-				while (j.hasNext())
-					toDelete.addAll(getRemoveAnnotation(ctx, j.next(), child));
-			}
+		List<DataObject> targets = new ArrayList<DataObject>();
+		if (images != null) targets.addAll(images);
+		return targets;
+	}
+
+	/**
+	 * Implemented as specified by {@link OmeroDataService}.
+	 * @see OmeroMetadataService#prepareAnnotations(SecurityContext, List)
+	 */
+	public List<AnnotationData> prepareAnnotations(SecurityContext ctx,
+		List<AnnotationData> toAdd)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		return prepareAnnotationToAdd(ctx, toAdd);
+	}
+
+	/**
+	 * Implemented as specified by {@link OmeroDataService}.
+	 * @see OmeroMetadataService#saveAnnotationLinks(SecurityContext, Collection, List, List)
+	 */
+	public int saveAnnotationLinks(SecurityContext ctx,
+		Collection<DataObject> data, List<AnnotationData> annotations,
+		List<Object> toRemove)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		if (CollectionUtils.isEmpty(data)) return 0;
+		Map<Class<?>, List<DataObject>> types = groupByType(data);
+		List<IObject> links = new ArrayList<IObject>();
+		List<IObject> toDelete = new ArrayList<IObject>();
+		if (CollectionUtils.isNotEmpty(toRemove))
+			toDelete.addAll(getRemoveObjects(toRemove));
+		Set<AnnotationData> toUpdate = new HashSet<AnnotationData>();
+		Iterator<Entry<Class<?>, List<DataObject>>> j =
+				types.entrySet().iterator();
+		Entry<Class<?>, List<DataObject>> e;
+		while (j.hasNext()) {
+			e = j.next();
+			if (CollectionUtils.isNotEmpty(annotations))
+				createAnnotationLinks(ctx, e.getKey(), e.getValue(),
+						annotations, links, toUpdate);
+			if (CollectionUtils.isNotEmpty(toRemove))
+				toDelete.addAll(getRemoveAnnotationLinks(ctx, e.getKey(),
+						e.getValue(), toRemove));
 		}
+		Iterator<AnnotationData> k = toUpdate.iterator();
+		while (k.hasNext())
+			updateAnnotationData(ctx, k.next());
+		if (!links.isEmpty()) gateway.saveArray(ctx, links);
 		if (!toDelete.isEmpty()) {
 		    try {
 		        gateway.deleteObjects(ctx, toDelete);
-		    } catch (Exception e) {
-		        /* do nothing */
+		    } catch (Exception ex) {
+		        context.getLogger().error(this,
+		                "Cannot remove the annotations: "+ex.getMessage());
 		    }
 		}
+		return links.size();
+	}
+
+	/**
+	 * Returns <code>true</code> if the passed annotation is linked at most
+	 * once to an object by a given user, <code>false</code> otherwise.
+	 * 
+	 * @param annotation The annotation to handle.
+	 * @return See above.
+	 */
+	private static boolean isLinkedOnce(AnnotationData annotation)
+	{
+		return annotation instanceof TagAnnotationData ||
+				annotation instanceof MapAnnotationData ||
+				annotation instanceof RatingAnnotationData ||
+				annotation instanceof LongAnnotationData;
+	}
+
+	/**
+	 * Creates the links between the passed objects of the same type and
+	 * the annotations, skipping the links which already exist. The
+	 * existing links are retrieved with one query, two when tagging tags.
+	 * 
+	 * @param ctx The security context.
+	 * @param type The type of the objects.
+	 * @param objects The objects to annotate.
+	 * @param annotations The annotations to link.
+	 * @param links The list the new links are added to.
+	 * @param toUpdate The set the annotations already linked and to update
+	 *                 are added to.
+	 * @throws DSOutOfServiceException If the connection is broken, or not logged in
+	 * @throws DSAccessException If an error occurred while trying to 
+	 * retrieve data from OMEDS service.
+	 */
+	private void createAnnotationLinks(SecurityContext ctx, Class<?> type,
+		List<DataObject> objects, List<AnnotationData> annotations,
+		List<IObject> links, Set<AnnotationData> toUpdate)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		//A tag is linked to a tag as the parent of the link.
+		boolean tags = TagAnnotationData.class.equals(type);
+		List<Long> ids = new ArrayList<Long>(objects.size());
+		Iterator<DataObject> i = objects.iterator();
+		while (i.hasNext())
+			ids.add(i.next().getId());
+		List<Long> children = new ArrayList<Long>();
+		List<Long> parents = new ArrayList<Long>();
+		Iterator<AnnotationData> j = annotations.iterator();
+		AnnotationData annotation;
+		while (j.hasNext()) {
+			annotation = j.next();
+			if (annotation == null || !isLinkedOnce(annotation)) continue;
+			if (tags && annotation instanceof TagAnnotationData)
+				parents.add(annotation.getId());
+			else children.add(annotation.getId());
+		}
+		//The existing links identified by parent, child and owner.
+		Set<List<Long>> existing = new HashSet<List<Long>>();
+		List<Multimap<Long, IObject>> found =
+				new ArrayList<Multimap<Long, IObject>>();
+		if (!children.isEmpty())
+			found.add(gateway.findAnnotationLinks(ctx, type, ids, children,
+					-1));
+		if (!parents.isEmpty())
+			found.add(gateway.findAnnotationLinks(ctx, AnnotationData.class,
+					parents, ids, -1));
+		Iterator<Multimap<Long, IObject>> k = found.iterator();
+		Multimap<Long, IObject> map;
+		Iterator<IObject> l;
+		IObject link;
+		while (k.hasNext()) {
+			map = k.next();
+			if (map == null) continue;
+			l = map.values().iterator();
+			while (l.hasNext()) {
+				link = l.next();
+				existing.add(Arrays.asList(
+						ModelMapper.getParentFromLink(link).getId().getValue(),
+						ModelMapper.getChildFromLink(link).getId().getValue(),
+						link.getDetails().getOwner().getId().getValue()));
+			}
+		}
+		linkAnnotations(type, objects, annotations, existing,
+				getUserDetails().getId(), links, toUpdate);
+	}
 
-		return r;
+	/**
+	 * Creates the links between the passed objects of the same type and
+	 * the annotations, skipping the links which already exist.
+	 * The annotations linked at most once to an object by a given user and
+	 * already linked by the owner of the object or the user are not linked
+	 * again. The existing links are identified by the identifiers of the
+	 * parent, of the child and of the owner of the link.
+	 * 
+	 * @param type The type of the objects.
+	 * @param objects The objects to annotate.
+	 * @param annotations The annotations to link.
+	 * @param existing The existing links.
+	 * @param userID The identifier of the user.
+	 * @param links The list the new links are added to.
+	 * @param toUpdate The set the annotations already linked and to update
+	 *                 are added to.
+	 */
+	static void linkAnnotations(Class<?> type, List<DataObject> objects,
+		List<AnnotationData> annotations, Set<List<Long>> existing,
+		long userID, List<IObject> links, Set<AnnotationData> toUpdate)
+	{
+		//A tag is linked to a tag as the parent of the link.
+		boolean tags = TagAnnotationData.class.equals(type);
+		Iterator<DataObject> i = objects.iterator();
+		Iterator<AnnotationData> j;
+		AnnotationData annotation;
+		DataObject object;
+		IObject ho, link;
+		Annotation an;
+		long parentID, childID, ownerID;
+		boolean reverse;
+		while (i.hasNext()) {
+			object = i.next();
+			ho = object.asIObject();
+			ownerID = object.getOwner() == null ? userID :
+				object.getOwner().getId();
+			j = annotations.iterator();
+			while (j.hasNext()) {
+				annotation = j.next();
+				if (annotation == null) continue;
+				reverse = tags && annotation instanceof TagAnnotationData;
+				if (isLinkedOnce(annotation)) {
+					parentID = reverse ? annotation.getId() : object.getId();
+					childID = reverse ? object.getId() : annotation.getId();
+					if (existing.contains(Arrays.asList(parentID, childID,
+							ownerID)) || existing.contains(
+							Arrays.asList(parentID, childID, userID))) {
+						if (!(annotation instanceof TagAnnotationData ||
+								annotation instanceof MapAnnotationData))
+							toUpdate.add(annotation);
+						continue;
+					}
+				}
+				an = (Annotation) annotation.asIObject().proxy();
+				if (reverse)
+					link = ModelMapper.linkAnnotation(an,
+							(Annotation) ho.proxy());
+				else link = ModelMapper.linkAnnotation(ho, an);
+				if (link != null) links.add(link);
+			}
+		}
+	}
+
+	/**
+	 * Returns the objects to remove that are not annotations, e.g. the
+	 * annotation links themselves, and can be deleted directly.
+	 * 
+	 * @param toRemove The objects to remove.
+	 * @return See above.
+	 */
+	private List<IObject> getRemoveObjects(List<Object> toRemove)
+	{
+		List<IObject> toDelete = new ArrayList<IObject>();
+		Iterator<Object> i = toRemove.iterator();
+		Object o;
+		IObject ho;
+		while (i.hasNext()) {
+			o = i.next();
+			ho = null;
+			if (o instanceof IObject) ho = (IObject) o;
+			else if (o instanceof DataObject) ho = ((DataObject) o).asIObject();
+			if (ho != null && !(ho instanceof Annotation) &&
+					gateway.canDelete(ho))
+				toDelete.add(ho);
+		}
+		return toDelete;
+	}
+
+	/**
+	 * Returns the links to delete in order to remove the annotations from
+	 * the passed objects of the same type. The links are retrieved with one
+	 * query.
+	 * 
+	 * @param ctx The security context.
+	 * @param type The type of the objects.
+	 * @param objects The objects to handle.
+	 * @param toRemove The annotations to remove.
+	 * @return See above.
+	 * @throws DSOutOfServiceException If the connection is broken, or not logged in
+	 * @throws DSAccessException If an error occurred while trying to 
+	 * retrieve data from OMEDS service.
+	 */
+	private List<IObject> getRemoveAnnotationLinks(SecurityContext ctx,
+		Class<?> type, List<DataObject> objects, List<Object> toRemove)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		List<IObject> toDelete = new ArrayList<IObject>();
+		List<Long> annotations = new ArrayList<Long>();
+		Iterator<Object> i = toRemove.iterator();
+		Object o;
+		IObject ho;
+		while (i.hasNext()) {
+			o = i.next();
+			ho = null;
+			if (o instanceof IObject) ho = (IObject) o;
+			else if (o instanceof DataObject) ho = ((DataObject) o).asIObject();
+			if (ho instanceof Annotation && ho.getId() != null)
+				annotations.add(ho.getId().getValue());
+		}
+		if (annotations.isEmpty()) return toDelete;
+		List<Long> ids = new ArrayList<Long>(objects.size());
+		Iterator<DataObject> j = objects.iterator();
+		while (j.hasNext())
+			ids.add(j.next().getId());
+		Multimap<Long, IObject> map = gateway.findAnnotationLinks(ctx, type,
+				ids, annotations, -1);
+		if (map == null) return toDelete;
+		Iterator<IObject> k = map.values().iterator();
+		IObject link;
+		while (k.hasNext()) {
+			link = k.next();
+			if (gateway.canDelete(link)) toDelete.add(link);
+		}
+		return toDelete;
 	}
 	
 	/**
@@ -1657,6 +1990,22 @@ class OmeroMetadataServiceImpl
 			throw new IllegalArgumentException("File path not valid");
 		return gateway.downloadFile(ctx, file, fileID);
 	}
+
+	/**
+	 * Implemented as specified by {@link OmeroMetadataService}.
+	 * @see OmeroMetadataService#downloadFilesAsZip(SecurityContext, File,
+	 * Collection)
+	 */
+	public File downloadFilesAsZip(SecurityContext ctx, File zip,
+			Collection<FileAnnotationData> files)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		if (zip == null)
+			throw new IllegalArgumentException("File path not valid");
+		if (files == null || files.size() == 0)
+			throw new IllegalArgumentException("No files to download");
+		return gateway.downloadAsZip(ctx, zip, files);
+	}
 	
 	/**
 	 * Implemented as specified by {@link OmeroDataService}.
@@ -1702,6 +2051,50 @@ class OmeroMetadataServiceImpl
 		return results;
 	}
 
+	/**
+	 * Implemented as specified by {@link OmeroDataService}.
+	 * @see OmeroMetadataService#loadLinkedAnnotations(SecurityContext, Class,
+	 * List, long)
+	 */
+	public Map<Long, Collection<AnnotationData>> loadLinkedAnnotations(
+			SecurityContext ctx, Class nodeType, List<Long> nodeIds,
+			long userID)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		if (nodeType == null || CollectionUtils.isEmpty(nodeIds))
+			throw new IllegalArgumentException("No node specified");
+		List<Long> ids = null;
+		if (userID != -1) {
+			ids = new ArrayList<Long>(1);
+			ids.add(userID);
+		}
+		//No type specified i.e. all types are loaded.
+		List<Class> types = new ArrayList<Class>();
+		Map map = gateway.loadAnnotations(ctx, nodeType, nodeIds, types, ids,
+				new Parameters());
+		Map<Long, Collection<AnnotationData>> results =
+				new HashMap<Long, Collection<AnnotationData>>();
+		if (map == null) return results;
+		Entry entry;
+		Iterator i = map.entrySet().iterator();
+		Iterator j;
+		Object data;
+		List<AnnotationData> result;
+		while (i.hasNext()) {
+			entry = (Entry) i.next();
+			result = new ArrayList<AnnotationData>();
+			j = ((Collection) entry.getValue()).iterator();
+			while (j.hasNext()) {
+				data = j.next();
+				if (data instanceof AnnotationData)
+					result.add((AnnotationData) data);
+			}
+			if (result.size() > 0)
+				results.put((Long) entry.getKey(), result);
+		}
+		return results;
+	}
+
 	/**
 	 * Implemented as specified by {@link OmeroDataService}.
 	 * @see OmeroMetadataService#filterByAnnotation(SecurityContext,
@@ -2264,14 +2657,20 @@ class OmeroMetadataServiceImpl
 		boolean topLevel, long userID, long groupID)
 		throws DSOutOfServiceException, DSAccessException
 	{
+		MetadataCache cache = gateway.getMetadataCache();
+		Collection result = cache.getList(ctx.getGroupID(), "tags", id,
+				topLevel, userID, groupID);
+		if (result != null) return result;
 		ParametersI po = new ParametersI();
 		if (userID >= 0) po.exp(omero.rtypes.rlong(userID));
 		if (groupID >= 0) po.grp(omero.rtypes.rlong(groupID));
 		if (topLevel) {
 			po.orphan();
-			return gateway.loadTagSets(ctx, po);
-		}
-		return gateway.loadTags(ctx, id, po);
+			result = gateway.loadTagSets(ctx, po);
+		} else result = gateway.loadTags(ctx, id, po);
+		cache.putList(ctx.getGroupID(), result, "tags", id, topLevel, userID,
+				groupID);
+		return result;
 	}
 
 	/** 
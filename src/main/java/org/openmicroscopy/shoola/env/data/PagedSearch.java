@@ -0,0 +1,314 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//Third-party libraries
+import org.apache.commons.collections4.CollectionUtils;
+
+//Application-internal dependencies
+import omero.ServerError;
+import omero.api.SearchPrx;
+import omero.gateway.Gateway;
+import omero.gateway.SecurityContext;
+import omero.gateway.exception.DSAccessException;
+import omero.gateway.exception.DSOutOfServiceException;
+import omero.gateway.model.DataObject;
+import omero.gateway.model.DatasetData;
+import omero.gateway.model.ImageData;
+import omero.gateway.model.PlateData;
+import omero.gateway.model.ProjectData;
+import omero.gateway.model.ScreenData;
+import omero.gateway.model.SearchParameters;
+import omero.gateway.model.SearchResult;
+import omero.gateway.model.SearchResultCollection;
+import omero.gateway.model.SearchScope;
+import omero.gateway.util.PojoMapper;
+import omero.model.Details;
+import omero.model.DetailsI;
+import omero.model.ExperimenterI;
+import omero.model.IObject;
+import org.openmicroscopy.shoola.env.data.util.SearchCursor;
+
+/**
+ * Reads the results of a search from the search service one batch at a
+ * time. The types to search for are queried one after the other, each
+ * batch returned by the service making a page.
+ *
+ * @since 5.8.5
+ */
+class PagedSearch
+    implements SearchCursor
+{
+
+    /** The format of the dates passed to the query builder. */
+    private static final String DATE_FORMAT = "yyyyMMdd";
+
+    /** The Ice context key used to search across groups. */
+    private static final String GROUP_KEY = "omero.group";
+
+    /** Reference to the gateway. */
+    private final Gateway gateway;
+
+    /** The security context. */
+    private final SecurityContext ctx;
+
+    /** The context of the search. */
+    private final SearchParameters context;
+
+    /** The maximum number of results per page. */
+    private final int pageSize;
+
+    /** The types to search for, all of them if none is specified. */
+    private final List<Class<? extends DataObject>> types;
+
+    /** The Ice context passed to the service. */
+    private final Map<String, String> options;
+
+    /** The index of the type currently searched for. */
+    private int typeIndex;
+
+    /** The open service or <code>null</code>. */
+    private SearchPrx service;
+
+    /** Flag indicating that the query for the current type has been run. */
+    private boolean running;
+
+    /** Flag indicating that all the results have been read. */
+    private boolean done;
+
+    /**
+     * Formats the passed time for the query builder.
+     *
+     * @param time The time to format.
+     * @return See above.
+     */
+    private static String formatDate(Timestamp time)
+    {
+        if (time == null) return null;
+        return new SimpleDateFormat(DATE_FORMAT).format(time);
+    }
+
+    /**
+     * Returns the fields to search in, <code>null</code> for all of them.
+     *
+     * @param scopes The scopes of the search.
+     * @return See above.
+     */
+    private static String formatFields(Set<SearchScope> scopes)
+    {
+        if (CollectionUtils.isEmpty(scopes)) return null;
+        StringBuffer buffer = new StringBuffer();
+        Iterator<SearchScope> i = scopes.iterator();
+        SearchScope scope;
+        while (i.hasNext()) {
+            scope = i.next();
+            if (buffer.length() > 0) buffer.append(",");
+            if (scope == SearchScope.NAME) buffer.append("name");
+            else if (scope == SearchScope.DESCRIPTION)
+                buffer.append("description");
+            else buffer.append("annotation");
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Returns the error corresponding to the passed exception.
+     *
+     * @param e The exception to handle.
+     * @return One of the constants defined by {@link SearchResultCollection}.
+     */
+    private static int getError(Exception e)
+    {
+        String message = e.getMessage();
+        if (e instanceof ServerError)
+            message = ((ServerError) e).message;
+        if (message != null && (message.contains("TooManyClauses") ||
+                message.contains("maxClauseCount")))
+            return SearchResultCollection.TOO_MANY_CLAUSES;
+        return SearchResultCollection.GENERAL_ERROR;
+    }
+
+    /**
+     * Opens the search service.
+     *
+     * @return See above.
+     * @throws DSOutOfServiceException If the connection is broken, or not
+     *                                 logged in.
+     */
+    SearchPrx createService()
+        throws DSOutOfServiceException
+    {
+        return gateway.getSearchService(ctx);
+    }
+
+    /**
+     * Closes the specified search service.
+     *
+     * @param service The service to close.
+     */
+    void closeService(SearchPrx service)
+    {
+        try {
+            gateway.closeService(ctx, service);
+        } catch (Exception e) {
+            //Digest exception
+        }
+    }
+
+    /**
+     * Runs the query for the current type.
+     *
+     * @throws Exception If an error occurred while running the query.
+     */
+    private void startType()
+        throws Exception
+    {
+        if (service == null) {
+            service = createService();
+            service.setAllowLeadingWildcard(true, options);
+            service.setCaseSensitive(false, options);
+            service.setBatchSize(pageSize, options);
+            if (context.getUserId() >= 0) {
+                Details d = new DetailsI();
+                d.setOwner(new ExperimenterI(context.getUserId(), false));
+                service.onlyOwnedBy(d, options);
+            }
+        }
+        service.clearQueries(options);
+        service.onlyType(PojoMapper.getModelType(
+                types.get(typeIndex)).getName(), options);
+        service.byLuceneQueryBuilder(formatFields(context.getScope()),
+                formatDate(context.getDateFrom()),
+                formatDate(context.getDateTo()), context.getDateType(),
+                context.getQuery(), options);
+        running = true;
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param gateway Reference to the gateway.
+     * @param ctx The security context.
+     * @param context The context of the search.
+     * @param pageSize The maximum number of results per page.
+     */
+    PagedSearch(Gateway gateway, SecurityContext ctx, SearchParameters context,
+            int pageSize)
+    {
+        this.gateway = gateway;
+        this.ctx = ctx;
+        this.context = context;
+        this.pageSize = pageSize;
+        types = new ArrayList<Class<? extends DataObject>>();
+        if (CollectionUtils.isNotEmpty(context.getTypes()))
+            types.addAll(context.getTypes());
+        else {
+            types.add(ImageData.class);
+            types.add(DatasetData.class);
+            types.add(ProjectData.class);
+            types.add(ScreenData.class);
+            types.add(PlateData.class);
+        }
+        options = new HashMap<String, String>();
+        if (context.getGroupId() == SearchParameters.ALL_GROUPS_ID)
+            options.put(GROUP_KEY, "-1");
+        done = types.isEmpty();
+    }
+
+    /**
+     * Implemented as specified by the {@link SearchCursor} interface.
+     * @see SearchCursor#hasNext()
+     */
+    public synchronized boolean hasNext() { return !done; }
+
+    /**
+     * Implemented as specified by the {@link SearchCursor} interface.
+     * @see SearchCursor#next()
+     */
+    public synchronized SearchResultCollection next()
+        throws DSOutOfServiceException, DSAccessException
+    {
+        SearchResultCollection page = new SearchResultCollection();
+        try {
+            while (!done && page.isEmpty()) {
+                if (!running) startType();
+                if (!service.hasNext(options)) {
+                    running = false;
+                    typeIndex++;
+                    if (typeIndex >= types.size()) close();
+                    continue;
+                }
+                Class<? extends DataObject> type = types.get(typeIndex);
+                List<IObject> l = service.results(options);
+                Iterator<IObject> i = l.iterator();
+                IObject object;
+                SearchResult r;
+                while (i.hasNext()) {
+                    object = i.next();
+                    r = new SearchResult();
+                    r.setObjectId(object.getId().getValue());
+                    r.setType(type);
+                    if (object.getDetails() != null &&
+                            object.getDetails().getGroup() != null)
+                        r.setGroupId(object.getDetails().getGroup().getId()
+                                .getValue());
+                    else r.setGroupId(ctx.getGroupID());
+                    r.setObject(PojoMapper.asDataObject(object));
+                    page.add(r);
+                }
+            }
+        } catch (ServerError e) {
+            close();
+            page.setError(getError(e));
+        } catch (DSOutOfServiceException e) {
+            close();
+            throw e;
+        } catch (Exception e) {
+            close();
+            throw new DSAccessException("Cannot perform the search.", e);
+        }
+        return page;
+    }
+
+    /**
+     * Implemented as specified by the {@link SearchCursor} interface.
+     * @see SearchCursor#close()
+     */
+    public synchronized void close()
+    {
+        done = true;
+        if (service == null) return;
+        closeService(service);
+        service = null;
+    }
+}
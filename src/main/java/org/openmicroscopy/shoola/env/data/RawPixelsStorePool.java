@@ -0,0 +1,318 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+//Third-party libraries
+
+//Application-internal dependencies
+import omero.ServerError;
+import omero.api.RawPixelsStorePrx;
+import omero.gateway.Gateway;
+import omero.gateway.SecurityContext;
+import omero.gateway.exception.DSOutOfServiceException;
+
+/**
+ * Keeps the raw pixels stores open between calls, per pixels set, instead
+ * of opening a store, setting the pixels set and closing the store for each
+ * plane. The stores which have not been used for a given time are closed.
+ *
+ * @since 5.8.5
+ */
+class RawPixelsStorePool
+{
+
+    /** The maximum number of idle stores kept per pixels set. */
+    static final int MAX_IDLE = 2;
+
+    /** The minimum period of the eviction of the idle stores. */
+    private static final long MIN_PERIOD = 1000;
+
+    /** An open store. */
+    private static class Store
+    {
+
+        /** The security context the store was opened with. */
+        private final SecurityContext ctx;
+
+        /** The store. */
+        private final RawPixelsStorePrx proxy;
+
+        /** The time the store was last released. */
+        private long lastUsed;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param ctx The security context the store was opened with.
+         * @param proxy The store.
+         */
+        Store(SecurityContext ctx, RawPixelsStorePrx proxy)
+        {
+            this.ctx = ctx;
+            this.proxy = proxy;
+        }
+    }
+
+    /** Reference to the gateway. */
+    private final Gateway gw;
+
+    /** The idle stores, keyed by group and pixels set. */
+    private final Map<String, LinkedList<Store>> idle;
+
+    /** The stores currently in use. */
+    private final Map<RawPixelsStorePrx, Store> inUse;
+
+    /**
+     * The time after which an idle store is closed, in milliseconds.
+     * <code>0</code> to close the stores when released.
+     */
+    private long idleTime;
+
+    /** Closes the idle stores. */
+    private Timer timer;
+
+    /**
+     * Returns the key of the stores of a pixels set.
+     *
+     * @param ctx The security context.
+     * @param pixelsID The identifier of the pixels set.
+     * @return See above.
+     */
+    private static String keyOf(SecurityContext ctx, long pixelsID)
+    {
+        return ctx.getGroupID()+":"+pixelsID;
+    }
+
+    /**
+     * Closes the specified stores.
+     *
+     * @param stores The stores to close.
+     */
+    private void close(List<Store> stores)
+    {
+        for (Store s : stores)
+            closeStore(s.ctx, s.proxy);
+    }
+
+    /**
+     * Opens a store. Overridden by the tests.
+     *
+     * @param ctx The security context.
+     * @return See above.
+     * @throws DSOutOfServiceException If the connection is broken.
+     */
+    RawPixelsStorePrx createStore(SecurityContext ctx)
+        throws DSOutOfServiceException
+    {
+        return gw.getPixelsStore(ctx);
+    }
+
+    /**
+     * Closes a store. Overridden by the tests.
+     *
+     * @param ctx The security context the store was opened with.
+     * @param proxy The store to close.
+     */
+    void closeStore(SecurityContext ctx, RawPixelsStorePrx proxy)
+    {
+        gw.closeService(ctx, proxy);
+    }
+
+    /** Closes the stores which have been idle for too long. */
+    void evictIdle()
+    {
+        List<Store> expired = new ArrayList<Store>();
+        synchronized (this) {
+            long limit = System.currentTimeMillis()-idleTime;
+            Iterator<LinkedList<Store>> i = idle.values().iterator();
+            LinkedList<Store> l;
+            while (i.hasNext()) {
+                l = i.next();
+                while (!l.isEmpty() && l.getFirst().lastUsed <= limit)
+                    expired.add(l.removeFirst());
+                if (l.isEmpty()) i.remove();
+            }
+        }
+        close(expired);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param gw Reference to the gateway.
+     */
+    RawPixelsStorePool(Gateway gw)
+    {
+        this.gw = gw;
+        idle = new HashMap<String, LinkedList<Store>>();
+        inUse = new HashMap<RawPixelsStorePrx, Store>();
+    }
+
+    /**
+     * Sets the time after which an idle store is closed.
+     *
+     * @param idleTime The time in milliseconds, <code>0</code> to close the
+     *                 stores when released.
+     */
+    synchronized void setIdleTime(long idleTime)
+    {
+        this.idleTime = Math.max(0, idleTime);
+        if (timer != null) timer.cancel();
+        timer = null;
+        if (this.idleTime == 0) return;
+        long period = Math.max(MIN_PERIOD, this.idleTime/2);
+        timer = new Timer("RawPixelsStorePool", true);
+        timer.schedule(new TimerTask() {
+            public void run() { evictIdle(); }
+        }, period, period);
+    }
+
+    /**
+     * Returns an open store for the specified pixels set, reusing an idle
+     * one if any. The store must be {@link #release released} after use.
+     *
+     * @param ctx The security context.
+     * @param pixelsID The identifier of the pixels set.
+     * @return See above.
+     * @throws DSOutOfServiceException If the connection is broken.
+     * @throws ServerError If the pixels set cannot be accessed.
+     */
+    RawPixelsStorePrx acquire(SecurityContext ctx, long pixelsID)
+        throws DSOutOfServiceException, ServerError
+    {
+        Store s = null;
+        synchronized (this) {
+            String key = keyOf(ctx, pixelsID);
+            LinkedList<Store> l = idle.get(key);
+            if (l != null) {
+                s = l.removeLast();
+                if (l.isEmpty()) idle.remove(key);
+            }
+        }
+        if (s == null) {
+            RawPixelsStorePrx proxy = createStore(ctx);
+            try {
+                proxy.setPixelsId(pixelsID, false);
+            } catch (ServerError e) {
+                closeStore(ctx, proxy);
+                throw e;
+            }
+            s = new Store(ctx, proxy);
+        }
+        synchronized (this) {
+            inUse.put(s.proxy, s);
+        }
+        return s.proxy;
+    }
+
+    /**
+     * Returns a store to the pool.
+     *
+     * @param pixelsID The identifier of the pixels set the store was acquired
+     *                 for.
+     * @param proxy The store.
+     * @param reuse Pass <code>true</code> to keep the store open,
+     *              <code>false</code> to close it, e.g. after an error.
+     */
+    void release(long pixelsID, RawPixelsStorePrx proxy, boolean reuse)
+    {
+        if (proxy == null) return;
+        Store s;
+        synchronized (this) {
+            s = inUse.remove(proxy);
+            if (s == null) return;
+            if (reuse && idleTime > 0) {
+                String key = keyOf(s.ctx, pixelsID);
+                LinkedList<Store> l = idle.get(key);
+                if (l == null) {
+                    l = new LinkedList<Store>();
+                    idle.put(key, l);
+                }
+                if (l.size() < MAX_IDLE) {
+                    s.lastUsed = System.currentTimeMillis();
+                    l.addLast(s);
+                    return;
+                }
+            }
+        }
+        closeStore(s.ctx, s.proxy);
+    }
+
+    /**
+     * Closes the idle stores opened for the specified group.
+     *
+     * @param groupID The identifier of the group.
+     */
+    void close(long groupID)
+    {
+        List<Store> stores = new ArrayList<Store>();
+        synchronized (this) {
+            Iterator<LinkedList<Store>> i = idle.values().iterator();
+            LinkedList<Store> l;
+            while (i.hasNext()) {
+                l = i.next();
+                if (l.getFirst().ctx.getGroupID() == groupID) {
+                    stores.addAll(l);
+                    i.remove();
+                }
+            }
+        }
+        close(stores);
+    }
+
+    /** Closes all the idle stores. */
+    void clear()
+    {
+        List<Store> stores = new ArrayList<Store>();
+        synchronized (this) {
+            for (LinkedList<Store> l : idle.values())
+                stores.addAll(l);
+            idle.clear();
+        }
+        close(stores);
+    }
+
+    /**
+     * Returns the number of idle stores.
+     *
+     * @return See above.
+     */
+    synchronized int getIdleCount()
+    {
+        int n = 0;
+        for (LinkedList<Store> l : idle.values())
+            n += l.size();
+        return n;
+    }
+
+}
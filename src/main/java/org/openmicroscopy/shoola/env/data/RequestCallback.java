@@ -62,6 +62,9 @@ public class RequestCallback
 	/** Flag indicating that the results have been submitted. */
 	private boolean submitted;
 	
+	/** Run once the operation has finished, successfully or not. */
+	private Runnable completion;
+	
 	/** 
 	 * Handles the response of the data transfer.
 	 * 
@@ -107,6 +110,23 @@ public class RequestCallback
     {
         super(ccb);
     }
+    
+    /**
+     * Creates a new instance.
+     * @param ccb The CmdCallbackI to pass through
+     * @param completion Run once the operation has finished, successfully
+     *                   or not, e.g. to invalidate cached values.
+     * @throws ServerError Thrown if an error occurred while initializing the
+     *                     call-back.
+     */
+    RequestCallback(CmdCallbackI ccb, Runnable completion)
+        throws ServerError
+    {
+        super(ccb);
+        this.completion = completion;
+        //The operation may have finished while initializing.
+        if (finished && completion != null) completion.run();
+    }
 	
 	/**
 	 * Sets the adapter. 
@@ -133,6 +153,7 @@ public class RequestCallback
 	{
 		super.onFinished(rsp, status, c);
 		finished = true;
+		if (completion != null) completion.run();
 		if (adapter != null) {
 			submitted = true;
 			Object ho = handleResponse();
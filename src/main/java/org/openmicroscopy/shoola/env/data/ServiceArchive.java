@@ -0,0 +1,793 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import javax.imageio.ImageIO;
+
+//Third-party libraries
+
+//Application-internal dependencies
+import omero.ApiUsageException;
+import omero.RType;
+import omero.ServerError;
+import omero.rtypes;
+import omero.api.ThumbnailStorePrx;
+import omero.gateway.SecurityContext;
+import omero.gateway.exception.DSAccessException;
+import omero.gateway.model.DataObject;
+import omero.gateway.util.PojoMapper;
+import omero.log.Logger;
+import omero.model.IObject;
+
+/**
+ * Records the calls to the data services, that is the
+ * {@link OmeroDataService}, {@link OmeroImageService},
+ * {@link OmeroMetadataService} and {@link AdminService}, to a local
+ * directory and replays them without a server.
+ * <p>A service is {@link #record(Class, Object) wrapped} into a dynamic proxy
+ * saving the result, or the exception thrown, of each call. A
+ * {@link #replay(Class) replaying} proxy serves the recorded results with an
+ * injected latency and bandwidth so that a flow recorded once, e.g. opening
+ * a dataset or browsing a plate, can be timed reproducibly offline.</p>
+ * <p>A call is identified by the service, the method, the arguments and the
+ * number of identical calls made before it. Data objects are stored as their
+ * model objects, images as PNG and everything else using the Java
+ * serialization; results which cannot be stored are not recorded.</p>
+ * <p>The thumbnail stores returned by the services are wrapped too, their
+ * calls being identified by the pixels set the store was last set to, so
+ * that the thumbnails of a dataset are replayed. The code using the gateway
+ * directly is not recorded, e.g. the rendering engines, the raw pixels
+ * stores used to check the state of a pyramid or to read planes outside of
+ * {@link OmeroImageService#getPlane(SecurityContext, long, int, int, int)}
+ * and the gateway facilities, so the flows relying on it cannot be replayed
+ * without a server. A call which was not recorded fails with a
+ * {@link DSAccessException}, wrapped if the method does not declare it, or
+ * a {@link ServerError} for the calls to a store.</p>
+ *
+ * @since 5.8.5
+ */
+public class ServiceArchive
+{
+
+    /** The name of the file listing the recorded calls. */
+    static final String INDEX = "index.txt";
+
+    /** The key of the details of the logged in user. */
+    static final String SESSION = "session";
+
+    /** The extension of the files holding a call. */
+    private static final String EXTENSION = ".ser";
+
+    /** The result of a recorded call. */
+    private static class Entry
+        implements Serializable
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        /** The value returned. */
+        private final Object value;
+
+        /** The exception thrown, <code>null</code> if none. */
+        private final Throwable error;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param value The value returned.
+         * @param error The exception thrown, <code>null</code> if none.
+         */
+        Entry(Object value, Throwable error)
+        {
+            this.value = value;
+            this.error = error;
+        }
+    }
+
+    /** Stands for a data object in the archive. */
+    private static class DataObjectRef
+        implements Serializable
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        /** The model object. */
+        private final IObject object;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param object The model object.
+         */
+        DataObjectRef(IObject object) { this.object = object; }
+    }
+
+    /** Stands for an image in the archive. */
+    private static class ImageRef
+        implements Serializable
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        /** The image encoded as PNG. */
+        private final byte[] png;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param png The image encoded as PNG.
+         */
+        ImageRef(byte[] png) { this.png = png; }
+    }
+
+    /** Writes the values, replacing the data objects and images. */
+    private static class ArchiveOutputStream
+        extends ObjectOutputStream
+    {
+
+        /**
+         * Creates a new instance.
+         *
+         * @param out The stream to write to.
+         * @throws IOException If an error occurred while writing the header.
+         */
+        ArchiveOutputStream(OutputStream out)
+            throws IOException
+        {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        protected Object replaceObject(Object obj)
+            throws IOException
+        {
+            if (obj instanceof DataObject)
+                return new DataObjectRef(((DataObject) obj).asIObject());
+            if (obj instanceof BufferedImage) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write((BufferedImage) obj, "png", out);
+                return new ImageRef(out.toByteArray());
+            }
+            return obj;
+        }
+    }
+
+    /** Reads the values, restoring the data objects and images. */
+    private static class ArchiveInputStream
+        extends ObjectInputStream
+    {
+
+        /**
+         * Creates a new instance.
+         *
+         * @param in The stream to read from.
+         * @throws IOException If an error occurred while reading the header.
+         */
+        ArchiveInputStream(InputStream in)
+            throws IOException
+        {
+            super(in);
+            enableResolveObject(true);
+        }
+
+        protected Object resolveObject(Object obj)
+            throws IOException
+        {
+            if (obj instanceof DataObjectRef)
+                return PojoMapper.asDataObject(((DataObjectRef) obj).object);
+            if (obj instanceof ImageRef)
+                return ImageIO.read(
+                        new ByteArrayInputStream(((ImageRef) obj).png));
+            return obj;
+        }
+    }
+
+    /** Computes the keys of the calls to a service or a store. */
+    private abstract class CallHandler
+        implements InvocationHandler
+    {
+
+        /** The name of the service. */
+        final String serviceName;
+
+        /** Whether the service is a store, see {@link #STORES}. */
+        private final boolean store;
+
+        /** The key of the pixels set the store was last set to. */
+        private String state;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param serviceName The name of the service.
+         * @param store Pass <code>true</code> if the service is a store.
+         */
+        CallHandler(String serviceName, boolean store)
+        {
+            this.serviceName = serviceName;
+            this.store = store;
+        }
+
+        /**
+         * Returns the key of the specified call, updating the state of the
+         * store first if the pixels set is set.
+         *
+         * @param method The method called.
+         * @param args The arguments.
+         * @return See above.
+         */
+        synchronized String keyOf(Method method, Object[] args)
+        {
+            if (!store) return ServiceArchive.keyOf(serviceName, method, args);
+            if ("setPixelsId".equals(method.getName()) && args != null &&
+                    args.length > 0)
+                state = ServiceArchive.keyOf(args[0]);
+            return ServiceArchive.keyOf(serviceName+"["+state+"]", method,
+                    args);
+        }
+
+        /**
+         * Returns <code>true</code> if the handled service is a store,
+         * <code>false</code> otherwise.
+         *
+         * @return See above.
+         */
+        boolean handlesStore() { return store; }
+    }
+
+    /** Records the calls to a service and forwards them. */
+    private class RecordingHandler
+        extends CallHandler
+    {
+
+        /** The service. */
+        private final Object service;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param service The service.
+         * @param serviceName The name of the service.
+         * @param store Pass <code>true</code> if the service is a store.
+         */
+        RecordingHandler(Object service, String serviceName, boolean store)
+        {
+            super(serviceName, store);
+            this.service = service;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args)
+            throws Throwable
+        {
+            if (method.getDeclaringClass() == Object.class)
+                return method.invoke(service, args);
+            Object[] values = unwrap(args);
+            Class<?> type = method.getReturnType();
+            if (isStore(type)) {
+                try {
+                    return record(type, method.invoke(service, values), true);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+            String key = keyOf(method, args);
+            int n = nextOccurrence(key);
+            try {
+                Object result = method.invoke(service, values);
+                save(key, n, new Entry(result, null));
+                return result;
+            } catch (InvocationTargetException e) {
+                save(key, n, new Entry(null, e.getCause()));
+                throw e.getCause();
+            }
+        }
+    }
+
+    /** Serves the recorded calls to a service. */
+    private class ReplayHandler
+        extends CallHandler
+    {
+
+        /**
+         * Creates a new instance.
+         *
+         * @param serviceName The name of the service.
+         * @param store Pass <code>true</code> if the service is a store.
+         */
+        ReplayHandler(String serviceName, boolean store)
+        {
+            super(serviceName, store);
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args)
+            throws Throwable
+        {
+            if (method.getDeclaringClass() == Object.class) {
+                String name = method.getName();
+                if ("equals".equals(name)) return proxy == args[0];
+                if ("hashCode".equals(name))
+                    return System.identityHashCode(proxy);
+                return "Replayed "+serviceName;
+            }
+            Class<?> type = method.getReturnType();
+            if (isStore(type)) return replay(type, true);
+            String key = keyOf(method, args);
+            int n = nextOccurrence(key);
+            File f = fileFor(key, n);
+            if (!f.exists()) f = fileFor(key, 0);
+            if (!f.exists()) {
+                //Closing or resetting a store is not needed to replay.
+                if (handlesStore() && type == Void.TYPE) return null;
+                throw notRecorded(method, "No recording for "+key);
+            }
+            Entry entry = (Entry) read(f);
+            delay(f.length());
+            if (entry.error != null) throw entry.error;
+            return entry.value;
+        }
+    }
+
+    /** The stores whose calls are recorded, if returned by a service. */
+    private static final Class<?>[] STORES = {ThumbnailStorePrx.class};
+
+    /** The directory holding the recorded calls. */
+    private final File directory;
+
+    /** Reference to the logger. */
+    private final Logger logger;
+
+    /** The latency injected in each replayed call, in milliseconds. */
+    private int latency;
+
+    /**
+     * The bandwidth at which the replayed results are served, in kilobytes
+     * per second, <code>0</code> for no limit.
+     */
+    private int bandwidth;
+
+    /** The number of calls made so far for each key. */
+    private final Map<String, Integer> occurrences;
+
+    /** The methods whose results could not be recorded. */
+    private final Set<String> skipped;
+
+    /**
+     * Returns a stable key identifying the specified argument.
+     * Data objects are identified by their type and identifier, other
+     * objects which aren't values, e.g. call-backs, by their type.
+     *
+     * @param arg The argument.
+     * @return See above.
+     */
+    static String keyOf(Object arg)
+    {
+        if (arg == null) return "null";
+        if (arg instanceof RType) return keyOf(rtypes.unwrap((RType) arg));
+        for (int i = 0; i < STORES.length; i++) {
+            if (STORES[i].isInstance(arg)) return STORES[i].getSimpleName();
+        }
+        if (arg instanceof SecurityContext)
+            return "group="+((SecurityContext) arg).getGroupID();
+        if (arg instanceof DataObject)
+            return arg.getClass().getSimpleName()+":"+
+                ((DataObject) arg).getId();
+        if (arg instanceof Collection) {
+            StringBuffer buf = new StringBuffer("[");
+            Iterator<?> i = ((Collection<?>) arg).iterator();
+            while (i.hasNext()) {
+                buf.append(keyOf(i.next()));
+                if (i.hasNext()) buf.append(",");
+            }
+            return buf.append("]").toString();
+        }
+        if (arg instanceof Map) {
+            StringBuffer buf = new StringBuffer("{");
+            Iterator<?> i = ((Map<?, ?>) arg).entrySet().iterator();
+            Map.Entry<?, ?> e;
+            while (i.hasNext()) {
+                e = (Map.Entry<?, ?>) i.next();
+                buf.append(keyOf(e.getKey())+"="+keyOf(e.getValue()));
+                if (i.hasNext()) buf.append(",");
+            }
+            return buf.append("}").toString();
+        }
+        if (arg.getClass().isArray()) {
+            StringBuffer buf = new StringBuffer("[");
+            int n = java.lang.reflect.Array.getLength(arg);
+            for (int i = 0; i < n; i++) {
+                if (i > 0) buf.append(",");
+                buf.append(keyOf(java.lang.reflect.Array.get(arg, i)));
+            }
+            return buf.append("]").toString();
+        }
+        if (arg instanceof String || arg instanceof Number ||
+                arg instanceof Boolean || arg instanceof Character ||
+                arg instanceof Enum || arg instanceof Class ||
+                arg instanceof File)
+            return String.valueOf(arg);
+        return arg.getClass().getName();
+    }
+
+    /**
+     * Returns the key identifying a call.
+     *
+     * @param serviceName The name of the service.
+     * @param method The method called.
+     * @param args The arguments.
+     * @return See above.
+     */
+    static String keyOf(String serviceName, Method method, Object[] args)
+    {
+        StringBuffer buf = new StringBuffer(serviceName);
+        buf.append("."+method.getName()+"(");
+        if (args != null) {
+            for (int i = 0; i < args.length; i++) {
+                if (i > 0) buf.append(", ");
+                buf.append(keyOf(args[i]));
+            }
+        }
+        return buf.append(")").toString();
+    }
+
+    /**
+     * Returns <code>true</code> if the specified type is one of the
+     * {@link #STORES}, <code>false</code> otherwise.
+     *
+     * @param type The type to handle.
+     * @return See above.
+     */
+    private static boolean isStore(Class<?> type)
+    {
+        for (int i = 0; i < STORES.length; i++) {
+            if (STORES[i] == type) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the recording proxies of the stores passed by the stores
+     * themselves, e.g. when a store is closed by a service.
+     *
+     * @param args The arguments.
+     * @return See above.
+     */
+    private static Object[] unwrap(Object[] args)
+    {
+        if (args == null) return null;
+        Object[] values = args.clone();
+        InvocationHandler h;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null || !Proxy.isProxyClass(values[i].getClass()))
+                continue;
+            h = Proxy.getInvocationHandler(values[i]);
+            if (h instanceof RecordingHandler)
+                values[i] = ((RecordingHandler) h).service;
+        }
+        return values;
+    }
+
+    /**
+     * Returns the exception thrown when a call was not recorded: a
+     * {@link DSAccessException} if declared by the method, an
+     * {@link ApiUsageException} for the stores, a {@link DSAccessException}
+     * wrapped in an {@link UndeclaredThrowableException} otherwise.
+     *
+     * @param method The method called.
+     * @param message The message of the exception.
+     * @return See above.
+     */
+    private static Throwable notRecorded(Method method, String message)
+    {
+        DSAccessException e = new DSAccessException(message);
+        Class<?>[] types = method.getExceptionTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (types[i].isAssignableFrom(DSAccessException.class))
+                return e;
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (types[i].isAssignableFrom(ApiUsageException.class)) {
+                ApiUsageException ex = new ApiUsageException();
+                ex.message = message;
+                return ex;
+            }
+        }
+        return new UndeclaredThrowableException(e, message);
+    }
+
+    /**
+     * Returns the number of calls made before this one with the specified
+     * key and counts this one.
+     *
+     * @param key The key identifying the call.
+     * @return See above.
+     */
+    private synchronized int nextOccurrence(String key)
+    {
+        Integer n = occurrences.get(key);
+        int v = n == null ? 0 : n.intValue();
+        occurrences.put(key, v+1);
+        return v;
+    }
+
+    /**
+     * Returns the file holding the specified occurrence of a call.
+     *
+     * @param key The key identifying the call.
+     * @param n The occurrence.
+     * @return See above.
+     */
+    File fileFor(String key, int n)
+    {
+        StringBuffer buf = new StringBuffer();
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            byte[] digest = md.digest(key.getBytes("UTF-8"));
+            for (int i = 0; i < digest.length; i++)
+                buf.append(String.format("%02x", digest[i] & 0xff));
+        } catch (NoSuchAlgorithmException e) {
+            buf.append(Integer.toHexString(key.hashCode()));
+        } catch (IOException e) {
+            buf.append(Integer.toHexString(key.hashCode()));
+        }
+        return new File(directory, buf+"-"+n+EXTENSION);
+    }
+
+    /**
+     * Writes the specified value to the file.
+     *
+     * @param f The file to write to.
+     * @param value The value to write.
+     * @throws IOException If an error occurred while writing.
+     */
+    private void write(File f, Object value)
+        throws IOException
+    {
+        ObjectOutputStream out = new ArchiveOutputStream(
+                new BufferedOutputStream(new FileOutputStream(f)));
+        try {
+            out.writeObject(value);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the value held in the specified file.
+     *
+     * @param f The file to read.
+     * @return See above.
+     * @throws IOException If an error occurred while reading.
+     */
+    private Object read(File f)
+        throws IOException
+    {
+        ObjectInputStream in = new ArchiveInputStream(
+                new BufferedInputStream(new FileInputStream(f)));
+        try {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Cannot read "+f.getName(), e);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Saves a call. Calls whose result cannot be serialized are not
+     * recorded, the methods are logged once.
+     *
+     * @param key The key identifying the call.
+     * @param n The occurrence.
+     * @param entry The result of the call.
+     */
+    private void save(String key, int n, Entry entry)
+    {
+        File f = fileFor(key, n);
+        try {
+            write(f, entry);
+            synchronized (this) {
+                PrintWriter out = new PrintWriter(
+                        new FileWriter(new File(directory, INDEX), true));
+                try {
+                    out.println(f.getName()+"\t"+key);
+                } finally {
+                    out.close();
+                }
+            }
+        } catch (IOException e) {
+            f.delete();
+            String method = key.substring(0, key.indexOf('('));
+            boolean log;
+            synchronized (this) {
+                log = skipped.add(method);
+            }
+            if (log && logger != null)
+                logger.warn(this, "Cannot record "+method+": "+e);
+        }
+    }
+
+    /**
+     * Waits for the injected latency and the time needed to transfer the
+     * specified number of bytes at the injected bandwidth.
+     *
+     * @param size The number of bytes served.
+     */
+    private void delay(long size)
+    {
+        long ms = latency;
+        if (bandwidth > 0) ms += size*1000/(bandwidth*1024L);
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param directory The directory holding the recorded calls, created if
+     *                  need be.
+     * @param logger Reference to the logger, may be <code>null</code>.
+     */
+    ServiceArchive(File directory, Logger logger)
+    {
+        if (directory == null)
+            throw new IllegalArgumentException("No directory specified.");
+        directory.mkdirs();
+        this.directory = directory;
+        this.logger = logger;
+        occurrences = new HashMap<String, Integer>();
+        skipped = new HashSet<String>();
+    }
+
+    /**
+     * Sets the latency and bandwidth injected in the replayed calls.
+     *
+     * @param latency The latency, in milliseconds.
+     * @param bandwidth The bandwidth in kilobytes per second, <code>0</code>
+     *                  for no limit.
+     */
+    void setNetwork(int latency, int bandwidth)
+    {
+        this.latency = Math.max(0, latency);
+        this.bandwidth = Math.max(0, bandwidth);
+    }
+
+    /**
+     * Returns a proxy recording the calls to the specified service.
+     *
+     * @param type The interface of the service.
+     * @param service The service.
+     * @return See above.
+     */
+    <T> T record(Class<T> type, T service)
+    {
+        return record(type, service, false);
+    }
+
+    /**
+     * Returns a proxy recording the calls to the specified service or store.
+     *
+     * @param type The interface of the service.
+     * @param service The service.
+     * @param store Pass <code>true</code> if the service is a store.
+     * @return See above.
+     */
+    private <T> T record(Class<T> type, Object service, boolean store)
+    {
+        if (service == null) return null;
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(),
+                new Class<?>[] {type},
+                new RecordingHandler(service, type.getSimpleName(), store));
+        return type.cast(proxy);
+    }
+
+    /**
+     * Returns a proxy serving the recorded calls to the specified service.
+     *
+     * @param type The interface of the service.
+     * @return See above.
+     */
+    <T> T replay(Class<T> type)
+    {
+        return replay(type, false);
+    }
+
+    /**
+     * Returns a proxy serving the recorded calls to the specified service or
+     * store.
+     *
+     * @param type The interface of the service.
+     * @param store Pass <code>true</code> if the service is a store.
+     * @return See above.
+     */
+    private <T> T replay(Class<T> type, boolean store)
+    {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(),
+                new Class<?>[] {type},
+                new ReplayHandler(type.getSimpleName(), store));
+        return type.cast(proxy);
+    }
+
+    /**
+     * Saves the details of the logged in user, i.e. the values bound to the
+     * registry when connecting.
+     *
+     * @param details The values, keyed by registry name.
+     * @throws IOException If an error occurred while writing.
+     */
+    void saveSession(Map<String, Object> details)
+        throws IOException
+    {
+        write(new File(directory, SESSION+EXTENSION),
+                new HashMap<String, Object>(details));
+    }
+
+    /**
+     * Returns the details of the logged in user saved while recording.
+     *
+     * @return See above.
+     * @throws IOException If nothing was recorded or an error occurred while
+     *                     reading.
+     */
+    @SuppressWarnings("unchecked")
+    Map<String, Object> loadSession()
+        throws IOException
+    {
+        return (Map<String, Object>) read(
+                new File(directory, SESSION+EXTENSION));
+    }
+
+}
@@ -0,0 +1,526 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Third-party libraries
+
+//Application-internal dependencies
+import omero.gateway.SecurityContext;
+import omero.gateway.model.DataObject;
+import org.openmicroscopy.shoola.env.data.util.LatencyHistogram;
+
+/**
+ * Traces the calls to the data services, that is the
+ * {@link OmeroDataService}, {@link OmeroImageService},
+ * {@link OmeroMetadataService} and {@link AdminService}, which funnel almost
+ * all the traffic to the server through the {@link OMEROGateway}.
+ * <p>A service is {@link #trace(Class, Object) wrapped} into a dynamic proxy
+ * recording, for each method, the latency distribution, the number of items
+ * returned, the errors and the slowest calls along with their arguments.
+ * The statistics can be {@link #dump(File) saved} to a file.</p>
+ *
+ * @since 5.8.5
+ */
+public class ServiceTracer
+{
+
+    /** The number of slowest calls kept per method. */
+    static final int MAX_SAMPLES = 5;
+
+    /** The maximum length of the description of an argument. */
+    static final int MAX_ARG_LENGTH = 80;
+
+    /** A call kept as one of the slowest calls of a method. */
+    public static class Sample
+    {
+
+        /** The latency, in milliseconds. */
+        private final long latency;
+
+        /** The time the call was made. */
+        private final long time;
+
+        /** The description of the arguments. */
+        private final String arguments;
+
+        /** The exception thrown, <code>null</code> if none. */
+        private final String error;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param latency The latency, in milliseconds.
+         * @param time The time the call was made.
+         * @param arguments The description of the arguments.
+         * @param error The exception thrown, <code>null</code> if none.
+         */
+        Sample(long latency, long time, String arguments, String error)
+        {
+            this.latency = latency;
+            this.time = time;
+            this.arguments = arguments;
+            this.error = error;
+        }
+
+        /**
+         * Returns the latency, in milliseconds.
+         *
+         * @return See above.
+         */
+        public long getLatency() { return latency; }
+
+        /**
+         * Returns the time the call was made.
+         *
+         * @return See above.
+         */
+        public long getTime() { return time; }
+
+        /**
+         * Returns the description of the arguments.
+         *
+         * @return See above.
+         */
+        public String getArguments() { return arguments; }
+
+        /**
+         * Returns the exception thrown, <code>null</code> if none.
+         *
+         * @return See above.
+         */
+        public String getError() { return error; }
+
+        /**
+         * Overridden to return a one-line summary.
+         * @see Object#toString()
+         */
+        public String toString()
+        {
+            String s = latency+"ms at "+new Date(time)+" ("+arguments+")";
+            if (error != null) s += " failed: "+error;
+            return s;
+        }
+    }
+
+    /** The statistics of a service method. */
+    public static class MethodStats
+    {
+
+        /** The name of the method, prefixed by the service. */
+        private final String name;
+
+        /** The latency distribution. */
+        private final LatencyHistogram histogram;
+
+        /** The number of calls which threw an exception. */
+        private long errors;
+
+        /** The total number of items returned. */
+        private long items;
+
+        /** The maximum number of items returned by a call. */
+        private long maxItems;
+
+        /** The slowest calls, the slowest first. */
+        private final List<Sample> samples;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param name The name of the method.
+         */
+        MethodStats(String name)
+        {
+            this.name = name;
+            histogram = new LatencyHistogram();
+            samples = new ArrayList<Sample>(MAX_SAMPLES+1);
+        }
+
+        /**
+         * Returns <code>true</code> if a call with the specified latency
+         * would be one of the slowest calls, <code>false</code> otherwise.
+         *
+         * @param latency The latency, in milliseconds.
+         * @return See above.
+         */
+        synchronized boolean isSlow(long latency)
+        {
+            return samples.size() < MAX_SAMPLES ||
+                    samples.get(samples.size()-1).getLatency() < latency;
+        }
+
+        /**
+         * Records a call.
+         *
+         * @param latency The latency, in milliseconds.
+         * @param size The number of items returned.
+         * @param sample The call if one of the slowest, <code>null</code>
+         *               otherwise.
+         */
+        synchronized void record(long latency, long size, Sample sample)
+        {
+            histogram.record(latency);
+            if (sample != null && sample.getError() != null) errors++;
+            items += size;
+            if (size > maxItems) maxItems = size;
+            if (sample == null || !isSlow(latency)) return;
+            int i = 0;
+            while (i < samples.size() &&
+                    samples.get(i).getLatency() >= latency)
+                i++;
+            samples.add(i, sample);
+            if (samples.size() > MAX_SAMPLES) samples.remove(MAX_SAMPLES);
+        }
+
+        /**
+         * Returns the name of the method, prefixed by the service.
+         *
+         * @return See above.
+         */
+        public String getName() { return name; }
+
+        /**
+         * Returns the number of calls.
+         *
+         * @return See above.
+         */
+        public synchronized long getCount() { return histogram.getCount(); }
+
+        /**
+         * Returns the number of calls which threw an exception.
+         *
+         * @return See above.
+         */
+        public synchronized long getErrors() { return errors; }
+
+        /**
+         * Returns the sum of the latencies, in milliseconds.
+         *
+         * @return See above.
+         */
+        public synchronized long getTotalLatency()
+        {
+            return histogram.getTotal();
+        }
+
+        /**
+         * Returns the mean latency, in milliseconds.
+         *
+         * @return See above.
+         */
+        public synchronized long getMeanLatency()
+        {
+            return histogram.getMean();
+        }
+
+        /**
+         * Returns the 95th percentile of the latency, in milliseconds.
+         *
+         * @return See above.
+         */
+        public synchronized long getLatency95()
+        {
+            return histogram.getPercentile(0.95);
+        }
+
+        /**
+         * Returns the maximum latency, in milliseconds.
+         *
+         * @return See above.
+         */
+        public synchronized long getMaxLatency() { return histogram.getMax(); }
+
+        /**
+         * Returns the latency histogram, see {@link LatencyHistogram#BOUNDS}.
+         *
+         * @return See above.
+         */
+        public synchronized long[] getHistogram()
+        {
+            return histogram.getCounts();
+        }
+
+        /**
+         * Returns the mean number of items returned.
+         *
+         * @return See above.
+         */
+        public synchronized long getMeanItems()
+        {
+            long n = histogram.getCount();
+            return n == 0 ? 0 : items/n;
+        }
+
+        /**
+         * Returns the maximum number of items returned by a call.
+         *
+         * @return See above.
+         */
+        public synchronized long getMaxItems() { return maxItems; }
+
+        /**
+         * Returns the slowest calls, the slowest first.
+         *
+         * @return See above.
+         */
+        public synchronized List<Sample> getSamples()
+        {
+            return new ArrayList<Sample>(samples);
+        }
+
+        /**
+         * Overridden to return a one-line summary.
+         * @see Object#toString()
+         */
+        public synchronized String toString()
+        {
+            return name+": count="+histogram.getCount()+" errors="+errors+
+                " mean="+histogram.getMean()+"ms p95="+
+                histogram.getPercentile(0.95)+"ms max="+histogram.getMax()+
+                "ms items="+getMeanItems()+" maxItems="+maxItems;
+        }
+    }
+
+    /** Records the calls to a service and forwards them. */
+    private class TracingHandler
+        implements InvocationHandler
+    {
+
+        /** The service. */
+        private final Object service;
+
+        /** The name of the service. */
+        private final String serviceName;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param service The service.
+         * @param serviceName The name of the service.
+         */
+        TracingHandler(Object service, String serviceName)
+        {
+            this.service = service;
+            this.serviceName = serviceName;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args)
+            throws Throwable
+        {
+            if (method.getDeclaringClass() == Object.class)
+                return method.invoke(service, args);
+            long start = System.nanoTime();
+            Object result = null;
+            Throwable error = null;
+            try {
+                result = method.invoke(service, args);
+                return result;
+            } catch (InvocationTargetException e) {
+                error = e.getCause();
+                throw error;
+            } finally {
+                long latency = (System.nanoTime()-start)/1000000;
+                MethodStats stats = getStats(serviceName+"."+method.getName());
+                Sample sample = null;
+                if (error != null || stats.isSlow(latency))
+                    sample = new Sample(latency, System.currentTimeMillis(),
+                        describe(args),
+                        error == null ? null : error.toString());
+                stats.record(latency, countItems(result), sample);
+            }
+        }
+    }
+
+    /** The statistics of each method. */
+    private final Map<String, MethodStats> stats;
+
+    /**
+     * Returns the number of items in the specified result.
+     *
+     * @param result The result of a call.
+     * @return See above.
+     */
+    static long countItems(Object result)
+    {
+        if (result == null) return 0;
+        if (result instanceof Collection) return ((Collection<?>) result).size();
+        if (result instanceof Map) return ((Map<?, ?>) result).size();
+        if (result.getClass().isArray())
+            return java.lang.reflect.Array.getLength(result);
+        return 1;
+    }
+
+    /**
+     * Returns a short description of the specified arguments.
+     * Collections are described by their size, data objects by their type
+     * and identifier.
+     *
+     * @param args The arguments.
+     * @return See above.
+     */
+    static String describe(Object[] args)
+    {
+        if (args == null) return "";
+        StringBuffer buf = new StringBuffer();
+        String s;
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) buf.append(", ");
+            Object arg = args[i];
+            if (arg instanceof SecurityContext)
+                s = "group="+((SecurityContext) arg).getGroupID();
+            else if (arg instanceof DataObject)
+                s = arg.getClass().getSimpleName()+":"+
+                        ((DataObject) arg).getId();
+            else if (arg instanceof Collection)
+                s = "["+((Collection<?>) arg).size()+" items]";
+            else if (arg instanceof Map)
+                s = "{"+((Map<?, ?>) arg).size()+" entries}";
+            else if (arg != null && arg.getClass().isArray())
+                s = "["+java.lang.reflect.Array.getLength(arg)+" items]";
+            else s = String.valueOf(arg);
+            if (s.length() > MAX_ARG_LENGTH)
+                s = s.substring(0, MAX_ARG_LENGTH)+"...";
+            buf.append(s);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Returns the statistics of the specified method, creating them if
+     * need be.
+     *
+     * @param name The name of the method.
+     * @return See above.
+     */
+    private synchronized MethodStats getStats(String name)
+    {
+        MethodStats s = stats.get(name);
+        if (s == null) {
+            s = new MethodStats(name);
+            stats.put(name, s);
+        }
+        return s;
+    }
+
+    /** Creates a new instance. */
+    ServiceTracer()
+    {
+        stats = new HashMap<String, MethodStats>();
+    }
+
+    /**
+     * Returns a proxy tracing the calls to the specified service.
+     *
+     * @param type The interface of the service.
+     * @param service The service.
+     * @return See above.
+     */
+    <T> T trace(Class<T> type, T service)
+    {
+        if (service == null) return null;
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(),
+                new Class<?>[] {type},
+                new TracingHandler(service, type.getSimpleName()));
+        return type.cast(proxy);
+    }
+
+    /**
+     * Returns the statistics of each method, the one with the highest
+     * cumulated latency first.
+     *
+     * @return See above.
+     */
+    public List<MethodStats> getStats()
+    {
+        List<MethodStats> l;
+        synchronized (this) {
+            l = new ArrayList<MethodStats>(stats.values());
+        }
+        Collections.sort(l, new Comparator<MethodStats>() {
+            public int compare(MethodStats s1, MethodStats s2) {
+                long t1 = s1.getTotalLatency(), t2 = s2.getTotalLatency();
+                return t1 < t2 ? 1 : (t1 == t2 ? 0 : -1);
+            }
+        });
+        return l;
+    }
+
+    /** Clears the statistics. */
+    public synchronized void reset() { stats.clear(); }
+
+    /**
+     * Writes the statistics and the slowest calls of each method to the
+     * specified file.
+     *
+     * @param file The file to write to.
+     * @throws IOException If an error occurred while writing.
+     */
+    public void dump(File file)
+        throws IOException
+    {
+        PrintWriter out = new PrintWriter(new FileWriter(file));
+        try {
+            out.println("Data services calls at "+new Date());
+            StringBuffer bounds = new StringBuffer("Histogram bounds (ms):");
+            for (int i = 0; i < LatencyHistogram.BOUNDS.length; i++)
+                bounds.append(" "+LatencyHistogram.BOUNDS[i]);
+            out.println(bounds);
+            long[] h;
+            StringBuffer buf;
+            for (MethodStats s : getStats()) {
+                out.println();
+                out.println(s);
+                h = s.getHistogram();
+                buf = new StringBuffer("  histogram:");
+                for (int i = 0; i < h.length; i++)
+                    buf.append(" "+h[i]);
+                out.println(buf);
+                for (Sample sample : s.getSamples())
+                    out.println("  "+sample);
+            }
+        } finally {
+            out.close();
+        }
+        if (out.checkError())
+            throw new IOException("Cannot write to "+file.getAbsolutePath());
+    }
+
+}
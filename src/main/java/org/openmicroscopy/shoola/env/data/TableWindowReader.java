@@ -0,0 +1,161 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+
+//Third-party libraries
+
+//Application-internal dependencies
+import omero.gateway.SecurityContext;
+import omero.gateway.exception.DSAccessException;
+import omero.grid.BoolColumn;
+import omero.grid.Column;
+import omero.grid.Data;
+import omero.grid.DoubleColumn;
+import omero.grid.ImageColumn;
+import omero.grid.LongColumn;
+import omero.grid.RoiColumn;
+import omero.grid.StringColumn;
+import omero.grid.TablePrx;
+import omero.grid.WellColumn;
+import org.openmicroscopy.shoola.env.data.model.ColumnarTableResult;
+
+/**
+ * Reads windows of rows of an <i>OMERO</i> table for a
+ * {@link ColumnarTableResult}. The table is opened when a window is first
+ * read and kept open until {@link #close()} is invoked; it is opened again
+ * if more rows are needed afterwards.
+ *
+ * @since 5.8.5
+ */
+class TableWindowReader
+    implements ColumnarTableResult.WindowReader
+{
+
+    /** Reference to the gateway used to open the table. */
+    private final OMEROGateway gateway;
+
+    /** The security context. */
+    private final SecurityContext ctx;
+
+    /** The identifier of the original file hosting the table. */
+    private final long fileID;
+
+    /** The indexes of the columns to read. */
+    private final long[] columns;
+
+    /** The open table or <code>null</code>. */
+    private TablePrx table;
+
+    /**
+     * Returns the values of the columns as primitive arrays. The arrays of
+     * the passed data are used as is, the values are not copied.
+     *
+     * @param data The data read from the table.
+     * @return See above.
+     */
+    static Object[] columnsOf(Data data)
+    {
+        Column[] cols = data.columns;
+        Object[] values = new Object[cols.length];
+        Column column;
+        for (int i = 0; i < cols.length; i++) {
+            column = cols[i];
+            if (column instanceof LongColumn)
+                values[i] = ((LongColumn) column).values;
+            else if (column instanceof DoubleColumn)
+                values[i] = ((DoubleColumn) column).values;
+            else if (column instanceof StringColumn)
+                values[i] = ((StringColumn) column).values;
+            else if (column instanceof BoolColumn)
+                values[i] = ((BoolColumn) column).values;
+            else if (column instanceof RoiColumn)
+                values[i] = ((RoiColumn) column).values;
+            else if (column instanceof ImageColumn)
+                values[i] = ((ImageColumn) column).values;
+            else if (column instanceof WellColumn)
+                values[i] = ((WellColumn) column).values;
+        }
+        return values;
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param gateway Reference to the gateway used to open the table.
+     * @param ctx The security context.
+     * @param fileID The identifier of the original file hosting the table.
+     * @param columnCount The number of columns of the table.
+     * @param table The table if already open or <code>null</code>.
+     */
+    TableWindowReader(OMEROGateway gateway, SecurityContext ctx, long fileID,
+            int columnCount, TablePrx table)
+    {
+        this.gateway = gateway;
+        this.ctx = ctx;
+        this.fileID = fileID;
+        this.table = table;
+        columns = new long[columnCount];
+        for (int i = 0; i < columnCount; i++)
+            columns[i] = i;
+    }
+
+    /**
+     * Implemented as specified by the {@link ColumnarTableResult.WindowReader}
+     * interface.
+     * @see ColumnarTableResult.WindowReader#read(long, int)
+     */
+    public synchronized Object[] read(long start, int length)
+        throws DSAccessException
+    {
+        try {
+            if (table == null) table = gateway.openTable(ctx, fileID);
+            if (table == null)
+                throw new DSAccessException("Table not found: "+fileID);
+            return columnsOf(table.read(columns, start, start+length));
+        } catch (DSAccessException e) {
+            throw e;
+        } catch (Exception e) {
+            close();
+            throw new DSAccessException("Unable to read the table: "+fileID,
+                    e);
+        }
+    }
+
+    /**
+     * Implemented as specified by the {@link ColumnarTableResult.WindowReader}
+     * interface.
+     * @see ColumnarTableResult.WindowReader#close()
+     */
+    public synchronized void close()
+    {
+        if (table == null) return;
+        try {
+            table.close();
+        } catch (Exception e) {
+            //Digest exception
+        }
+        table = null;
+    }
+}
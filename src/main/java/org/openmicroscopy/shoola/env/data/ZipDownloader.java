@@ -0,0 +1,419 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+//Third-party libraries
+import org.apache.commons.io.FilenameUtils;
+
+//Application-internal dependencies
+import omero.api.RawFileStorePrx;
+import omero.gateway.Gateway;
+import omero.gateway.SecurityContext;
+import org.openmicroscopy.shoola.env.data.util.CallCancellation;
+import org.openmicroscopy.shoola.util.concur.tasks.CancelToken;
+
+/**
+ * Downloads original files straight into a zip, without writing them to a
+ * temporary folder first.
+ * <p>The blocks of the files are fetched ahead over several raw file stores
+ * and written to the zip in order, the number of blocks fetched ahead being
+ * bounded. The files which are already compressed, e.g. images or archives,
+ * are not compressed again.</p>
+ *
+ * @since 5.8.5
+ */
+class ZipDownloader
+{
+
+    /** The number of bytes read per call. */
+    static final int BLOCK_SIZE = 1024*1024;
+
+    /** The number of blocks fetched ahead per store. */
+    static final int BLOCKS_AHEAD = 2;
+
+    /** The extensions of the formats which are already compressed. */
+    static final Set<String> COMPRESSED_EXTENSIONS =
+        new HashSet<String>(Arrays.asList("zip", "gz", "tgz", "bz2", "xz",
+            "7z", "rar", "jar", "jpg", "jpeg", "png", "gif", "jp2", "mp3",
+            "mp4", "m4v", "avi", "mov", "mkv", "webm", "docx", "xlsx",
+            "pptx", "odt", "ods", "odp"));
+
+    /** A file to add to the zip. */
+    private static class Item
+    {
+
+        /** The name of the entry. */
+        private final String name;
+
+        /** The identifier of the original file. */
+        private final long fileID;
+
+        /** The size of the file. */
+        private final long size;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param name The name of the entry.
+         * @param fileID The identifier of the original file.
+         * @param size The size of the file.
+         */
+        Item(String name, long fileID, long size)
+        {
+            this.name = name;
+            this.fileID = fileID;
+            this.size = size;
+        }
+    }
+
+    /** A block fetched ahead, in the order it is written. */
+    private static class Block
+    {
+
+        /** The entry the block starts, <code>null</code> if none. */
+        private final ZipEntry entry;
+
+        /** The content of the block, <code>null</code> if none. */
+        private final Future<byte[]> data;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param entry The entry the block starts, <code>null</code> if none.
+         * @param data The content of the block, <code>null</code> if none.
+         */
+        Block(ZipEntry entry, Future<byte[]> data)
+        {
+            this.entry = entry;
+            this.data = data;
+        }
+    }
+
+    /**
+     * A raw file store and the thread using it, so that the reads made
+     * with a store are made in order.
+     */
+    private static class Session
+    {
+
+        /** The thread reading with the store. */
+        private final ExecutorService executor;
+
+        /** The store, <code>null</code> until the first read. */
+        private volatile RawFileStorePrx store;
+
+        /** The identifier of the file the store is set to. */
+        private long fileID = -1;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param executor The thread reading with the store.
+         */
+        Session(ExecutorService executor) { this.executor = executor; }
+    }
+
+    /** Reference to the gateway. */
+    private final Gateway gw;
+
+    /** The security context. */
+    private final SecurityContext ctx;
+
+    /** The zip to write. */
+    private final File zip;
+
+    /** The maximum number of stores used concurrently. */
+    private final int sessions;
+
+    /** The files to add. */
+    private final List<Item> items;
+
+    /** The names of the entries. */
+    private final Set<String> names;
+
+    /**
+     * Returns <code>true</code> if the specified file is already compressed,
+     * <code>false</code> otherwise.
+     *
+     * @param name The name of the file.
+     * @return See above.
+     */
+    static boolean isCompressed(String name)
+    {
+        String ext = FilenameUtils.getExtension(name);
+        return ext != null &&
+                COMPRESSED_EXTENSIONS.contains(ext.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Creates a raw file store.
+     *
+     * @return See above.
+     * @throws Exception If the store couldn't be created.
+     */
+    RawFileStorePrx createStore()
+        throws Exception
+    {
+        return gw.getRawFileService(ctx);
+    }
+
+    /**
+     * Reads a block of the file the specified store is set to. The read is
+     * aborted if the data call is cancelled or if the store is closed.
+     *
+     * @param store The store to read with.
+     * @param offset The position of the block.
+     * @param length The length of the block.
+     * @return See above.
+     * @throws Exception If the block couldn't be read.
+     */
+    byte[] read(RawFileStorePrx store, long offset, int length)
+        throws Exception
+    {
+        return store.end_read(CallCancellation.await(
+                store.begin_read(offset, length)));
+    }
+
+    /**
+     * Closes the specified store.
+     *
+     * @param store The store to close.
+     */
+    void close(RawFileStorePrx store)
+    {
+        gw.closeService(ctx, store);
+    }
+
+    /**
+     * Returns a task reading the specified block with the store of the
+     * session.
+     *
+     * @param session The session.
+     * @param fileID The identifier of the file.
+     * @param offset The position of the block.
+     * @param length The length of the block.
+     * @param token The token of the data call.
+     * @return See above.
+     */
+    private Callable<byte[]> fetch(final Session session, final long fileID,
+            final long offset, final int length, final CancelToken token)
+    {
+        return new Callable<byte[]>() {
+            public byte[] call() throws Exception {
+                CancelToken previous = CancelToken.setCurrent(token);
+                try {
+                    RawFileStorePrx store = session.store;
+                    if (store == null) {
+                        store = createStore();
+                        session.store = store;
+                    }
+                    if (session.fileID != fileID) {
+                        session.fileID = -1;
+                        store.setFileId(fileID);
+                        session.fileID = fileID;
+                    }
+                    return read(store, offset, length);
+                } finally {
+                    CancelToken.setCurrent(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Writes the specified block to the zip.
+     *
+     * @param out The zip.
+     * @param block The block to write.
+     * @throws Exception If the block couldn't be read or written.
+     */
+    private void write(ZipOutputStream out, Block block)
+        throws Exception
+    {
+        if (CallCancellation.isCancelled())
+            throw new IOException("Download cancelled.");
+        if (block.entry != null) {
+            out.setLevel(isCompressed(block.entry.getName()) ?
+                    Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+            out.putNextEntry(block.entry);
+        }
+        if (block.data == null) return;
+        try {
+            out.write(block.data.get());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception)
+                throw (Exception) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param gw Reference to the gateway.
+     * @param ctx The security context.
+     * @param zip The zip to write.
+     * @param sessions The maximum number of stores used concurrently.
+     */
+    ZipDownloader(Gateway gw, SecurityContext ctx, File zip, int sessions)
+    {
+        this.gw = gw;
+        this.ctx = ctx;
+        this.zip = zip;
+        this.sessions = Math.max(1, sessions);
+        items = new ArrayList<Item>();
+        names = new HashSet<String>();
+    }
+
+    /**
+     * Adds a file to the zip. The name is made unique if need be.
+     *
+     * @param name The name of the entry.
+     * @param fileID The identifier of the original file.
+     * @param size The size of the file.
+     */
+    void add(String name, long fileID, long size)
+    {
+        String base = FilenameUtils.getBaseName(name);
+        String ext = FilenameUtils.getExtension(name);
+        String entry = name;
+        int n = 1;
+        while (!names.add(entry)) {
+            entry = base+"("+n+")";
+            if (ext != null && ext.length() > 0) entry += "."+ext;
+            n++;
+        }
+        items.add(new Item(entry, fileID, size));
+    }
+
+    /**
+     * Downloads the files into the zip. The zip is deleted if the download
+     * fails or is cancelled.
+     * <p>On failure, the blocks not fetched yet are dropped and the stores
+     * are closed to abort the reads in progress. The threads reading are
+     * not interrupted, as interrupting a thread in the middle of a remote
+     * invocation may leave the connection in an undefined state.</p>
+     *
+     * @return The zip.
+     * @throws Exception If the download failed.
+     */
+    File download()
+        throws Exception
+    {
+        CancelToken token = CancelToken.current();
+        int n = sessions;
+        List<Session> stores = new ArrayList<Session>(n);
+        ThreadFactory factory = new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "ZipDownloader");
+                t.setDaemon(true);
+                return t;
+            }
+        };
+        for (int i = 0; i < n; i++)
+            stores.add(new Session(Executors.newSingleThreadExecutor(factory)));
+        LinkedList<Block> pending = new LinkedList<Block>();
+        int window = n*BLOCKS_AHEAD;
+        boolean done = false;
+        ZipOutputStream out = null;
+        try {
+            out = new ZipOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(zip), BLOCK_SIZE));
+            long count = 0;
+            long offset;
+            int length;
+            Session session;
+            ZipEntry entry;
+            for (Item item : items) {
+                entry = new ZipEntry(item.name);
+                if (item.size <= 0) pending.add(new Block(entry, null));
+                for (offset = 0; offset < item.size; offset += length) {
+                    length = (int) Math.min(BLOCK_SIZE, item.size-offset);
+                    session = stores.get((int) (count++ % n));
+                    pending.add(new Block(offset == 0 ? entry : null,
+                            session.executor.submit(fetch(session, item.fileID,
+                                    offset, length, token))));
+                    while (pending.size() > window)
+                        write(out, pending.removeFirst());
+                }
+            }
+            while (!pending.isEmpty())
+                write(out, pending.removeFirst());
+            out.close();
+            done = true;
+        } finally {
+            for (Block b : pending) {
+                if (b.data != null) b.data.cancel(false);
+            }
+            RawFileStorePrx store;
+            Set<RawFileStorePrx> closed = new HashSet<RawFileStorePrx>();
+            for (Session s : stores) {
+                s.executor.shutdown();
+                store = s.store;
+                if (!done && store != null && closed.add(store)) close(store);
+            }
+            for (Session s : stores) {
+                try {
+                    s.executor.awaitTermination(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                store = s.store;
+                if (store != null && closed.add(store)) close(store);
+            }
+            if (!done) {
+                try {
+                    if (out != null) out.close();
+                } catch (IOException e) {
+                    //ignore, the zip is deleted.
+                }
+                zip.delete();
+            }
+        }
+        return zip;
+    }
+
+}
@@ -25,6 +25,7 @@ package org.openmicroscopy.shoola.env.data.events;
 
 
 //Java imports
+import java.util.List;
 
 //Third-party libraries
 
@@ -73,6 +74,8 @@ public abstract class DSCallAdapter
     {
         if (ae instanceof DSCallFeedbackEvent) {  //Progress notification. 
             update((DSCallFeedbackEvent) ae);
+        } else if (ae instanceof DSCallFeedbackBatchEvent) {
+            update(((DSCallFeedbackBatchEvent) ae).getEvents());
         } else {  //Outcome notification.
             DSCallOutcomeEvent oe = (DSCallOutcomeEvent) ae;
             onEnd();
@@ -100,6 +103,22 @@ public abstract class DSCallAdapter
      */
     public void update(DSCallFeedbackEvent progress) {}
     
+    /**
+     * Invoked when several progress notifications are received at once.
+     * Notifications are coalesced when the call progresses faster than the
+     * UI can be refreshed.  This implementation forwards each notification to
+     * {@link #update(DSCallFeedbackEvent)}; subclasses handling many partial
+     * results, e.g. thumbnails, should override it to refresh the UI once
+     * per batch.
+     * 
+     * @param progress The progress notifications, in the order they occurred.
+     */
+    public void update(List<DSCallFeedbackEvent> progress)
+    {
+        for (DSCallFeedbackEvent fe : progress)
+            update(fe);
+    }
+    
     /**
      * Invoked when the call returns.
      * This method is called upon receiving the {@link DSCallOutcomeEvent},
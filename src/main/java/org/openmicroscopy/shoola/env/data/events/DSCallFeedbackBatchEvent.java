@@ -0,0 +1,79 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.events;
+
+
+//Java imports
+import java.util.Collections;
+import java.util.List;
+
+//Third-party libraries
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.env.event.StateChangeEvent;
+
+/**
+ * Notifies, in one go, of several progress steps of an asynchronous call to
+ * the data services.  The steps are delivered in the order they occurred.
+ *
+ * @see DSCallFeedbackEvent
+ * @since 5.8.5
+ */
+public class DSCallFeedbackBatchEvent
+    extends StateChangeEvent
+{
+
+    /** The progress notifications, in the order they occurred. */
+    private final List<DSCallFeedbackEvent> events;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param events The progress notifications, in the order they occurred.
+     *               Mustn't be <code>null</code> or empty.
+     */
+    public DSCallFeedbackBatchEvent(List<DSCallFeedbackEvent> events)
+    {
+        if (events == null || events.isEmpty())
+            throw new IllegalArgumentException("No feedback events.");
+        this.events = Collections.unmodifiableList(events);
+        setStateChange(this);
+    }
+
+    /**
+     * Returns the progress notifications, in the order they occurred.
+     *
+     * @return See above.
+     */
+    public List<DSCallFeedbackEvent> getEvents() { return events; }
+
+    /**
+     * Returns the most recent progress notification.
+     *
+     * @return See above.
+     */
+    public DSCallFeedbackEvent getLastEvent()
+    {
+        return events.get(events.size()-1);
+    }
+
+}
@@ -0,0 +1,315 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.model;
+
+
+//Java imports
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Third-party libraries
+
+//Application-internal dependencies
+import omero.gateway.exception.DSAccessException;
+import omero.gateway.model.TableResult;
+
+/**
+ * A {@link TableResult} whose values are not copied into a boxed
+ * <code>Object[][]</code> but kept column by column in primitive arrays.
+ * <p>The rows are read from the server in windows of {@link #WINDOW_SIZE}
+ * rows when first accessed and the last {@link #MAX_WINDOWS} windows are
+ * cached, so that a table of any size can be browsed with a constant
+ * amount of memory. Each column of a window is a <code>long[]</code>,
+ * <code>double[]</code>, <code>boolean[]</code> or <code>String[]</code>
+ * depending on the type of the column.</p>
+ * <p>{@link #getData()} materializes every row so should be avoided for
+ * large tables; use {@link #getValueAt(long, int)}, {@link #getRow(long)}
+ * or {@link #groupBy(int)} instead. All of them may read from the server so
+ * should not be invoked on the Swing thread.</p>
+ *
+ * @since 5.8.5
+ */
+public class ColumnarTableResult
+    extends TableResult
+{
+
+    /** Reads a window of rows from the table. */
+    public interface WindowReader
+    {
+
+        /**
+         * Reads the specified rows.
+         *
+         * @param start The index of the first row to read.
+         * @param length The number of rows to read.
+         * @return One primitive array per column.
+         * @throws DSAccessException If the rows cannot be read.
+         */
+        Object[] read(long start, int length) throws DSAccessException;
+
+        /** Releases the resources held on the server, if any. */
+        void close();
+    }
+
+    /** The number of rows read at once. */
+    public static final int WINDOW_SIZE = 4096;
+
+    /** The maximum number of windows kept in memory. */
+    public static final int MAX_WINDOWS = 8;
+
+    /** The reader used to fetch the windows. */
+    private final WindowReader reader;
+
+    /** The number of rows in the table. */
+    private final long rowCount;
+
+    /** The names of the columns. */
+    private final String[] headers;
+
+    /** The descriptions of the columns. */
+    private final String[] descriptions;
+
+    /** The cached windows, indexed by the index of the window. */
+    private final Map<Long, Object[]> windows;
+
+    /** The indexes of the columns identifying the objects. */
+    private final Map<Integer, Integer> indexes;
+
+    /**
+     * Returns the window containing the specified row, reading it if it is
+     * not cached.
+     *
+     * @param row The row.
+     * @return See above.
+     * @throws DSAccessException If the window cannot be read.
+     */
+    private Object[] getWindow(long row)
+        throws DSAccessException
+    {
+        if (row < 0 || row >= rowCount)
+            throw new IndexOutOfBoundsException("Row "+row+" of "+rowCount);
+        Long index = row/WINDOW_SIZE;
+        synchronized (windows) {
+            Object[] window = windows.get(index);
+            if (window != null) return window;
+        }
+        long start = index*WINDOW_SIZE;
+        Object[] window = reader.read(start,
+                (int) Math.min(WINDOW_SIZE, rowCount-start));
+        synchronized (windows) {
+            windows.put(index, window);
+        }
+        return window;
+    }
+
+    /**
+     * Returns the value at the specified position of a column.
+     *
+     * @param column The column of a window.
+     * @param index The position within the window.
+     * @return See above.
+     */
+    private static Object valueOf(Object column, int index)
+    {
+        if (column instanceof long[]) return ((long[]) column)[index];
+        if (column instanceof double[]) return ((double[]) column)[index];
+        if (column instanceof boolean[]) return ((boolean[]) column)[index];
+        if (column instanceof Object[]) return ((Object[]) column)[index];
+        return null;
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param headers The names of the columns.
+     * @param descriptions The descriptions of the columns.
+     * @param rowCount The number of rows in the table.
+     * @param indexes The indexes of the columns identifying the objects.
+     * @param reader The reader used to fetch the rows.
+     */
+    public ColumnarTableResult(String[] headers, String[] descriptions,
+            long rowCount, Map<Integer, Integer> indexes, WindowReader reader)
+    {
+        super(new Object[0][], headers);
+        if (reader == null)
+            throw new IllegalArgumentException("No reader specified.");
+        this.headers = headers;
+        this.descriptions = descriptions;
+        this.rowCount = rowCount;
+        this.reader = reader;
+        this.indexes = indexes;
+        setIndexes(indexes);
+        windows = new LinkedHashMap<Long, Object[]>(MAX_WINDOWS, 0.75f, true)
+        {
+            protected boolean removeEldestEntry(Map.Entry<Long, Object[]> e)
+            {
+                return size() > MAX_WINDOWS;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of rows in the table.
+     *
+     * @return See above.
+     */
+    public long getRowCount() { return rowCount; }
+
+    /**
+     * Returns the number of columns in the table.
+     *
+     * @return See above.
+     */
+    public int getColumnCount() { return headers.length; }
+
+    /**
+     * Returns the descriptions of the columns.
+     *
+     * @return See above.
+     */
+    public String[] getHeadersDescriptions() { return descriptions; }
+
+    /**
+     * Returns the value of the specified cell.
+     *
+     * @param row The index of the row.
+     * @param column The index of the column.
+     * @return See above.
+     * @throws DSAccessException If the rows cannot be read.
+     */
+    public Object getValueAt(long row, int column)
+        throws DSAccessException
+    {
+        Object[] window = getWindow(row);
+        return valueOf(window[column], (int) (row%WINDOW_SIZE));
+    }
+
+    /**
+     * Returns the value of the specified cell of a column of integers
+     * or identifiers, without boxing it.
+     *
+     * @param row The index of the row.
+     * @param column The index of the column.
+     * @return See above.
+     * @throws DSAccessException If the rows cannot be read.
+     */
+    public long getLong(long row, int column)
+        throws DSAccessException
+    {
+        Object[] window = getWindow(row);
+        return ((long[]) window[column])[(int) (row%WINDOW_SIZE)];
+    }
+
+    /**
+     * Returns the value of the specified cell of a column of doubles,
+     * without boxing it.
+     *
+     * @param row The index of the row.
+     * @param column The index of the column.
+     * @return See above.
+     * @throws DSAccessException If the rows cannot be read.
+     */
+    public double getDouble(long row, int column)
+        throws DSAccessException
+    {
+        Object[] window = getWindow(row);
+        return ((double[]) window[column])[(int) (row%WINDOW_SIZE)];
+    }
+
+    /**
+     * Returns the values of the specified row.
+     *
+     * @param row The index of the row.
+     * @return See above.
+     * @throws DSAccessException If the rows cannot be read.
+     */
+    public Object[] getRow(long row)
+        throws DSAccessException
+    {
+        Object[] window = getWindow(row);
+        int index = (int) (row%WINDOW_SIZE);
+        Object[] values = new Object[window.length];
+        for (int i = 0; i < window.length; i++)
+            values[i] = valueOf(window[i], index);
+        return values;
+    }
+
+    /**
+     * Returns a table holding, for each value of the specified column of
+     * identifiers, the last row having that value. The table is scanned
+     * once, window by window, and only the selected rows are kept.
+     * This is used to retrieve the values of the wells of a plate without
+     * keeping the whole table.
+     *
+     * @param column The index of the column.
+     * @return See above.
+     * @throws DSAccessException If the rows cannot be read.
+     */
+    public TableResult groupBy(int column)
+        throws DSAccessException
+    {
+        Map<Long, Object[]> rows = new LinkedHashMap<Long, Object[]>();
+        Object[] window;
+        long[] values;
+        Object[] v;
+        for (long row = 0; row < rowCount; row += WINDOW_SIZE) {
+            window = getWindow(row);
+            values = (long[]) window[column];
+            for (int j = 0; j < values.length; j++) {
+                v = new Object[window.length];
+                for (int k = 0; k < window.length; k++)
+                    v[k] = valueOf(window[k], j);
+                rows.put(values[j], v);
+            }
+        }
+        TableResult result = new TableResult(
+                rows.values().toArray(new Object[rows.size()][]), headers);
+        result.setIndexes(indexes);
+        return result;
+    }
+
+    /**
+     * Releases the resources held on the server. The rows not cached are
+     * read again if needed.
+     */
+    public void close() { reader.close(); }
+
+    /**
+     * Overridden to read the rows, window by window, into a new array.
+     * The array is not kept so each call reads the rows again, from the
+     * cached windows when possible.
+     * @see TableResult#getData()
+     */
+    public Object[][] getData()
+    {
+        if (rowCount > Integer.MAX_VALUE)
+            throw new IllegalStateException("Too many rows: "+rowCount);
+        Object[][] data = new Object[(int) rowCount][];
+        try {
+            for (int row = 0; row < data.length; row++)
+                data[row] = getRow(row);
+        } catch (DSAccessException e) {
+            throw new IllegalStateException("Cannot read the rows.", e);
+        }
+        return data;
+    }
+}
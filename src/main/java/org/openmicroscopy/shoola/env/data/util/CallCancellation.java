@@ -0,0 +1,86 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.util;
+
+
+//Java imports
+
+//Third-party libraries
+import Ice.AsyncResult;
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.util.concur.tasks.CancelToken;
+
+/**
+ * Propagates the cancellation of a data call to the server invocations it
+ * makes.
+ * A long-running invocation is made asynchronously and awaited with
+ * {@link #await(AsyncResult)}: if the data call is cancelled meanwhile, the
+ * invocation is cancelled too so that the <code>end_</code> method throws
+ * an <code>Ice.InvocationCanceledException</code> at once and the worker
+ * is freed. The caller is expected to close the stateful service used,
+ * as it does when the invocation fails.
+ *
+ * @see CancelToken
+ * @since 5.8.5
+ */
+public final class CallCancellation
+{
+
+    /**
+     * Waits for the specified invocation to complete, cancelling it if the
+     * data call run by the current thread is cancelled.
+     *
+     * @param r The invocation to wait for.
+     * @return The passed invocation, to pass to the <code>end_</code> method.
+     */
+    public static AsyncResult await(final AsyncResult r)
+    {
+        CancelToken token = CancelToken.current();
+        if (token == null) return r;
+        Runnable abort = new Runnable() {
+            public void run() { r.cancel(); }
+        };
+        token.register(abort);
+        try {
+            r.waitForCompleted();
+        } finally {
+            token.unregister(abort);
+        }
+        return r;
+    }
+
+    /**
+     * Returns <code>true</code> if the data call run by the current thread
+     * has been cancelled, <code>false</code> otherwise.
+     *
+     * @return See above.
+     */
+    public static boolean isCancelled()
+    {
+        return CancelToken.isCurrentCancelled();
+    }
+
+    /** Prevents instantiation. */
+    private CallCancellation() {}
+
+}
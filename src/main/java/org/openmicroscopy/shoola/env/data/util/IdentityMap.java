@@ -0,0 +1,418 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.util;
+
+
+//Java imports
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.SwingUtilities;
+
+//Third-party libraries
+
+//Application-internal dependencies
+import omero.gateway.model.DataObject;
+import omero.gateway.model.DatasetData;
+import omero.gateway.model.ImageData;
+import omero.gateway.model.PlateData;
+import omero.gateway.model.ProjectData;
+import omero.gateway.model.ScreenData;
+import omero.model.Details;
+import omero.model.Event;
+import omero.model.IObject;
+
+/**
+ * Canonicalises the data objects retrieved by the agents so that a single
+ * copy of an object is held by all of them.
+ * <p>Objects are identified by class and identifier and only weakly
+ * referenced, so an entry goes away with the last holder. When a fresher
+ * version of a known object is retrieved, its name and description are
+ * merged into the canonical copy and the listeners are notified with a
+ * {@link #REFRESHED_PROPERTY} event whose new value is the refreshed
+ * object. If the fresher version also carries more of the graph e.g. the
+ * pixels of an image, it replaces the canonical copy and the old value of
+ * the event is the replaced object.</p>
+ * <p>The canonical copies are displayed by the agents so they are only
+ * modified, and the events fired, within the <i>Swing</i> dispatching
+ * thread. The objects retrieved by a loader are thus merged before the
+ * loader hands them to the agents.</p>
+ *
+ * @since 5.8.5
+ */
+public class IdentityMap
+{
+
+    /** Bound property indicating that a data object has been refreshed. */
+    public static final String REFRESHED_PROPERTY = "refreshed";
+
+    /** Identifies an object. */
+    private static class Key
+    {
+
+        /** The class of the object. */
+        private final Class<?> type;
+
+        /** The identifier of the object. */
+        private final long id;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param type The class of the object.
+         * @param id The identifier of the object.
+         */
+        Key(Class<?> type, long id)
+        {
+            this.type = type;
+            this.id = id;
+        }
+
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return id == k.id && type == k.type;
+        }
+
+        public int hashCode()
+        {
+            return 31*type.hashCode()+(int) (id ^ (id >>> 32));
+        }
+    }
+
+    /** Weak reference to a canonical object remembering its key. */
+    private static class Entry
+        extends WeakReference<DataObject>
+    {
+
+        /** The key of the object. */
+        private final Key key;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param object The object to reference.
+         * @param key The key of the object.
+         * @param queue The queue the reference is registered with.
+         */
+        Entry(DataObject object, Key key, ReferenceQueue<DataObject> queue)
+        {
+            super(object, queue);
+            this.key = key;
+        }
+    }
+
+    /** A change of a canonical object, applied in the Swing thread. */
+    private static class Change
+    {
+
+        /** The fresher copy to merge or <code>null</code>. */
+        private final DataObject fresher;
+
+        /** The replaced copy or <code>null</code>. */
+        private final DataObject replaced;
+
+        /** The canonical copy. */
+        private final DataObject canonical;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param fresher The fresher copy to merge or <code>null</code>.
+         * @param replaced The replaced copy or <code>null</code>.
+         * @param canonical The canonical copy.
+         */
+        Change(DataObject fresher, DataObject replaced, DataObject canonical)
+        {
+            this.fresher = fresher;
+            this.replaced = replaced;
+            this.canonical = canonical;
+        }
+    }
+
+    /** The canonical objects. */
+    private final Map<Key, Entry> objects;
+
+    /** The references cleared by the garbage collector. */
+    private final ReferenceQueue<DataObject> queue;
+
+    /** Notifies the holders of the objects refreshed. */
+    private final PropertyChangeSupport pcs;
+
+    /**
+     * Returns <code>true</code> if the passed object can be canonicalised,
+     * <code>false</code> otherwise.
+     *
+     * @param object The object to handle.
+     * @return See above.
+     */
+    private static boolean isSupported(DataObject object)
+    {
+        return object instanceof ImageData || object instanceof DatasetData ||
+                object instanceof ProjectData || object instanceof ScreenData ||
+                object instanceof PlateData;
+    }
+
+    /**
+     * Returns the identifier of the last event updating the object or
+     * <code>-1</code> if not known.
+     *
+     * @param object The object to handle.
+     * @return See above.
+     */
+    private static long getVersion(DataObject object)
+    {
+        Details d = object.asIObject().getDetails();
+        if (d == null) return -1;
+        Event e = d.getUpdateEvent();
+        if (e == null || e.getId() == null) return -1;
+        return e.getId().getValue();
+    }
+
+    /**
+     * Returns <code>true</code> if the first object holds at least the part
+     * of the graph loaded in the second one, <code>false</code> otherwise.
+     * The collections of the containers must match as the holders rely on
+     * them to build their views.
+     *
+     * @param a The first object.
+     * @param b The second object.
+     * @return See above.
+     */
+    private static boolean covers(DataObject a, DataObject b)
+    {
+        if (a instanceof ImageData)
+            return !(((ImageData) b).asImage().sizeOfPixels() > 0 &&
+                    ((ImageData) a).asImage().sizeOfPixels() <= 0);
+        if (a instanceof DatasetData)
+            return (((DatasetData) a).asDataset().sizeOfImageLinks() < 0) ==
+                    (((DatasetData) b).asDataset().sizeOfImageLinks() < 0);
+        if (a instanceof ProjectData)
+            return (((ProjectData) a).asProject().sizeOfDatasetLinks() < 0) ==
+                    (((ProjectData) b).asProject().sizeOfDatasetLinks() < 0);
+        if (a instanceof ScreenData)
+            return (((ScreenData) a).asScreen().sizeOfPlateLinks() < 0) ==
+                    (((ScreenData) b).asScreen().sizeOfPlateLinks() < 0);
+        if (a instanceof PlateData)
+            return (((PlateData) a).asPlate().sizeOfWells() < 0) ==
+                    (((PlateData) b).asPlate().sizeOfWells() < 0);
+        return false;
+    }
+
+    /**
+     * Merges the values of the fresher object into the canonical one,
+     * unless the canonical object has been updated meanwhile.
+     *
+     * @param fresher The fresher object.
+     * @param canonical The canonical object.
+     * @return <code>true</code> if the values have been merged,
+     *         <code>false</code> otherwise.
+     */
+    private static boolean merge(DataObject fresher, DataObject canonical)
+    {
+        if (getVersion(fresher) <= getVersion(canonical)) return false;
+        IObject from = fresher.asIObject();
+        IObject to = canonical.asIObject();
+        try {
+            ModelMapper.fillIObject(from, to);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (to.getDetails() != null && from.getDetails() != null)
+            to.getDetails().setUpdateEvent(from.getDetails().getUpdateEvent());
+        return true;
+    }
+
+    /** Removes the entries whose object has been garbage collected. */
+    private void purge()
+    {
+        Reference<? extends DataObject> ref;
+        Entry e;
+        while ((ref = queue.poll()) != null) {
+            e = (Entry) ref;
+            if (objects.get(e.key) == e) objects.remove(e.key);
+        }
+    }
+
+    /**
+     * Returns the canonical copy of the passed object, registering it if
+     * need be.
+     *
+     * @param object The object to handle.
+     * @param changes Placeholder for the changes to apply.
+     * @return See above.
+     */
+    private synchronized DataObject canonicalise(DataObject object,
+            List<Change> changes)
+    {
+        purge();
+        Key key = new Key(object.getClass(), object.getId());
+        Entry e = objects.get(key);
+        DataObject canonical = e == null ? null : e.get();
+        if (canonical == null) {
+            objects.put(key, new Entry(object, key, queue));
+            return object;
+        }
+        if (canonical == object) return object;
+        if (getVersion(object) > getVersion(canonical))
+            changes.add(new Change(object, null, canonical));
+        if (covers(canonical, object)) return canonical;
+        if (object instanceof ImageData && covers(object, canonical)) {
+            objects.put(key, new Entry(object, key, queue));
+            changes.add(new Change(null, canonical, object));
+        }
+        return object;
+    }
+
+    /**
+     * Applies the passed changes and notifies the listeners, within the
+     * <i>Swing</i> dispatching thread.
+     *
+     * @param changes The changes to apply.
+     */
+    private void apply(final List<Change> changes)
+    {
+        if (changes.isEmpty()) return;
+        Runnable r = new Runnable() {
+            public void run()
+            {
+                Iterator<Change> i = changes.iterator();
+                Change c;
+                while (i.hasNext()) {
+                    c = i.next();
+                    if (c.fresher == null || merge(c.fresher, c.canonical))
+                        pcs.firePropertyChange(new PropertyChangeEvent(
+                                IdentityMap.this, REFRESHED_PROPERTY,
+                                c.replaced, c.canonical));
+                }
+            }
+        };
+        if (SwingUtilities.isEventDispatchThread()) r.run();
+        else SwingUtilities.invokeLater(r);
+    }
+
+    /** Creates a new instance. */
+    public IdentityMap()
+    {
+        objects = new HashMap<Key, Entry>();
+        queue = new ReferenceQueue<DataObject>();
+        pcs = new PropertyChangeSupport(this);
+    }
+
+    /**
+     * Returns the canonical copy of the passed object. Objects not yet
+     * saved or not loaded are returned as is.
+     *
+     * @param object The object to handle.
+     * @return See above.
+     */
+    public <T extends DataObject> T canonical(T object)
+    {
+        if (!isSupported(object) || object.getId() < 0 || !object.isLoaded())
+            return object;
+        List<Change> changes = new ArrayList<Change>();
+        T result = (T) canonicalise(object, changes);
+        apply(changes);
+        return result;
+    }
+
+    /**
+     * Replaces the elements of the passed collection by their canonical
+     * copy, preserving the order.
+     *
+     * @param objects The objects to handle.
+     * @return The passed collection, left as is if it cannot be modified.
+     */
+    public <T extends DataObject> Collection<T> canonicalAll(
+            Collection<T> objects)
+    {
+        if (objects == null || objects.isEmpty()) return objects;
+        List<T> l = new ArrayList<T>(objects);
+        try {
+            objects.clear();
+        } catch (UnsupportedOperationException e) {
+            return objects;
+        }
+        List<Change> changes = new ArrayList<Change>();
+        Iterator<T> i = l.iterator();
+        T object;
+        while (i.hasNext()) {
+            object = i.next();
+            if (isSupported(object) && object.getId() >= 0 &&
+                    object.isLoaded())
+                object = (T) canonicalise(object, changes);
+            objects.add(object);
+        }
+        apply(changes);
+        return objects;
+    }
+
+    /**
+     * Returns the number of objects held.
+     *
+     * @return See above.
+     */
+    public synchronized int size()
+    {
+        purge();
+        return objects.size();
+    }
+
+    /** Removes all the objects e.g. when the user logs out. */
+    public synchronized void clear()
+    {
+        objects.clear();
+        while (queue.poll() != null) {}
+    }
+
+    /**
+     * Adds a listener notified when an object is refreshed.
+     *
+     * @param listener The listener to add.
+     */
+    public void addPropertyChangeListener(PropertyChangeListener listener)
+    {
+        pcs.addPropertyChangeListener(REFRESHED_PROPERTY, listener);
+    }
+
+    /**
+     * Removes the specified listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removePropertyChangeListener(PropertyChangeListener listener)
+    {
+        pcs.removePropertyChangeListener(REFRESHED_PROPERTY, listener);
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.util;
+
+
+//Java imports
+
+//Third-party libraries
+
+//Application-internal dependencies
+
+/**
+ * Distribution of latencies, in milliseconds, over fixed buckets.
+ * The buckets are bounded by {@link #BOUNDS}, the last bucket holding the
+ * latencies above the last bound.
+ * <p>This class is not thread-safe, callers have to synchronize.</p>
+ *
+ * @since 5.8.5
+ */
+public class LatencyHistogram
+{
+
+    /** The upper bounds, in milliseconds, of the buckets. */
+    public static final long[] BOUNDS = {10, 25, 50, 100, 250, 500, 1000,
+                                         2500, 5000, 10000, 30000};
+
+    /** The number of latencies in each bucket. */
+    private final long[] counts;
+
+    /** The number of latencies recorded. */
+    private long count;
+
+    /** The sum of the latencies. */
+    private long total;
+
+    /** The maximum latency. */
+    private long max;
+
+    /** Creates a new instance. */
+    public LatencyHistogram()
+    {
+        counts = new long[BOUNDS.length+1];
+    }
+
+    /**
+     * Records the specified latency.
+     *
+     * @param latency The latency in milliseconds.
+     */
+    public void record(long latency)
+    {
+        int i = 0;
+        while (i < BOUNDS.length && latency > BOUNDS[i])
+            i++;
+        counts[i]++;
+        count++;
+        total += latency;
+        if (latency > max) max = latency;
+    }
+
+    /** Clears the distribution. */
+    public void reset()
+    {
+        for (int i = 0; i < counts.length; i++)
+            counts[i] = 0;
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    /**
+     * Returns the latency below which the specified fraction of the
+     * latencies fall.  This is the upper bound of the bucket the fraction
+     * falls into, or the maximum latency if lower.
+     *
+     * @param fraction The fraction, between 0 and 1.
+     * @return See above.
+     */
+    public long getPercentile(double fraction)
+    {
+        if (count == 0) return 0;
+        long n = (long) Math.ceil(count*fraction);
+        long sum = 0;
+        for (int i = 0; i < BOUNDS.length; i++) {
+            sum += counts[i];
+            if (sum >= n) return Math.min(BOUNDS[i], max);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the number of latencies in each bucket.
+     *
+     * @return See above.
+     */
+    public long[] getCounts() { return counts.clone(); }
+
+    /**
+     * Returns the number of latencies recorded.
+     *
+     * @return See above.
+     */
+    public long getCount() { return count; }
+
+    /**
+     * Returns the sum of the latencies.
+     *
+     * @return See above.
+     */
+    public long getTotal() { return total; }
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return See above.
+     */
+    public long getMean() { return count == 0 ? 0 : total/count; }
+
+    /**
+     * Returns the maximum latency.
+     *
+     * @return See above.
+     */
+    public long getMax() { return max; }
+
+}
@@ -0,0 +1,581 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.util;
+
+
+//Java imports
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//Third-party libraries
+
+//Application-internal dependencies
+import omero.gateway.model.DataObject;
+import omero.gateway.util.PojoMapper;
+import omero.model.Annotation;
+import omero.model.IObject;
+import org.openmicroscopy.shoola.env.data.model.EnumerationObject;
+
+/**
+ * Caches the metadata shared by the agents: the annotations of an object
+ * and their links, the lists of tags and tag sets and the enumerations.
+ * <p>The cache is written through: every object saved, updated or deleted
+ * via the gateway invalidates the bundles of the objects it annotates or
+ * is annotated by. Changes made by other users are picked up once the
+ * entries have outlived the time-to-live. The enumerations are defined by
+ * the server and never expire.</p>
+ * <p>The annotations, links and lists are held as serialized copies of the
+ * model objects. Each read returns new objects, so a caller modifying the
+ * objects it has been handed neither alters the cache nor the objects handed
+ * to the other callers.</p>
+ *
+ * @since 5.8.5
+ */
+public class MetadataCache
+{
+
+    /** The maximum number of annotation bundles held. */
+    private static final int MAX_BUNDLES = 1000;
+
+    /**
+     * A copy of a collection of model objects. The {@link DataObject}s are
+     * held as their model object and mapped again when restored.
+     */
+    private static class Snapshot
+    {
+
+        /** The serialized elements or <code>null</code> if not serializable. */
+        private final byte[] bytes;
+
+        /** The indexes of the elements that were {@link DataObject}s. */
+        private final BitSet mapped;
+
+        /** The elements if they cannot be serialized. */
+        private final Collection values;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param values The elements to copy.
+         */
+        Snapshot(Collection values)
+        {
+            List<Object> elements = new ArrayList<Object>(values.size());
+            mapped = new BitSet();
+            Iterator i = values.iterator();
+            Object o;
+            while (i.hasNext()) {
+                o = i.next();
+                if (o instanceof DataObject) {
+                    mapped.set(elements.size());
+                    o = ((DataObject) o).asIObject();
+                }
+                elements.add(o);
+            }
+            byte[] b = null;
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ObjectOutputStream stream = new ObjectOutputStream(out);
+                stream.writeObject(elements);
+                stream.close();
+                b = out.toByteArray();
+            } catch (IOException e) {
+                //Not serializable, the snapshot cannot be cached.
+            }
+            bytes = b;
+            this.values = b == null ? new ArrayList(values) : null;
+        }
+
+        /**
+         * Returns <code>true</code> if the elements have been copied,
+         * <code>false</code> otherwise.
+         *
+         * @return See above.
+         */
+        boolean isCopy() { return bytes != null; }
+
+        /**
+         * Returns a new copy of the elements.
+         *
+         * @return See above.
+         */
+        Collection restore()
+        {
+            if (bytes == null) return new ArrayList(values);
+            List elements;
+            try {
+                ObjectInputStream stream = new ObjectInputStream(
+                        new ByteArrayInputStream(bytes));
+                elements = (List) stream.readObject();
+                stream.close();
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot restore the entry.", e);
+            }
+            for (int i = mapped.nextSetBit(0); i >= 0;
+                    i = mapped.nextSetBit(i+1)) {
+                elements.set(i, PojoMapper.asDataObject(
+                        (IObject) elements.get(i)));
+            }
+            return elements;
+        }
+    }
+
+    /** The annotations of an object and the links to them. */
+    public static class Bundle
+    {
+
+        /** The model type of the annotated object. */
+        private final Class<?> type;
+
+        /** The identifier of the annotated object. */
+        private final long id;
+
+        /** The annotations. */
+        private final Snapshot annotations;
+
+        /** The links or <code>null</code> if not loaded. */
+        private final Snapshot links;
+
+        /** The identifiers of the annotations. */
+        private final Set<Long> annotationIDs;
+
+        /** The time at which the bundle was cached. */
+        private final long time;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param type The model type of the annotated object.
+         * @param id The identifier of the annotated object.
+         * @param annotations The annotations.
+         * @param links The links or <code>null</code> if not loaded.
+         */
+        Bundle(Class<?> type, long id, Collection annotations,
+                Collection<IObject> links)
+        {
+            this.type = type;
+            this.id = id;
+            this.annotations = new Snapshot(annotations == null ?
+                    new ArrayList() : annotations);
+            this.links = links == null ? null : new Snapshot(links);
+            annotationIDs = new HashSet<Long>();
+            if (annotations == null) annotations = new ArrayList();
+            Iterator i = annotations.iterator();
+            Object o;
+            while (i.hasNext()) {
+                o = i.next();
+                if (o instanceof DataObject)
+                    annotationIDs.add(((DataObject) o).getId());
+            }
+            time = System.currentTimeMillis();
+        }
+
+        /**
+         * Returns a new copy of the annotations.
+         *
+         * @return See above.
+         */
+        public Collection getAnnotations()
+        {
+            return annotations.restore();
+        }
+
+        /**
+         * Returns a new copy of the links or <code>null</code> if not loaded.
+         *
+         * @return See above.
+         */
+        public Collection<IObject> getLinks()
+        {
+            if (links == null) return null;
+            return links.restore();
+        }
+
+        /**
+         * Returns <code>true</code> if the links have been loaded,
+         * <code>false</code> otherwise.
+         *
+         * @return See above.
+         */
+        public boolean hasLinks() { return links != null; }
+
+        /**
+         * Returns <code>true</code> if the bundle can be cached i.e. its
+         * elements have been copied, <code>false</code> otherwise.
+         *
+         * @return See above.
+         */
+        boolean isCopy()
+        {
+            return annotations.isCopy() && (links == null || links.isCopy());
+        }
+
+        /**
+         * Returns <code>true</code> if the bundle holds the specified
+         * annotation, <code>false</code> otherwise.
+         *
+         * @param annotationID The identifier of the annotation.
+         * @return See above.
+         */
+        boolean contains(long annotationID)
+        {
+            return annotationIDs.contains(annotationID);
+        }
+
+        /**
+         * Returns <code>true</code> if the bundle is for the specified
+         * object, <code>false</code> otherwise.
+         *
+         * @param object The object to handle.
+         * @return See above.
+         */
+        boolean isFor(IObject object)
+        {
+            return object != null && object.getId() != null &&
+                    object.getId().getValue() == id && type.isInstance(object);
+        }
+    }
+
+    /** A cached list. */
+    private static class Entry
+    {
+
+        /** The elements of the list. */
+        private final Snapshot value;
+
+        /** The time at which the list was cached. */
+        private final long time;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param value The elements of the list.
+         */
+        Entry(Collection value)
+        {
+            this.value = new Snapshot(value);
+            time = System.currentTimeMillis();
+        }
+    }
+
+    /** The annotation bundles, the least recently used first. */
+    private final LinkedHashMap<List<Object>, Bundle> bundles;
+
+    /** The lists of tags, tag sets and annotations. */
+    private final Map<List<Object>, Entry> lists;
+
+    /** The enumerations by type. */
+    private final Map<String, List<EnumerationObject>> enumerations;
+
+    /** The time in milliseconds after which an entry is discarded. */
+    private long timeToLive;
+
+    /**
+     * Returns the model type corresponding to the passed type or
+     * <code>null</code> if not supported.
+     *
+     * @param type The type to handle.
+     * @return See above.
+     */
+    private static Class<?> modelTypeOf(Class<?> type)
+    {
+        if (type == null) return null;
+        if (IObject.class.isAssignableFrom(type)) return type;
+        try {
+            return PojoMapper.getModelType((Class) type);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if an entry cached at the specified time is
+     * still valid, <code>false</code> otherwise.
+     *
+     * @param time The time at which the entry was cached.
+     * @return See above.
+     */
+    private boolean isValid(long time)
+    {
+        return timeToLive > 0 &&
+                System.currentTimeMillis()-time <= timeToLive;
+    }
+
+    /**
+     * Removes the bundles matching the passed object.
+     *
+     * @param object The object to handle.
+     * @param annotation Pass <code>true</code> to also remove the bundles
+     *                   holding the object as an annotation.
+     */
+    private void removeBundles(IObject object, boolean annotation)
+    {
+        if (object == null || object.getId() == null) return;
+        long id = object.getId().getValue();
+        Iterator<Bundle> i = bundles.values().iterator();
+        Bundle b;
+        while (i.hasNext()) {
+            b = i.next();
+            if (b.isFor(object) || (annotation && b.contains(id)))
+                i.remove();
+        }
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param timeToLive The time in milliseconds after which an entry is
+     *                   discarded, <code>0</code> to disable the cache.
+     */
+    public MetadataCache(long timeToLive)
+    {
+        this.timeToLive = Math.max(0, timeToLive);
+        bundles = new LinkedHashMap<List<Object>, Bundle>(16, 0.75f, true) {
+
+            protected boolean removeEldestEntry(
+                    Map.Entry<List<Object>, Bundle> eldest)
+            {
+                return size() > MAX_BUNDLES;
+            }
+        };
+        lists = new HashMap<List<Object>, Entry>();
+        enumerations = new HashMap<String, List<EnumerationObject>>();
+    }
+
+    /**
+     * Sets the time after which an entry is discarded. Discards all the
+     * entries if the cache is disabled.
+     *
+     * @param timeToLive The time in milliseconds, <code>0</code> to disable
+     *                   the cache.
+     */
+    public synchronized void setTimeToLive(long timeToLive)
+    {
+        this.timeToLive = Math.max(0, timeToLive);
+        if (this.timeToLive == 0) invalidateAll();
+    }
+
+    /**
+     * Returns the time after which an entry is discarded.
+     *
+     * @return See above.
+     */
+    public synchronized long getTimeToLive() { return timeToLive; }
+
+    /**
+     * Returns the annotations of the specified object or <code>null</code>
+     * if not cached.
+     *
+     * @param groupID The identifier of the group.
+     * @param type The type of the annotated object.
+     * @param id The identifier of the annotated object.
+     * @param userID The identifier of the user the annotations are for or
+     *               <code>-1</code>.
+     * @return See above.
+     */
+    public synchronized Bundle getBundle(long groupID, Class<?> type,
+            long id, long userID)
+    {
+        Class<?> k = modelTypeOf(type);
+        if (k == null) return null;
+        List<Object> key = Arrays.<Object>asList(groupID, k, id, userID);
+        Bundle b = bundles.get(key);
+        if (b == null) return null;
+        if (isValid(b.time)) return b;
+        bundles.remove(key);
+        return null;
+    }
+
+    /**
+     * Caches the annotations of the specified object.
+     *
+     * @param groupID The identifier of the group.
+     * @param type The type of the annotated object.
+     * @param id The identifier of the annotated object.
+     * @param userID The identifier of the user the annotations are for or
+     *               <code>-1</code>.
+     * @param annotations The annotations.
+     * @param links The links to the annotations or <code>null</code> if not
+     *              loaded.
+     * @return The cached bundle.
+     */
+    public synchronized Bundle putBundle(long groupID, Class<?> type,
+            long id, long userID, Collection annotations,
+            Collection<IObject> links)
+    {
+        Class<?> k = modelTypeOf(type);
+        Bundle b = new Bundle(k == null ? type : k, id, annotations, links);
+        if (k != null && timeToLive > 0 && b.isCopy())
+            bundles.put(Arrays.<Object>asList(groupID, k, id, userID), b);
+        return b;
+    }
+
+    /**
+     * Returns a new copy of the list identified by the passed key or
+     * <code>null</code> if not cached.
+     *
+     * @param groupID The identifier of the group.
+     * @param key The elements identifying the list.
+     * @return See above.
+     */
+    public synchronized Collection getList(long groupID, Object... key)
+    {
+        List<Object> k = new ArrayList<Object>(key.length+1);
+        k.add(groupID);
+        k.addAll(Arrays.asList(key));
+        Entry e = lists.get(k);
+        if (e == null) return null;
+        if (isValid(e.time)) return e.value.restore();
+        lists.remove(k);
+        return null;
+    }
+
+    /**
+     * Caches a copy of the list identified by the passed key.
+     *
+     * @param groupID The identifier of the group.
+     * @param value The list to cache.
+     * @param key The elements identifying the list.
+     */
+    public synchronized void putList(long groupID, Collection value,
+            Object... key)
+    {
+        if (value == null || timeToLive == 0) return;
+        Entry e = new Entry(value);
+        if (!e.value.isCopy()) return;
+        List<Object> k = new ArrayList<Object>(key.length+1);
+        k.add(groupID);
+        k.addAll(Arrays.asList(key));
+        lists.put(k, e);
+    }
+
+    /**
+     * Returns the enumerations of the specified type or <code>null</code>
+     * if not cached.
+     *
+     * @param type The type of enumeration.
+     * @return See above.
+     */
+    public synchronized List<EnumerationObject> getEnumerations(String type)
+    {
+        return enumerations.get(type);
+    }
+
+    /**
+     * Caches the enumerations of the specified type.
+     *
+     * @param type The type of enumeration.
+     * @param values The enumerations.
+     */
+    public synchronized void putEnumerations(String type,
+            List<EnumerationObject> values)
+    {
+        if (values == null) return;
+        enumerations.put(type, Collections.unmodifiableList(
+                new ArrayList<EnumerationObject>(values)));
+    }
+
+    /**
+     * Discards the entries the passed object was saved, updated or deleted
+     * for. A link discards the bundles of its parent, an annotation the
+     * bundles holding it and the lists.
+     *
+     * @param object The object to handle.
+     */
+    public synchronized void invalidate(IObject object)
+    {
+        if (object == null) return;
+        IObject parent = ModelMapper.getParentFromLink(object);
+        if (parent != null) {
+            removeBundles(parent, false);
+            removeBundles(ModelMapper.getChildFromLink(object), false);
+            lists.clear();
+        } else if (object instanceof Annotation) {
+            removeBundles(object, true);
+            lists.clear();
+        } else removeBundles(object, false);
+    }
+
+    /**
+     * Discards the entries the passed objects were saved, updated or
+     * deleted for.
+     *
+     * @param objects The objects to handle.
+     */
+    public synchronized void invalidate(Collection<? extends IObject> objects)
+    {
+        if (objects == null) return;
+        Iterator<? extends IObject> i = objects.iterator();
+        while (i.hasNext())
+            invalidate(i.next());
+    }
+
+    /**
+     * Discards the annotation bundles and the lists e.g. after a command
+     * whose targets are not known has been executed.
+     */
+    public synchronized void invalidateAll()
+    {
+        bundles.clear();
+        lists.clear();
+    }
+
+    /**
+     * Discards the entries cached for the specified group.
+     *
+     * @param groupID The identifier of the group.
+     */
+    public synchronized void clear(long groupID)
+    {
+        Iterator<List<Object>> i = bundles.keySet().iterator();
+        while (i.hasNext()) {
+            if (i.next().get(0).equals(groupID)) i.remove();
+        }
+        i = lists.keySet().iterator();
+        while (i.hasNext()) {
+            if (i.next().get(0).equals(groupID)) i.remove();
+        }
+    }
+
+    /** Discards all the entries including the enumerations. */
+    public synchronized void clear()
+    {
+        invalidateAll();
+        enumerations.clear();
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.util;
+
+
+//Java imports
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Third-party libraries
+
+//Application-internal dependencies
+
+/**
+ * Caches the raw planes retrieved from the server outside of the Java heap.
+ * The planes are those read through <code>OmeroImageService.getPlane</code>
+ * to compute the statistics of the shapes, so that computing them again,
+ * e.g. after a shape was edited, doesn't download the same planes again.
+ * <p>A plane is identified by the pixels set, the z-section, the channel and
+ * the time-point. Each plane is held in a direct buffer and the least
+ * recently used planes are discarded once the cumulated size exceeds the
+ * budget.</p>
+ *
+ * @since 5.8.5
+ */
+public class PlaneCache
+{
+
+    /** Identifies a plane. */
+    private static class Key
+    {
+
+        /** The identifier of the pixels set. */
+        private final long pixelsID;
+
+        /** The z-section. */
+        private final int z;
+
+        /** The channel. */
+        private final int c;
+
+        /** The time-point. */
+        private final int t;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param pixelsID The identifier of the pixels set.
+         * @param z The z-section.
+         * @param c The channel.
+         * @param t The time-point.
+         */
+        Key(long pixelsID, int z, int c, int t)
+        {
+            this.pixelsID = pixelsID;
+            this.z = z;
+            this.c = c;
+            this.t = t;
+        }
+
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return pixelsID == k.pixelsID && z == k.z && c == k.c && t == k.t;
+        }
+
+        public int hashCode()
+        {
+            int h = (int) (pixelsID ^ (pixelsID >>> 32));
+            h = 31*h+z;
+            h = 31*h+c;
+            return 31*h+t;
+        }
+    }
+
+    /** The planes, the least recently used first. */
+    private final LinkedHashMap<Key, ByteBuffer> planes;
+
+    /** The maximum number of bytes held. */
+    private long budget;
+
+    /** The number of bytes held. */
+    private long size;
+
+    /** The number of planes served from the cache. */
+    private long hits;
+
+    /** The number of planes requested but not in the cache. */
+    private long misses;
+
+    /** Discards the least recently used planes until within budget. */
+    private void trim()
+    {
+        Iterator<ByteBuffer> i = planes.values().iterator();
+        while (size > budget && i.hasNext()) {
+            size -= i.next().capacity();
+            i.remove();
+        }
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param budget The maximum number of bytes held, <code>0</code> to
+     *               disable the cache.
+     */
+    public PlaneCache(long budget)
+    {
+        this.budget = Math.max(0, budget);
+        planes = new LinkedHashMap<Key, ByteBuffer>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns a copy of the specified plane or <code>null</code> if not
+     * cached.
+     *
+     * @param pixelsID The identifier of the pixels set.
+     * @param z The z-section.
+     * @param c The channel.
+     * @param t The time-point.
+     * @return See above.
+     */
+    public byte[] get(long pixelsID, int z, int c, int t)
+    {
+        ByteBuffer buffer;
+        synchronized (this) {
+            buffer = planes.get(new Key(pixelsID, z, c, t));
+            if (buffer == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            buffer = buffer.duplicate();
+        }
+        byte[] plane = new byte[buffer.capacity()];
+        buffer.clear();
+        buffer.get(plane);
+        return plane;
+    }
+
+    /**
+     * Caches a copy of the specified plane. Planes larger than the budget
+     * are not cached.
+     *
+     * @param pixelsID The identifier of the pixels set.
+     * @param z The z-section.
+     * @param c The channel.
+     * @param t The time-point.
+     * @param plane The plane.
+     */
+    public void put(long pixelsID, int z, int c, int t, byte[] plane)
+    {
+        if (plane == null || plane.length == 0) return;
+        synchronized (this) {
+            if (plane.length > budget) return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(plane.length);
+        buffer.put(plane);
+        synchronized (this) {
+            ByteBuffer old = planes.put(new Key(pixelsID, z, c, t), buffer);
+            if (old != null) size -= old.capacity();
+            size += buffer.capacity();
+            trim();
+        }
+    }
+
+    /**
+     * Discards the planes of the specified pixels set.
+     *
+     * @param pixelsID The identifier of the pixels set.
+     */
+    public synchronized void remove(long pixelsID)
+    {
+        Iterator<Map.Entry<Key, ByteBuffer>> i = planes.entrySet().iterator();
+        Map.Entry<Key, ByteBuffer> e;
+        while (i.hasNext()) {
+            e = i.next();
+            if (e.getKey().pixelsID == pixelsID) {
+                size -= e.getValue().capacity();
+                i.remove();
+            }
+        }
+    }
+
+    /** Discards all the planes. */
+    public synchronized void clear()
+    {
+        planes.clear();
+        size = 0;
+    }
+
+    /**
+     * Sets the maximum number of bytes held, discarding the least recently
+     * used planes if need be.
+     *
+     * @param budget The budget, <code>0</code> to disable the cache.
+     */
+    public synchronized void setBudget(long budget)
+    {
+        this.budget = Math.max(0, budget);
+        trim();
+    }
+
+    /**
+     * Returns the maximum number of bytes held.
+     *
+     * @return See above.
+     */
+    public synchronized long getBudget() { return budget; }
+
+    /**
+     * Returns the number of bytes held.
+     *
+     * @return See above.
+     */
+    public synchronized long getSize() { return size; }
+
+    /**
+     * Returns the number of planes held.
+     *
+     * @return See above.
+     */
+    public synchronized int getCount() { return planes.size(); }
+
+    /**
+     * Returns the number of planes served from the cache.
+     *
+     * @return See above.
+     */
+    public synchronized long getHits() { return hits; }
+
+    /**
+     * Returns the number of planes requested but not in the cache.
+     *
+     * @return See above.
+     */
+    public synchronized long getMisses() { return misses; }
+
+}
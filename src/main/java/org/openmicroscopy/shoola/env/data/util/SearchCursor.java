@@ -0,0 +1,69 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.util;
+
+
+//Java imports
+
+//Third-party libraries
+
+//Application-internal dependencies
+import omero.gateway.exception.DSAccessException;
+import omero.gateway.exception.DSOutOfServiceException;
+import omero.gateway.model.SearchResultCollection;
+
+/**
+ * Iterates over the results of a search page by page, so that the first
+ * results can be displayed while the following ones are still retrieved.
+ * The cursor holds a service open on the server until all the pages have
+ * been read or {@link #close()} is invoked.
+ *
+ * @since 5.8.5
+ */
+public interface SearchCursor
+{
+
+    /**
+     * Returns <code>true</code> if more results may be available,
+     * <code>false</code> otherwise.
+     *
+     * @return See above.
+     */
+    public boolean hasNext();
+
+    /**
+     * Returns the next page of results. The page may be empty and carries
+     * the error if the search failed, in which case the cursor is closed.
+     *
+     * @return See above.
+     * @throws DSOutOfServiceException If the connection is broken, or not
+     *                                 logged in.
+     * @throws DSAccessException If an error occurred while trying to
+     *                           retrieve data from OMERO service.
+     */
+    public SearchResultCollection next()
+        throws DSOutOfServiceException, DSAccessException;
+
+    /** Releases the resources held on the server. */
+    public void close();
+
+}
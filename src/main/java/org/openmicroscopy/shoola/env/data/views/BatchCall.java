@@ -75,6 +75,12 @@ public abstract class BatchCall
      * likely to require changes.
      */
     protected boolean   done;
+    
+    /** The partial result of this call, if any. */
+    private Object      partialResult;
+    
+    /** Tells whether the {@link #partialResult} has been set. */
+    private boolean     hasPartialResult;
 
     /**
      * Creates a new instance with no textual description.
@@ -126,6 +132,54 @@ public abstract class BatchCall
      */
     BatchCall getCurCall() { return this; }
     
+    /**
+     * Returns the leaf call that was completed by the last step of the
+     * execution algorithm.
+     * This method is for the benefit of {@link CompositeBatchCall} which
+     * overrides it to return the lastly completed child.
+     * A leaf <code>BatchCall</code> has to return <code>this</code> and so
+     * doesn't need to override this method.
+     * 
+     * @return <code>this</code>.
+     */
+    BatchCall getLastCall() { return this; }
+    
+    /**
+     * Sets the partial result of this call.
+     * The result will be packed into the feedback event issued when this call
+     * completes, instead of the one returned by 
+     * {@link BatchCallTree#getPartialResult()}.  Calls which may be run in
+     * parallel have to use this method rather than a field of the tree.
+     * 
+     * @param result The result to deliver.
+     */
+    protected void setPartialResult(Object result)
+    {
+        partialResult = result;
+        hasPartialResult = true;
+    }
+    
+    /**
+     * Tells whether the partial result of this call has been set.
+     * 
+     * @return See above.
+     */
+    boolean hasPartialResult() { return hasPartialResult; }
+    
+    /**
+     * Returns and forgets the partial result of this call, so that it is
+     * delivered only once.
+     * 
+     * @return See above.
+     */
+    Object takePartialResult()
+    {
+        Object result = partialResult;
+        partialResult = null;
+        hasPartialResult = false;
+        return result;
+    }
+    
     /**
      * A leaf <code>BatchCall</code> overrides this method to carry out
      * some operation on the data services.
@@ -128,6 +128,15 @@ class BatchCallMonitor
     //NOTE: This method is protected so that subclasses can be used for 
     //      testing that dispatch in the test driver's thread. 
     
+    /**
+     * Delivers the specified progress notification to the {@link #adaptee}.
+     * This implementation forwards to {@link #deliver(AgentEvent)}, 
+     * subclasses can override it to coalesce the notifications.
+     * 
+     * @param fe The event to dispatch.
+     */
+    protected void deliverFeedback(DSCallFeedbackEvent fe) { deliver(fe); }
+    
     /**
      * Issues the first feedback event when the computation starts.
      * 
@@ -153,16 +162,16 @@ class BatchCallMonitor
         //event to hold those values and deliver it to the adaptee.
         int perc = (0 < calls ? (step*100)/calls : -1);
         BatchCall curCall = tree.getCurCall();
+        Object partialResult = tree.getStepResult();
         DSCallFeedbackEvent feedback;
         if (curCall != null)
             feedback = new DSCallFeedbackEvent(perc, curCall.getDescription(),
-                                                tree.getPartialResult());
+                                                partialResult);
         else
             //Computation has finished regularly.  B/c update is always called
             //*after* doStep, we have no curCall.
-            feedback = new DSCallFeedbackEvent(100, null,
-                                                tree.getPartialResult());
-        deliver(feedback);
+            feedback = new DSCallFeedbackEvent(100, null, partialResult);
+        deliverFeedback(feedback);
     }
 
     /**
@@ -29,12 +29,14 @@ package org.openmicroscopy.shoola.env.data.views;
 //Third-party libraries
 
 //Application-internal dependencies
+import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.LookupNames;
 import org.openmicroscopy.shoola.env.config.Registry;
 import org.openmicroscopy.shoola.env.event.AgentEventListener;
 import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
 import org.openmicroscopy.shoola.util.concur.tasks.ExecHandle;
 import org.openmicroscopy.shoola.util.concur.tasks.ExecMonitor;
+import org.openmicroscopy.shoola.util.concur.tasks.Prioritized;
 
 /** 
  * Maintains and executes a {@link BatchCall} tree.
@@ -47,6 +49,8 @@ import org.openmicroscopy.shoola.util.concur.tasks.ExecMonitor;
  * {@link #exec(AgentEventListener) executed} more than once &#151; any such
  * attempt would result in an exception being thrown.  So you have to discard
  * the object after execution.</p>
+ * <p>The leaf calls are executed sequentially unless the tree is set to run
+ * them in {@link #setParallelism(int) parallel}.</p>
  *
  * @author  Jean-Marie Burel &nbsp;&nbsp;&nbsp;&nbsp;
  * 				<a href="mailto:j.burel@dundee.ac.uk">j.burel@dundee.ac.uk</a>
@@ -62,6 +66,12 @@ import org.openmicroscopy.shoola.util.concur.tasks.ExecMonitor;
 public abstract class BatchCallTree
 {
 
+    /** 
+     * The maximum number of calls run at the same time in parallel mode if
+     * not configured.
+     */
+    static final int DEFAULT_PARALLELISM = 4;
+
     /**
      * Tells whether the {@link #exec(AgentEventListener) exec} method has
      * already been executed.
@@ -73,9 +83,18 @@ public abstract class BatchCallTree
     /** The root of the call tree. */
     private CompositeBatchCall  root;
     
+    /** 
+     * The maximum number of calls run at the same time, <code>1</code> to
+     * run them sequentially.
+     */
+    private int                 parallelism;
+    
     /** Subclasses use it to gain access to the container's services. */
     protected final Registry    context;
     
+    /** Keeps track of the trees in flight that can be shared. */
+    private static final InFlightCalls  IN_FLIGHT = new InFlightCalls();
+    
     
     /**
      * Creates a new instance.
@@ -84,6 +103,7 @@ public abstract class BatchCallTree
     { 
         root = new CompositeBatchCall();
         context = DataViewsFactory.getContext();
+        parallelism = 1;
     }
     
     /**
@@ -117,6 +137,29 @@ public abstract class BatchCallTree
      */
     int countCalls() { return root.countCalls(); }
     
+    /**
+     * Returns the group the tree is executed on behalf of, that is the
+     * agent the specified observer belongs to or its package if not part
+     * of an agent.
+     * 
+     * @param observer The observer of the execution.
+     * @return See above.
+     */
+    static String getGroup(AgentEventListener observer)
+    {
+        if (observer == null) return null;
+        String name = observer.getClass().getName();
+        String agents = ".agents.";
+        int index = name.indexOf(agents);
+        if (index >= 0) {
+            index += agents.length();
+            int end = name.indexOf('.', index);
+            if (end > 0) return name.substring(index, end);
+        }
+        index = name.lastIndexOf('.');
+        return index > 0 ? name.substring(0, index) : name;
+    }
+    
     /**
      * Returns the leaf call that is currently processed by the execution
      * algorithm visiting the call tree.  
@@ -126,29 +169,68 @@ public abstract class BatchCallTree
      */
     BatchCall getCurCall() { return root.getCurCall(); }
     
+    /**
+     * Returns the partial result to deliver after a step.
+     * This is the result set by the call completed by the step, if any, or the
+     * one returned by {@link #getPartialResult()} otherwise.
+     * 
+     * @return See above.
+     */
+    Object getStepResult()
+    {
+        BatchCall bc = root.getLastCall();
+        if (bc != null && bc.hasPartialResult())
+            return bc.takePartialResult();
+        return getPartialResult();
+    }
+    
     /**
      * Asynchronously executes this task.
      * All leaf {@link BatchCall}s within the tree will be executed 
      * <i>sequentially</i>, respecting the order in which nodes were added to
-     * the tree.
+     * the tree, unless the tree is set to run them in 
+     * {@link #setParallelism(int) parallel}.
      * The specified observer is notified of the execution progress and of the
      * eventual outcome of the computation.  In particular if the computation
      * is not cancelled or no exception is raised, then the result of the
      * whole computation, as returned by the {@link #getResult() getResult}
      * method, is dispatched to the observer. 
      * 
+     * If the tree has a {@link #getRequestKey() request key} and an identical
+     * tree is in flight, this tree is not executed and the observer is
+     * notified of the execution of the other tree instead.
+     * 
      * @param observer Monitors progress and gets the outcome of the execution.
      *                  Mustn't be <code>null</code>.
      * @return A handle to the computation.  Can be used to cancel execution.
      * @see BatchCallMonitor
+     * @see InFlightCalls
      */
     CallHandle exec(AgentEventListener observer)
     {
         if (hasExecuted()) throw new IllegalStateException();
-        
+        Object key = getRequestKey();
+        if (key == null) return doExec(observer);
+        return IN_FLIGHT.exec(this, key, observer);
+    }
+    
+    /**
+     * Actually executes this task.
+     * 
+     * @param observer Monitors progress and gets the outcome of the execution.
+     * @return A handle to the computation.
+     */
+    CallHandle doExec(AgentEventListener observer)
+    {
         //Only one thread will ever make it here b/c hasExecuted is sync.
         buildTree();
-        ExecHandle handle = getProcessor().exec(root, getMonitor(observer));
+        root.setGroup(getGroup(observer));
+        CmdProcessor processor = getProcessor();
+        root.setParallelism(parallelism, processor);
+        ExecMonitor monitor = getMonitor(observer);
+        CallMetrics metrics = DataViewsFactory.getMetrics();
+        if (metrics != null) monitor = metrics.monitor(this, monitor);
+        ExecHandle handle = processor.exec(root, monitor);
         return new CallHandle(handle);
     }
     
@@ -182,6 +264,77 @@ public abstract class BatchCallTree
         return mf.makeNew(this, observer);
     }
     
+    /**
+     * Returns the key identifying the request this tree carries out, or 
+     * <code>null</code> if the tree can't be shared.
+     * Two trees with equal keys are expected to produce the same result, so
+     * that a tree executed while an identical one is in flight shares the
+     * execution of the latter.  Only trees whose results are not modified by
+     * the observers should be shared: the partial results and the result are
+     * handed to all the observers, they are not copied.  This implementation
+     * returns <code>null</code>, subclasses use
+     * {@link #makeRequestKey(SecurityContext, Object...)} to build their key.
+     * 
+     * @return See above.
+     */
+    protected Object getRequestKey() { return null; }
+    
+    /**
+     * Builds a request key identifying a tree of this type executed with
+     * the specified arguments.  Data objects are compared by type and
+     * identifier, collections by their elements, other arguments with
+     * {@link Object#equals(Object)}.
+     * 
+     * @param ctx The security context.
+     * @param args The arguments the tree was created with.
+     * @return See above.
+     * @see #getRequestKey()
+     */
+    protected Object makeRequestKey(SecurityContext ctx, Object... args)
+    {
+        return InFlightCalls.makeKey(getClass(), ctx, args);
+    }
+    
+    /**
+     * Sets the priority class of the tree.  By default a tree is
+     * {@link Prioritized#INTERACTIVE}; trees loading data the user will
+     * only need later should be marked as {@link Prioritized#PREFETCH} or
+     * {@link Prioritized#BACKGROUND} so that the {@link CmdProcessor} can
+     * schedule them accordingly.
+     * 
+     * @param priority One of the constants defined by {@link Prioritized}.
+     */
+    protected void setPriority(int priority) { root.setPriority(priority); }
+    
+    /**
+     * Sets the maximum number of calls to run at the same time.
+     * By default the calls are run sequentially.  Trees whose calls are
+     * independent of each other, typically I/O bound calls, can run them in
+     * parallel to reduce the overall time.  In this case, the calls added to
+     * the root are run as a whole, must not share any mutable state, and must
+     * publish their partial results through 
+     * {@link BatchCall#setPartialResult(Object)}.
+     * 
+     * @param n The maximum number of calls to run at the same time.  The calls
+     *          are run sequentially if not greater than <code>1</code>.
+     * @see #getConfiguredParallelism()
+     */
+    protected void setParallelism(int n) { parallelism = n; }
+    
+    /**
+     * Returns the configured maximum number of calls a tree should run at the
+     * same time when its calls are independent of each other.
+     * 
+     * @return See above.
+     */
+    protected int getConfiguredParallelism()
+    {
+        if (context == null) return DEFAULT_PARALLELISM;
+        Object n = context.lookup(LookupNames.CMD_PROCESSOR_PARALLELISM);
+        if (n instanceof Integer && ((Integer) n) > 0) return (Integer) n;
+        return DEFAULT_PARALLELISM;
+    }
+    
     /**
      * Adds a new child node to the root.
      * The root node maintained by <code>BatchCallTree</code> is an instance
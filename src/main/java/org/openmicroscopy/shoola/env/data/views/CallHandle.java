@@ -71,6 +71,12 @@ public class CallHandle
         this.delegate = delegate;
     }
     
+    /**
+     * Creates a new instance that doesn't wrap any handle.
+     * Subclasses using this constructor must override {@link #cancel()}.
+     */
+    CallHandle() {}
+    
     /**
      * Interrupts the call execution.  
      * Whether execution is actually cancelled depends on the state of the
@@ -0,0 +1,588 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.views;
+
+
+//Java imports
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+//Third-party libraries
+
+//Application-internal dependencies
+import omero.log.Logger;
+import org.openmicroscopy.shoola.env.LookupNames;
+import org.openmicroscopy.shoola.env.config.Registry;
+import org.openmicroscopy.shoola.env.data.util.LatencyHistogram;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
+import org.openmicroscopy.shoola.util.concur.tasks.ExecMonitor;
+import org.openmicroscopy.shoola.util.concur.tasks.PoolProcessor;
+
+/**
+ * Collects the statistics of the {@link BatchCallTree}s executed by the
+ * {@link CmdProcessor}: per call type, the number of calls, the calls in
+ * flight, the cancellations, the failures and the latency distribution.
+ * <p>The statistics are fed by the {@link ExecMonitor} of each call, which
+ * {@link #monitor(BatchCallTree, ExecMonitor) wraps} the monitor notifying
+ * the observer of the call.  Once {@link #start(Registry) started}, they are
+ * exposed through <i>JMX</i> and periodically dumped to the log.</p>
+ *
+ * @since 5.8.5
+ */
+public class CallMetrics
+    implements CallMetricsMXBean
+{
+
+    /** The name the metrics are registered with in the MBean server. */
+    public static final String OBJECT_NAME =
+            "org.openmicroscopy.shoola:type=CallMetrics";
+
+    /** The interval, in seconds, between two log dumps if not configured. */
+    static final int DEFAULT_LOG_INTERVAL = 300;
+
+    /** Identifies a call which completed regularly. */
+    static final int DONE = 0;
+
+    /** Identifies a call which was cancelled. */
+    static final int CANCELLED = 1;
+
+    /** Identifies a call which failed. */
+    static final int FAILED = 2;
+
+    /** The statistics of a call type. */
+    public static class CallStats
+    {
+
+        /** The call type. */
+        private final String name;
+
+        /** The number of calls submitted. */
+        private long count;
+
+        /** The number of calls submitted and not completed yet. */
+        private int inFlight;
+
+        /** The number of calls cancelled. */
+        private long cancelled;
+
+        /** The number of calls which failed. */
+        private long failed;
+
+        /** The number of calls started. */
+        private long started;
+
+        /** The sum of the times, in milliseconds, spent in the queue. */
+        private long totalWait;
+
+        /** The latency distribution of the completed calls. */
+        private final LatencyHistogram histogram;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param name The call type.
+         */
+        CallStats(String name)
+        {
+            this.name = name;
+            histogram = new LatencyHistogram();
+        }
+
+        /** Records the submission of a call. */
+        synchronized void submitted()
+        {
+            count++;
+            inFlight++;
+        }
+
+        /**
+         * Records the start of a call.
+         *
+         * @param wait The time, in milliseconds, spent in the queue.
+         */
+        synchronized void started(long wait)
+        {
+            started++;
+            totalWait += wait;
+        }
+
+        /**
+         * Records the outcome of a call.
+         *
+         * @param outcome One of the constants defined by this class.
+         * @param latency The time, in milliseconds, elapsed since the call
+         *                was submitted.
+         */
+        synchronized void ended(int outcome, long latency)
+        {
+            inFlight--;
+            if (outcome == CANCELLED) cancelled++;
+            else if (outcome == FAILED) failed++;
+            histogram.record(latency);
+        }
+
+        /** Resets the statistics, except the calls in flight. */
+        synchronized void reset()
+        {
+            count = 0;
+            cancelled = 0;
+            failed = 0;
+            started = 0;
+            totalWait = 0;
+            histogram.reset();
+        }
+
+        /**
+         * Returns the latency, in milliseconds, below which the specified
+         * fraction of the calls completed.
+         *
+         * @param fraction The fraction of the calls, between 0 and 1.
+         * @return See above.
+         * @see LatencyHistogram#getPercentile(double)
+         */
+        public synchronized long getLatencyPercentile(double fraction)
+        {
+            return histogram.getPercentile(fraction);
+        }
+
+        /**
+         * Returns the call type.
+         *
+         * @return See above.
+         */
+        public String getName() { return name; }
+
+        /**
+         * Returns the number of calls submitted.
+         *
+         * @return See above.
+         */
+        public synchronized long getCount() { return count; }
+
+        /**
+         * Returns the number of calls submitted and not completed yet.
+         *
+         * @return See above.
+         */
+        public synchronized int getInFlight() { return inFlight; }
+
+        /**
+         * Returns the number of calls cancelled.
+         *
+         * @return See above.
+         */
+        public synchronized long getCancelled() { return cancelled; }
+
+        /**
+         * Returns the number of calls which failed.
+         *
+         * @return See above.
+         */
+        public synchronized long getFailed() { return failed; }
+
+        /**
+         * Returns the sum of the latencies, in milliseconds.
+         *
+         * @return See above.
+         */
+        public synchronized long getTotalLatency()
+        {
+            return histogram.getTotal();
+        }
+
+        /**
+         * Returns the mean latency, in milliseconds.
+         *
+         * @return See above.
+         */
+        public synchronized long getMeanLatency()
+        {
+            return histogram.getMean();
+        }
+
+        /**
+         * Returns the maximum latency, in milliseconds.
+         *
+         * @return See above.
+         */
+        public synchronized long getMaxLatency() { return histogram.getMax(); }
+
+        /**
+         * Returns the 95th percentile of the latency, in milliseconds.
+         *
+         * @return See above.
+         */
+        public long getLatency95() { return getLatencyPercentile(0.95); }
+
+        /**
+         * Returns the mean time, in milliseconds, spent in the queue.
+         *
+         * @return See above.
+         */
+        public synchronized long getMeanQueueWait()
+        {
+            return started == 0 ? 0 : totalWait/started;
+        }
+
+        /**
+         * Returns the latency histogram.  The element at index
+         * <code>i</code> is the number of calls whose latency was not greater
+         * than the <code>i</code>-th bound of {@link #getHistogramBounds()},
+         * the last element the number of calls above the last bound.
+         *
+         * @return See above.
+         */
+        public synchronized long[] getHistogram()
+        {
+            return histogram.getCounts();
+        }
+
+        /**
+         * Returns the upper bounds, in milliseconds, of the histogram
+         * buckets.
+         *
+         * @return See above.
+         */
+        public long[] getHistogramBounds()
+        {
+            return LatencyHistogram.BOUNDS.clone();
+        }
+
+        /**
+         * Overridden to return a one-line summary.
+         * @see Object#toString()
+         */
+        public String toString()
+        {
+            StringBuffer buf = new StringBuffer(name);
+            synchronized (this) {
+                buf.append(": count="+count);
+                buf.append(" inFlight="+inFlight);
+                buf.append(" cancelled="+cancelled);
+                buf.append(" failed="+failed);
+                buf.append(" mean="+getMeanLatency()+"ms");
+                buf.append(" p95="+getLatency95()+"ms");
+                buf.append(" max="+histogram.getMax()+"ms");
+                buf.append(" wait="+getMeanQueueWait()+"ms");
+            }
+            return buf.toString();
+        }
+    }
+
+    /** Feeds the statistics of a call and forwards to the actual monitor. */
+    private static class MeteredMonitor
+        implements ExecMonitor
+    {
+
+        /** The statistics of the call type. */
+        private final CallStats stats;
+
+        /** The monitor to forward to. */
+        private final ExecMonitor monitor;
+
+        /** The time the call was submitted, in nanoseconds. */
+        private final long submitted;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param stats The statistics of the call type.
+         * @param monitor The monitor to forward to.
+         */
+        MeteredMonitor(CallStats stats, ExecMonitor monitor)
+        {
+            this.stats = stats;
+            this.monitor = monitor;
+            submitted = System.nanoTime();
+            stats.submitted();
+        }
+
+        /**
+         * Records the outcome of the call.
+         *
+         * @param outcome The outcome.
+         */
+        private void end(int outcome)
+        {
+            stats.ended(outcome, (System.nanoTime()-submitted)/1000000);
+        }
+
+        public void onStart()
+        {
+            stats.started((System.nanoTime()-submitted)/1000000);
+            if (monitor != null) monitor.onStart();
+        }
+
+        public void update(int step)
+        {
+            if (monitor != null) monitor.update(step);
+        }
+
+        public void onCancel()
+        {
+            end(CANCELLED);
+            if (monitor != null) monitor.onCancel();
+        }
+
+        public void onAbort(Throwable cause)
+        {
+            end(FAILED);
+            if (monitor != null) monitor.onAbort(cause);
+        }
+
+        public void onEnd(Object result)
+        {
+            end(DONE);
+            if (monitor != null) monitor.onEnd(result);
+        }
+    }
+
+    /** The statistics of each call type. */
+    private final Map<String, CallStats> stats;
+
+    /** The processor running the calls. */
+    private CmdProcessor processor;
+
+    /** Dumps the statistics to the log, <code>null</code> if not started. */
+    private Timer timer;
+
+    /**
+     * Returns the type of the specified call.
+     *
+     * @param tree The call.
+     * @return See above.
+     */
+    static String getType(BatchCallTree tree)
+    {
+        String name = tree.getClass().getName();
+        return name.substring(name.lastIndexOf('.')+1);
+    }
+
+    /**
+     * Returns the statistics of the specified call type, creating them if
+     * need be.
+     *
+     * @param type The call type.
+     * @return See above.
+     */
+    private synchronized CallStats getStats(String type)
+    {
+        CallStats s = stats.get(type);
+        if (s == null) {
+            s = new CallStats(type);
+            stats.put(type, s);
+        }
+        return s;
+    }
+
+    /** Creates a new instance. */
+    CallMetrics()
+    {
+        stats = new HashMap<String, CallStats>();
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server and schedules
+     * the periodic dump to the log, as configured.
+     *
+     * @param context Reference to the registry.
+     */
+    synchronized void start(Registry context)
+    {
+        Object p = context.lookup(LookupNames.CMD_PROCESSOR);
+        if (p instanceof CmdProcessor) processor = (CmdProcessor) p;
+        final Logger logger = context.getLogger();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            //Already registered e.g. container initialized again.
+        } catch (JMException e) {
+            if (logger != null)
+                logger.warn(this, "Cannot register the call metrics: "+e);
+        }
+        if (timer != null) timer.cancel();
+        timer = null;
+        int interval = DEFAULT_LOG_INTERVAL;
+        Object n = context.lookup(LookupNames.CMD_PROCESSOR_METRICS_LOG);
+        if (n instanceof Integer) interval = (Integer) n;
+        if (interval <= 0 || logger == null) return;
+        timer = new Timer("CallMetrics", true);
+        timer.schedule(new TimerTask() {
+            private long logged = -1;
+            public void run() {
+                long submitted = getSubmittedCount();
+                int inFlight = getInFlightCount();
+                if (submitted == logged && inFlight == 0) return;
+                logged = submitted;
+                logger.info(CallMetrics.this, getReport());
+            }
+        }, interval*1000L, interval*1000L);
+    }
+
+    /**
+     * Returns a monitor feeding the statistics of the specified call and
+     * forwarding to the specified monitor.  The call is recorded as
+     * submitted.
+     *
+     * @param tree The call.
+     * @param monitor The monitor to forward to.
+     * @return See above.
+     */
+    ExecMonitor monitor(BatchCallTree tree, ExecMonitor monitor)
+    {
+        return new MeteredMonitor(getStats(getType(tree)), monitor);
+    }
+
+    /**
+     * Implemented as specified by the {@link CallMetricsMXBean} interface.
+     * @see CallMetricsMXBean#getCallStats()
+     */
+    public List<CallStats> getCallStats()
+    {
+        List<CallStats> l;
+        synchronized (this) {
+            l = new ArrayList<CallStats>(stats.values());
+        }
+        Collections.sort(l, new Comparator<CallStats>() {
+            public int compare(CallStats s1, CallStats s2) {
+                long t1 = s1.getTotalLatency(), t2 = s2.getTotalLatency();
+                return t1 < t2 ? 1 : (t1 == t2 ? 0 : -1);
+            }
+        });
+        return l;
+    }
+
+    /**
+     * Implemented as specified by the {@link CallMetricsMXBean} interface.
+     * @see CallMetricsMXBean#getSubmittedCount()
+     */
+    public long getSubmittedCount()
+    {
+        long n = 0;
+        for (CallStats s : getCallStats())
+            n += s.getCount();
+        return n;
+    }
+
+    /**
+     * Implemented as specified by the {@link CallMetricsMXBean} interface.
+     * @see CallMetricsMXBean#getInFlightCount()
+     */
+    public int getInFlightCount()
+    {
+        int n = 0;
+        for (CallStats s : getCallStats())
+            n += s.getInFlight();
+        return n;
+    }
+
+    /**
+     * Implemented as specified by the {@link CallMetricsMXBean} interface.
+     * @see CallMetricsMXBean#getCancelledCount()
+     */
+    public long getCancelledCount()
+    {
+        long n = 0;
+        for (CallStats s : getCallStats())
+            n += s.getCancelled();
+        return n;
+    }
+
+    /**
+     * Implemented as specified by the {@link CallMetricsMXBean} interface.
+     * @see CallMetricsMXBean#getFailedCount()
+     */
+    public long getFailedCount()
+    {
+        long n = 0;
+        for (CallStats s : getCallStats())
+            n += s.getFailed();
+        return n;
+    }
+
+    /**
+     * Implemented as specified by the {@link CallMetricsMXBean} interface.
+     * @see CallMetricsMXBean#getQueueLength()
+     */
+    public int getQueueLength()
+    {
+        CmdProcessor p = processor;
+        if (p instanceof PoolProcessor)
+            return ((PoolProcessor) p).getQueueLength();
+        return -1;
+    }
+
+    /**
+     * Implemented as specified by the {@link CallMetricsMXBean} interface.
+     * @see CallMetricsMXBean#getRunningCount()
+     */
+    public int getRunningCount()
+    {
+        CmdProcessor p = processor;
+        if (p instanceof PoolProcessor)
+            return ((PoolProcessor) p).getRunningCount();
+        return -1;
+    }
+
+    /**
+     * Implemented as specified by the {@link CallMetricsMXBean} interface.
+     * @see CallMetricsMXBean#getReport()
+     */
+    public String getReport()
+    {
+        StringBuffer buf = new StringBuffer("Data calls: submitted=");
+        buf.append(getSubmittedCount());
+        buf.append(" inFlight="+getInFlightCount());
+        buf.append(" cancelled="+getCancelledCount());
+        buf.append(" failed="+getFailedCount());
+        buf.append(" queued="+getQueueLength());
+        buf.append(" running="+getRunningCount());
+        for (CallStats s : getCallStats()) {
+            buf.append(System.getProperty("line.separator"));
+            buf.append("  "+s);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Implemented as specified by the {@link CallMetricsMXBean} interface.
+     * @see CallMetricsMXBean#reset()
+     */
+    public void reset()
+    {
+        for (CallStats s : getCallStats())
+            s.reset();
+    }
+
+}
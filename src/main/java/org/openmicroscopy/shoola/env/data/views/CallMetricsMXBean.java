@@ -0,0 +1,102 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.views;
+
+
+//Java imports
+import java.util.List;
+
+//Third-party libraries
+
+//Application-internal dependencies
+
+/**
+ * Management interface of the {@link CallMetrics}, so that the statistics
+ * of the data calls can be browsed with any <i>JMX</i> console.
+ *
+ * @since 5.8.5
+ */
+public interface CallMetricsMXBean
+{
+
+    /**
+     * Returns the number of calls submitted since the last reset.
+     *
+     * @return See above.
+     */
+    public long getSubmittedCount();
+
+    /**
+     * Returns the number of calls submitted and not completed yet.
+     *
+     * @return See above.
+     */
+    public int getInFlightCount();
+
+    /**
+     * Returns the number of calls cancelled since the last reset.
+     *
+     * @return See above.
+     */
+    public long getCancelledCount();
+
+    /**
+     * Returns the number of calls which failed since the last reset.
+     *
+     * @return See above.
+     */
+    public long getFailedCount();
+
+    /**
+     * Returns the number of commands waiting to be run by the processor or
+     * <code>-1</code> if the processor doesn't tell.
+     *
+     * @return See above.
+     */
+    public int getQueueLength();
+
+    /**
+     * Returns the number of commands currently run by the processor or
+     * <code>-1</code> if the processor doesn't tell.
+     *
+     * @return See above.
+     */
+    public int getRunningCount();
+
+    /**
+     * Returns the statistics of each call type, the slowest type first.
+     *
+     * @return See above.
+     */
+    public List<CallMetrics.CallStats> getCallStats();
+
+    /**
+     * Returns a textual report of the statistics.
+     *
+     * @return See above.
+     */
+    public String getReport();
+
+    /** Resets the statistics. */
+    public void reset();
+
+}
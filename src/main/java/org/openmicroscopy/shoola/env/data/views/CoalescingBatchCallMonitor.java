@@ -0,0 +1,159 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.views;
+
+
+//Java imports
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+//Third-party libraries
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackBatchEvent;
+import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackEvent;
+import org.openmicroscopy.shoola.env.event.AgentEvent;
+import org.openmicroscopy.shoola.env.event.AgentEventListener;
+
+/**
+ * A {@link BatchCallMonitor} that coalesces the progress notifications.
+ * The notifications are accumulated and flushed to the <i>Swing</i>
+ * dispatching thread at most once every {@link #FLUSH_INTERVAL} milliseconds,
+ * as a {@link DSCallFeedbackBatchEvent} if more than one notification is
+ * pending.  So a tree with thousands of calls no longer posts thousands of
+ * events to the dispatching thread.
+ * The outcome of the computation is delivered after the pending
+ * notifications.
+ *
+ * @since 5.8.5
+ */
+class CoalescingBatchCallMonitor
+    extends BatchCallMonitor
+{
+
+    /** The minimum time, in milliseconds, between two flushes. */
+    static final int FLUSH_INTERVAL = 40;
+
+    /** The adaptee to notify. */
+    private final AgentEventListener adaptee;
+
+    /** The pending progress notifications. */
+    private List<DSCallFeedbackEvent> pending;
+
+    /** Tells whether a flush of the {@link #pending} list is scheduled. */
+    private boolean scheduled;
+
+    /** The time of the last flush. */
+    private long lastFlush;
+
+    /**
+     * Returns and clears the pending progress notifications.
+     *
+     * @return See above.
+     */
+    private synchronized List<DSCallFeedbackEvent> takePending()
+    {
+        List<DSCallFeedbackEvent> l = pending;
+        pending = null;
+        scheduled = false;
+        lastFlush = System.currentTimeMillis();
+        return l;
+    }
+
+    /**
+     * Dispatches the specified progress notifications to the {@link #adaptee}.
+     * This method is invoked within the <i>Swing</i> dispatching thread.
+     *
+     * @param l The notifications, may be <code>null</code>.
+     */
+    private void dispatch(List<DSCallFeedbackEvent> l)
+    {
+        if (l == null || l.isEmpty()) return;
+        if (l.size() == 1) adaptee.eventFired(l.get(0));
+        else adaptee.eventFired(new DSCallFeedbackBatchEvent(l));
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param tree The call tree.
+     * @param observer The adaptee to notify of execution events in the tree.
+     */
+    CoalescingBatchCallMonitor(BatchCallTree tree, AgentEventListener observer)
+    {
+        super(tree, observer);
+        adaptee = observer;
+    }
+
+    /**
+     * Adds the specified notification to the pending ones and schedules a
+     * flush, if none is.
+     * @see BatchCallMonitor#deliverFeedback(DSCallFeedbackEvent)
+     */
+    protected void deliverFeedback(DSCallFeedbackEvent fe)
+    {
+        long delay;
+        synchronized (this) {
+            if (pending == null) pending = new ArrayList<DSCallFeedbackEvent>();
+            pending.add(fe);
+            if (scheduled) return;
+            scheduled = true;
+            delay = lastFlush+FLUSH_INTERVAL-System.currentTimeMillis();
+        }
+        if (delay <= 0) {
+            SwingUtilities.invokeLater(new Runnable() {
+                public void run() { dispatch(takePending()); }
+            });
+        } else {
+            Timer timer = new Timer((int) delay, new ActionListener() {
+                public void actionPerformed(ActionEvent e) {
+                    dispatch(takePending());
+                }
+            });
+            timer.setRepeats(false);
+            timer.start();
+        }
+    }
+
+    /**
+     * Delivers the pending progress notifications, if any, and then the
+     * specified outcome event to the {@link #adaptee}.
+     * @see BatchCallMonitor#deliver(AgentEvent)
+     */
+    protected void deliver(final AgentEvent ae)
+    {
+        final List<DSCallFeedbackEvent> l = takePending();
+        SwingUtilities.invokeLater(new Runnable() {
+            public void run()
+            {
+                dispatch(l);
+                adaptee.eventFired(ae);
+            }
+        });
+    }
+
+}
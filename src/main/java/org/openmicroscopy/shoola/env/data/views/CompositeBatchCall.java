@@ -26,12 +26,18 @@ package org.openmicroscopy.shoola.env.data.views;
 
 //Java imports
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 //Third-party libraries
 
 //Application-internal dependencies
+import org.openmicroscopy.shoola.util.concur.tasks.CancelToken;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
 import org.openmicroscopy.shoola.util.concur.tasks.CompositeTask;
 import org.openmicroscopy.shoola.util.concur.tasks.MultiStepTask;
+import org.openmicroscopy.shoola.util.concur.tasks.Prioritized;
 
 /** 
  * Aggregates calls to the data services in a computation tree.
@@ -45,6 +51,11 @@ import org.openmicroscopy.shoola.util.concur.tasks.MultiStepTask;
  * <p>This class behaves just like a {@link CompositeTask}.  In fact, this 
  * class extends (through delegation) the functionality of {@link CompositeTask}
  * so that it can play nicely with composition of {@link BatchCall}s.</p>
+ * <p>A node can also be set to run its children in parallel, in which case
+ * each step runs the children until one of them completes.  The children
+ * are then executed as a whole, so a child node is counted as one call.
+ * If a child fails, the other children are cancelled and the step returns
+ * the failure once they have all stopped.</p>
  *
  * @author  Jean-Marie Burel &nbsp;&nbsp;&nbsp;&nbsp;
  * 				<a href="mailto:j.burel@dundee.ac.uk">j.burel@dundee.ac.uk</a>
@@ -59,6 +70,7 @@ import org.openmicroscopy.shoola.util.concur.tasks.MultiStepTask;
  */
 class CompositeBatchCall
     extends BatchCall
+    implements Prioritized
 {
 
     /**
@@ -69,12 +81,178 @@ class CompositeBatchCall
      */
     private CompositeTask   delegate;
     
+    /** The priority class of the calls, used when this node is the root. */
+    private int             priority;
+    
+    /** The group the calls run on behalf of. */
+    private Object          group;
+    
+    /** 
+     * The maximum number of children run at the same time.  The children are
+     * run sequentially if not greater than <code>1</code>.
+     */
+    private int             parallelism;
+    
+    /** The processor used to run the children in parallel. */
+    private CmdProcessor    processor;
+    
+    /** The children run in parallel that completed, in completion order. */
+    private BlockingQueue<ParallelCall> completed;
+    
+    /** The number of children handed to the {@link #processor}. */
+    private int             submitted;
+    
+    /** The number of children currently running in parallel. */
+    private int             running;
+    
+    /** The leaf call completed by the last step. */
+    private BatchCall       lastCall;
+    
+    /**
+     * The cancellation signal of the children run in parallel, cancelled
+     * along with the tree or when a child fails.
+     */
+    private CancelToken     childrenToken;
+    
+    /** Runs a child in parallel and queues it up when done. */
+    private class ParallelCall
+        implements Runnable
+    {
+        
+        /** The child to run. */
+        final BatchCall call;
+        
+        /** The error which stopped the execution of the child, if any. */
+        Throwable       error;
+        
+        /** The cancellation signal of the children. */
+        final CancelToken token;
+        
+        /**
+         * Creates a new instance.
+         * 
+         * @param call The child to run.
+         * @param token The cancellation signal of the children.
+         */
+        ParallelCall(BatchCall call, CancelToken token)
+        {
+            this.call = call;
+            this.token = token;
+        }
+        
+        /** 
+         * Runs all the steps of the child, using the cancellation signal of
+         * the children so that cancelling the tree or a failing sibling
+         * aborts the child.
+         */
+        public void run()
+        {
+            CancelToken previous = CancelToken.setCurrent(token);
+            try {
+                while (!call.isDone()) {
+                    if (token.isCancelled())
+                        throw new InterruptedException();
+                    call.doStep();
+                }
+            } catch (Throwable t) {
+                error = t;
+            } finally {
+                CancelToken.setCurrent(previous);
+                completed.add(this);
+            }
+        }
+        
+    }
+    
     
     /**
      * Creates a new instance which could serve either as a root or internal
      * node.
      */
-    CompositeBatchCall() { delegate = new CompositeTask(); }
+    CompositeBatchCall()
+    {
+        delegate = new CompositeTask();
+        priority = INTERACTIVE;
+    }
+    
+    /**
+     * Sets the priority class of the calls.
+     * 
+     * @param priority One of the constants defined by {@link Prioritized}.
+     */
+    void setPriority(int priority) { this.priority = priority; }
+    
+    /**
+     * Sets the group the calls run on behalf of.
+     * 
+     * @param group The group.
+     */
+    void setGroup(Object group) { this.group = group; }
+    
+    /**
+     * Sets the maximum number of children to run at the same time.  Must be
+     * invoked before the execution starts.
+     * 
+     * @param parallelism The maximum number of children to run.  The children
+     *                    are run sequentially if not greater than 
+     *                    <code>1</code>.
+     * @param processor The processor used to run the children.
+     */
+    void setParallelism(int parallelism, CmdProcessor processor)
+    {
+        this.parallelism = parallelism;
+        this.processor = processor;
+        if (isParallel()) completed = new LinkedBlockingQueue<ParallelCall>();
+    }
+    
+    /**
+     * Returns <code>true</code> if the children are run in parallel,
+     * <code>false</code> otherwise.
+     * 
+     * @return See above.
+     */
+    boolean isParallel() { return parallelism > 1 && processor != null; }
+    
+    /**
+     * Hands the children to the {@link #processor}, at most 
+     * {@link #parallelism} at a time, and waits until one of them completes.
+     * If the completed child failed, the other running children are
+     * cancelled and waited for before the failure is thrown, so that none
+     * of them outlives the tree.
+     * 
+     * @throws Exception If the completed child failed or the wait was
+     *                   interrupted.
+     */
+    private void doParallelStep()
+        throws Exception
+    {
+        List children = delegate.getChildren();
+        if (childrenToken == null)
+            childrenToken = CancelToken.newChild(CancelToken.current());
+        while (running < parallelism && submitted < children.size()) {
+            running++;
+            processor.exec(new ParallelCall(
+                    (BatchCall) children.get(submitted++), childrenToken));
+        }
+        ParallelCall c = completed.take();
+        running--;
+        lastCall = c.call.getLastCall();
+        if (c.error == null) return;
+        childrenToken.cancel();
+        while (running > 0) {
+            completed.take();
+            running--;
+        }
+        if (c.error instanceof Exception) throw (Exception) c.error;
+        if (c.error instanceof Error) throw (Error) c.error;
+        throw new Exception(c.error);
+    }
+    
+    /**
+     * Returns the leaf call completed by the last step.
+     * @see BatchCall#getLastCall()
+     */
+    BatchCall getLastCall() { return lastCall; }
     
     /**
      * Adds a new child node to this node.
@@ -92,6 +270,7 @@ class CompositeBatchCall
      */
     int countCalls() 
     { 
+        if (isParallel()) return delegate.getChildren().size();
         int count = 0;
         Iterator children = delegate.getChildren().iterator();
         BatchCall child;
@@ -111,25 +290,56 @@ class CompositeBatchCall
      */
     BatchCall getCurCall() 
     { 
+        if (isParallel()) {
+            if (lastCall != null || delegate.getChildren().isEmpty())
+                return lastCall;
+            return (BatchCall) delegate.getChildren().get(0);
+        }
         BatchCall bc = (BatchCall) delegate.getCurChild();
         if (bc != null) bc = bc.getCurCall();  //Use recursion.
         return bc; 
     }
     
     /**
-     * Forwards the call to its {@link CompositeTask} delegate.
+     * Forwards the call to its {@link CompositeTask} delegate or, in parallel
+     * mode, runs the children until one of them completes.
      * @see BatchCall#doStep()
      */
     public Object doStep()
         throws Exception
     {
-        return delegate.doStep();
+        if (isParallel()) {
+            doParallelStep();
+            return null;
+        }
+        BatchCall bc = (BatchCall) delegate.getCurChild();
+        Object result = delegate.doStep();
+        if (bc != null) lastCall = bc.getLastCall();
+        return result;
     }
     
     /**
-     * Forwards the call to its {@link CompositeTask} delegate.
+     * Forwards the call to its {@link CompositeTask} delegate or, in parallel
+     * mode, tells whether all the children have completed.
      * @see BatchCall#isDone()
      */
-    public boolean isDone() { return delegate.isDone(); }
+    public boolean isDone()
+    {
+        if (isParallel())
+            return running == 0 && submitted == delegate.getChildren().size();
+        return delegate.isDone();
+    }
+    
+    /**
+     * Implemented as specified by the {@link Prioritized} interface.
+     * @see Prioritized#getPriority()
+     */
+    public int getPriority() { return priority; }
+    
+    /**
+     * Implemented as specified by the {@link Prioritized} interface.
+     * @see Prioritized#getGroup()
+     */
+    public Object getGroup() { return group; }
     
 }
@@ -216,6 +216,21 @@ public interface DataHandlerView
 	public CallHandle advancedSearchFor(SecurityContext ctx,
 	        SearchParameters context, AgentEventListener observer);
 
+	/**
+	 * Retrieves the objects specified by the context of the search page by
+	 * page. Each page but the last one is delivered as a partial result so
+	 * that the first results can be displayed before the search is complete.
+	 * 
+	 * @param ctx The security context.
+	 * @param context The context of the search.
+	 * @param pageSize The maximum number of results per page.
+	 * @param observer Call-back handler.
+	 * @return A handle that can be used to cancel the call.
+	 */
+	public CallHandle advancedSearchFor(SecurityContext ctx,
+	        SearchParameters context, int pageSize,
+	        AgentEventListener observer);
+
 	/**
 	 * Loads the files of a given type. The type is one the constants
 	 * defined by the {@link OmeroMetadataService}.
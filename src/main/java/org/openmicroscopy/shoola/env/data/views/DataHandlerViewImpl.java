@@ -186,6 +186,19 @@ public class DataHandlerViewImpl
 		return cmd.exec(observer);
 	}
 
+	/**
+	 * Implemented as specified by the view interface.
+	 * @see DataHandlerView#advancedSearchFor(SecurityContext, SearchParameters,
+	 * 										int, AgentEventListener)
+	 */
+	public CallHandle advancedSearchFor(SecurityContext ctx,
+	        SearchParameters context, int pageSize,
+	        AgentEventListener observer)
+	{
+		BatchCallTree cmd = new ObjectFinder(ctx, context, pageSize);
+		return cmd.exec(observer);
+	}
+
 	/**
 	 * Implemented as specified by the view interface.
 	 * @see DataHandlerView#loadFiles(SecurityContext, int, long, AgentEventListener)
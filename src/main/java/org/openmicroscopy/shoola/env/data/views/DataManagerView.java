@@ -71,6 +71,23 @@ public interface DataManagerView
 			Class rootNodeType, List<Long> rootNodeIDs, boolean withLeaves,
 			long userID, AgentEventListener observer);
 
+	/**
+	 * Retrieves a page of the images contained in the specified container,
+	 * sorted by name.
+	 * 
+	 * @param ctx The security context.
+	 * @param rootNodeType  The type of the root node. Can only be
+	 *                      <code>DatasetData</code>.
+	 * @param rootNodeID    The identifier of the container.
+	 * @param offset        The index of the first image to retrieve.
+	 * @param limit         The maximum number of images to retrieve.
+	 * @param observer      Call-back handler.
+	 * @return A handle that can be used to cancel the call.
+	 */
+	public CallHandle loadContainerLeaves(SecurityContext ctx,
+			Class rootNodeType, long rootNodeID, int offset, int limit,
+			AgentEventListener observer);
+
 	/**
 	 * Retrieves the images for the specified user.
 	 * 
@@ -84,6 +84,20 @@ class DataManagerViewImpl
 		return cmd.exec(observer);
 	}
 
+	/**
+	 * Implemented as specified by the view interface.
+	 * @see DataManagerView#loadContainerLeaves(SecurityContext, Class, long,
+	 * int, int, AgentEventListener)
+	 */
+	public CallHandle loadContainerLeaves(SecurityContext ctx,
+			Class rootNodeType, long rootNodeID, int offset, int limit,
+			AgentEventListener observer)
+	{
+		BatchCallTree cmd = new DMLoader(ctx, rootNodeType, rootNodeID,
+				offset, limit);
+		return cmd.exec(observer);
+	}
+
 	/**
 	 * Implemented as specified by the view interface.
 	 * @see DataManagerView#loadImages(SecurityContext, long, boolean,
@@ -58,6 +58,9 @@ public class DataViewsFactory
      */
     private static Registry   context;
     
+    /** The statistics of the calls executed by the {@link BatchCallTree}s. */
+    private static final CallMetrics metrics = new CallMetrics();
+    
     
     /**
      * Returns a reference to the container's registry.
@@ -66,6 +69,21 @@ public class DataViewsFactory
      */
     static Registry getContext() { return context; }
     
+    /**
+     * Sets the registry used by the {@link BatchCallTree}s without starting
+     * the container, e.g. to run the trees in the tests.
+     * 
+     * @param registry The registry to use.
+     */
+    static void setContext(Registry registry) { context = registry; }
+    
+    /**
+     * Returns the statistics of the data calls.
+     * 
+     * @return See above.
+     */
+    static CallMetrics getMetrics() { return metrics; }
+    
     
     /**
      * Intializes this singleton.
@@ -80,6 +98,7 @@ public class DataViewsFactory
         if (c == null)
             throw new NullPointerException();  //An agent called this method?
         context = c.getRegistry();
+        metrics.start(context);
     }
     
     /**
@@ -49,6 +49,7 @@ import omero.gateway.model.DataObject;
 import omero.gateway.model.FolderData;
 import omero.gateway.model.PixelsData;
 import omero.gateway.model.ROIData;
+import omero.gateway.model.ShapeData;
 
 /** 
  * Provides methods to support image viewing and analyzing.
@@ -367,6 +368,22 @@ public interface ImageDataView
 	public CallHandle saveROI(SecurityContext ctx, long imageID, long userID,
 			List<ROIData> roiList, AgentEventListener observer);
 
+	/**
+	 * Saves the changes made to the ROIs of the image since they were
+	 * loaded.
+	 * 
+	 * @param ctx The security context.
+	 * @param imageID 	The image's ID.
+	 * @param roiList	The new ROIs and the stored ROIs hosting only their
+	 * 					new or modified shapes.
+	 * @param toDelete	The shapes to delete.
+	 * @param observer	Call-back handler.
+	 * @return See above.
+	 */
+	public CallHandle saveROIChanges(SecurityContext ctx, long imageID,
+			List<ROIData> roiList, List<ShapeData> toDelete,
+			AgentEventListener observer);
+
     /**
      * Save changes to a ROI folder
      * 
@@ -73,6 +73,7 @@ import omero.gateway.model.DataObject;
 import omero.gateway.model.FolderData;
 import omero.gateway.model.PixelsData;
 import omero.gateway.model.ROIData;
+import omero.gateway.model.ShapeData;
 
 
 /** 
@@ -361,6 +362,19 @@ class ImageDataViewImpl
 		BatchCallTree cmd = new ROISaver(ctx, imageID, userID, roiList);
 		return cmd.exec(observer);
 	}
+
+	/**
+     * Implemented as specified by the view interface.
+     * @see ImageDataView#saveROIChanges(SecurityContext, long, List, List,
+     * AgentEventListener)
+     */
+	public CallHandle saveROIChanges(SecurityContext ctx, long imageID,
+			List<ROIData> roiList, List<ShapeData> toDelete,
+			AgentEventListener observer)
+	{
+		BatchCallTree cmd = new ROISaver(ctx, imageID, roiList, toDelete);
+		return cmd.exec(observer);
+	}
 	
     /**
      * Implemented as specified by the view interface.
@@ -0,0 +1,405 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.views;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.SwingUtilities;
+
+//Third-party libraries
+
+//Application-internal dependencies
+import omero.gateway.SecurityContext;
+import omero.gateway.model.DataObject;
+import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackEvent;
+import org.openmicroscopy.shoola.env.data.events.DSCallOutcomeEvent;
+import org.openmicroscopy.shoola.env.event.AgentEvent;
+import org.openmicroscopy.shoola.env.event.AgentEventListener;
+
+/**
+ * Keeps track of the {@link BatchCallTree}s in flight that can be shared.
+ * A tree is shared if it has a {@link BatchCallTree#getRequestKey() request
+ * key}. When such a tree is executed while an identical one, i.e. with an
+ * equal key, is still running, the tree is not executed; its observer joins
+ * the running one instead. The execution events delivered so far are replayed
+ * to the observer, which is then notified of the remaining events like the
+ * observer of the running tree.
+ * <p>Cancelling the handle returned to an observer detaches the observer only
+ * and notifies it of the cancellation. The execution is actually cancelled
+ * when all the observers are detached.</p>
+ * <p>The feedback events are kept for the observers joining late, the
+ * progress notifications without partial result being collapsed into the
+ * latest one. Once {@link #MAX_HISTORY} events have been kept, the call stops
+ * accepting new observers and an identical tree executed later runs on its
+ * own, so that a long call doesn't retain all its partial results.</p>
+ * <p>The partial results and the result are the same objects for all the
+ * observers, they are not copied. The observers must treat them as
+ * read-only.</p>
+ *
+ * @since 5.8.5
+ */
+final class InFlightCalls
+{
+
+    /** The maximum number of feedback events kept per call. */
+    static final int MAX_HISTORY = 256;
+
+    /** The calls in flight, by request key. */
+    private final Map<Object, SharedCall> calls;
+
+    /**
+     * Returns a value suitable for comparing the specified argument of a
+     * request. Data objects are compared by type and identifier, collections
+     * by their elements.
+     *
+     * @param arg The argument to handle.
+     * @return See above.
+     */
+    private static Object toKey(Object arg)
+    {
+        if (arg instanceof DataObject) {
+            DataObject ho = (DataObject) arg;
+            return Arrays.asList(ho.getClass(), ho.getId());
+        }
+        if (arg instanceof Collection) {
+            Collection<Object> l;
+            if (arg instanceof Set) l = new HashSet<Object>();
+            else l = new ArrayList<Object>();
+            for (Object o : (Collection<?>) arg)
+                l.add(toKey(o));
+            return l;
+        }
+        return arg;
+    }
+
+    /**
+     * Creates a request key identifying the call of the specified type with
+     * the specified arguments.
+     *
+     * @param type The type of call.
+     * @param ctx The security context, may be <code>null</code>.
+     * @param args The arguments of the call.
+     * @return See above.
+     */
+    static Object makeKey(Class<?> type, SecurityContext ctx, Object... args)
+    {
+        List<Object> key = new ArrayList<Object>(args.length+3);
+        key.add(type);
+        if (ctx != null) {
+            key.add(ctx.getGroupID());
+            key.add(ctx.getExperimenter());
+        }
+        for (Object arg : args)
+            key.add(toKey(arg));
+        return key;
+    }
+
+    /** Creates a new instance. */
+    InFlightCalls()
+    {
+        calls = new HashMap<Object, SharedCall>();
+    }
+
+    /**
+     * Executes the specified tree or, if an identical tree is in flight,
+     * attaches the specified observer to that tree.
+     *
+     * @param tree The tree to execute.
+     * @param key The request key of the tree.
+     * @param observer Monitors progress and gets the outcome of the execution.
+     * @return A handle to the computation.
+     */
+    CallHandle exec(BatchCallTree tree, Object key, AgentEventListener observer)
+    {
+        SharedCall call;
+        synchronized (this) {
+            call = calls.get(key);
+            if (call == null) {
+                call = new SharedCall(key, observer);
+                calls.put(key, call);
+            } else if (call.join(observer)) {
+                return new SharedCallHandle(call, observer);
+            } else {
+                call = new SharedCall(key, observer);
+                calls.put(key, call);
+            }
+        }
+        try {
+            call.setHandle(tree.doExec(call));
+        } catch (RuntimeException e) {
+            remove(call);
+            throw e;
+        }
+        return new SharedCallHandle(call, observer);
+    }
+
+    /**
+     * Removes the specified call from the calls in flight.
+     *
+     * @param call The call to remove.
+     */
+    synchronized void remove(SharedCall call)
+    {
+        if (calls.get(call.key) == call) calls.remove(call.key);
+    }
+
+    /**
+     * Returns the number of calls in flight.
+     *
+     * @return See above.
+     */
+    synchronized int size() { return calls.size(); }
+
+    /**
+     * Executes a tree on behalf of several observers.
+     */
+    final class SharedCall
+        implements AgentEventListener
+    {
+
+        /** The request key. */
+        private final Object key;
+
+        /** The observers notified of the execution events. */
+        private final Set<AgentEventListener> observers;
+
+        /** The observers waiting for the events delivered so far. */
+        private final Set<AgentEventListener> joining;
+
+        /** The feedback events delivered so far. */
+        private final List<AgentEvent> history;
+
+        /** The outcome of the execution, once delivered. */
+        private AgentEvent outcome;
+
+        /** The handle to the execution. */
+        private CallHandle handle;
+
+        /** Tells whether all the observers are detached. */
+        private boolean cancelled;
+
+        /** Tells whether new observers can join the call. */
+        private boolean shared = true;
+
+        /**
+         * Records the specified feedback event for the observers joining.
+         * A progress notification without partial result replaces the
+         * previous one if it was the last event recorded.
+         *
+         * @param e The event to record.
+         */
+        private void record(AgentEvent e)
+        {
+            int last = history.size()-1;
+            if (last >= 0 && isProgress(e) && isProgress(history.get(last)))
+                history.set(last, e);
+            else history.add(e);
+        }
+
+        /**
+         * Returns <code>true</code> if the specified event only notifies of
+         * the progress of the call, <code>false</code> otherwise.
+         *
+         * @param e The event to check.
+         * @return See above.
+         */
+        private boolean isProgress(AgentEvent e)
+        {
+            return e instanceof DSCallFeedbackEvent &&
+                    !((DSCallFeedbackEvent) e).hasPartialResult();
+        }
+
+        /**
+         * Replays the events delivered so far to the specified observer and
+         * starts notifying it of the new ones.
+         *
+         * @param observer The observer to handle.
+         */
+        private void replay(AgentEventListener observer)
+        {
+            List<AgentEvent> events;
+            AgentEvent out;
+            synchronized (this) {
+                if (!joining.remove(observer)) return;  //Detached.
+                events = new ArrayList<AgentEvent>(history);
+                out = outcome;
+                if (out == null) observers.add(observer);
+                if (!shared && joining.isEmpty()) history.clear();
+            }
+            for (AgentEvent e : events)
+                observer.eventFired(e);
+            if (out != null) observer.eventFired(out);
+        }
+
+        /**
+         * Creates a new instance.
+         *
+         * @param key The request key.
+         * @param observer The observer of the call.
+         */
+        SharedCall(Object key, AgentEventListener observer)
+        {
+            this.key = key;
+            observers = new LinkedHashSet<AgentEventListener>();
+            joining = new HashSet<AgentEventListener>();
+            history = new ArrayList<AgentEvent>();
+            observers.add(observer);
+        }
+
+        /**
+         * Attaches the specified observer to the call.
+         * The events delivered so far are replayed within the <i>Swing</i>
+         * dispatching thread.
+         *
+         * @param observer The observer to attach.
+         * @return <code>true</code> if the observer is attached,
+         *         <code>false</code> if the call no longer accepts observers.
+         */
+        boolean join(final AgentEventListener observer)
+        {
+            synchronized (this) {
+                if (observers.contains(observer)) return true;
+                if (!shared) return false;
+                joining.add(observer);
+            }
+            SwingUtilities.invokeLater(new Runnable() {
+                public void run() { replay(observer); }
+            });
+            return true;
+        }
+
+        /**
+         * Sets the handle to the execution.
+         *
+         * @param handle The handle to set.
+         */
+        void setHandle(CallHandle handle)
+        {
+            boolean cancel;
+            synchronized (this) {
+                this.handle = handle;
+                cancel = cancelled;
+            }
+            if (cancel) handle.cancel();
+        }
+
+        /**
+         * Detaches the specified observer and notifies it of the
+         * cancellation. Cancels the execution if no observers are left.
+         *
+         * @param observer The observer to detach.
+         */
+        void cancel(final AgentEventListener observer)
+        {
+            CallHandle h = null;
+            boolean cancel = false;
+            synchronized (this) {
+                if (!observers.remove(observer) && !joining.remove(observer))
+                    return;
+                if (outcome != null) return;  //Too late.
+                if (observers.isEmpty() && joining.isEmpty()) {
+                    cancelled = true;
+                    cancel = true;
+                    h = handle;
+                }
+            }
+            if (cancel) remove(this);
+            if (h != null) h.cancel();
+            SwingUtilities.invokeLater(new Runnable() {
+                public void run()
+                {
+                    observer.eventFired(new DSCallOutcomeEvent());
+                }
+            });
+        }
+
+        /**
+         * Records the specified event and forwards it to the observers.
+         * @see AgentEventListener#eventFired(AgentEvent)
+         */
+        public void eventFired(AgentEvent e)
+        {
+            boolean end = e instanceof DSCallOutcomeEvent;
+            if (end) remove(this);
+            List<AgentEventListener> targets;
+            boolean unshare = false;
+            synchronized (this) {
+                if (end) outcome = e;
+                else if (shared || !joining.isEmpty()) record(e);
+                if (shared && history.size() >= MAX_HISTORY) {
+                    shared = false;
+                    unshare = true;
+                }
+                if (!shared && joining.isEmpty()) history.clear();
+                targets = new ArrayList<AgentEventListener>(observers);
+            }
+            if (unshare) remove(this);
+            for (AgentEventListener l : targets)
+                l.eventFired(e);
+        }
+
+    }
+
+    /**
+     * The handle returned to an observer of a {@link SharedCall}.
+     */
+    private static class SharedCallHandle
+        extends CallHandle
+    {
+
+        /** The call. */
+        private final SharedCall call;
+
+        /** The observer. */
+        private final AgentEventListener observer;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param call The call.
+         * @param observer The observer.
+         */
+        SharedCallHandle(SharedCall call, AgentEventListener observer)
+        {
+            this.call = call;
+            this.observer = observer;
+        }
+
+        /**
+         * Detaches the observer from the call.
+         * @see CallHandle#cancel()
+         */
+        public void cancel() { call.cancel(observer); }
+
+    }
+
+}
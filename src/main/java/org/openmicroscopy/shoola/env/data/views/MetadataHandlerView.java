@@ -102,6 +102,22 @@ public interface MetadataHandlerView
 	 */
 	public CallHandle loadRatings(SecurityContext ctx, Class nodeType,
 		List<Long> nodeIDs, long userID, AgentEventListener observer);
+
+	/**
+	 * Loads, in one call, the annotations of any type linked to the
+	 * specified nodes.
+	 * 
+	 * @param ctx The security context.
+	 * @param nodeType The class identifying the object.
+	 * Mustn't be <code>null</code>.
+	 * @param nodeIDs The collection of ids of the passed node type.
+	 * @param userID Pass <code>-1</code> if no user specified.
+	 * @param observer Call-back handler.
+	 * @return A handle that can be used to cancel the call.
+	 */
+	public CallHandle loadLinkedAnnotations(SecurityContext ctx,
+		Class nodeType, List<Long> nodeIDs, long userID,
+		AgentEventListener observer);
 	
 	/**
 	 * Loads the thumbnails associated to the passed image i.e.
@@ -447,6 +463,19 @@ public interface MetadataHandlerView
 	 */
 	public CallHandle loadFiles(SecurityContext ctx, boolean zipDirectory,
 		Map<FileAnnotationData, File> files, AgentEventListener observer);
+
+	/**
+	 * Downloads the original files hosted by the file annotations straight
+	 * into a zip.
+	 * 
+	 * @param ctx The security context.
+	 * @param zip The zip to create.
+	 * @param files The files to handle. Mustn't be <code>null</code>.
+	 * @param observer Call-back handler.
+	 * @return A handle that can be used to cancel the call.
+	 */
+	public CallHandle loadFilesAsZip(SecurityContext ctx, File zip,
+		List<FileAnnotationData> files, AgentEventListener observer);
 	
 	/**
 	 * Loads the scripts.
@@ -271,6 +271,20 @@ class MetadataHandlerViewImpl
 		return cmd.exec(observer);
 	}
 
+	/**
+	 * Implemented as specified by the view interface.
+	 * @see MetadataHandlerView#loadLinkedAnnotations(SecurityContext, Class,
+	 * List, long, AgentEventListener)
+	 */
+	public CallHandle loadLinkedAnnotations(SecurityContext ctx,
+		Class nodeType, List<Long> nodeIDs, long userID,
+		AgentEventListener observer)
+	{
+		BatchCallTree cmd = new StructuredAnnotationLoader(ctx,
+				StructuredAnnotationLoader.LINKED, nodeType, nodeIDs, userID);
+		return cmd.exec(observer);
+	}
+
 	/**
 	 * Implemented as specified by the view interface.
 	 * @see MetadataHandlerView#filterByAnnotation(SecurityContext, Class, List,
@@ -410,6 +424,18 @@ class MetadataHandlerViewImpl
 	    return cmd.exec(observer);
 	}
 
+	/**
+	 * Implemented as specified by the view interface.
+	 * @see MetadataHandlerView#loadFilesAsZip(SecurityContext, File, List,
+	 * AgentEventListener)
+	 */
+	public CallHandle loadFilesAsZip(SecurityContext ctx, File zip,
+	        List<FileAnnotationData> files, AgentEventListener observer)
+	{
+	    BatchCallTree cmd = new FilesLoader(ctx, zip, files);
+	    return cmd.exec(observer);
+	}
+
 	/**
 	 * Implemented as specified by the view interface.
 	 * @see MetadataHandlerView#loadScripts(SecurityContext, long, boolean,
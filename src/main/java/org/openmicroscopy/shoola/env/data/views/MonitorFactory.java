@@ -61,11 +61,11 @@ public class MonitorFactory
      * 
      * @param tree The computation tree to observe.
      * @param observer The adaptee.
-     * @return The adapter, an instance of {@link BatchCallMonitor}.
+     * @return The adapter, an instance of {@link CoalescingBatchCallMonitor}.
      */
     public ExecMonitor makeNew(BatchCallTree tree, AgentEventListener observer)
     {
-        return new BatchCallMonitor(tree, observer);
+        return new CoalescingBatchCallMonitor(tree, observer);
     }
     
 }
@@ -76,7 +76,8 @@ public class Analyser
     	return new BatchCall("Analysing shapes") {
     		            public void doCall() throws Exception
             {
-            	ROIAnalyser analyser = new ROIAnalyser(context.getGateway(), pixels);
+            	ROIAnalyser analyser = new ROIAnalyser(
+            			context.getImageService(), pixels);
             	try {
             		result = analyser.analyze(ctx, shapes, channels, plane);
 				} catch (Exception e) {
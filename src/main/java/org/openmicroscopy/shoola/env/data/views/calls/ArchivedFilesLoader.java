@@ -29,6 +29,7 @@ import org.openmicroscopy.shoola.env.data.OmeroDataService;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.Prioritized;
 
 
 /** 
@@ -48,9 +49,6 @@ public class ArchivedFilesLoader
 	extends BatchCallTree
 {
 	
-    /** The result of the call. */
-    private Object result;
-
     /** The collection of files to download. */
     private Collection<Long> pixelsID;
     
@@ -61,16 +59,18 @@ public class ArchivedFilesLoader
      * Downloads the original file.
      * 
      * @param id The id of the pixel set.
+     * @return The downloaded files or <code>null</code> if an error occurred.
      */
-    private void downloadFile(long id) 
+    private Object downloadFile(long id) 
     {
     	try {
     		OmeroDataService os = context.getDataService();
-    		result = os.getOriginalFiles(ctx, id);
+    		return os.getOriginalFiles(ctx, id);
         } catch (Exception e) {
         	context.getLogger().error(this, 
         			"Cannot retrieve download the file: "+e.getMessage());
         }
+    	return null;
     }
     
     /**
@@ -87,20 +87,11 @@ public class ArchivedFilesLoader
 			id = i.next();
 			final Long pix = id;
 			add(new BatchCall(description) {
-        		public void doCall() { downloadFile(pix); }
+        		public void doCall() { setPartialResult(downloadFile(pix)); }
         	});  
 		}
     }
 
-    /**
-     * Returns the lastly downloaded files.
-     * This will be packed by the framework into a feedback event and
-     * sent to the provided call observer, if any.
-     * 
-     * @return See above
-     */
-    protected Object getPartialResult() { return result; }
-    
     /**
      * Returns <code>null</code> as there's no final result.
      * In fact, files are progressively delivered with 
@@ -120,6 +111,8 @@ public class ArchivedFilesLoader
     {
     	this.pixelsID = pixelsID;
     	this.ctx = ctx;
+    	setParallelism(getConfiguredParallelism());
+    	setPriority(Prioritized.BACKGROUND);
     }
     
 }
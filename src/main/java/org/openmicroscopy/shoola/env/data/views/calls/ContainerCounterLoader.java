@@ -35,6 +35,7 @@ import org.openmicroscopy.shoola.env.data.OmeroImageService;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.Prioritized;
 import omero.gateway.model.DataObject;
 import omero.gateway.model.DatasetData;
 import omero.gateway.model.ExperimenterData;
@@ -172,6 +173,7 @@ public class ContainerCounterLoader
             if (id != null) ids.add(id);
         }
         loadCall = makeBatchCall(ctx, types);
+        setPriority(Prioritized.PREFETCH);
     }
 
 }
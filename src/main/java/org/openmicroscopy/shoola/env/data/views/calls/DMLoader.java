@@ -103,6 +103,31 @@ public class DMLoader
         };
     }
     
+    /**
+     * Creates a {@link BatchCall} to retrieve a page of the images contained
+     * in a container.
+     * 
+     * @param rootNodeType  The type of the container.
+     * @param rootNodeID    The identifier of the container.
+     * @param offset        The index of the first image to retrieve.
+     * @param limit         The maximum number of images to retrieve.
+     * @return The {@link BatchCall}.
+     */
+    private BatchCall makeLeavesBatchCall(final Class rootNodeType,
+                                          final long rootNodeID,
+                                          final int offset,
+                                          final int limit)
+    {
+        return new BatchCall("Loading container images: ") {
+            public void doCall() throws Exception
+            {
+                OmeroDataService os = context.getDataService();
+                results = os.loadContainerLeaves(ctx, rootNodeType,
+                		rootNodeID, offset, limit);
+            }
+        };
+    }
+    
     /**
      * Adds the {@link #loadCall} to the computation tree.
      * @see BatchCallTree#buildTree()
@@ -147,4 +172,30 @@ public class DMLoader
                                                 rootNodeType);
     }
 
+    /**
+     * Creates a new instance to retrieve a page of the images contained in
+     * a container.
+     * If bad arguments are passed, we throw a runtime
+	 * exception so to fail early and in the caller's thread.
+     * 
+     * @param ctx The security context.
+     * @param rootNodeType  The type of the container. Can only be
+     *                      {@link DatasetData}.
+     * @param rootNodeID    The identifier of the container.
+     * @param offset        The index of the first image to retrieve.
+     * @param limit         The maximum number of images to retrieve.
+     */
+    public DMLoader(SecurityContext ctx, Class rootNodeType, long rootNodeID,
+    	int offset, int limit)
+    {
+        this.ctx = ctx;
+        if (!DatasetData.class.equals(rootNodeType))
+            throw new IllegalArgumentException("Unsupported type: "+
+                                                rootNodeType);
+        if (offset < 0 || limit <= 0)
+            throw new IllegalArgumentException("Page not valid.");
+        loadCall = makeLeavesBatchCall(rootNodeType, rootNodeID, offset,
+                limit);
+    }
+
 }
@@ -40,6 +40,7 @@ import org.openmicroscopy.shoola.env.data.model.TimeRefObject;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.Prioritized;
 import omero.log.LogMessage;
 
 /** 
@@ -195,6 +196,7 @@ public class ExperimenterImagesCounter
         nodes = m;
         os = context.getDataService();
         ms = context.getMetadataService();
+        setPriority(Prioritized.PREFETCH);
     }
 
 }
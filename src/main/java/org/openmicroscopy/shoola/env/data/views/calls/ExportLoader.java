@@ -34,6 +34,7 @@ import org.openmicroscopy.shoola.env.data.util.Target;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.Prioritized;
 
 /**
  * Exports the image.
@@ -116,6 +117,7 @@ public class ExportLoader
     {
     	this.ctx = ctx;
     	loadCall = makeAsOMETiffBatchCall(index, file, imageID, target);
+    	setPriority(Prioritized.BACKGROUND);
     }
 
 }
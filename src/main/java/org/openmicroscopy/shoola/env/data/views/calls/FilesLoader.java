@@ -24,6 +24,7 @@ import java.io.File;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -82,6 +83,9 @@ public class FilesLoader
     /** The list of directories to zip when download is finished.*/
     private Set<String> directories;
 
+    /** The number of files still to load.*/
+    private int remaining;
+
     /**
      * Creates a {@link BatchCall} to download a file previously loaded.
      *
@@ -120,6 +124,25 @@ public class FilesLoader
     	};
     }
     
+    /**
+     * Creates a {@link BatchCall} to download the files straight into a zip.
+     *
+     * @param zip The zip to create.
+     * @param files The annotations hosting the files.
+     * @return The {@link BatchCall}.
+     */
+    private BatchCall makeZipBatchCall(final File zip,
+            final List<FileAnnotationData> files)
+    {
+        return new BatchCall("Downloading files.") {
+            public void doCall() throws Exception
+            {
+                OmeroMetadataService service = context.getMetadataService();
+                result = service.downloadFilesAsZip(ctx, zip, files);
+            }
+        };
+    }
+
     /**
      * Creates a {@link BatchCall} to download the metadata associated to the
      * image.
@@ -166,16 +189,24 @@ public class FilesLoader
     	};
     }
 
+    /**
+     * Decrements the number of files still to load and returns
+     * <code>true</code> if no file is left to load.
+     *
+     * @return See above.
+     */
+    private synchronized boolean isLastFile() { return --remaining == 0; }
+
     /** 
-     * Loads the specified file.
+     * Loads the specified file. The directories are zipped, if required,
+     * once the last file is loaded.
      *
      * @param fa The file annotation to handle.
      * @param f The file to load.
-     * @param zip Pass <code>true</code> to zip the result, <code>false</code>
-     * otherwise.
+     * @return A map containing the file annotation and the loaded file.
      */
-    private void loadFile(final FileAnnotationData fa, final File f,
-            boolean zip)
+    private Map<FileAnnotationData, File> loadFile(final FileAnnotationData fa,
+            final File f)
     {
     	OmeroMetadataService service = context.getMetadataService();
     	Map<FileAnnotationData, File> m =
@@ -190,7 +221,7 @@ public class FilesLoader
     		context.getLogger().error(this,
     				"Cannot retrieve file: "+e.getMessage());
     	}
-    	if (zip && !CollectionUtils.isEmpty(directories)) {
+    	if (isLastFile() && !CollectionUtils.isEmpty(directories)) {
             Iterator<String> i = directories.iterator();
             while (i.hasNext()) {
                 try {
@@ -201,7 +232,7 @@ public class FilesLoader
                 }
             }
         }
-        currentFile = m;
+        return m;
     }
     
     
@@ -237,18 +268,15 @@ public class FilesLoader
             i = files.entrySet().iterator();
             Entry<FileAnnotationData, File> entry;
             String description = "Loading file";
-            int count = 1;
-            int size = files.size();
+            remaining = files.size();
             while (i.hasNext()) {
                 entry = i.next();
                 final FileAnnotationData fa = entry.getKey();
                 final File f = entry.getValue();
-                directories.add(f.getParent());
-                final boolean b = count == size;
+                if (directories != null) directories.add(f.getParent());
                 add(new BatchCall(description) {
-                    public void doCall() { loadFile(fa, f, b); }
+                    public void doCall() { setPartialResult(loadFile(fa, f)); }
                 });
-                count++;
             }
         }
     }
@@ -318,8 +346,27 @@ public class FilesLoader
     		throw new IllegalArgumentException("No files to load.");
     	this.files = files;
     	if (zipDirectory) directories = new HashSet<String>();
+    	setParallelism(getConfiguredParallelism());
     }
     
+    /**
+     * Creates a new instance to download the files straight into a zip.
+     * 
+     * @param ctx The security context.
+     * @param zip The zip to create.
+     * @param files The annotations hosting the files to download.
+     */
+    public FilesLoader(SecurityContext ctx, File zip,
+            List<FileAnnotationData> files)
+    {
+        this.ctx = ctx;
+        if (zip == null)
+            throw new IllegalArgumentException("No zip specified.");
+        if (CollectionUtils.isEmpty(files))
+            throw new IllegalArgumentException("No files to load.");
+        loadCall = makeZipBatchCall(zip, files);
+    }
+
     /**
      * Creates a new instance.
      * 
@@ -78,12 +78,6 @@ public class ImagesImporter
                                     new ImagesImporter(target);
     }
 
-    /** 
-     * Map of result, key is the file to import, value is an object or a
-     * string.
-     */
-    private Map<ImportableFile, Object> partialResult;
-
     /** The object hosting the information for the import. */
     private ImportableObject object;
 
@@ -93,10 +87,13 @@ public class ImagesImporter
      * @param importable The file to import.
      * @param close <code>true</code> to close the import,
      *        <code>false</code> otherwise.
+     * @return A map whose key is the file to import and the value the
+     *         imported object or the exception.
      */
-    private void importFile(ImportableFile importable, boolean close)
+    private Map<ImportableFile, Object> importFile(ImportableFile importable,
+            boolean close)
     {
-        partialResult = new HashMap<>();
+        Map<ImportableFile, Object> partialResult = new HashMap<>();
         OmeroImageService os = context.getImageService();
         try {
             partialResult.put(importable,
@@ -104,10 +101,13 @@ public class ImagesImporter
         } catch (Exception e) {
             partialResult.put(importable, e);
         }
+        return partialResult;
     }
 
     /**
      * Adds the {@link #importFile} to the computation tree.
+     * The files are imported sequentially as the first import may create
+     * the tags and containers shared by the other files.
      *
      * @see BatchCallTree#buildTree()
      */
@@ -123,21 +123,11 @@ public class ImagesImporter
             final ImportableFile f = io;
             index++;
             add(new BatchCall("Importing file") {
-                public void doCall() { importFile(f, false); }
+                public void doCall() { setPartialResult(importFile(f, false)); }
             }); 
         }
     }
 
-    /**
-     * Returns the lastly retrieved thumbnail.
-     * This will be packed by the framework into a feedback event and
-     * sent to the provided call observer, if any.
-     *
-     * @return A Map whose key is the file to import and the value the
-     *         imported object.
-     */
-    protected Object getPartialResult() { return partialResult; }
-
     /**
      * Returns the root node of the requested tree.
      *
@@ -31,9 +31,14 @@ package org.openmicroscopy.shoola.env.data.views.calls;
 
 //Application-internal dependencies
 import org.openmicroscopy.shoola.env.data.OmeroDataService;
+import org.openmicroscopy.shoola.env.data.util.CallCancellation;
+import org.openmicroscopy.shoola.env.data.util.SearchCursor;
+import org.openmicroscopy.shoola.env.event.AgentEventListener;
+import org.openmicroscopy.shoola.util.concur.tasks.ExecMonitor;
 
 import omero.gateway.SecurityContext;
 import omero.gateway.model.SearchParameters;
+import omero.gateway.model.SearchResultCollection;
 
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
@@ -67,6 +72,50 @@ public class ObjectFinder
     /** The context of the search.*/
     private SearchParameters searchContext;
 
+    /** 
+     * The maximum number of results per page or <code>0</code> to
+     * retrieve all the results at once.
+     */
+    private int pageSize;
+
+    /** The cursor over the results when searching page by page. */
+    private SearchCursor cursor;
+
+    /**
+     * Creates a {@link BatchCall} to retrieve the next page of results.
+     * The call adds another one to the tree if more results are available
+     * and delivers its page as a partial result, the last page being the
+     * result of the search.
+     * 
+     * @return The {@link BatchCall}.
+     */
+    private BatchCall makePageCall()
+    {
+        return new BatchCall("Searching") {
+            public void doCall() throws Exception
+            {
+                SearchResultCollection page = null;
+                try {
+                    if (cursor == null) {
+                        OmeroDataService os = context.getDataService();
+                        cursor = os.openSearch(ctx, searchContext, pageSize);
+                    }
+                    page = cursor.next();
+                } finally {
+                    if (cursor != null && (page == null ||
+                            CallCancellation.isCancelled()))
+                        cursor.close();
+                }
+                if (cursor.hasNext() && !page.isError()) {
+                    setPartialResult(page);
+                    add(makePageCall());
+                } else {
+                    cursor.close();
+                    result = page;
+                }
+            }
+        };
+    }
 	
 	/**
      * Adds the {@link #loadCall} to the computation tree.
@@ -74,6 +123,10 @@ public class ObjectFinder
      */
     protected void buildTree()
     { 
+        if (pageSize > 0) {
+            add(makePageCall());
+            return;
+        }
         loadCall = new BatchCall("Searching") {
             public void doCall() throws Exception
             {
@@ -85,6 +138,32 @@ public class ObjectFinder
     }
 
 
+    /**
+     * Overridden to close the cursor when the search is cancelled, e.g.
+     * between two pages, or fails.
+     * @see BatchCallTree#getMonitor(AgentEventListener)
+     */
+    protected ExecMonitor getMonitor(AgentEventListener observer)
+    {
+        final ExecMonitor monitor = super.getMonitor(observer);
+        if (pageSize <= 0) return monitor;
+        return new ExecMonitor() {
+            public void onStart() { monitor.onStart(); }
+            public void update(int step) { monitor.update(step); }
+            public void onCancel()
+            {
+                if (cursor != null) cursor.close();
+                monitor.onCancel();
+            }
+            public void onAbort(Throwable cause)
+            {
+                if (cursor != null) cursor.close();
+                monitor.onAbort(cause);
+            }
+            public void onEnd(Object result) { monitor.onEnd(result); }
+        };
+    }
+
     /**
      * Returns the server call-handle to the computation.
      * 
@@ -109,5 +188,23 @@ public class ObjectFinder
     	this.ctx = ctx;
     	this.searchContext = searchContext;
     }
+
+    /**
+     * Creates a new instance to retrieve the results page by page.
+     * Each page but the last one is delivered as a partial result.
+     * 
+     * @param ctx The security context.
+     * @param searchContext The context of the search.
+     * @param pageSize The maximum number of results per page.
+     */
+    public ObjectFinder(SecurityContext ctx, SearchParameters searchContext,
+            int pageSize)
+    {
+        if (pageSize <= 0)
+            throw new IllegalArgumentException("Page size not valid.");
+        this.ctx = ctx;
+        this.searchContext = searchContext;
+        this.pageSize = pageSize;
+    }
     
 }
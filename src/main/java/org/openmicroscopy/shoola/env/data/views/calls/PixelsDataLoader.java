@@ -70,6 +70,9 @@ public class PixelsDataLoader
     /** The security context.*/
     private SecurityContext ctx;
     
+    /** Identifies the request, identical requests share one call. */
+    private Object requestKey;
+    
     /**
      * Creates a {@link BatchCall} to load the pixels set.
      * 
@@ -115,6 +118,12 @@ public class PixelsDataLoader
      */
     protected Object getResult() { return result; }
     
+    /**
+     * Returns the key identifying the pixels set and the call.
+     * @see BatchCallTree#getRequestKey()
+     */
+    protected Object getRequestKey() { return requestKey; }
+    
     /**
      * Creates the call corresponding to the passed index.
      * 
@@ -136,6 +145,7 @@ public class PixelsDataLoader
 			default:
 				throw new IllegalArgumentException("Index not supported.");
 		}
+    	requestKey = makeRequestKey(ctx, pixelsID, index);
     }
     
 }
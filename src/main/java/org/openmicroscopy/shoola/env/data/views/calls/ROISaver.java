@@ -31,6 +31,7 @@ import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
 
 import omero.gateway.model.ROIData;
+import omero.gateway.model.ShapeData;
 
 /**
  * Saves the region of interest related to a given image back to the server.
@@ -73,6 +74,28 @@ public class ROISaver
         };
     }
 
+    /**
+     * Creates a {@link BatchCall} to save the changes made to the ROIs.
+     * 
+     * @param ctx The security context.
+     * @param imageID The id of the image.
+     * @param roiList The new ROIs and the modified shapes of the stored ROIs.
+     * @param toDelete The shapes to delete.
+     * @return The {@link BatchCall}.
+     */
+    private BatchCall makeSaveChangesCall(final SecurityContext ctx,
+            final long imageID, final List<ROIData> roiList,
+            final List<ShapeData> toDelete)
+    {
+        return new BatchCall("save ROI") {
+            public void doCall() throws Exception
+            {
+                OmeroImageService svc = context.getImageService();
+                result = svc.saveROIChanges(ctx, imageID, roiList, toDelete);
+            }
+        };
+    }
+
     /**
      * Adds the {@link #saveCall} to the computation tree.
      * @see BatchCallTree#buildTree()
@@ -99,4 +122,19 @@ public class ROISaver
         saveCall = makeSaveCall(ctx, imageID, userID, roiList);
     }
 
+    /**
+     * Creates a new instance to only save the changes made to the ROIs
+     * since they were loaded.
+     * 
+     * @param ctx The security context.
+     * @param imageID The image's ID.
+     * @param roiList The new ROIs and the modified shapes of the stored ROIs.
+     * @param toDelete The shapes to delete.
+     */
+    public ROISaver(SecurityContext ctx, long imageID, List<ROIData> roiList,
+            List<ShapeData> toDelete)
+    {
+        saveCall = makeSaveChangesCall(ctx, imageID, roiList, toDelete);
+    }
+
 }
@@ -60,6 +60,9 @@ public class RenderingSettingsLoader
 	/** The security context.*/
     private SecurityContext ctx;
     
+    /** Identifies the request, identical requests share one call. */
+    private Object requestKey;
+    
 	/**
 	 * Creates a {@link BatchCall} to retrieve rendering settings.
 	 * 
@@ -92,6 +95,12 @@ public class RenderingSettingsLoader
 	 * @see BatchCallTree#getResult()
 	 */
 	protected Object getResult() { return result; }
+	
+	/**
+	 * Returns the key identifying the pixels set and the user.
+	 * @see BatchCallTree#getRequestKey()
+	 */
+	protected Object getRequestKey() { return requestKey; }
 
 	/**
 	 * Creates a new instance.
@@ -109,6 +118,7 @@ public class RenderingSettingsLoader
 			throw new IllegalArgumentException("ID not valid.");
 		this.ctx = ctx;
 		loadCall = makeBatchCall(pixelsID, userID);
+		requestKey = makeRequestKey(ctx, pixelsID, userID);
 	}
 
 }
@@ -30,6 +30,7 @@ import org.openmicroscopy.shoola.env.data.OmeroMetadataService;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.Prioritized;
 import omero.gateway.model.DataObject;
 
 /** 
@@ -52,6 +53,9 @@ public class StructuredAnnotationLoader
     /** Indicates to load the annotation related to a given object. */
     public static final int ROI_MEASUREMENT = 11;
 
+    /** Indicates to load the annotations of any type linked to objects. */
+    public static final int LINKED = 12;
+
     /** Indicates to load structured data */
     public static final int ALL = 1;
 
@@ -67,6 +71,12 @@ public class StructuredAnnotationLoader
     /** The security context.*/
     private SecurityContext ctx;
 
+    /** 
+     * Identifies the request, identical requests share one call.
+     * <code>null</code> if the request can't be shared.
+     */
+    private Object requestKey;
+
     /**
      * Creates a {@link BatchCall} to load the specified annotation.
      * 
@@ -268,6 +278,28 @@ public class StructuredAnnotationLoader
         };
     }
 
+    /**
+     * Creates a {@link BatchCall} to load the annotations of any type
+     * linked to the objects identified by the class and the ids.
+     * 
+     * @param type The type of the object.
+     * @param ids The collection of id of the object.
+     * @param userID The id of the user who annotated the objects or
+     *            <code>-1</code> if the user is not specified.
+     * @return The {@link BatchCall}.
+     */
+    private BatchCall loadLinkedAnnotations(final Class type,
+            final List<Long> ids, final long userID)
+    {
+        return new BatchCall("Loading Annotations") {
+            public void doCall() throws Exception
+            {
+                OmeroMetadataService os = context.getMetadataService();
+                result = os.loadLinkedAnnotations(ctx, type, ids, userID);
+            }
+        };
+    }
+
     /**
      * Adds the {@link #loadCall} to the computation tree.
      * @see BatchCallTree#buildTree()
@@ -280,6 +312,12 @@ public class StructuredAnnotationLoader
      */
     protected Object getResult() { return result; }
 
+    /**
+     * Returns the key identifying the annotations to load.
+     * @see BatchCallTree#getRequestKey()
+     */
+    protected Object getRequestKey() { return requestKey; }
+
     /**
      * Creates a new instance. Builds the call corresponding to the passed
      * index, throws an {@link IllegalArgumentException} if the index is not
@@ -301,6 +339,11 @@ public class StructuredAnnotationLoader
             case RATING:
                 loadCall = loadRatings(type, ids, userID);
                 break;
+            case LINKED:
+                loadCall = loadLinkedAnnotations(type, ids, userID);
+                setPriority(Prioritized.PREFETCH);
+                requestKey = makeRequestKey(ctx, index, type, ids, userID);
+                break;
             default:
                 throw new IllegalArgumentException("Index not supported.");
         }
@@ -349,6 +392,7 @@ public class StructuredAnnotationLoader
         switch (index) {
             case ALL:
                 loadCall = loadStructuredData(object, userID);
+                requestKey = makeRequestKey(ctx, index, object, userID);
                 break;
             case RATING:
                 if (object instanceof DataObject) {
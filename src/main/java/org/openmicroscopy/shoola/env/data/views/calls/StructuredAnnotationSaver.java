@@ -21,12 +21,14 @@
 package org.openmicroscopy.shoola.env.data.views.calls;
 
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
 import java.util.Map;
 
+import org.apache.commons.collections4.ListUtils;
 import org.openmicroscopy.shoola.env.data.OmeroMetadataService;
 import org.openmicroscopy.shoola.env.data.model.TimeRefObject;
 import omero.gateway.SecurityContext;
@@ -35,6 +37,7 @@ import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
 
 import omero.gateway.model.AnnotationData;
 import omero.gateway.model.DataObject;
+import omero.model.Annotation;
 
 /** 
  * 
@@ -58,7 +61,62 @@ public class StructuredAnnotationSaver
     
     /** The security context.*/
     private SecurityContext ctx;
+
+    /** The annotations linked during a batch annotation. */
+    private List<AnnotationData> annotations;
     
+    /**
+     * Creates a {@link BatchCall} to link the annotations to, and remove the
+     * specified annotations from, a chunk of the objects.
+     * 
+     * @param chunk The objects to handle.
+     * @param toRemove The annotations to remove.
+     * @return The {@link BatchCall}.
+     */
+    private BatchCall makeChunkCall(final List<DataObject> chunk,
+            final List<Object> toRemove)
+    {
+        return new BatchCall("Saving") {
+            public void doCall() throws Exception
+            {
+                OmeroMetadataService os = context.getMetadataService();
+                os.saveAnnotationLinks(ctx, chunk, annotations, toRemove);
+                setPartialResult(chunk);
+            }
+        };
+    }
+
+    /**
+     * Adds a {@link BatchCall} to the tree for each chunk of the objects to
+     * annotate. The chunks are saved in parallel. The annotations to remove
+     * are passed to every chunk but the other objects to remove, e.g. the
+     * annotation links, are deleted directly so only passed to the first one.
+     * 
+     * @param targets The objects to annotate.
+     * @param toRemove The annotations to remove.
+     */
+    private void addChunkCalls(List<DataObject> targets, List<Object> toRemove)
+    {
+        List<Object> annotationsToRemove = null;
+        if (toRemove != null) {
+            annotationsToRemove = new ArrayList<Object>();
+            Iterator<Object> j = toRemove.iterator();
+            Object o;
+            while (j.hasNext()) {
+                o = j.next();
+                if (o instanceof AnnotationData || o instanceof Annotation)
+                    annotationsToRemove.add(o);
+            }
+        }
+        Iterator<List<DataObject>> i = ListUtils.partition(targets,
+                OmeroMetadataService.BATCH_SIZE).iterator();
+        List<Object> remove = toRemove;
+        while (i.hasNext()) {
+            add(makeChunkCall(i.next(), remove));
+            remove = annotationsToRemove;
+        }
+    }
+
     /**
      * 
      * Creates a {@link BatchCall} to retrieve the users who viewed 
@@ -117,7 +175,10 @@ public class StructuredAnnotationSaver
 						os.saveAcquisitionData(ctx, i.next()) ;
 					}
             	}
-            	result = os.saveBatchData(ctx, data, toAdd, toRemove, userID);
+            	List<DataObject> targets = os.loadBatchTargets(ctx, data);
+            	annotations = os.prepareAnnotations(ctx, toAdd);
+            	result = targets;
+            	addChunkCalls(targets, toRemove);
             }
         };
     }
@@ -148,7 +209,11 @@ public class StructuredAnnotationSaver
 						os.saveAcquisitionData(ctx, i.next()) ;
 					}
             	}
-            	result = os.saveBatchData(ctx, data, toAdd, toRemove, userID);
+            	List<DataObject> targets = os.loadBatchTargets(ctx, data,
+            			userID);
+            	annotations = os.prepareAnnotations(ctx, toAdd);
+            	result = targets;
+            	addChunkCalls(targets, toRemove);
             }
         };
     }
@@ -208,9 +273,10 @@ public class StructuredAnnotationSaver
     	if (data == null)
     		throw new IllegalArgumentException("No object to save.");
     	this.ctx = ctx;
-    	if (batch)
+    	if (batch) {
     		loadCall = loadBatchCall(data, toAdd, toRemove, metadata, userID);
-    	else 
+    		setParallelism(getConfiguredParallelism());
+    	} else 
     		loadCall = loadCall(data, toAdd, toRemove, metadata, userID);
     }
     
@@ -231,6 +297,7 @@ public class StructuredAnnotationSaver
     		throw new IllegalArgumentException("No time period sepecified.");
     	this.ctx = ctx;
     	loadCall = loadBatchCall(timeRefObject, toAdd, toRemove, null, userID);
+    	setParallelism(getConfiguredParallelism());
     }
 
     /**
@@ -37,8 +37,10 @@ import omero.log.LogMessage;
 import org.openmicroscopy.shoola.env.LookupNames;
 import org.openmicroscopy.shoola.env.data.OmeroImageService;
 import org.openmicroscopy.shoola.env.data.model.ThumbnailData;
+import org.openmicroscopy.shoola.env.data.util.CallCancellation;
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.Prioritized;
 import org.openmicroscopy.shoola.util.image.geom.Factory;
 import org.openmicroscopy.shoola.util.image.io.EncoderException;
 import org.openmicroscopy.shoola.util.image.io.WriterImage;
@@ -158,6 +160,7 @@ public class ThumbnailLoader extends BatchCallTree {
         this.ctx = ctx;
         this.service = context.getImageService();
         this.readOnly = isReadOnly();
+        setPriority(Prioritized.PREFETCH);
     }
 
     public ThumbnailLoader(SecurityContext ctx, Collection<DataObject> imgs, long userID) {
@@ -203,6 +206,19 @@ public class ThumbnailLoader extends BatchCallTree {
         return currentThumbnail;
     }
 
+    /**
+     * Returns the key identifying the thumbnails to load, so that the
+     * thumbnails requested at the same time by several agents are
+     * loaded once.
+     *
+     * @see BatchCallTree#getRequestKey()
+     */
+    @Override
+    protected Object getRequestKey() {
+        return makeRequestKey(ctx, images, maxWidth, maxHeight, userIDs,
+                asImage);
+    }
+
     /**
      * Adds a {@link BatchCall} to the tree for each thumbnail to retrieve.
      *
@@ -242,7 +258,9 @@ public class ThumbnailLoader extends BatchCallTree {
 
                             context.getLogger().warn(this, msg);
                         } finally {
-                            if (last && store != null) {
+                            // The remaining calls won't run if cancelled.
+                            if ((last || CallCancellation.isCancelled())
+                                    && store != null) {
                                 context.getDataService().closeService(ctx, store);
                             }
                         }
@@ -351,11 +369,15 @@ public class ThumbnailLoader extends BatchCallTree {
                 store.setRenderingDefId(rndDefId);
         }
 
+        // Aborted if the call is cancelled, e.g. when the user navigates away.
         if (readOnly) {
-            return store.getThumbnail(omero.rtypes.rint(sizeX), omero.rtypes.rint(sizeY));
+            return store.end_getThumbnail(CallCancellation.await(
+                    store.begin_getThumbnail(omero.rtypes.rint(sizeX),
+                            omero.rtypes.rint(sizeY))));
         }
-        return store.getThumbnailWithoutDefault(omero.rtypes.rint(sizeX),
-                omero.rtypes.rint(sizeY));
+        return store.end_getThumbnailWithoutDefault(CallCancellation.await(
+                store.begin_getThumbnailWithoutDefault(
+                        omero.rtypes.rint(sizeX), omero.rtypes.rint(sizeY))));
     }
 
     /**
@@ -41,6 +41,7 @@ import omero.gateway.exception.RenderingServiceException;
 
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.Prioritized;
 import org.openmicroscopy.shoola.util.image.geom.Factory;
 
 import omero.gateway.model.DataObject;
@@ -457,6 +458,7 @@ extends BatchCallTree
             }
         }
         if (l != null && l.size() > 0) toHandle.add(l);
+        setPriority(Prioritized.PREFETCH);
     }
 
 }
@@ -35,6 +35,7 @@ import omero.romio.RegionDef;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.Prioritized;
 import org.openmicroscopy.shoola.env.rnd.RenderingControl;
 import org.openmicroscopy.shoola.env.rnd.data.Region;
 import org.openmicroscopy.shoola.env.rnd.data.Tile;
@@ -56,9 +57,6 @@ import org.openmicroscopy.shoola.util.image.geom.Factory;
 public class TileLoader
 	extends BatchCallTree
 {
-	/** The lastly retrieve tile. */
-    private Object	currentTile;
-    
     /** The tiles.*/
     private Collection<Tile> tiles;
 
@@ -70,6 +68,7 @@ public class TileLoader
     
     /**
      * Loads the tile.
+     * The tiles share the rendering engine, so they are loaded sequentially.
      * 
      * @param tile The tile to load.
      */
@@ -91,18 +90,8 @@ public class TileLoader
 			tile.setImage(Factory.createDefaultImageThumbnail(rt.getWidth(), 
 					rt.getHeight()));
 		}
-    	currentTile = tile;
     }
     
-    /**
-     * Returns the lastly retrieved tile.
-     * This will be packed by the framework into a feedback event and
-     * sent to the provided call observer, if any.
-     * 
-     * @return A Map containing the index of the tile and the associated image.
-     */
-    protected Object getPartialResult() { return currentTile; }
-    
     /**
      * Returns <code>null</code> as there's no final result.
      * In fact, tiles are progressively delivered with feedback events. 
@@ -126,6 +115,7 @@ public class TileLoader
 			add(new BatchCall(description) {
         		public void doCall() { 
         			loadTile(t);
+        			setPartialResult(t);
         		}
         	});  
 		}
@@ -153,6 +143,7 @@ public class TileLoader
         this.tiles = tiles;
         this.pDef = pDef;
         this.proxy = proxy;
+        setPriority(Prioritized.PREFETCH);
     }
     
 }
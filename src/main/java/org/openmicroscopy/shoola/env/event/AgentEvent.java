@@ -62,5 +62,29 @@ public abstract class AgentEvent
      * @return See above.
      */
     public Object getSource() { return source; }
+    
+    /**
+     * Returns how the events of this type are coalesced when posted faster
+     * than the subscribers consume them. Returns
+     * {@link EventBus#NO_COALESCING} by default. Subclasses describing a
+     * state, e.g. the latest rendered image, may return
+     * {@link EventBus#KEEP_LATEST}, the event is then delivered
+     * asynchronously.
+     * 
+     * @return One of the coalescing constants defined by {@link EventBus}.
+     */
+    public int getCoalescingPolicy() { return EventBus.NO_COALESCING; }
+    
+    /**
+     * Returns the key identifying what the event is about e.g. a pixels set.
+     * When the event is coalesced using the 
+     * {@link EventBus#KEEP_LATEST} policy, the event only replaces the 
+     * pending events of the same type with an equal key.
+     * Returns <code>null</code> by default i.e. all the pending events of 
+     * the same type are replaced.
+     * 
+     * @return See above.
+     */
+    public Object getCoalescingKey() { return null; }
       
 }
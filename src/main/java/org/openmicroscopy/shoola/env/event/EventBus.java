@@ -46,6 +46,21 @@ package org.openmicroscopy.shoola.env.event;
  */
 public interface EventBus
 {
+
+    /** 
+     * Identifies the default coalescing policy: every event posted is
+     * delivered.
+     */
+    public static final int NO_COALESCING = 0;
+    
+    /**
+     * Identifies the coalescing policy of state events: an event not yet
+     * delivered to a subscriber is replaced by a newer event of the same
+     * type and with the same {@link AgentEvent#getCoalescingKey() key}.
+     * The events declaring this policy are always delivered asynchronously.
+     */
+    public static final int KEEP_LATEST = 1;
+    
     
 	/** 
 	 * Adds the subscriber to the List.
@@ -55,5 +55,19 @@ public class EventBusFactory
 	{
 		return new EventBusImpl();
 	}
+	
+	/**
+	 * Creates a new empty {@link EventBus}.
+	 * 
+	 * @param asynchronous Pass <code>true</code> to deliver the events 
+	 *                     asynchronously within the <i>Swing</i> dispatching
+	 *                     thread, <code>false</code> to deliver them within
+	 *                     the posting thread, except the coalesced ones.
+	 * @return	See above.
+	 */
+	public static EventBus makeNew(boolean asynchronous)
+	{
+		return new EventBusImpl(asynchronous);
+	}
 
 }
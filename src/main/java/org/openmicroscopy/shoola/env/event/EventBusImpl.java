@@ -24,11 +24,15 @@
 package org.openmicroscopy.shoola.env.event;
 
 //Java imports
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
+import javax.swing.SwingUtilities;
+
 //Third-party libraries
 
 //Application-internal dependencies
@@ -38,7 +42,14 @@ import java.util.Map;
  * of the event propagation system. 
  * It maintains a de-multiplex table to 
  * keep track of what events have to be dispatched to which subscribers
- *
+ * <p>By default, an event is dispatched to all subscribers within the
+ * thread that posts it before {@link #post(AgentEvent) post} returns.  In 
+ * asynchronous mode instead, each subscriber has a delivery queue from which
+ * the events are dispatched, in order, within the <i>Swing</i> dispatching
+ * thread.  So a slow subscriber doesn't stall the poster nor the other
+ * subscribers.  The events that are coalesced, according to their
+ * {@link AgentEvent#getCoalescingPolicy() policy}, always go through the
+ * delivery queues so that the events not yet delivered can be replaced.</p>
  *
  * @author  Jean-Marie Burel &nbsp;&nbsp;&nbsp;&nbsp;
  *              <a href="mailto:j.burel@dundee.ac.uk">j.burel@dundee.ac.uk</a>
@@ -75,6 +86,88 @@ class EventBusImpl
     /** Marks the current state. */
     private int state;
     
+    /** Tells whether the events are delivered asynchronously. */
+    private final boolean asynchronous;
+    
+    /** The delivery queue of each subscriber. */
+    private final Map<AgentEventListener, DeliveryQueue> queues;
+    
+    /**
+     * Delivers the events posted to a subscriber, one at a time, within the
+     * <i>Swing</i> dispatching thread.
+     */
+    private class DeliveryQueue
+        implements Runnable
+    {
+        
+        /** The subscriber. */
+        private final AgentEventListener subscriber;
+        
+        /** The events not delivered yet. */
+        private final LinkedList<AgentEvent> pending;
+        
+        /** Tells whether a delivery is scheduled. */
+        private boolean scheduled;
+        
+        /**
+         * Creates a new instance.
+         * 
+         * @param subscriber The subscriber.
+         */
+        DeliveryQueue(AgentEventListener subscriber)
+        {
+            this.subscriber = subscriber;
+            pending = new LinkedList<AgentEvent>();
+        }
+        
+        /**
+         * Queues up the specified event, coalescing it with the pending
+         * ones according to its policy.
+         * 
+         * @param e The event to add.
+         */
+        synchronized void add(AgentEvent e)
+        {
+            if (e.getCoalescingPolicy() == KEEP_LATEST) {
+                Object key = e.getCoalescingKey();
+                Iterator<AgentEvent> i = pending.iterator();
+                AgentEvent p;
+                while (i.hasNext()) {
+                    p = i.next();
+                    if (p.getClass() == e.getClass() &&
+                        (key == null ? p.getCoalescingKey() == null :
+                            key.equals(p.getCoalescingKey())))
+                        i.remove();
+                }
+            }
+            pending.addLast(e);
+            if (!scheduled) {
+                scheduled = true;
+                SwingUtilities.invokeLater(this);
+            }
+        }
+        
+        /** Discards the pending events. */
+        synchronized void clear() { pending.clear(); }
+        
+        /** 
+         * Delivers the oldest pending event, unless the subscriber has been
+         * removed meanwhile, and schedules the next delivery if any.
+         */
+        public void run()
+        {
+            AgentEvent e;
+            synchronized (this) {
+                e = pending.poll();
+                if (pending.isEmpty()) scheduled = false;
+                else SwingUtilities.invokeLater(this);
+            }
+            if (e != null && isSubscribed(subscriber, e.getClass())) 
+                subscriber.eventFired(e);
+        }
+        
+    }
+    
     /** Dispatches the next event. */
     private void dispatch()
     {
@@ -115,13 +208,70 @@ class EventBusImpl
         return b;
     }
     
+    /**
+     * Returns <code>true</code> if the specified subscriber is registered for
+     * the specified event type, <code>false</code> otherwise.
+     * 
+     * @param subscriber The subscriber.
+     * @param eventType The event type.
+     * @return See above.
+     */
+    private synchronized boolean isSubscribed(AgentEventListener subscriber,
+    		Class<?> eventType)
+    {
+    	LinkedList<AgentEventListener> 
+    	evNotifList = deMultiplexTable.get(eventType);
+    	return evNotifList != null && evNotifList.contains(subscriber);
+    }
+    
+    /**
+     * Queues up the specified event for delivery to the subscribers of its
+     * type.
+     * 
+     * @param e The event to post.
+     */
+    private void postAsynchronously(AgentEvent e)
+    {
+    	List<DeliveryQueue> targets = new ArrayList<DeliveryQueue>();
+    	synchronized (this) {
+    		LinkedList<AgentEventListener> 
+    		evNotifList = deMultiplexTable.get(e.getClass());
+    		if (evNotifList == null) return;  //Nobody registered.
+    		DeliveryQueue q;
+    		for (AgentEventListener listener : evNotifList) {
+    			if (listener.equals(e.getSource())) continue;
+    			q = queues.get(listener);
+    			if (q == null) {
+    				q = new DeliveryQueue(listener);
+    				queues.put(listener, q);
+    			}
+    			targets.add(q);
+    		}
+    	}
+    	for (DeliveryQueue q : targets)
+    		q.add(e);
+    }
+    
 	/** Creates a new instance. */
     EventBusImpl()
+    {
+        this(false);
+    }
+    
+	/** 
+	 * Creates a new instance.
+	 * 
+	 * @param asynchronous Pass <code>true</code> to deliver the events 
+	 *                     asynchronously, <code>false</code> otherwise.
+	 */
+    EventBusImpl(boolean asynchronous)
     {
         eventQueue = new LinkedList<AgentEvent>();
         deMultiplexTable = 
         	new HashMap<Class<?>, LinkedList<AgentEventListener>>();
         state = IDLE;
+        this.asynchronous = asynchronous;
+        queues = new HashMap<AgentEventListener, DeliveryQueue>();
     }
     
 	/** 
@@ -140,7 +290,8 @@ class EventBusImpl
      * Implemented as specified by {@link EventBus}. 
      * @see EventBus#register(AgentEventListener, Class)
      */    
-    public void register(AgentEventListener subscriber, Class<?> eventType)
+    public synchronized void register(AgentEventListener subscriber, 
+    		Class<?> eventType)
     {
     	if (subscriber == null)	
     		throw new NullPointerException("No subscriber.");
@@ -162,7 +313,8 @@ class EventBusImpl
      * Implemented as specified by {@link EventBus}. 
      * @see EventBus#remove(AgentEventListener, Class)
      */ 
-	public void remove(AgentEventListener subscriber, Class<?> eventType)
+	public synchronized void remove(AgentEventListener subscriber, 
+			Class<?> eventType)
 	{
 		if (subscriber == null)	
 			throw new NullPointerException("No subscriber.");
@@ -192,18 +344,22 @@ class EventBusImpl
      * Implemented as specified by {@link EventBus}. 
      * @see EventBus#remove(AgentEventListener)
      */ 
-    public void remove(AgentEventListener subscriber)
+    public synchronized void remove(AgentEventListener subscriber)
     {
-        Iterator<Class<?>> e = deMultiplexTable.keySet().iterator();
+        //Copy the keys as removing a subscriber may remove an entry.
+        Iterator<Class<?>> e = new ArrayList<Class<?>>(
+        		deMultiplexTable.keySet()).iterator();
         while (e.hasNext())	
         	remove(subscriber, e.next());
+        DeliveryQueue q = queues.remove(subscriber);
+        if (q != null) q.clear();
     }
     
     /** 
      * Implemented as specified by {@link EventBus}. 
      * @see EventBus#hasListenerFor(Class)
      */ 
-    public boolean hasListenerFor(Class<?> eventType)
+    public synchronized boolean hasListenerFor(Class<?> eventType)
     {
         return (deMultiplexTable.get(eventType) != null);
     }
@@ -215,6 +371,10 @@ class EventBusImpl
     public void post(AgentEvent e)
     {
         if (e == null)	throw new NullPointerException("No event.");
+        if (asynchronous || e.getCoalescingPolicy() != NO_COALESCING) {
+        	postAsynchronously(e);
+        	return;
+        }
         switch (state) {
             case IDLE:
                 state = DISPATCHING;
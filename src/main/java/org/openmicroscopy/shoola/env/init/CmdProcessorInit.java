@@ -33,10 +33,13 @@ import org.openmicroscopy.shoola.env.LookupNames;
 import org.openmicroscopy.shoola.env.config.Registry;
 import org.openmicroscopy.shoola.util.concur.tasks.AsyncProcessor;
 import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
+import org.openmicroscopy.shoola.util.concur.tasks.PoolProcessor;
 
 /** 
  * This task intializes the {@link CmdProcessor} the container will use
  * for asyncrhonous operations.
+ * A {@link PoolProcessor} is used if a positive number of workers is
+ * configured, an {@link AsyncProcessor} otherwise.
  *
  * @author  Jean-Marie Burel &nbsp;&nbsp;&nbsp;&nbsp;
  * 				<a href="mailto:j.burel@dundee.ac.uk">j.burel@dundee.ac.uk</a>
@@ -74,9 +77,12 @@ public final class CmdProcessorInit
      */
     void execute()
     {
-        //TODO: What processor to use should be externalized in cfg.
-        CmdProcessor processor = new AsyncProcessor();
         Registry reg = container.getRegistry();
+        CmdProcessor processor;
+        Object workers = reg.lookup(LookupNames.CMD_PROCESSOR_WORKERS);
+        if (workers instanceof Integer && ((Integer) workers) > 0)
+            processor = new PoolProcessor((Integer) workers);
+        else processor = new AsyncProcessor();
         reg.bind(LookupNames.CMD_PROCESSOR, processor);
     }
 
@@ -28,6 +28,7 @@ package org.openmicroscopy.shoola.env.init;
 //Third-party libraries
 
 //Application-internal dependencies
+import org.openmicroscopy.shoola.env.LookupNames;
 import org.openmicroscopy.shoola.env.config.Registry;
 import org.openmicroscopy.shoola.env.config.RegistryFactory;
 import org.openmicroscopy.shoola.env.event.EventBus;
@@ -77,7 +78,9 @@ public final class EventBusInit
 		throws StartupException
 	{
 		Registry reg = container.getRegistry();
-		RegistryFactory.linkEventBus(EventBusFactory.makeNew(), reg);
+		Object async = reg.lookup(LookupNames.EVENT_BUS_ASYNCHRONOUS);
+		RegistryFactory.linkEventBus(EventBusFactory.makeNew(
+				Boolean.TRUE.equals(async)), reg);
 	}
 	
 	/** 
@@ -58,6 +58,7 @@ import org.openmicroscopy.shoola.env.LookupNames;
 import org.openmicroscopy.shoola.env.config.Registry;
 import org.openmicroscopy.shoola.env.data.ConnectionExceptionHandler;
 import org.openmicroscopy.shoola.env.data.model.ProjectionParam;
+import org.openmicroscopy.shoola.env.data.util.CallCancellation;
 
 import omero.gateway.SecurityContext;
 import omero.gateway.exception.DSOutOfServiceException;
@@ -196,6 +197,8 @@ class RenderingControlProxy
      */
     private boolean handleConnectionException(Throwable e)
     {
+        //The call failed because it was cancelled, not b/c of the connection.
+        if (CallCancellation.isCancelled()) return true;
         ConnectionExceptionHandler handler = new ConnectionExceptionHandler();
         int index = handler.handleConnectionException(e);
         if (index < 0) return true;
@@ -453,7 +456,8 @@ class RenderingControlProxy
 		//Need to adjust the cache.
 		//Object array = getFromCache(pDef);
 		try {
-			byte[] values = servant.renderCompressed(pDef);
+			byte[] values = servant.end_renderCompressed(
+			        CallCancellation.await(servant.begin_renderCompressed(pDef)));
 			imageSize = values.length;
 			return WriterImage.bytesToImage(values);
 		} catch (Throwable e) {
@@ -21,6 +21,7 @@
 package org.openmicroscopy.shoola.env.rnd.roi;
 
 import java.awt.Point;
+import java.nio.ByteBuffer;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -33,6 +34,7 @@ import omero.gateway.exception.DataSourceException;
 import omero.gateway.facility.RawDataFacility;
 import omero.gateway.rnd.Plane2D;
 
+import org.openmicroscopy.shoola.env.data.OmeroImageService;
 import org.openmicroscopy.shoola.util.roi.figures.ROIFigure;
 import org.openmicroscopy.shoola.util.roi.model.ROIShape;
 
@@ -79,6 +81,12 @@ class PointIterator
     
     /** Reference to the RawDataFacility */
     private RawDataFacility rf;
+
+    /**
+     * Reference to the image service, used instead of the
+     * {@link RawDataFacility} to share the planes already retrieved.
+     */
+    private OmeroImageService service;
     
     /** 
      * All currently registered {@link PointIteratorObserver}s.
@@ -206,6 +214,61 @@ class PointIterator
         rf = gw.getFacility(RawDataFacility.class);
     }
 
+    /**
+     * Creates a new instance to iterate over the pixels set, retrieving the
+     * planes through the image service so that the planes already retrieved
+     * are not downloaded again.
+     * 
+     * @param service Reference to the image service.
+     *                Mustn't be <code>null</code>.
+     * @param pixels The PixelsData
+     */
+    PointIterator(OmeroImageService service, PixelsData pixels)
+    {
+        if (service == null) throw new NullPointerException("No service.");
+        this.service = service;
+        this.pixels = pixels;
+        this.sizeZ = pixels.getSizeZ();
+        this.sizeC = pixels.getSizeC();
+        this.sizeT = pixels.getSizeT();
+        this.sizeX = pixels.getSizeX();
+        this.sizeY = pixels.getSizeY();
+        observers = new HashSet<PointIteratorObserver>();
+    }
+
+    /**
+     * Returns the value of the specified pixel of a raw plane, the values
+     * being stored in big-endian order.
+     * 
+     * @param plane The raw plane.
+     * @param type The type of the pixels.
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @return See above.
+     */
+    private double getPixelValue(ByteBuffer plane, String type, int x, int y)
+    {
+        int index = y*sizeX+x;
+        if (OmeroImageService.INT_8.equals(type))
+            return plane.get(index);
+        if (OmeroImageService.UINT_8.equals(type))
+            return plane.get(index) & 0xff;
+        if (OmeroImageService.INT_16.equals(type))
+            return plane.getShort(2*index);
+        if (OmeroImageService.UINT_16.equals(type))
+            return plane.getShort(2*index) & 0xffff;
+        if (OmeroImageService.INT_32.equals(type))
+            return plane.getInt(4*index);
+        if (OmeroImageService.UINT_32.equals(type))
+            return plane.getInt(4*index) & 0xffffffffL;
+        if (OmeroImageService.FLOAT.equals(type))
+            return plane.getFloat(4*index);
+        if (OmeroImageService.DOUBLE.equals(type))
+            return plane.getDouble(8*index);
+        //bit
+        return (plane.get(index/8) >> (7-index%8)) & 1;
+    }
+
     /**
      * Adds an iteration observer to the notification list.
      * This method will do nothing if the specified observer is already in the
@@ -267,7 +330,17 @@ class PointIterator
             int t = shape.getT();
             if (z >= 0 && z < sizeZ && t >= 0 && t < sizeT) {
                 notifyPlaneStart(z, w, t, points.size());
-                Plane2D data = rf.getPlane(ctx, pixels, z, t, w);
+                Plane2D data = null;
+                ByteBuffer raw = null;
+                String type = pixels.getPixelType();
+                if (service != null) {
+                    byte[] bytes = service.getPlane(ctx, pixels.getId(),
+                            z, t, w);
+                    if (bytes == null)
+                        throw new DataSourceException("Cannot retrieve the " +
+                                "plane (z="+z+", t="+t+", c="+w+")");
+                    raw = ByteBuffer.wrap(bytes);
+                } else data = rf.getPlane(ctx, pixels, z, t, w);
                 double value;
                 int length = 0;
                 int x1, x2;
@@ -278,7 +351,8 @@ class PointIterator
                     x1 = p.x;
                     x2 = p.y;
                     if (isValidPoint(x1, x2)) {
-                        value = data.getPixelValue(x1, x2);
+                        if (raw != null) value = getPixelValue(raw, type, x1, x2);
+                        else value = data.getPixelValue(x1, x2);
                         notifyValue(value, z, w, t, p);
                         length++;
                     }
@@ -288,7 +362,7 @@ class PointIterator
         } catch (Exception e) {
             throw new DataSourceException(e);
         } finally {  
-            if (close)
+            if (close && rf != null)
                 rf.close();
             //Give the observers a chance to clean up even when 
             //something goes wrong. 
@@ -36,6 +36,7 @@ import omero.gateway.SecurityContext;
 import omero.gateway.exception.DataSourceException;
 import omero.gateway.facility.RawDataFacility;
 
+import org.openmicroscopy.shoola.env.data.OmeroImageService;
 import org.openmicroscopy.shoola.util.roi.model.ROIShape;
 import org.openmicroscopy.shoola.util.roi.model.util.Coord3D;
 
@@ -133,6 +134,23 @@ public class ROIAnalyser
         this.sizeC = pixels.getSizeC();
     }
 
+    /**
+     * Creates a new instance to analyze the pixels set, retrieving the
+     * planes through the image service so that the planes already retrieved
+     * are shared.
+     * 
+     * @param service Reference to the image service.
+     *                Mustn't be <code>null</code>.
+     * @param pixels The pixels to analyze.
+     */
+    public ROIAnalyser(OmeroImageService service, PixelsData pixels)
+    {
+        runner = new PointIterator(service, pixels);
+        this.sizeZ = pixels.getSizeZ();
+        this.sizeT = pixels.getSizeT();
+        this.sizeC = pixels.getSizeC();
+    }
+
     /**
      * Computes an {@link ROIShapeStats} object for each {@link ROIShape} 
      * specified
@@ -0,0 +1,268 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.ui;
+
+
+//Java imports
+import java.awt.BorderLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTable;
+import javax.swing.JTextArea;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+import javax.swing.table.AbstractTableModel;
+
+//Third-party libraries
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.env.LookupNames;
+import org.openmicroscopy.shoola.env.config.Registry;
+import org.openmicroscopy.shoola.env.data.ServiceTracer;
+import org.openmicroscopy.shoola.env.data.ServiceTracer.MethodStats;
+import org.openmicroscopy.shoola.env.data.ServiceTracer.Sample;
+import org.openmicroscopy.shoola.util.ui.UIUtilities;
+
+/**
+ * Displays the statistics of the calls to the data services recorded by the
+ * {@link ServiceTracer}: per method, the latencies, the number of items
+ * returned, the errors and the slowest calls.
+ *
+ * @since 5.8.5
+ */
+class DiagnosticsDialog
+	extends JDialog
+{
+
+	/** The title of the dialog. */
+	private static final String TITLE = "Diagnostics";
+
+	/** The columns of the table. */
+	private static final String[] COLUMNS = {"Method", "Calls", "Errors",
+		"Mean (ms)", "95% (ms)", "Max (ms)", "Items", "Max Items"};
+
+	/** The statistics displayed, one row per method. */
+	private class StatsModel
+		extends AbstractTableModel
+	{
+
+		/** The statistics of each method. */
+		private List<MethodStats> rows = new ArrayList<MethodStats>();
+
+		/**
+		 * Replaces the statistics displayed.
+		 *
+		 * @param rows The statistics of each method.
+		 */
+		void setRows(List<MethodStats> rows)
+		{
+			this.rows = rows;
+			fireTableDataChanged();
+		}
+
+		/**
+		 * Returns the statistics displayed at the specified row.
+		 *
+		 * @param row The row.
+		 * @return See above.
+		 */
+		MethodStats getRow(int row) { return rows.get(row); }
+
+		public int getRowCount() { return rows.size(); }
+
+		public int getColumnCount() { return COLUMNS.length; }
+
+		public String getColumnName(int column) { return COLUMNS[column]; }
+
+		public Class<?> getColumnClass(int column)
+		{
+			return column == 0 ? String.class : Long.class;
+		}
+
+		public Object getValueAt(int row, int column)
+		{
+			MethodStats s = rows.get(row);
+			switch (column) {
+				case 0: return s.getName();
+				case 1: return s.getCount();
+				case 2: return s.getErrors();
+				case 3: return s.getMeanLatency();
+				case 4: return s.getLatency95();
+				case 5: return s.getMaxLatency();
+				case 6: return s.getMeanItems();
+				default: return s.getMaxItems();
+			}
+		}
+	}
+
+	/** Reference to the registry. */
+	private final Registry registry;
+
+	/** The tracer or <code>null</code> if the calls are not traced. */
+	private final ServiceTracer tracer;
+
+	/** The statistics displayed. */
+	private StatsModel model;
+
+	/** The table displaying the statistics. */
+	private JTable table;
+
+	/** Displays the slowest calls of the selected method. */
+	private JTextArea samples;
+
+	/** Reloads the statistics. */
+	private void refresh()
+	{
+		if (tracer == null) return;
+		model.setRows(tracer.getStats());
+		samples.setText("");
+	}
+
+	/** Displays the slowest calls of the selected method. */
+	private void showSamples()
+	{
+		int row = table.getSelectedRow();
+		if (row < 0) {
+			samples.setText("");
+			return;
+		}
+		MethodStats s = model.getRow(table.convertRowIndexToModel(row));
+		StringBuffer buf = new StringBuffer("Slowest calls to ");
+		buf.append(s.getName());
+		buf.append(":");
+		for (Sample sample : s.getSamples()) {
+			buf.append("\n");
+			buf.append(sample);
+		}
+		samples.setText(buf.toString());
+		samples.setCaretPosition(0);
+	}
+
+	/** Saves the statistics to the file selected by the user. */
+	private void save()
+	{
+		if (tracer == null) return;
+		JFileChooser chooser = new JFileChooser();
+		chooser.setSelectedFile(new File("diagnostics.txt"));
+		if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION)
+			return;
+		UserNotifier un = registry.getUserNotifier();
+		try {
+			tracer.dump(chooser.getSelectedFile());
+		} catch (Exception e) {
+			un.notifyError(TITLE, "Cannot save the diagnostics.", e);
+		}
+	}
+
+	/** Initializes the components composing the display. */
+	private void initComponents()
+	{
+		model = new StatsModel();
+		table = new JTable(model);
+		table.setAutoCreateRowSorter(true);
+		table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		table.getSelectionModel().addListSelectionListener(
+			new ListSelectionListener() {
+				public void valueChanged(ListSelectionEvent e) {
+					if (!e.getValueIsAdjusting()) showSamples();
+				}
+			});
+		samples = new JTextArea(6, 60);
+		samples.setEditable(false);
+		if (tracer == null)
+			samples.setText("The calls to the data services are not traced.");
+	}
+
+	/**
+	 * Creates a button.
+	 *
+	 * @param text The text of the button.
+	 * @param l The action of the button.
+	 * @return See above.
+	 */
+	private JButton createButton(String text, ActionListener l)
+	{
+		JButton b = new JButton(text);
+		b.addActionListener(l);
+		b.setEnabled(tracer != null || "Close".equals(text));
+		return b;
+	}
+
+	/** Builds and lays out the UI. */
+	private void buildGUI()
+	{
+		JSplitPane pane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+				new JScrollPane(table), new JScrollPane(samples));
+		pane.setResizeWeight(0.75);
+		JPanel bar = new JPanel();
+		bar.add(createButton("Refresh", new ActionListener() {
+			public void actionPerformed(ActionEvent e) { refresh(); }
+		}));
+		bar.add(createButton("Reset", new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				tracer.reset();
+				refresh();
+			}
+		}));
+		bar.add(createButton("Save...", new ActionListener() {
+			public void actionPerformed(ActionEvent e) { save(); }
+		}));
+		bar.add(createButton("Close", new ActionListener() {
+			public void actionPerformed(ActionEvent e) { dispose(); }
+		}));
+		getContentPane().add(pane, BorderLayout.CENTER);
+		getContentPane().add(UIUtilities.buildComponentPanelRight(bar),
+				BorderLayout.SOUTH);
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param owner The owner of the dialog.
+	 * @param registry Reference to the registry.
+	 */
+	DiagnosticsDialog(JFrame owner, Registry registry)
+	{
+		super(owner);
+		this.registry = registry;
+		Object o = registry.lookup(LookupNames.SERVICES_TRACER);
+		tracer = o instanceof ServiceTracer ? (ServiceTracer) o : null;
+		setTitle(TITLE);
+		initComponents();
+		buildGUI();
+		refresh();
+		setSize(800, 500);
+	}
+
+}
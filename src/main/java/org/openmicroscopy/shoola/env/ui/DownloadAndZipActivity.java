@@ -21,17 +21,11 @@
 package org.openmicroscopy.shoola.env.ui;
 
 import java.io.File;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-
-import org.apache.commons.io.FileUtils;
 
 import org.openmicroscopy.shoola.env.config.Registry;
 import org.openmicroscopy.shoola.env.data.model.DownloadAndZipParam;
 import omero.gateway.SecurityContext;
-import omero.gateway.model.FileAnnotationData;
+import org.openmicroscopy.shoola.util.file.IOUtil;
 
 /** 
  * Downloads the files and creates a zip.
@@ -56,8 +50,8 @@ public class DownloadAndZipActivity
 	/** The parameters hosting information about the file to download. */
     private DownloadAndZipParam parameters;
     
-    /** The name of the zip file. */
-    private File zipFolder;
+    /** The zip to create. */
+    private File zip;
 
 	/**
 	 * Creates a new instance.
@@ -77,34 +71,22 @@ public class DownloadAndZipActivity
 		this.parameters = parameters;
 		initialize("Download", parameters.getIcon());
 		File folder = parameters.getFolder();
-		if (!folder.exists()) {
-			folder.mkdir();
-			zipFolder = folder;
-		} else if (folder.isFile()) {
-			File parent = folder.getParentFile();
-			File f = new File(parent, folder.getName()+"_zip");
-			if (f.mkdir())
-				zipFolder = f;
-		}
+		String name = folder.getName();
+		if (folder.isFile()) name += "_zip";
+		if (!name.endsWith(IOUtil.ZIP_EXTENSION)) name += IOUtil.ZIP_EXTENSION;
+		if (folder.isDirectory()) zip = new File(folder, name);
+		else zip = new File(folder.getParentFile(), name);
 	}
 	
 	/**
-	 * Creates a concrete loader.
+	 * Creates a concrete loader. The files are written straight into the
+	 * zip.
 	 * @see ActivityComponent#createLoader()
 	 */
 	protected UserNotifierLoader createLoader()
 	{
-		List<FileAnnotationData> files = parameters.getFiles();
-		Iterator<FileAnnotationData> i = files.iterator();
-		Map<FileAnnotationData, File> toLoad = 
-			new HashMap<FileAnnotationData, File>();
-		FileAnnotationData fa;
-		
-		while (i.hasNext()) {
-			fa = i.next();
-			toLoad.put(fa, new File(zipFolder, fa.getFileName()));
-		}
-		loader = new FilesLoader(viewer, registry, ctx, toLoad, this);
+		loader = new FilesLoader(viewer, registry, ctx, parameters.getFiles(),
+				zip, this);
 		return loader;
 	}
 
@@ -114,13 +96,7 @@ public class DownloadAndZipActivity
 	 */
 	protected void notifyActivityEnd()
 	{
-	    try {
-	        messageLabel.setText(zipFolder.getAbsolutePath());
-	        FileUtils.deleteDirectory(zipFolder);
-	    } catch (Exception e) {
-	        registry.getLogger().error(this,
-	                "Error deleting folder:"+e.getMessage());
-	    }
+	    messageLabel.setText(zip.getAbsolutePath());
 	    type.setText(DESCRIPTION);
 	}
 
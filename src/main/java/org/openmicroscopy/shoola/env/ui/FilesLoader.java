@@ -56,6 +56,15 @@ public class FilesLoader
     
     /** The files loaded. */
     private List<File> results;
+
+    /**
+     * The zip to download the files into, <code>null</code> to download
+     * them as separate files.
+     */
+    private File zip;
+
+    /** The files to download into the zip. */
+    private List<FileAnnotationData> zipped;
     
     /**
      * Notifies that an error occurred.
@@ -87,6 +96,30 @@ public class FilesLoader
 		this.files = files;
 		results = new ArrayList<File>();
 	}
+
+    /**
+     * Creates a new instance to download the files straight into a zip.
+     * 
+     * @param viewer 	Reference to the parent.
+     * @param reg    	Reference to the registry.
+     * @param ctx The security context.
+     * @param files 	The files to download.
+     * @param zip 		The zip to create.
+     * @param activity 	The activity associated to this loader.
+     */
+	FilesLoader(UserNotifier viewer, Registry reg, SecurityContext ctx, 
+			List<FileAnnotationData> files, File zip,
+			ActivityComponent activity)
+	{
+		super(viewer, reg, ctx, activity);
+		if (files == null || files.size() == 0)
+			throw new IllegalArgumentException("No files to download");
+		if (zip == null)
+			throw new IllegalArgumentException("No zip specified");
+		this.zipped = files;
+		this.zip = zip;
+		results = new ArrayList<File>();
+	}
 	
 	/** 
 	 * Downloads the file. 
@@ -94,7 +127,9 @@ public class FilesLoader
 	 */
 	public void load()
 	{
-		handle = mhView.loadFiles(ctx, true, files, this);
+		if (zip != null)
+			handle = mhView.loadFilesAsZip(ctx, zip, zipped, this);
+		else handle = mhView.loadFiles(ctx, true, files, this);
 	}
     
 	/** 
@@ -104,6 +139,10 @@ public class FilesLoader
 	public void cancel()
 	{ 
 		if (handle != null) handle.cancel();
+		if (zip != null) {
+			zip.delete();
+			return;
+		}
 		Iterator<File> i = files.values().iterator();
 		while (i.hasNext()) {
 			i.next().delete();
@@ -127,7 +166,7 @@ public class FilesLoader
 	public void update(DSCallFeedbackEvent fe) 
 	{
 		Map m = (Map) fe.getPartialResult();
-		if (m != null) {
+		if (m != null && files != null) {
 			Entry entry;
 			Iterator i = m.entrySet().iterator();
 			FileAnnotationData fa;
@@ -762,6 +762,14 @@ public class TaskBarManager
         }
     }
 
+    /** Displays the statistics of the calls to the data services. */
+    private void diagnostics()
+    {
+    	DiagnosticsDialog d = new DiagnosticsDialog(view,
+    			container.getRegistry());
+    	UIUtilities.centerAndShow(d);
+    }
+
     /** Instantiates the ActionListeners for the help menu */
     private void createHelpMenuActionListeners() {
     	
@@ -823,6 +831,11 @@ public class TaskBarManager
 				logFile();
 			}
 		});
+    	helpMenuActions.put(TaskBarView.DIAGNOSTICS_MI, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				diagnostics();
+			}
+		});
     }
     
     /**
@@ -860,6 +873,8 @@ public class TaskBarManager
 				getHelpMenuAction(TaskBarView.ACTIVITY_MI));
 		view.getButton(TaskBarView.LOG_FILE_MI).addActionListener(
 				getHelpMenuAction(TaskBarView.LOG_FILE_MI));
+		view.getButton(TaskBarView.DIAGNOSTICS_MI).addActionListener(
+				getHelpMenuAction(TaskBarView.DIAGNOSTICS_MI));
 	}
 	
 	/**
@@ -136,11 +136,14 @@ class TaskBarView
 	/** Identifies the log file location menu item within the windows menu. */
 	static final int LOG_FILE_MI = 15;
 
+	/** Identifies the diagnostics menu item within the help menu. */
+	static final int DIAGNOSTICS_MI = 16;
+
 	/** 
 	 * The maximum id of the buttons and menu items identifiers.
 	 * Allows to size the {@link #buttons} array correctly.
 	 */
-	private static final int MAX_ID = 15;
+	private static final int MAX_ID = 16;
 
     /** The title of the frame. */
     private static final String TITLE = "Open Microscopy Environment";
@@ -242,6 +245,7 @@ class TaskBarView
 				iconManager.getIcon(IconManager.FORUM));
 		buttons[LOG_FILE_MI] = new JMenuItem("Show Log File",
 				iconManager.getIcon(IconManager.LOG_FILE));
+		buttons[DIAGNOSTICS_MI] = new JMenuItem("Diagnostics...");
 		buttons[ACTIVITY_MI] = new JMenuItem("Activities...",
 				iconManager.getIcon(IconManager.ACTIVITY));
 	}
@@ -354,6 +358,11 @@ class TaskBarView
 			i.addActionListener(manager.getHelpMenuAction(LOG_FILE_MI));
 		help.add(i);
 		
+		i = copyItem((JMenuItem) buttons[DIAGNOSTICS_MI]);
+		if(i.getActionListeners().length==0) 
+			i.addActionListener(manager.getHelpMenuAction(DIAGNOSTICS_MI));
+		help.add(i);
+		
 		i = copyItem((JMenuItem) buttons[UPDATES_MI]);
 		if(i.getActionListeners().length==0) 
 			i.addActionListener(manager.getHelpMenuAction(UPDATES_MI));
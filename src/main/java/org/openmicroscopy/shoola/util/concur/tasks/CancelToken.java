@@ -0,0 +1,182 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.concur.tasks;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.List;
+
+//Third-party libraries
+
+//Application-internal dependencies
+
+/**
+ * Carries the cancellation signal of a service to the code the service
+ * invokes.
+ * Every service run by a {@link CmdProcessor} gets a token, which is the
+ * {@link #current() current} token of the executing thread for the duration
+ * of the execution.  Code blocking on a long-running operation, typically a
+ * remote invocation, can {@link #register(Runnable) register} a callback to
+ * abort the operation as soon as the service is cancelled, rather than
+ * letting it run to completion and discarding its result.
+ * <p>Callbacks are run in the thread that cancels the service, so they must
+ * not block.</p>
+ *
+ * @see ExecHandle#cancelExecution()
+ * @since 5.8.5
+ */
+public final class CancelToken
+{
+
+    /** The token of the service run by the current thread, if any. */
+    private static final ThreadLocal<CancelToken> CURRENT =
+            new ThreadLocal<CancelToken>();
+
+    /** Tells whether the service was cancelled. */
+    private boolean         cancelled;
+
+    /** The callbacks to run on cancellation. */
+    private List<Runnable>  callbacks;
+
+    /**
+     * Returns the token of the service run by the current thread or
+     * <code>null</code> if the current thread isn't running a service.
+     *
+     * @return See above.
+     */
+    public static CancelToken current() { return CURRENT.get(); }
+
+    /**
+     * Makes the specified token the one of the current thread.
+     * This allows a service to propagate its cancellation signal to the
+     * work it hands to other threads.
+     *
+     * @param token The token to set, may be <code>null</code>.
+     * @return The previous token of the current thread.
+     */
+    public static CancelToken setCurrent(CancelToken token)
+    {
+        CancelToken previous = CURRENT.get();
+        if (token == null) CURRENT.remove();
+        else CURRENT.set(token);
+        return previous;
+    }
+
+    /**
+     * Returns <code>true</code> if the service run by the current thread has
+     * been cancelled, <code>false</code> otherwise.
+     *
+     * @return See above.
+     */
+    public static boolean isCurrentCancelled()
+    {
+        CancelToken token = CURRENT.get();
+        return token != null && token.isCancelled();
+    }
+
+    /**
+     * Creates a token which is cancelled along with the specified one.
+     * This allows work handed to other threads to be aborted on its own,
+     * for example when a sibling fails, as well as when the service is
+     * cancelled.
+     *
+     * @param parent The token to follow, may be <code>null</code>.
+     * @return See above.
+     */
+    public static CancelToken newChild(CancelToken parent)
+    {
+        final CancelToken child = new CancelToken();
+        if (parent != null) {
+            parent.register(new Runnable() {
+                public void run() { child.cancel(); }
+            });
+        }
+        return child;
+    }
+
+    /** Creates a new instance. */
+    CancelToken() {}
+
+    /**
+     * Returns <code>true</code> if the service has been cancelled,
+     * <code>false</code> otherwise.
+     *
+     * @return See above.
+     */
+    public synchronized boolean isCancelled() { return cancelled; }
+
+    /**
+     * Registers a callback to run when the service is cancelled.
+     * The callback is run at once if the service is already cancelled.
+     *
+     * @param callback The callback to register. Mustn't be <code>null</code>.
+     */
+    public void register(Runnable callback)
+    {
+        if (callback == null) throw new NullPointerException("No callback.");
+        synchronized (this) {
+            if (!cancelled) {
+                if (callbacks == null) callbacks = new ArrayList<Runnable>();
+                callbacks.add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    /**
+     * Removes a callback previously {@link #register(Runnable) registered}.
+     *
+     * @param callback The callback to remove.
+     */
+    public synchronized void unregister(Runnable callback)
+    {
+        if (callbacks != null) callbacks.remove(callback);
+    }
+
+    /**
+     * Marks the service as cancelled and runs the registered callbacks.
+     * Does nothing if the service is already cancelled.
+     * Code outside this package may only cancel the tokens it created
+     * through {@link #newChild(CancelToken)}.
+     */
+    public void cancel()
+    {
+        List<Runnable> l;
+        synchronized (this) {
+            if (cancelled) return;
+            cancelled = true;
+            l = callbacks;
+            callbacks = null;
+        }
+        if (l == null) return;
+        for (Runnable callback : l) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                //Ignore, the other callbacks must run.
+            }
+        }
+    }
+
+}
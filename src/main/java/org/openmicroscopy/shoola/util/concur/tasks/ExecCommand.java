@@ -125,6 +125,9 @@ class ExecCommand
     /** Notified about the progress and outcome of the computation. */
     private final ExecMonitor     observer;
     
+    /** Carries the cancellation signal to the code invoked by the task. */
+    private final CancelToken     token;
+    
     
     /**
      * Creates a new instance.
@@ -146,10 +149,21 @@ class ExecCommand
         assembler = ra;
         future = f;
         observer = em;
+        token = new CancelToken();
         
         state = READY;
     }
     
+    /**
+     * Tells whether the execution has been cancelled.
+     * 
+     * @return See above.
+     */
+    private boolean isCancelled()
+    {
+        return executor.isInterrupted() || token.isCancelled();
+    }
+    
     /**
      * Performs the execution workflow activities.
      */
@@ -161,9 +175,9 @@ class ExecCommand
         try {
             observer.onStart();
             while (!task.isDone()) {
-                if (executor.isInterrupted()) throw new InterruptedException();
+                if (isCancelled()) throw new InterruptedException();
                 partialResult = task.doStep();
-                if (executor.isInterrupted()) throw new InterruptedException();
+                if (isCancelled()) throw new InterruptedException();
                 assembler.add(partialResult);
                 observer.update(++step);
             }
@@ -172,8 +186,12 @@ class ExecCommand
         } catch (InterruptedException ie) {
             observer.onCancel();
         } catch (Throwable t) {
-            abortCause = t;
-            observer.onAbort(t);
+            //An operation aborted by the cancellation signal fails.
+            if (token.isCancelled()) observer.onCancel();
+            else {
+                abortCause = t;
+                observer.onAbort(t);
+            }
         } finally {
             if (abortCause != null) future.setException(abortCause);
             else future.setResult(result);
@@ -218,7 +236,7 @@ class ExecCommand
         if (flowObs != null) flowObs.update(LOCK_ACQUIRED_BY_LEAVE_EXECUTING);
         //Never clear interrupted status of executor.
         if (executor != null) {
-        	boolean cancelled = executor.isInterrupted();
+        	boolean cancelled = isCancelled();
             executor = null;
             state = (cancelled ? CANCELLED : FINISHED);
         } else  state = FINISHED;
@@ -245,24 +263,34 @@ class ExecCommand
      * stop and the state will be transitioned to {@link #CANCELLED}.
      * Otherwise the computation proceeds to its natural ending, at which point
      * the state will be set to {@link #FINISHED}.  
+     * <p>Rather than interrupting the executor, which could leave a remote
+     * invocation in an inconsistent state, we signal the {@link CancelToken}
+     * of the command.  The executor checks it along with the interrupted 
+     * status and the code invoked by the task can use it to abort a 
+     * long-running operation.  The token's callbacks are run after releasing
+     * the lock.</p>
      */
-    synchronized void cancel()
+    void cancel()
     {
-        if (flowObs != null) flowObs.update(LOCK_ACQUIRED_BY_CANCEL);
-        switch (state) {
-            case READY:
-                state = CANCELLED;
-                future.setResult(null);
-                observer.onCancel();  //Trail call to avoid problems if exc.
-                break;
-            case EXECUTING:
-            	//executor.interrupt();
-                //Depending on current state of run loop the above may
-                //either result in a transition to CANCELLED or FINISHED.
-                break;
-            case FINISHED:  //Do nothing.
-            case CANCELLED:  //Do nothing.
+        boolean signal = false;
+        synchronized (this) {
+            if (flowObs != null) flowObs.update(LOCK_ACQUIRED_BY_CANCEL);
+            switch (state) {
+                case READY:
+                    state = CANCELLED;
+                    future.setResult(null);
+                    observer.onCancel();  //Trail call to avoid problems if exc.
+                    break;
+                case EXECUTING:
+                    signal = true;
+                    //Depending on current state of run loop the above may
+                    //either result in a transition to CANCELLED or FINISHED.
+                    break;
+                case FINISHED:  //Do nothing.
+                case CANCELLED:  //Do nothing.
+            }
         }
+        if (signal) token.cancel();
     }
     
     /**
@@ -272,9 +300,11 @@ class ExecCommand
     {
         if (!enterExecuting())  //Transition to EXECUTING or error/ignore.
             return;  //State is CANCELLED, run() should do nothing.
+        CancelToken previous = CancelToken.setCurrent(token);
         try {
             exec();  //Perform workflow activities.
         } finally {  //Dispatch this action in any case.
+            CancelToken.setCurrent(previous);
             leaveExecuting();  //Transition to FINISHED or CANCELLED. 
         }
     }
@@ -0,0 +1,549 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.concur.tasks;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//Third-party libraries
+
+//Application-internal dependencies
+
+/**
+ * A concrete {@link CmdProcessor} that runs services in a pool of reusable
+ * worker threads.
+ * Services are scheduled according to their {@link Prioritized priority}
+ * class:
+ * <ul>
+ * <li>{@link Prioritized#INTERACTIVE} services are handed to an idle worker
+ * or, if none, to a new one, as long as less than
+ * <code>interactiveSize</code> of them are running.  Beyond that bound,
+ * services submitted by a worker of this processor are run inline by that
+ * worker, so that a service waiting for the services it submitted can't
+ * deadlock, and the others are queued up until an interactive service
+ * completes.</li>
+ * <li>{@link Prioritized#PREFETCH} and {@link Prioritized#BACKGROUND}
+ * services are queued up and at most <code>size</code> of them run at the
+ * same time, at most half of which are background services.  Prefetching
+ * services are served before background ones and, within a class, the
+ * {@link Prioritized#getGroup() groups} are served in turn so that a group
+ * submitting many services can't starve the others.  Because of the bound,
+ * these services mustn't wait for each other.</li>
+ * </ul>
+ * <p>Workers exit after being idle for {@link #KEEP_ALIVE} milliseconds, so
+ * a burst of interactive services doesn't leave threads behind.</p>
+ *
+ * @since 5.8.5
+ */
+public class PoolProcessor
+    extends CmdProcessor
+{
+
+    /**
+     * The time, in milliseconds, an idle worker waits for a new service
+     * before exiting.
+     */
+    static final long KEEP_ALIVE = 30000;
+
+    /**
+     * The default maximum number of interactive services to run, as a
+     * multiple of the <code>size</code> of the processor.
+     */
+    static final int INTERACTIVE_FACTOR = 4;
+
+    /**
+     * The run loop of a worker.
+     * We run the current command, trap any uncaught exceptions (and call the
+     * <code>uncaughtExcHandler</code>, if one was provided), and then ask the
+     * enclosing <code>PoolProcessor</code> for the next command.
+     */
+    private class Worker
+        implements Runnable
+    {
+        /** The command being run, <code>null</code> if idle. */
+        ExecCommand cmd;
+
+        /** The priority class of {@link #cmd}. */
+        int priority;
+
+        /** The thread running this worker. */
+        Thread thread;
+
+        /**
+         * Sets the command to run next.
+         *
+         * @param cmd The command.
+         * @param priority The priority class of the command.
+         */
+        void assign(ExecCommand cmd, int priority)
+        {
+            this.cmd = cmd;
+            this.priority = priority;
+            running[priority]++;
+        }
+
+        public void run()
+        {
+            current.set(this);
+            try {
+                while (cmd != null) {
+                    runCommand(cmd);
+                    next(this);
+                }
+            } finally {  //Make sure we notify in any case.
+                current.remove();
+                notifyExit(this);
+            }
+        }
+    }
+
+    /** The maximum number of prefetching and background services to run. */
+    private final int size;
+
+    /** The maximum number of background services to run. */
+    private final int backgroundSize;
+
+    /** The maximum number of interactive services to run. */
+    private final int interactiveSize;
+
+    /** The worker run by the current thread, if any. */
+    private final ThreadLocal<Worker> current;
+
+    /** The live workers. */
+    private final Set<Worker> workers;
+
+    /**
+     * The interactive services waiting for an idle worker to pick them or,
+     * if {@link #interactiveSize} of them are running, for one of those to
+     * complete.
+     */
+    private final LinkedList<ExecCommand> interactive;
+
+    /**
+     * The queued services, one map per priority class. Each map links a group
+     * to its services, the group to serve next being the first key.
+     */
+    private final List<Map<Object, LinkedList<ExecCommand>>> queues;
+
+    /** The number of services running, per priority class. */
+    private final int[] running;
+
+    /** Custom handler used in the case of uncaught exceptions. */
+    private final UncaughtExcHandler uncaughtExcHandler;
+
+    /** The number of idle workers. */
+    private int idle;
+
+    /** Used to name the worker threads. */
+    private int threadCount;
+
+    /**
+     * Tells whether the processor will accept and run new commands.
+     * Latches to <code>true</code> when the {@link #terminate(long) terminate}
+     * method is called.  From that point on, new commands will be cancelled
+     * and discarded.
+     */
+    private boolean terminated;
+
+    /**
+     * Returns the service wrapped by the passed command if it is
+     * {@link Prioritized}, <code>null</code> otherwise.
+     *
+     * @param cmd The command.
+     * @return See above.
+     */
+    private static Prioritized getService(ExecCommand cmd)
+    {
+        Object task = cmd.getTask();
+        if (task instanceof TaskAdapter)
+            task = ((TaskAdapter) task).getTask();
+        else if (task instanceof InvocationAdapter)
+            task = ((InvocationAdapter) task).getCall();
+        if (task instanceof Prioritized) return (Prioritized) task;
+        return null;
+    }
+
+    /**
+     * Removes and returns the next service of the specified priority class,
+     * serving the groups in turn.
+     *
+     * @param priority The priority class.
+     * @return See above.
+     */
+    private ExecCommand poll(int priority)
+    {
+        Map<Object, LinkedList<ExecCommand>> queue = queues.get(priority);
+        Iterator<Map.Entry<Object, LinkedList<ExecCommand>>> i =
+                queue.entrySet().iterator();
+        if (!i.hasNext()) return null;
+        Map.Entry<Object, LinkedList<ExecCommand>> e = i.next();
+        ExecCommand cmd = e.getValue().poll();
+        i.remove();
+        if (e.getValue().size() > 0)  //Move the group at the back.
+            queue.put(e.getKey(), e.getValue());
+        return cmd;
+    }
+
+    /**
+     * Assigns the next service the passed worker can run, honouring the
+     * priority classes and bounds.
+     *
+     * @param w The worker.
+     * @return <code>true</code> if a service was assigned, <code>false</code>
+     *          otherwise.
+     */
+    private boolean assign(Worker w)
+    {
+        ExecCommand cmd = null;
+        if (running[Prioritized.INTERACTIVE] < interactiveSize)
+            cmd = interactive.poll();
+        if (cmd != null) {
+            w.assign(cmd, Prioritized.INTERACTIVE);
+            return true;
+        }
+        if (running[Prioritized.PREFETCH]+running[Prioritized.BACKGROUND]
+                >= size) return false;
+        cmd = poll(Prioritized.PREFETCH);
+        if (cmd != null) {
+            w.assign(cmd, Prioritized.PREFETCH);
+            return true;
+        }
+        if (running[Prioritized.BACKGROUND] >= backgroundSize) return false;
+        cmd = poll(Prioritized.BACKGROUND);
+        if (cmd != null) {
+            w.assign(cmd, Prioritized.BACKGROUND);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Runs the specified command, trapping any uncaught exceptions.
+     *
+     * @param cmd The command to run.
+     */
+    private void runCommand(ExecCommand cmd)
+    {
+        try {
+            cmd.run();
+        } catch (Throwable t) {
+            if (uncaughtExcHandler != null) uncaughtExcHandler.handle(t);
+            else t.printStackTrace();
+        }
+    }
+
+    /**
+     * Factory method to create a worker.
+     * The {@link #workers} set is updated accordingly.
+     *
+     * @param w The worker.
+     * @return The thread that will run the worker.
+     */
+    private Thread createWorker(Worker w)
+    {
+        w.thread = new Thread(w, "PoolProcessor-"+(++threadCount));
+        workers.add(w);
+        return w.thread;
+    }
+
+    /**
+     * Callback used by a worker when done with its current command.
+     * Assigns the next command to the worker or, if none is available
+     * within {@link #KEEP_ALIVE} milliseconds, lets it exit.
+     *
+     * @param w The worker.
+     */
+    private synchronized void next(Worker w)
+    {
+        running[w.priority]--;
+        w.cmd = null;
+        if (terminated || assign(w)) return;
+        long deadline = System.currentTimeMillis()+KEEP_ALIVE;
+        long delay = KEEP_ALIVE;
+        idle++;
+        try {
+            while (!terminated && delay > 0) {
+                try {
+                    wait(delay);
+                } catch (InterruptedException ie) {
+                    //Ignore.  This whole loop is a bounded wait.
+                }
+                if (assign(w)) return;
+                delay = deadline-System.currentTimeMillis();
+            }
+        } finally {
+            idle--;
+        }
+    }
+
+    /**
+     * Callback used by a worker when exiting the run loop.
+     * It just updates the {@link #workers} set.
+     *
+     * @param w The worker that exited.
+     */
+    private synchronized void notifyExit(Worker w)
+    {
+        workers.remove(w);
+        if (w.cmd != null) running[w.priority]--;
+        w.cmd = null;
+    }
+
+    /**
+     * Transfers a command for execution.
+     *
+     * @param cmd The command to run.
+     * @see CmdProcessor#doExec(java.lang.Runnable)
+     */
+    protected void doExec(Runnable cmd)
+    {
+        ExecCommand srv = (ExecCommand) cmd;
+        Prioritized service = getService(srv);
+        int priority = Prioritized.INTERACTIVE;
+        Object group = null;
+        if (service != null) {
+            priority = service.getPriority();
+            group = service.getGroup();
+            if (priority != Prioritized.PREFETCH &&
+                    priority != Prioritized.BACKGROUND)
+                priority = Prioritized.INTERACTIVE;
+        }
+        Thread t = null;
+        boolean inline = false;
+        synchronized (this) {
+            if (terminated) {
+                srv.cancel();
+                return;
+            }
+            Worker w;
+            if (priority == Prioritized.INTERACTIVE) {
+                if (running[priority] >= interactiveSize) {
+                    //The caller may wait for the service, so a worker
+                    //mustn't queue it up behind the busy ones.
+                    if (current.get() != null) inline = true;
+                    else interactive.add(srv);
+                } else if (idle > interactive.size()) {
+                    interactive.add(srv);
+                    notifyAll();
+                } else {
+                    w = new Worker();
+                    w.assign(srv, priority);
+                    t = createWorker(w);
+                }
+            } else {
+                Map<Object, LinkedList<ExecCommand>> queue =
+                        queues.get(priority);
+                LinkedList<ExecCommand> l = queue.get(group);
+                if (l == null) {
+                    l = new LinkedList<ExecCommand>();
+                    queue.put(group, l);
+                }
+                l.add(srv);
+                if (idle > interactive.size()) notifyAll();
+                else {
+                    w = new Worker();
+                    if (assign(w)) t = createWorker(w);
+                }
+            }
+        }
+        if (t != null) t.start();
+        else if (inline) runCommand(srv);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param size The maximum number of prefetching and background services
+     *              to run at the same time.  Must be positive.
+     */
+    public PoolProcessor(int size)
+    {
+        this(size, INTERACTIVE_FACTOR*size, null, false);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param size The maximum number of prefetching and background services
+     *              to run at the same time.  Must be positive.
+     * @param interactiveSize The maximum number of interactive services to
+     *              run at the same time.  Must be positive.
+     */
+    public PoolProcessor(int size, int interactiveSize)
+    {
+        this(size, interactiveSize, null, false);
+    }
+
+    /**
+     * Creates a new instance.
+     * Registers the passed <code>handler</code> to handle all uncaught
+     * exceptions that occurred during the execution of a service.
+     *
+     * @param size The maximum number of prefetching and background services
+     *              to run at the same time.  Must be positive.
+     * @param handler   Handles uncaught exceptions.  Mustn't be
+     *                  <code>null</code>.
+     * @see UncaughtExcHandler
+     */
+    public PoolProcessor(int size, UncaughtExcHandler handler)
+    {
+        this(size, INTERACTIVE_FACTOR*size, handler, true);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param size The maximum number of prefetching and background services
+     *              to run at the same time.  Must be positive.
+     * @param interactiveSize The maximum number of interactive services to
+     *              run at the same time.  Must be positive.
+     * @param handler Handles uncaught exceptions.
+     * @param required Pass <code>true</code> if a handler is required.
+     */
+    private PoolProcessor(int size, int interactiveSize,
+            UncaughtExcHandler handler, boolean required)
+    {
+        if (size <= 0)
+            throw new IllegalArgumentException("Size must be positive.");
+        if (interactiveSize <= 0)
+            throw new IllegalArgumentException(
+                    "Interactive size must be positive.");
+        if (required && handler == null)
+            throw new NullPointerException("No handler.");
+        this.size = size;
+        backgroundSize = Math.max(1, size/2);
+        this.interactiveSize = interactiveSize;
+        current = new ThreadLocal<Worker>();
+        workers = new HashSet<Worker>();
+        interactive = new LinkedList<ExecCommand>();
+        queues = new ArrayList<Map<Object, LinkedList<ExecCommand>>>();
+        for (int i = Prioritized.INTERACTIVE; i <= Prioritized.BACKGROUND;
+                i++)
+            queues.add(new LinkedHashMap<Object, LinkedList<ExecCommand>>());
+        running = new int[queues.size()];
+        uncaughtExcHandler = handler;
+        terminated = false;
+    }
+
+    /**
+     * Returns the number of services waiting to be run.
+     *
+     * @return See above.
+     */
+    public synchronized int getQueueLength()
+    {
+        int n = interactive.size();
+        for (Map<Object, LinkedList<ExecCommand>> queue : queues) {
+            for (LinkedList<ExecCommand> l : queue.values())
+                n += l.size();
+        }
+        return n;
+    }
+
+    /**
+     * Returns the number of services currently running.
+     *
+     * @return See above.
+     */
+    public synchronized int getRunningCount()
+    {
+        int n = 0;
+        for (int i = 0; i < running.length; i++)
+            n += running[i];
+        return n;
+    }
+
+    /**
+     * Cancels execution of all queued and currently running services.
+     * This is equivalent to calling the
+     * {@link ExecHandle#cancelExecution() cancelExecution} method on each
+     * {@link ExecHandle} of those services.
+     */
+    public void cancelAll()
+    {
+        List<ExecCommand> cmds = new ArrayList<ExecCommand>();
+        synchronized (this) {  //Take snapshot.
+            cmds.addAll(interactive);
+            interactive.clear();
+            for (Map<Object, LinkedList<ExecCommand>> queue : queues) {
+                for (LinkedList<ExecCommand> l : queue.values())
+                    cmds.addAll(l);
+                queue.clear();
+            }
+            for (Worker w : workers)
+                if (w.cmd != null) cmds.add(w.cmd);
+        }
+        //Queued commands can't be picked any more, running ones may exit
+        //in the mean time.  This is not a concern.
+        for (ExecCommand cmd : cmds)
+            cmd.cancel();  //Won't hurt if no longer running.
+    }
+
+    /**
+     * Cancels execution of all queued and currently running services and
+     * disallows execution of new ones.
+     * Waits at most <code>maxWait</code> milliseconds for each worker thread
+     * to exit and retuns <code>true</code> only if all waited for threads
+     * have died.  After this method has been called, the processor is
+     * disabled, meaning that invocations of any of the <code>exec</code>
+     * methods will result in the service being cancelled and discarded.
+     *
+     * @param maxWait Maximum amount of milliseconds to wait for each worker
+     *                  thread to exit.
+     * @return <code>true</code> no service is still running,
+     *          <code>false</code> otherwise.
+     */
+    public boolean terminate(long maxWait)
+    {
+        synchronized (this) {
+            terminated = true;  //Disable processor forever.
+            notifyAll();  //Idle workers exit.
+        }
+        cancelAll();
+        Thread[] threads;
+        synchronized (this) {  //Take snapshot.
+            threads = new Thread[workers.size()];
+            int i = 0;
+            for (Worker w : workers)
+                threads[i++] = w.thread;
+        }
+        boolean anyThreadStillRunning = false;
+        for (int i = 0; i < threads.length; ++i) {
+            try {
+                threads[i].join(maxWait);
+            } catch (InterruptedException ie) {
+                //Ignore.  This whole loop is a bounded wait.
+            }
+            if (threads[i].isAlive()) anyThreadStillRunning = true;
+        }
+        return !anyThreadStillRunning;
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.concur.tasks;
+
+
+/**
+ * Implemented by the service objects handed to a {@link CmdProcessor} that
+ * want to tell the processor how urgent they are and on behalf of whom they
+ * run.
+ * Processors that don't schedule services, like {@link AsyncProcessor},
+ * ignore this information. Services that don't implement this interface
+ * are treated as {@link #INTERACTIVE}.
+ *
+ * @see PoolProcessor
+ * @since 5.8.5
+ */
+public interface Prioritized
+{
+
+    /** Identifies a service the user is waiting for. */
+    public static final int INTERACTIVE = 0;
+
+    /**
+     * Identifies a service loading data the user is likely to need soon,
+     * e.g. thumbnails.
+     */
+    public static final int PREFETCH = 1;
+
+    /** Identifies a service nobody is waiting for. */
+    public static final int BACKGROUND = 2;
+
+    /**
+     * Returns the priority class of the service, one of the constants
+     * defined by this interface.
+     *
+     * @return See above.
+     */
+    public int getPriority();
+
+    /**
+     * Returns the group, typically the agent, the service runs on behalf
+     * of. Services of different groups with the same priority are served
+     * in turn. May be <code>null</code>.
+     *
+     * @return See above.
+     */
+    public Object getGroup();
+
+}
@@ -25,6 +25,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -56,6 +57,7 @@ import org.openmicroscopy.shoola.util.ui.drawingtools.attributes.DrawingAttribut
 import omero.gateway.model.FolderData;
 import omero.gateway.model.ImageData;
 import omero.gateway.model.ROIData;
+import omero.gateway.model.ShapeData;
 import omero.gateway.model.ShapeSettingsData;
 import omero.model.Length;
 import omero.model.LengthI;
@@ -277,6 +279,38 @@ public class ROIComponent
 			serverStrategy = new ServerROIStrategy();
 		return serverStrategy.write(this, image, index, userID);
 	}
+
+	/** 
+	 * Converts the editable ROI created or modified since they were loaded
+	 * to ROIData and returns them. The ROIs already stored only contain
+	 * the shapes created or modified.
+	 * 
+	 * @param image The image the ROI are on.
+	 * @return See above.
+	 * @throws Exception If an error occurred while converting the ROI.
+	 */
+	public List<ROIData> saveModifiedROI(ImageData image)
+		throws Exception
+	{
+		if (serverStrategy == null) 
+			serverStrategy = new ServerROIStrategy();
+		return serverStrategy.writeModified(this, image);
+	}
+
+	/** 
+	 * Returns the server side shapes removed from the editable ROI since
+	 * they were loaded.
+	 * 
+	 * @return See above.
+	 * @throws Exception If an error occurred while converting the shapes.
+	 */
+	public List<ShapeData> getRemovedShapes()
+		throws Exception
+	{
+		if (serverStrategy == null) 
+			serverStrategy = new ServerROIStrategy();
+		return serverStrategy.writeRemovedShapes(this);
+	}
 	
 	/**
 	 * Loads the ROIs. This method should be invoked straight after creating
@@ -331,6 +365,9 @@ public class ROIComponent
 		if (serverStrategy == null)
 			serverStrategy = new ServerROIStrategy();
 		List<ROI> l = serverStrategy.read(rois, this, userID);
+		Iterator<ROI> i = l.iterator();
+		while (i.hasNext())
+			i.next().markClean();
 		if (fileID > 0)
 			roiResult.put(fileID, l);
 		return l;
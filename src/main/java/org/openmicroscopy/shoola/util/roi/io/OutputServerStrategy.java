@@ -182,7 +182,7 @@ public class OutputServerStrategy
 			shape.setT(clientShape.getT());
 		if (clientShape.getZ() >= 0)
 			shape.setZ(clientShape.getZ());
-		shape.setDirty(fig.isDirty());
+		shape.setDirty(clientShape.isDirty());
 		if (!fig.isClientObject())
 			shape.setId(clientShape.getROIShapeID());
 		return shape;
@@ -198,6 +198,24 @@ public class OutputServerStrategy
 	 */
 	private ROIData createServerROI(ROI roi, ImageData image) 
 		throws Exception
+	{
+		return createServerROI(roi, image, false);
+	}
+
+	/**
+	 * Creates an ROIData object from an ROI.
+	 * 
+	 * @param roi The ROI to handle.
+	 * @param image The image the ROI is on.
+	 * @param modifiedOnly Pass <code>true</code> to only add the shapes
+	 *                     created or modified since the ROI was loaded,
+	 *                     <code>false</code> to add all the shapes.
+	 * @return See above.
+	 * @throws Exception If an error occurred while parsing the ROI.
+	 */
+	private ROIData createServerROI(ROI roi, ImageData image,
+			boolean modifiedOnly)
+		throws Exception
 	{
 		ROIData roiData = new ROIData();
 		roiData.setUuid(roi.getUUID());
@@ -212,6 +230,7 @@ public class OutputServerStrategy
 		while (shapeIterator.hasNext())
 		{
 			roiShape = shapeIterator.next();
+			if (modifiedOnly && !roiShape.isDirty()) continue;
 			shape = createShapeData(roiShape);
 			addShapeAttributes(roiShape.getFigure(), shape);
 			roiData.addShapeData(shape);
@@ -595,4 +614,55 @@ public class OutputServerStrategy
 		return ROIList;
 	}
 
+	/**
+	 * Writes the editable ROIs created or modified since they were loaded.
+	 * The ROIs already stored only contain the shapes created or modified.
+	 * As for {@link #writeROI(ROIComponent, ImageData, int, long)}, only
+	 * the shapes are written, changes to the ROI itself are not saved.
+	 * 
+	 * @param component See above.
+	 * @param image The image the ROI is on.
+	 * @return See above.
+	 * @throws Exception If an error occurred while parsing the ROI.
+	 */
+	List<ROIData> writeModifiedROI(ROIComponent component, ImageData image)
+		throws Exception
+	{
+		this.component = component;
+		ROIList = new ArrayList<ROIData>();
+		Iterator<ROI> i = component.getROIMap().values().iterator();
+		ROI roi;
+		while (i.hasNext()) {
+			roi = i.next();
+			if (roi.canEdit() && roi.isDirty())
+				ROIList.add(createServerROI(roi, image, true));
+		}
+		return ROIList;
+	}
+
+	/**
+	 * Writes the server side shapes removed from the editable ROIs since
+	 * they were loaded.
+	 * 
+	 * @param component See above.
+	 * @return See above.
+	 * @throws Exception If an error occurred while parsing the shapes.
+	 */
+	List<ShapeData> writeRemovedShapes(ROIComponent component)
+		throws Exception
+	{
+		List<ShapeData> shapes = new ArrayList<ShapeData>();
+		Iterator<ROI> i = component.getROIMap().values().iterator();
+		Iterator<ROIShape> j;
+		ROI roi;
+		while (i.hasNext()) {
+			roi = i.next();
+			if (!roi.canEdit()) continue;
+			j = roi.getRemovedShapes().iterator();
+			while (j.hasNext())
+				shapes.add(createShapeData(j.next()));
+		}
+		return shapes;
+	}
+
 }
\ No newline at end of file
@@ -31,6 +31,7 @@ import org.openmicroscopy.shoola.util.roi.model.ROI;
 
 import omero.gateway.model.ImageData;
 import omero.gateway.model.ROIData;
+import omero.gateway.model.ShapeData;
 
 /**
  * Converts server ROI into the corresponding UI objects.
@@ -96,4 +97,33 @@ public class ServerROIStrategy
 		return outputStrategy.writeROI(component, image, index, userID);
 	}
 
+	/**
+	 * Writes the ROIs created or modified since they were loaded.
+	 * 
+	 * @param component The ROI component.
+	 * @param image The image the ROI is on.
+	 * @return See above.
+	 * @throws Exception 
+	 */
+	public List<ROIData> writeModified(ROIComponent component, ImageData image)
+		throws Exception
+	{
+		if (component.getROIMap().size() == 0)
+			return new ArrayList<ROIData>();
+		return outputStrategy.writeModifiedROI(component, image);
+	}
+
+	/**
+	 * Writes the server side shapes removed since the ROIs were loaded.
+	 * 
+	 * @param component The ROI component.
+	 * @return See above.
+	 * @throws Exception 
+	 */
+	public List<ShapeData> writeRemovedShapes(ROIComponent component)
+		throws Exception
+	{
+		return outputStrategy.writeRemovedShapes(component);
+	}
+
 }
\ No newline at end of file
@@ -24,6 +24,7 @@ package org.openmicroscopy.shoola.util.roi.model;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -102,6 +103,9 @@ public class ROI
 
 	/** An UUID (can be used to link an {@link ROI} to an according {@link ROIData} object)*/
 	private String uuid;
+
+	/** The server side shapes removed from the ROI since it was loaded. */
+	private List<ROIShape> removedShapes;
 	
 	/** 
 	 * Initializes the ROI with id and construct the TreeMap to contain 
@@ -124,6 +128,7 @@ public class ROI
    		this.editable = editable;
 		roiShapes = new TreeMap<Coord3D, ROIShape>(new Coord3D());
 		attachments = new AttachmentMap();
+		removedShapes = new ArrayList<ROIShape>();
 		this.uuid = UUID.randomUUID().toString();
 	}
 	
@@ -428,7 +433,51 @@ public class ROI
 		if (!roiShapes.containsKey(coord))
 			throw new NoSuchROIException("ROI " + id + " does not contain " +
 					"ROIShape on Coord " + coord.toString());
-			roiShapes.remove(coord);
+		ROIShape shape = roiShapes.remove(coord);
+		if (!shape.getFigure().isClientObject() && shape.getROIShapeID() > 0)
+			removedShapes.add(shape);
+	}
+
+	/**
+	 * Returns the server side shapes removed from the ROI since it was
+	 * loaded.
+	 * 
+	 * @return See above.
+	 */
+	public List<ROIShape> getRemovedShapes()
+	{
+		return Collections.unmodifiableList(removedShapes);
+	}
+
+	/**
+	 * Returns <code>true</code> if the ROI has not been saved yet or if
+	 * shapes have been added, modified or removed since it was loaded,
+	 * <code>false</code> otherwise. Only the shapes are tracked: the
+	 * annotations set on the ROI itself are not saved with the ROI and
+	 * the folders are saved separately, so neither marks the ROI dirty.
+	 * 
+	 * @return See above.
+	 */
+	public boolean isDirty()
+	{
+		if (clientSide || !removedShapes.isEmpty()) return true;
+		Iterator<ROIShape> i = roiShapes.values().iterator();
+		while (i.hasNext()) {
+			if (i.next().isDirty()) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Marks the ROI and its shapes as identical to their server side
+	 * representation, e.g. once the ROI has been loaded.
+	 */
+	public void markClean()
+	{
+		removedShapes.clear();
+		Iterator<ROIShape> i = roiShapes.values().iterator();
+		while (i.hasNext())
+			i.next().setDirty(false);
 	}
 
 	/**
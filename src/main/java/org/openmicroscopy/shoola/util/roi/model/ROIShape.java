@@ -81,6 +81,12 @@ public class ROIShape
      * They can only be changed by basicSetAnnotations().
      */
     private Set<AnnotationKey> forbiddenAnnotations;
+
+    /**
+     * Flag indicating that the shape has been modified since it was
+     * loaded from the server.
+     */
+    private boolean dirty;
     
     /**
      * Copies the attributes from one figure to another.
@@ -176,6 +182,30 @@ public class ROIShape
 	 */
     public void setData(ShapeData data) { this.data = data; }
 
+    /**
+     * Returns <code>true</code> if the shape has been created or modified
+     * since it was loaded from the server, <code>false</code> otherwise.
+     *
+     * @return See above.
+     */
+    public boolean isDirty()
+    {
+        return dirty || figure.isDirty() || figure.isClientObject();
+    }
+
+    /**
+     * Marks the shape as modified. Passing <code>false</code> also resets
+     * the flag of the figure e.g. once the shape has been loaded.
+     *
+     * @param dirty Pass <code>true</code> if the shape has been modified,
+     *              <code>false</code> otherwise.
+     */
+    public void setDirty(boolean dirty)
+    {
+        this.dirty = dirty;
+        if (!dirty) figure.setObjectDirty(false);
+    }
+
 	/**
 	 * Get the id of the ROI the ROIShape belongs to.
 	 * @return see above.
@@ -0,0 +1,297 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.agents.dataBrowser;
+
+//Java imports
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.gateway.model.AnnotationData;
+import omero.gateway.model.DataObject;
+import omero.gateway.model.DatasetData;
+import omero.gateway.model.ImageData;
+import omero.gateway.model.RatingAnnotationData;
+import omero.gateway.model.TagAnnotationData;
+import omero.gateway.model.TextualAnnotationData;
+import omero.model.ExperimenterI;
+
+/**
+ * Unit test for {@link AnnotationIndex}.
+ *
+ * @since 5.8.5
+ */
+public class TestAnnotationIndex
+    extends TestCase
+{
+
+    /** The id of the user currently logged in. */
+    private static final long USER = 1;
+
+    /** The id of another user. */
+    private static final long OTHER = 2;
+
+    /** The indexed images. */
+    private List<DataObject> images;
+
+    /** The index to test. */
+    private AnnotationIndex index;
+
+    /**
+     * Creates an image.
+     *
+     * @param id The id of the image.
+     * @return See above.
+     */
+    private static ImageData image(long id)
+    {
+        ImageData image = new ImageData();
+        image.setId(id);
+        return image;
+    }
+
+    /**
+     * Creates a rating owned by the specified user.
+     *
+     * @param level The rating.
+     * @param ownerID The id of the owner.
+     * @return See above.
+     */
+    private static RatingAnnotationData rating(int level, long ownerID)
+    {
+        RatingAnnotationData rating = new RatingAnnotationData(level);
+        rating.asIObject().getDetails().setOwner(
+                new ExperimenterI(ownerID, false));
+        return rating;
+    }
+
+    /**
+     * Returns the passed annotations as a list.
+     *
+     * @param annotations The annotations.
+     * @return See above.
+     */
+    private static Collection<AnnotationData> list(
+            AnnotationData... annotations)
+    {
+        return new ArrayList<AnnotationData>(Arrays.asList(annotations));
+    }
+
+    /**
+     * Returns the ids of the images selected by the specified set.
+     *
+     * @param set The set returned by one of the filtering methods.
+     * @return See above.
+     */
+    private List<Long> select(BitSet set)
+    {
+        List<Long> ids = new ArrayList<Long>();
+        for (DataObject data : index.select(set, images))
+            ids.add(data.getId());
+        return ids;
+    }
+
+    /**
+     * Indexes the specified annotations as the loader does.
+     *
+     * @param annotations The annotations of each node.
+     */
+    private void load(Map<Long, Collection<AnnotationData>> annotations)
+    {
+        List<Long> ids = new ArrayList<Long>(annotations.keySet());
+        index.index(ids, index.getVersions(ids), annotations);
+    }
+
+    /**
+     * Indexes the annotations of the images:
+     * <ul>
+     * <li>10: tag "a", comment "Hello world", rated 4 by the user.</li>
+     * <li>20: tags "a" and "b", rated 5 by another user.</li>
+     * <li>30: comment "bye", rated 2 by the user.</li>
+     * <li>40: no annotations.</li>
+     * </ul>
+     */
+    private void loadAll()
+    {
+        Map<Long, Collection<AnnotationData>> m =
+                new HashMap<Long, Collection<AnnotationData>>();
+        m.put(10L, list(new TagAnnotationData("a"),
+                new TextualAnnotationData("Hello world"), rating(4, USER)));
+        m.put(20L, list(new TagAnnotationData("a"),
+                new TagAnnotationData("b"), rating(5, OTHER)));
+        m.put(30L, list(new TextualAnnotationData("bye"), rating(2, USER)));
+        m.put(40L, list());
+        load(m);
+    }
+
+    /**
+     * Creates the index.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+    {
+        images = new ArrayList<DataObject>();
+        images.add(image(30));
+        images.add(image(10));
+        images.add(image(40));
+        images.add(image(20));
+        images.add(image(10));
+        index = new AnnotationIndex(images, USER);
+    }
+
+    /** Tests that an index cannot be built without nodes. */
+    public void testNoNodes()
+    {
+        try {
+            new AnnotationIndex(new ArrayList<DataObject>(), USER);
+            fail("An index requires nodes.");
+        } catch (IllegalArgumentException e) {}
+        try {
+            new AnnotationIndex(null, USER);
+            fail("An index requires nodes.");
+        } catch (IllegalArgumentException e) {}
+    }
+
+    /** Tests the nodes of a new index. */
+    public void testBuild()
+    {
+        assertEquals(ImageData.class, index.getNodeType());
+        assertTrue(index.contains(images));
+        assertTrue(index.contains(Arrays.<DataObject>asList(image(20))));
+        assertFalse(index.contains(Arrays.<DataObject>asList(image(50))));
+        DatasetData dataset = new DatasetData();
+        dataset.setId(10);
+        assertFalse(index.contains(Arrays.<DataObject>asList(dataset)));
+        assertFalse(index.isLoaded(images));
+        assertEquals(Arrays.asList(10L, 20L, 30L, 40L), index.getStaleIds());
+        assertTrue(select(index.filterByTags(null)).isEmpty());
+    }
+
+    /** Tests the filters once the annotations are indexed. */
+    public void testIndex()
+    {
+        loadAll();
+        assertTrue(index.isLoaded(images));
+        assertTrue(index.getStaleIds().isEmpty());
+        assertEquals(Arrays.asList(10L, 10L),
+                select(index.filterByRate(RateFilter.RATE_FOUR)));
+        assertEquals(Arrays.asList(30L, 10L, 10L),
+                select(index.filterByRate(RateFilter.RATE_TWO)));
+        assertEquals(Arrays.asList(40L),
+                select(index.filterByRate(RateFilter.UNRATED)));
+        assertEquals(Arrays.asList(10L, 20L, 10L),
+                select(index.filterByTags(Arrays.asList("a"))));
+        assertEquals(Arrays.asList(20L),
+                select(index.filterByTags(Arrays.asList("b", "c"))));
+        assertEquals(Arrays.asList(10L, 20L, 10L),
+                select(index.filterByTags(null)));
+        assertEquals(Arrays.asList(10L, 10L),
+                select(index.filterByComments(Arrays.asList("world"))));
+        assertEquals(Arrays.asList(30L, 10L, 10L),
+                select(index.filterByComments(null)));
+        assertEquals(Arrays.asList(30L, 40L),
+                select(index.filterByAnnotated(TagAnnotationData.class,
+                        false)));
+        assertEquals(Arrays.asList(30L, 10L, 10L),
+                select(index.filterByAnnotated(TextualAnnotationData.class,
+                        true)));
+    }
+
+    /** Tests the update of the index when an annotation is added. */
+    public void testAnnotationAdded()
+    {
+        loadAll();
+        List<DataObject> annotated = Arrays.<DataObject>asList(image(40));
+        assertEquals(Arrays.asList(40L), index.invalidate(annotated));
+        assertFalse(index.isLoaded(annotated));
+        assertFalse(index.isLoaded(images));
+        assertEquals(Arrays.asList(40L), index.getStaleIds());
+        Map<Long, Collection<AnnotationData>> m =
+                new HashMap<Long, Collection<AnnotationData>>();
+        m.put(40L, list(new TagAnnotationData("b"),
+                new TextualAnnotationData("new")));
+        load(m);
+        assertTrue(index.isLoaded(images));
+        assertEquals(Arrays.asList(40L, 20L),
+                select(index.filterByTags(Arrays.asList("b"))));
+        assertEquals(Arrays.asList(40L),
+                select(index.filterByComments(Arrays.asList("new"))));
+        assertEquals(Arrays.asList(40L),
+                select(index.filterByRate(RateFilter.UNRATED)));
+    }
+
+    /** Tests the update of the index when annotations are removed. */
+    public void testAnnotationRemoved()
+    {
+        loadAll();
+        List<DataObject> annotated = Arrays.<DataObject>asList(image(20));
+        index.invalidate(annotated);
+        Map<Long, Collection<AnnotationData>> m =
+                new HashMap<Long, Collection<AnnotationData>>();
+        m.put(20L, list(new TagAnnotationData("a")));
+        load(m);
+        assertTrue(select(index.filterByTags(Arrays.asList("b"))).isEmpty());
+        assertEquals(Arrays.asList(10L, 20L, 10L),
+                select(index.filterByTags(Arrays.asList("a"))));
+        assertEquals(Arrays.asList(40L, 20L),
+                select(index.filterByRate(RateFilter.UNRATED)));
+        index.invalidate(annotated);
+        m.put(20L, Collections.<AnnotationData>emptyList());
+        load(m);
+        assertEquals(Arrays.asList(10L, 10L),
+                select(index.filterByTags(null)));
+    }
+
+    /**
+     * Tests that the annotations loaded before a node is invalidated are
+     * not indexed.
+     */
+    public void testStaleResultSkipped()
+    {
+        loadAll();
+        List<Long> ids = Arrays.asList(30L);
+        int[] versions = index.getVersions(ids);
+        List<DataObject> annotated = Arrays.<DataObject>asList(image(30));
+        index.invalidate(annotated);
+        Map<Long, Collection<AnnotationData>> m =
+                new HashMap<Long, Collection<AnnotationData>>();
+        m.put(30L, list(new TagAnnotationData("c")));
+        index.index(ids, versions, m);
+        assertFalse(index.isLoaded(annotated));
+        assertEquals(Arrays.asList(30L), index.getStaleIds());
+        assertTrue(select(index.filterByTags(Arrays.asList("c"))).isEmpty());
+        load(m);
+        assertTrue(index.isLoaded(annotated));
+        assertEquals(Arrays.asList(30L),
+                select(index.filterByTags(Arrays.asList("c"))));
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.agents.dataBrowser;
+
+//Java imports
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.util.image.geom.Factory;
+
+/**
+ * Unit test for {@link ThumbnailPyramid}.
+ *
+ * @since 5.8.5
+ */
+public class TestThumbnailPyramid
+    extends TestCase
+{
+
+    /** A pyramid whose levels cannot be computed. */
+    private static class FailingPyramid
+        extends ThumbnailPyramid
+    {
+
+        FailingPyramid(BufferedImage source) { super(source, null); }
+
+        void build() { throw new OutOfMemoryError(); }
+
+    }
+
+    /**
+     * Creates an image of the specified size.
+     *
+     * @param w The width of the image.
+     * @param h The height of the image.
+     * @return See above.
+     */
+    private static BufferedImage createImage(int w, int h)
+    {
+        return new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Creates and builds a pyramid for the specified image.
+     *
+     * @param img The thumbnail.
+     * @return See above.
+     */
+    private static ThumbnailPyramid build(BufferedImage img)
+    {
+        ThumbnailPyramid p = new ThumbnailPyramid(img, null);
+        assertTrue(p.tryBuild());
+        return p;
+    }
+
+    /** Tests the level an image is derived from. */
+    public void testLevelIndex()
+    {
+        assertEquals(0, ThumbnailPyramid.getLevelIndex(0.1));
+        assertEquals(0, ThumbnailPyramid.getLevelIndex(0.25));
+        assertEquals(1, ThumbnailPyramid.getLevelIndex(0.3));
+        assertEquals(1, ThumbnailPyramid.getLevelIndex(0.5));
+        assertEquals(2, ThumbnailPyramid.getLevelIndex(0.6));
+        assertEquals(2, ThumbnailPyramid.getLevelIndex(0.75));
+        assertEquals(3, ThumbnailPyramid.getLevelIndex(0.9));
+        assertEquals(3, ThumbnailPyramid.getLevelIndex(1.0));
+        assertEquals(3, ThumbnailPyramid.getLevelIndex(2.0));
+    }
+
+    /** Tests that the levels are returned as is for the fixed factors. */
+    public void testImageAtLevel()
+    {
+        BufferedImage img = createImage(96, 64);
+        ThumbnailPyramid p = build(img);
+        BufferedImage level;
+        Dimension d;
+        for (int i = 0; i < ThumbnailPyramid.LEVELS.length; i++) {
+            level = p.getImage(ThumbnailPyramid.LEVELS[i]);
+            assertTrue(p.isLevel(level));
+            assertSame(level, p.getImage(ThumbnailPyramid.LEVELS[i]));
+            d = ThumbnailPyramid.getScaledSize(img, ThumbnailPyramid.LEVELS[i]);
+            assertEquals(d.width, level.getWidth());
+            assertEquals(d.height, level.getHeight());
+        }
+        assertSame(img, p.getImage(1.0));
+    }
+
+    /** Tests the images derived from the levels for other factors. */
+    public void testImageBetweenLevels()
+    {
+        BufferedImage img = createImage(96, 64);
+        ThumbnailPyramid p = build(img);
+        double[] factors = {0.1, 0.3, 0.6, 0.9, 1.5};
+        BufferedImage derived;
+        Dimension d;
+        for (int i = 0; i < factors.length; i++) {
+            derived = p.getImage(factors[i]);
+            assertFalse(p.isLevel(derived));
+            d = ThumbnailPyramid.getScaledSize(img, factors[i]);
+            assertEquals(d.width, derived.getWidth());
+            assertEquals(d.height, derived.getHeight());
+        }
+    }
+
+    /**
+     * Tests that the size of the images matches the size of the images
+     * resampled on demand.
+     */
+    public void testScaledSize()
+    {
+        int[][] sizes = {{96, 64}, {64, 96}, {97, 33}, {1, 1}, {5, 120}};
+        double[] factors = {0.1, 0.25, 0.3, 0.33, 0.5, 0.6, 0.75, 0.9,
+                1.0, 1.7};
+        BufferedImage img, magnified;
+        Dimension d;
+        for (int i = 0; i < sizes.length; i++) {
+            for (int j = 0; j < factors.length; j++) {
+                img = createImage(sizes[i][0], sizes[i][1]);
+                d = ThumbnailPyramid.getScaledSize(img, factors[j]);
+                magnified = Factory.magnifyImage(factors[j], img);
+                assertEquals(magnified.getWidth(), d.width);
+                assertEquals(magnified.getHeight(), d.height);
+            }
+        }
+    }
+
+    /**
+     * Tests that a pyramid that cannot be built leaves the provider
+     * resampling the thumbnail on demand.
+     */
+    public void testBuildFailure()
+    {
+        ThumbnailPyramid p = new FailingPyramid(createImage(96, 64));
+        assertFalse(p.tryBuild());
+        assertFalse(p.isBuilt());
+        assertNull(p.getImage(0.5));
+        assertEquals(0, p.getMemoryUsage());
+    }
+
+    /** Tests the release of the levels. */
+    public void testFlush()
+    {
+        BufferedImage img = createImage(96, 64);
+        ThumbnailPyramid p = build(img);
+        assertTrue(p.getMemoryUsage() > 0);
+        p.flush();
+        assertFalse(p.isBuilt());
+        assertNull(p.getImage(0.5));
+        assertEquals(0, p.getMemoryUsage());
+        assertSame(img, p.getSource());
+    }
+
+}
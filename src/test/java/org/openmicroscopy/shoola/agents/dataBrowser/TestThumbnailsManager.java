@@ -0,0 +1,226 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.agents.dataBrowser;
+
+//Java imports
+import java.util.Arrays;
+import java.util.Iterator;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.gateway.model.ImageData;
+
+/**
+ * Unit test for the memory accounting of {@link ThumbnailsManager}.
+ *
+ * @since 5.8.5
+ */
+public class TestThumbnailsManager
+    extends TestCase
+{
+
+    /** The memory budget used by the tests in bytes. */
+    private static final long BUDGET = 100;
+
+    /** A provider whose memory usage is set by the tests. */
+    private static class FakeProvider
+        extends ThumbnailProvider
+    {
+
+        /** The memory used in bytes. */
+        private long bytes;
+
+        /** The memory still used once evicted e.g. the compressed copy. */
+        private final long evictedBytes;
+
+        /** Flag indicating if the provider is displayed. */
+        private boolean onScreen;
+
+        /** The number of times the images have been evicted. */
+        private int evictions;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param bytes The memory used in bytes.
+         * @param evictedBytes The memory still used once evicted.
+         */
+        FakeProvider(long bytes, long evictedBytes)
+        {
+            super(new ImageData());
+            this.bytes = bytes;
+            this.evictedBytes = evictedBytes;
+        }
+
+        /**
+         * Sets the memory used, as if the images were loaded again.
+         *
+         * @param bytes The memory used in bytes.
+         */
+        void reload(long bytes)
+        {
+            this.bytes = bytes;
+            ThumbnailsManager.account(this);
+        }
+
+        boolean isOnScreen() { return onScreen; }
+
+        long getMemoryUsage() { return bytes; }
+
+        void evict()
+        {
+            evictions++;
+            bytes = evictedBytes;
+        }
+
+    }
+
+    /**
+     * Creates a provider and accounts for its memory.
+     *
+     * @param bytes The memory used in bytes.
+     * @param evictedBytes The memory still used once evicted.
+     * @return See above.
+     */
+    private static FakeProvider add(long bytes, long evictedBytes)
+    {
+        FakeProvider p = new FakeProvider(bytes, evictedBytes);
+        ThumbnailsManager.account(p);
+        return p;
+    }
+
+    /**
+     * Asserts that the providers are accounted for in the specified order,
+     * the least recently used first.
+     *
+     * @param expected The expected providers.
+     */
+    private static void assertResident(ThumbnailProvider... expected)
+    {
+        assertEquals(Arrays.asList(expected),
+                ThumbnailsManager.getResidentProviders());
+    }
+
+    @Override
+    protected void setUp()
+    {
+        ThumbnailsManager.setMemoryBudget(BUDGET);
+    }
+
+    @Override
+    protected void tearDown()
+    {
+        Iterator<ThumbnailProvider> i =
+                ThumbnailsManager.getResidentProviders().iterator();
+        while (i.hasNext())
+            ThumbnailsManager.release(i.next());
+        ThumbnailsManager.setMemoryBudget(-1);
+    }
+
+    /** Tests that nothing is evicted within the budget. */
+    public void testWithinBudget()
+    {
+        FakeProvider a = add(40, 0);
+        FakeProvider b = add(60, 0);
+        assertEquals(100, ThumbnailsManager.getMemoryUsage());
+        assertEquals(0, a.evictions);
+        assertEquals(0, b.evictions);
+        assertResident(a, b);
+        ThumbnailsManager.release(a);
+        assertEquals(60, ThumbnailsManager.getMemoryUsage());
+        assertResident(b);
+    }
+
+    /**
+     * Tests that the least recently used providers are evicted first
+     * until the usage is below the low watermark.
+     */
+    public void testEvictionOrder()
+    {
+        FakeProvider a = add(20, 0);
+        FakeProvider b = add(40, 0);
+        FakeProvider c = add(50, 0);
+        //a and b evicted: 90 is still above the low watermark.
+        assertEquals(1, a.evictions);
+        assertEquals(1, b.evictions);
+        assertEquals(0, c.evictions);
+        assertEquals(50, ThumbnailsManager.getMemoryUsage());
+        assertResident(c);
+    }
+
+    /** Tests that a touched provider is evicted after the others. */
+    public void testTouchDelaysEviction()
+    {
+        FakeProvider a = add(20, 0);
+        FakeProvider b = add(40, 0);
+        ThumbnailsManager.touch(a);
+        assertResident(b, a);
+        FakeProvider c = add(50, 0);
+        assertEquals(0, a.evictions);
+        assertEquals(1, b.evictions);
+        assertEquals(70, ThumbnailsManager.getMemoryUsage());
+        assertResident(a, c);
+    }
+
+    /** Tests that the providers on screen are never evicted. */
+    public void testOnScreenKept()
+    {
+        FakeProvider a = add(40, 0);
+        a.onScreen = true;
+        FakeProvider b = add(30, 0);
+        FakeProvider c = add(40, 0);
+        assertEquals(0, a.evictions);
+        assertEquals(1, b.evictions);
+        assertEquals(0, c.evictions);
+        assertEquals(80, ThumbnailsManager.getMemoryUsage());
+        assertResident(a, c);
+    }
+
+    /**
+     * Tests that the providers keeping memory once evicted keep their
+     * position in the access order and move to the most recently used
+     * end when loaded again.
+     */
+    public void testAccessOrderOfReloadedProviders()
+    {
+        FakeProvider a = add(30, 5);
+        FakeProvider b = add(30, 5);
+        FakeProvider c = add(50, 0);
+        assertEquals(1, a.evictions);
+        assertEquals(1, b.evictions);
+        assertEquals(60, ThumbnailsManager.getMemoryUsage());
+        assertResident(a, b, c);
+        a.reload(30);
+        assertEquals(85, ThumbnailsManager.getMemoryUsage());
+        assertResident(b, c, a);
+        //b is the least recently used one.
+        FakeProvider d = add(30, 0);
+        assertEquals(2, b.evictions);
+        assertEquals(1, c.evictions);
+        assertEquals(1, a.evictions);
+        assertEquals(65, ThumbnailsManager.getMemoryUsage());
+        assertResident(b, a, d);
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.agents.dataBrowser.browser;
+
+
+//Java imports
+import java.util.BitSet;
+import java.util.regex.Pattern;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+
+/**
+ * Verifies that the candidates returned by {@link NameIndex} include every
+ * value found by a plain scan with {@link java.util.regex.Matcher#find()}.
+ *
+ * @since 5.8.5
+ */
+public class TestNameIndex
+    extends TestCase
+{
+
+    /** The indexed values. */
+    private static final String[] VALUES = {
+        "plate 1", "Plate_12", "A1 well", "ABC", "abc abc", "x.tif",
+        "x-tif", "image\t01", "image 01", "a+b", "aab", "ab", "b",
+        "1536 wells", "well A01 field 3", "tab\tseparated", "Ab\u00e9c",
+        "ctrl\u0001char", "foo(bar)", "[screen] 7", "foo", "foofoo",
+        "line one\nline two", "", null
+    };
+
+    /** Patterns with escapes, checked against a plain scan. */
+    private static final String[] ESCAPES = {
+        "\\x41", "\\x41b", "\\u0041BC", "\\0101BC", "\\cA", "ctrl\\cAchar",
+        "image\\t01", "tab\\tsep", "\\Qx.tif\\E", "x\\.tif", "a\\+b",
+        "(foo)\\1", "(?<f>foo)\\k<f>", "\\d+ wells", "well\\s+a\\d\\d",
+        "\\bwell\\b", "\\w+\\s\\w+", "\\p{L}b\\p{L}c", "foo\\(bar\\)",
+        "\\[screen\\]", "line\\Rline", "\\Aplate", "wells\\z", "\\e",
+        "ab\\u00e9c"
+    };
+
+    /** Patterns with quantifiers, checked against a plain scan. */
+    private static final String[] QUANTIFIERS = {
+        "a*b", "a+b", "aa?b", "plate_1{2}", "plate_12{0,3}", "ab*c",
+        "abc+", "abc*?", "abc++", "a{2}b", "(abc )*abc", "x.?tif",
+        "ima?ge", "wel+", "well{0}", "[abc]+ abc", "fo{2}fo{2}"
+    };
+
+    /** Patterns with anchors, checked against a plain scan. */
+    private static final String[] ANCHORS = {
+        "^plate", "^Plate_1", "tif$", "^abc$", "^a", "^", "$", "^$",
+        "(?m)^line two", "^(?i)PLATE", "^foo(bar)?", "^ab?c", "^.bc",
+        "^image\\s", "^[sS]creen"
+    };
+
+    /** Other constructs, checked against a plain scan. */
+    private static final String[] OTHERS = {
+        "abc|plate", "(?i)ABC", "(?x) a b c", "(?-x)abc", "a b c",
+        "plate (1|2)", "[a-c]{3}", "(?:foo)bar", "(?=foo)foo", "f.o",
+        "x.tif", "well A01"
+    };
+
+    /**
+     * Checks that the candidates of the pattern include every value found
+     * by a plain scan.
+     *
+     * @param pattern The pattern to check.
+     */
+    private void assertNoFalseNegative(Pattern pattern)
+    {
+        BitSet candidates = NameIndex.getCandidates(VALUES, pattern);
+        String value;
+        for (int i = 0; i < VALUES.length; i++) {
+            if (VALUES[i] == null) continue;
+            value = VALUES[i].trim();
+            if (pattern.matcher(value).find())
+                assertTrue("'"+pattern+"' should match '"+value+"'",
+                        candidates.get(i));
+        }
+    }
+
+    /**
+     * Checks the specified patterns, case sensitive and insensitive.
+     *
+     * @param patterns The patterns to check.
+     */
+    private void assertNoFalseNegatives(String[] patterns)
+    {
+        for (int i = 0; i < patterns.length; i++) {
+            assertNoFalseNegative(Pattern.compile(patterns[i]));
+            assertNoFalseNegative(Pattern.compile(patterns[i],
+                    Pattern.CASE_INSENSITIVE));
+        }
+    }
+
+    public void testEscapes()
+    {
+        assertNoFalseNegatives(ESCAPES);
+    }
+
+    public void testQuantifiers()
+    {
+        assertNoFalseNegatives(QUANTIFIERS);
+    }
+
+    public void testAnchors()
+    {
+        assertNoFalseNegatives(ANCHORS);
+        assertNoFalseNegative(Pattern.compile("^line two",
+                Pattern.MULTILINE));
+    }
+
+    public void testOtherConstructs()
+    {
+        assertNoFalseNegatives(OTHERS);
+        assertNoFalseNegative(Pattern.compile("a b c", Pattern.COMMENTS));
+        assertNoFalseNegative(Pattern.compile("x.tif", Pattern.LITERAL));
+    }
+
+    public void testLiteralsNarrowTheCandidates()
+    {
+        BitSet candidates = NameIndex.getCandidates(VALUES,
+                Pattern.compile("plate"));
+        assertEquals(2, candidates.cardinality());
+        assertTrue(candidates.get(0));
+        assertTrue(candidates.get(1));
+        candidates = NameIndex.getCandidates(VALUES,
+                Pattern.compile("^well"));
+        assertEquals(1, candidates.cardinality());
+        assertTrue(candidates.get(14));
+    }
+
+    public void testUnsupportedEscapeScansEverything()
+    {
+        BitSet candidates = NameIndex.getCandidates(VALUES,
+                Pattern.compile("\\x41BC"));
+        assertEquals(VALUES.length, candidates.cardinality());
+    }
+
+}
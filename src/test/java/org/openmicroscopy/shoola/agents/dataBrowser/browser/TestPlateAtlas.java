@@ -0,0 +1,116 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.agents.dataBrowser.browser;
+
+
+//Java imports
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+
+/**
+ * Verifies that {@link PlateAtlas} only allocates the tiles hosting a
+ * thumbnail and returns views on the pixels of those tiles.
+ *
+ * @since 5.8.5
+ */
+public class TestPlateAtlas
+    extends TestCase
+{
+
+    /** The size of a cell. */
+    private static final int CELL = 4;
+
+    /**
+     * Creates a thumbnail filled with the specified color.
+     *
+     * @param rgb The color.
+     * @return See above.
+     */
+    private BufferedImage createThumbnail(int rgb)
+    {
+        BufferedImage img = new BufferedImage(CELL, CELL,
+                BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < CELL; x++)
+            for (int y = 0; y < CELL; y++)
+                img.setRGB(x, y, rgb);
+        return img;
+    }
+
+    /** Tests that only the tiles hosting a thumbnail are allocated. */
+    public void testTilesAllocatedOnDemand()
+    {
+        PlateAtlas atlas = new PlateAtlas(32, 48, CELL, CELL);
+        assertEquals(0, atlas.getAllocatedTiles());
+        BufferedImage a = atlas.setThumbnail(0, 0, createThumbnail(0xffff0000));
+        BufferedImage b = atlas.setThumbnail(1, 1, createThumbnail(0xff00ff00));
+        assertEquals(1, atlas.getAllocatedTiles());
+        BufferedImage c = atlas.setThumbnail(31, 47,
+                createThumbnail(0xff0000ff));
+        assertEquals(2, atlas.getAllocatedTiles());
+        assertSame(a.getRaster().getParent(), b.getRaster().getParent());
+        assertNotSame(a.getRaster().getParent(), c.getRaster().getParent());
+    }
+
+    /** Tests that a view returns the pixels of its thumbnail. */
+    public void testViewPixels()
+    {
+        PlateAtlas atlas = new PlateAtlas(10, 10, CELL, CELL);
+        BufferedImage a = atlas.setThumbnail(9, 9, createThumbnail(0xff123456));
+        atlas.setThumbnail(8, 9, createThumbnail(0xff654321));
+        assertEquals(CELL, a.getWidth());
+        assertEquals(CELL, a.getHeight());
+        assertEquals(0xff123456, a.getRGB(0, 0));
+        assertEquals(0xff123456, a.getRGB(CELL-1, CELL-1));
+        BufferedImage tile = new BufferedImage(a.getColorModel(),
+                (WritableRaster) a.getRaster().getParent(),
+                false, null);
+        assertEquals(2*CELL, tile.getWidth());
+        assertEquals(2*CELL, tile.getHeight());
+    }
+
+    /** Tests that a thumbnail bigger than a cell is returned unchanged. */
+    public void testThumbnailTooBig()
+    {
+        PlateAtlas atlas = new PlateAtlas(2, 2, CELL, CELL);
+        BufferedImage img = new BufferedImage(CELL+1, CELL,
+                BufferedImage.TYPE_INT_ARGB);
+        assertSame(img, atlas.setThumbnail(0, 0, img));
+        assertEquals(0, atlas.getAllocatedTiles());
+    }
+
+    /** Tests that flushing the atlas releases the tiles. */
+    public void testFlush()
+    {
+        PlateAtlas atlas = new PlateAtlas(2, 2, CELL, CELL);
+        atlas.setThumbnail(0, 0, createThumbnail(0xffff0000));
+        atlas.setTileRequested(0);
+        atlas.flush();
+        assertEquals(0, atlas.getAllocatedTiles());
+        assertFalse(atlas.isTileRequested(0));
+    }
+
+}
@@ -33,6 +33,8 @@ import omero.api.StatefulServiceInterfacePrx;
 
 import omero.gateway.model.FolderData;
 import org.openmicroscopy.shoola.env.data.model.DeletableObject;
+import org.openmicroscopy.shoola.env.data.util.IdentityMap;
+import org.openmicroscopy.shoola.env.data.util.SearchCursor;
 import org.openmicroscopy.shoola.env.data.util.SearchDataContext;
 
 import omero.gateway.Gateway;
@@ -298,6 +300,18 @@ public class NullOmeroPojoService
 
 	/**
      * No-operation implementation
+     * @see OmeroDataService#loadContainerLeaves(SecurityContext, Class, long,
+     * int, int)
+     */
+	public Collection<ImageData> loadContainerLeaves(SecurityContext ctx,
+		Class rootNodeType, long rootNodeID, int offset, int limit)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		return null;
+	}
+
+	/**
+     * No-operation implementation
      * @see OmeroDataService#loadExistingObjects(Class, List, long)
      */
 	public Set loadExistingObjects(SecurityContext ctx, Class nodeType,
@@ -496,7 +510,27 @@ public class NullOmeroPojoService
             return null;
         }
 
+        /**
+         * No-operation implementation
+         * @see OmeroDataService#openSearch(SecurityContext, SearchParameters, int)
+         */
+        public SearchCursor openSearch(SecurityContext ctx,
+                SearchParameters context, int pageSize)
+                throws DSOutOfServiceException, DSAccessException {
+            return null;
+        }
+
         public Gateway getGateway() {
             return null;
         }
+
+	/**
+     * No-operation implementation
+     * @see OmeroDataService#getIdentityMap()
+     */
+	public IdentityMap getIdentityMap()
+	{
+		return null;
+	}
+
 }
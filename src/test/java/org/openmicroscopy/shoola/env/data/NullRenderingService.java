@@ -55,6 +55,7 @@ import omero.gateway.model.DataObject;
 import omero.gateway.model.ImageData;
 import omero.gateway.model.PixelsData;
 import omero.gateway.model.ROIData;
+import omero.gateway.model.ShapeData;
 
 
 /** 
@@ -355,6 +356,17 @@ public class NullRenderingService
 
 	/**
      * No-op implementation
+     * @see OmeroImageService#saveROIChanges(SecurityContext, long, List, List)
+     */
+	public List<ROIData> saveROIChanges(SecurityContext ctx, long imageID,
+		List<ROIData> list, List<ShapeData> toDelete)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		return null;
+	}
+
+	/**
+     * No-op implementation
      * @see OmeroImageService#loadROIFromServer(long, long)
      */
 	public List<ROIResult> loadROIFromServer(SecurityContext ctx, long imageID,
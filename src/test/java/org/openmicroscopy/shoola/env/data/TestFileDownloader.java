@@ -0,0 +1,323 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import ome.util.checksum.ChecksumProviderFactoryImpl;
+import omero.api.RawFileStorePrx;
+
+/**
+ * Verifies that {@link FileDownloader} downloads a file in ranges, resumes
+ * an interrupted download and checks the hash of the file.
+ *
+ * @since 5.8.5
+ */
+public class TestFileDownloader
+    extends TestCase
+{
+
+    /** The identifier of the file. */
+    private static final long FILE_ID = 7L;
+
+    /** The number of bytes read per call. */
+    private static final int BLOCK_SIZE = 1024*1024;
+
+    /** The size of the file, three ranges. */
+    private static final long SIZE = 2L*FileDownloader.RANGE_SIZE+1000;
+
+    /** The file to write. */
+    private File file;
+
+    /** The journal of the file. */
+    private File journal;
+
+    /**
+     * Returns the value of the byte at the specified position of the file.
+     *
+     * @param offset The position.
+     * @return See above.
+     */
+    private static byte valueOf(long offset)
+    {
+        return (byte) (offset*13+offset/FileDownloader.RANGE_SIZE);
+    }
+
+    /**
+     * Returns the SHA1 hash of the content returned by
+     * {@link #valueOf(long)} for a file of the specified size.
+     *
+     * @param size The size of the file.
+     * @return See above.
+     * @throws Exception If the hash couldn't be computed.
+     */
+    private static String hashOf(long size)
+        throws Exception
+    {
+        MessageDigest md = MessageDigest.getInstance("SHA-1");
+        for (long i = 0; i < size; i++)
+            md.update(valueOf(i));
+        StringBuilder sb = new StringBuilder();
+        for (byte b : md.digest())
+            sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+
+    /**
+     * Downloader reading the content returned by {@link #valueOf(long)}
+     * with stores which only return the size of the file.
+     */
+    private static class FakeDownloader
+        extends FileDownloader
+    {
+
+        /** The size of the file. */
+        private final long size;
+
+        /** The range the reads fail for, <code>-1</code> if none. */
+        private final int failure;
+
+        /** The ranges read. */
+        final Set<Long> read =
+                Collections.synchronizedSet(new HashSet<Long>());
+
+        /** The number of stores not closed yet. */
+        int open;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param file The file to write.
+         * @param hash The hash of the file or <code>null</code>.
+         * @param size The size of the file.
+         * @param sessions The number of stores.
+         * @param failure The range the reads fail for, <code>-1</code> if
+         *                none.
+         */
+        FakeDownloader(File file, String hash, long size, int sessions,
+                int failure)
+        {
+            super(null, null, FILE_ID, file, hash, sessions, BLOCK_SIZE,
+                    new ChecksumProviderFactoryImpl());
+            this.size = size;
+            this.failure = failure;
+        }
+
+        /** Overridden to return a store returning the size of the file. */
+        synchronized RawFileStorePrx createStore()
+        {
+            open++;
+            return (RawFileStorePrx) Proxy.newProxyInstance(
+                    RawFileStorePrx.class.getClassLoader(),
+                    new Class<?>[] {RawFileStorePrx.class},
+                    new InvocationHandler() {
+                        public Object invoke(Object proxy, Method m,
+                                Object[] args) {
+                            String name = m.getName();
+                            if (name.equals("size")) return size;
+                            else if (name.equals("hashCode"))
+                                return System.identityHashCode(proxy);
+                            else if (name.equals("equals"))
+                                return proxy == args[0];
+                            else if (name.equals("toString"))
+                                return "store";
+                            return null;
+                        }
+                    });
+        }
+
+        /** Overridden to return the content of the file. */
+        byte[] read(RawFileStorePrx store, long offset, int length)
+            throws Exception
+        {
+            long range = offset/FileDownloader.RANGE_SIZE;
+            if (range == failure) throw new IOException("Read failed.");
+            read.add(range);
+            byte[] data = new byte[length];
+            for (int i = 0; i < length; i++)
+                data[i] = valueOf(offset+i);
+            return data;
+        }
+
+        /** Overridden to count the stores closed. */
+        synchronized void close(RawFileStorePrx store) { open--; }
+    }
+
+    /**
+     * Checks the content of the file.
+     *
+     * @param size The size of the file.
+     * @throws IOException If the file couldn't be read.
+     */
+    private void check(long size)
+        throws IOException
+    {
+        assertEquals(size, file.length());
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buf = new byte[64*1024];
+            long offset = 0;
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                for (int i = 0; i < n; i++, offset++) {
+                    if (buf[i] != valueOf(offset))
+                        fail("Wrong byte at "+offset);
+                }
+            }
+            assertEquals(size, offset);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Sets up the file to write.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+        throws Exception
+    {
+        file = File.createTempFile("TestFileDownloader", ".bin");
+        file.delete();
+        journal = new File(file.getPath()+FileDownloader.JOURNAL_EXTENSION);
+    }
+
+    /**
+     * Deletes the file and the journal.
+     * @see TestCase#tearDown()
+     */
+    protected void tearDown()
+    {
+        file.delete();
+        journal.delete();
+    }
+
+    /**
+     * Tests a download over several stores with the hash of the file.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testDownload()
+        throws Exception
+    {
+        FakeDownloader d = new FakeDownloader(file, hashOf(SIZE), SIZE, 3, -1);
+        assertEquals(file, d.download());
+        check(SIZE);
+        assertFalse(journal.exists());
+        assertEquals(0, d.open);
+    }
+
+    /**
+     * Tests that a failed download keeps the completed ranges and that the
+     * next download only fetches the missing ones.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testResume()
+        throws Exception
+    {
+        String hash = hashOf(SIZE);
+        FakeDownloader d = new FakeDownloader(file, hash, SIZE, 1, 1);
+        try {
+            d.download();
+            fail("The download should have failed.");
+        } catch (IOException e) {
+            //expected
+        }
+        assertTrue(journal.exists());
+        assertTrue(file.exists());
+        assertEquals(0, d.open);
+
+        d = new FakeDownloader(file, hash, SIZE, 2, -1);
+        d.download();
+        assertFalse(d.read.contains(0L));
+        assertTrue(d.read.contains(1L));
+        assertTrue(d.read.contains(2L));
+        check(SIZE);
+        assertFalse(journal.exists());
+    }
+
+    /**
+     * Tests that a file not matching the hash is deleted with its journal.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testHashMismatch()
+        throws Exception
+    {
+        FakeDownloader d = new FakeDownloader(file,
+                "0000000000000000000000000000000000000000", SIZE, 2, -1);
+        try {
+            d.download();
+            fail("The hash should not match.");
+        } catch (IOException e) {
+            //expected
+        }
+        assertFalse(file.exists());
+        assertFalse(journal.exists());
+    }
+
+    /**
+     * Tests that a journal written for a file of a different size is
+     * ignored and the whole file downloaded again.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testJournalOfDifferentSize()
+        throws Exception
+    {
+        long previous = SIZE+FileDownloader.RANGE_SIZE;
+        FakeDownloader d = new FakeDownloader(file, null, previous, 1, 2);
+        try {
+            d.download();
+            fail("The download should have failed.");
+        } catch (IOException e) {
+            //expected
+        }
+        assertTrue(journal.exists());
+
+        d = new FakeDownloader(file, hashOf(SIZE), SIZE, 2, -1);
+        d.download();
+        assertTrue(d.read.contains(0L));
+        assertTrue(d.read.contains(1L));
+        assertTrue(d.read.contains(2L));
+        check(SIZE);
+        assertFalse(journal.exists());
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.rtypes;
+import omero.model.RectangleI;
+import omero.model.Roi;
+import omero.model.RoiI;
+import omero.model.Shape;
+
+/**
+ * Verifies that {@link OMEROGateway#mergeShapes(Roi, Roi)} only replaces
+ * the modified shapes of the stored ROI.
+ *
+ * @since 5.8.5
+ */
+public class TestOMEROGateway
+    extends TestCase
+{
+
+    /**
+     * Creates a rectangle.
+     *
+     * @param id The id of the shape or <code>null</code> for a new shape.
+     * @param x The x-coordinate of the rectangle.
+     * @return See above.
+     */
+    private Shape createShape(Long id, double x)
+    {
+        RectangleI shape = id == null ? new RectangleI() :
+            new RectangleI(id, true);
+        shape.setX(rtypes.rdouble(x));
+        return shape;
+    }
+
+    /**
+     * Tests that the unchanged stored shapes are kept, the modified ones
+     * replaced and the new ones appended.
+     */
+    public void testMergeShapes()
+    {
+        Roi stored = new RoiI(1L, true);
+        Shape first = createShape(11L, 0);
+        Shape second = createShape(12L, 0);
+        stored.addShape(first);
+        stored.addShape(second);
+
+        Roi changes = new RoiI(1L, true);
+        Shape modified = createShape(12L, 5);
+        Shape added = createShape(null, 10);
+        changes.addShape(modified);
+        changes.addShape(added);
+
+        OMEROGateway.mergeShapes(stored, changes);
+        assertEquals(3, stored.sizeOfShapes());
+        assertSame(first, stored.getShape(0));
+        assertSame(modified, stored.getShape(1));
+        assertSame(added, stored.getShape(2));
+        assertSame(stored, modified.getRoi());
+        assertSame(stored, added.getRoi());
+    }
+
+    /**
+     * Tests that a modified shape no longer stored is not added back.
+     */
+    public void testMergeDeletedShape()
+    {
+        Roi stored = new RoiI(1L, true);
+        Shape first = createShape(11L, 0);
+        stored.addShape(first);
+
+        Roi changes = new RoiI(1L, true);
+        changes.addShape(createShape(12L, 5));
+
+        OMEROGateway.mergeShapes(stored, changes);
+        assertEquals(1, stored.sizeOfShapes());
+        assertSame(first, stored.getShape(0));
+    }
+
+}
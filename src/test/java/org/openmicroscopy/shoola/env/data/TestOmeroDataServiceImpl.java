@@ -0,0 +1,158 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.gateway.model.ImageData;
+import omero.gateway.model.SearchResult;
+import omero.gateway.model.SearchResultCollection;
+import org.openmicroscopy.shoola.env.data.util.SearchCursor;
+
+/**
+ * Verifies that the objects whose identifiers are the terms of a search are
+ * only delivered with the first page of results by
+ * {@link OmeroDataServiceImpl#addMatches(SearchResultCollection, SearchCursor)}.
+ *
+ * @since 5.8.5
+ */
+public class TestOmeroDataServiceImpl
+    extends TestCase
+{
+
+    /** The pages served by the cursor. */
+    private LinkedList<SearchResultCollection> pages;
+
+    /** Flag indicating that the cursor was closed. */
+    private boolean closed;
+
+    /** The cursor serving the {@link #pages}. */
+    private SearchCursor cursor = new SearchCursor() {
+        public boolean hasNext() { return !pages.isEmpty(); }
+        public SearchResultCollection next() { return pages.poll(); }
+        public void close() { closed = true; }
+    };
+
+    /**
+     * Creates a page of images.
+     *
+     * @param ids The identifiers of the images.
+     * @return See above.
+     */
+    private static SearchResultCollection page(long... ids)
+    {
+        SearchResultCollection page = new SearchResultCollection();
+        for (long id : ids) {
+            SearchResult r = new SearchResult();
+            r.setObjectId(id);
+            r.setType(ImageData.class);
+            page.add(r);
+        }
+        return page;
+    }
+
+    /**
+     * Returns the identifiers of the objects of the page.
+     *
+     * @param page The page.
+     * @return See above.
+     */
+    private static List<Long> ids(SearchResultCollection page)
+    {
+        Long[] ids = new Long[page.size()];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = page.get(i).getObjectId();
+        return Arrays.asList(ids);
+    }
+
+    /**
+     * Creates the cursor.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+    {
+        pages = new LinkedList<SearchResultCollection>();
+        closed = false;
+    }
+
+    /**
+     * Tests that the matches are only added to the first page.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testMatchesOnFirstPage()
+        throws Exception
+    {
+        pages.add(page(1, 2));
+        pages.add(page(3));
+        SearchCursor c = OmeroDataServiceImpl.addMatches(page(9), cursor);
+        assertTrue(c.hasNext());
+        assertEquals(Arrays.asList(9L, 1L, 2L), ids(c.next()));
+        assertTrue(c.hasNext());
+        assertEquals(Arrays.asList(3L), ids(c.next()));
+        assertFalse(c.hasNext());
+        c.close();
+        assertTrue(closed);
+    }
+
+    /**
+     * Tests that the matches are delivered when the search finds nothing.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testMatchesOnly()
+        throws Exception
+    {
+        SearchCursor c = OmeroDataServiceImpl.addMatches(page(9), cursor);
+        assertTrue(c.hasNext());
+        assertEquals(Arrays.asList(9L), ids(c.next()));
+        assertFalse(c.hasNext());
+    }
+
+    /**
+     * Tests that the error of the first page is kept along with the
+     * matches.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testErrorKept()
+        throws Exception
+    {
+        SearchResultCollection error = page();
+        error.setError(SearchResultCollection.TOO_MANY_CLAUSES);
+        pages.add(error);
+        SearchResultCollection page =
+                OmeroDataServiceImpl.addMatches(page(9), cursor).next();
+        assertEquals(Arrays.asList(9L), ids(page));
+        assertEquals(SearchResultCollection.TOO_MANY_CLAUSES,
+                page.getError());
+    }
+
+}
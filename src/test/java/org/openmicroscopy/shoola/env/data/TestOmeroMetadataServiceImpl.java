@@ -0,0 +1,241 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.gateway.model.AnnotationData;
+import omero.gateway.model.DataObject;
+import omero.gateway.model.DatasetData;
+import omero.gateway.model.ImageData;
+import omero.gateway.model.RatingAnnotationData;
+import omero.gateway.model.TagAnnotationData;
+import omero.gateway.model.TextualAnnotationData;
+import omero.model.AnnotationAnnotationLink;
+import omero.model.IObject;
+import omero.model.ImageAnnotationLink;
+import omero.model.ImageAnnotationLinkI;
+import org.openmicroscopy.shoola.env.data.util.ModelMapper;
+
+/**
+ * Verifies how {@link OmeroMetadataServiceImpl} links the annotations to
+ * the objects of a batch annotation: the grouping of the objects per type,
+ * the skipping of the existing links and the objects to remove with each
+ * chunk.
+ *
+ * @since 5.8.5
+ */
+public class TestOmeroMetadataServiceImpl
+    extends TestCase
+{
+
+    /** The identifier of the user. */
+    private static final long USER = 2L;
+
+    /** The identifier of the tag to link. */
+    private static final long TAG = 10L;
+
+    /** The identifier of the rating to link. */
+    private static final long RATING = 20L;
+
+    /** The identifier of the comment to link. */
+    private static final long COMMENT = 30L;
+
+    /** The annotations to link. */
+    private List<AnnotationData> annotations;
+
+    /** The links created. */
+    private List<IObject> links;
+
+    /** The annotations to update. */
+    private Set<AnnotationData> toUpdate;
+
+    /**
+     * Creates an image.
+     *
+     * @param id The identifier of the image.
+     * @return See above.
+     */
+    private static ImageData image(long id)
+    {
+        ImageData image = new ImageData();
+        image.setId(id);
+        return image;
+    }
+
+    /**
+     * Creates a tag.
+     *
+     * @param id The identifier of the tag.
+     * @return See above.
+     */
+    private static TagAnnotationData tag(long id)
+    {
+        TagAnnotationData tag = new TagAnnotationData("Tag "+id);
+        tag.setId(id);
+        return tag;
+    }
+
+    /**
+     * Returns the identifiers of the parent and of the child of the link.
+     *
+     * @param link The link.
+     * @return See above.
+     */
+    private static List<Long> ids(IObject link)
+    {
+        return Arrays.asList(
+                ModelMapper.getParentFromLink(link).getId().getValue(),
+                ModelMapper.getChildFromLink(link).getId().getValue());
+    }
+
+    /**
+     * Creates the annotations to link.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+    {
+        annotations = new ArrayList<AnnotationData>();
+        annotations.add(tag(TAG));
+        RatingAnnotationData rating = new RatingAnnotationData(3);
+        rating.setId(RATING);
+        annotations.add(rating);
+        TextualAnnotationData comment = new TextualAnnotationData("Comment");
+        comment.setId(COMMENT);
+        annotations.add(comment);
+        links = new ArrayList<IObject>();
+        toUpdate = new HashSet<AnnotationData>();
+    }
+
+    /**
+     * Tests that the objects are grouped by type, in order.
+     */
+    public void testGroupByType()
+    {
+        DatasetData dataset = new DatasetData();
+        dataset.setId(1);
+        List<DataObject> data = new ArrayList<DataObject>();
+        data.add(image(1));
+        data.add(dataset);
+        data.add(image(2));
+        Map<Class<?>, List<DataObject>> types =
+                OmeroMetadataServiceImpl.groupByType(data);
+        assertEquals(2, types.size());
+        assertEquals(Arrays.asList(data.get(0), data.get(2)),
+                types.get(ImageData.class));
+        assertEquals(Arrays.asList(dataset), types.get(DatasetData.class));
+    }
+
+    /**
+     * Tests that the annotations are linked to all the objects when there
+     * is no link yet.
+     */
+    public void testLinkAll()
+    {
+        List<DataObject> images = Arrays.<DataObject>asList(image(1),
+                image(2));
+        OmeroMetadataServiceImpl.linkAnnotations(ImageData.class, images,
+                annotations, new HashSet<List<Long>>(), USER, links,
+                toUpdate);
+        assertEquals(6, links.size());
+        for (IObject link : links)
+            assertTrue(link instanceof ImageAnnotationLink);
+        assertTrue(toUpdate.isEmpty());
+    }
+
+    /**
+     * Tests that the tags and the ratings already linked by the user are
+     * skipped, the ratings being updated instead, while the comments are
+     * linked again.
+     */
+    public void testSkipExistingLinks()
+    {
+        Set<List<Long>> existing = new HashSet<List<Long>>();
+        existing.add(Arrays.asList(1L, TAG, USER));
+        existing.add(Arrays.asList(1L, RATING, USER));
+        existing.add(Arrays.asList(1L, COMMENT, USER));
+        existing.add(Arrays.asList(2L, TAG, USER+1));  //Another user.
+        List<DataObject> images = Arrays.<DataObject>asList(image(1),
+                image(2));
+        OmeroMetadataServiceImpl.linkAnnotations(ImageData.class, images,
+                annotations, existing, USER, links, toUpdate);
+        Set<List<Long>> created = new HashSet<List<Long>>();
+        for (IObject link : links)
+            created.add(ids(link));
+        Set<List<Long>> expected = new HashSet<List<Long>>();
+        expected.add(Arrays.asList(1L, COMMENT));
+        expected.add(Arrays.asList(2L, TAG));
+        expected.add(Arrays.asList(2L, RATING));
+        expected.add(Arrays.asList(2L, COMMENT));
+        assertEquals(expected, created);
+        assertEquals(1, toUpdate.size());
+        assertEquals(RATING, toUpdate.iterator().next().getId());
+    }
+
+    /**
+     * Tests that the existing links are looked up with the tag as the
+     * parent when tagging tags, other annotations being the children.
+     */
+    public void testSkipExistingTagLinks()
+    {
+        Set<List<Long>> existing = new HashSet<List<Long>>();
+        existing.add(Arrays.asList(TAG, 1L, USER));
+        //The same identifiers for an image are not a link to the tag.
+        existing.add(Arrays.asList(2L, TAG, USER));
+        List<DataObject> tags = Arrays.<DataObject>asList(tag(1), tag(2));
+        List<AnnotationData> l = annotations.subList(0, 1);
+        OmeroMetadataServiceImpl.linkAnnotations(TagAnnotationData.class,
+                tags, l, existing, USER, links, toUpdate);
+        assertEquals(1, links.size());
+        IObject link = links.get(0);
+        assertTrue(link instanceof AnnotationAnnotationLink);
+        assertEquals(Arrays.asList(TAG, 2L), ids(link));
+    }
+
+    /**
+     * Tests that only the annotations among the objects to remove are
+     * handled with every chunk, the links being deleted with the first one.
+     */
+    public void testAnnotationsToRemove()
+    {
+        assertNull(OmeroMetadataServiceImpl.getAnnotationsToRemove(null));
+        List<Object> toRemove = new ArrayList<Object>();
+        toRemove.add(annotations.get(0));
+        toRemove.add(new ImageAnnotationLinkI(5L, true));
+        toRemove.add(annotations.get(2).asIObject());
+        List<Object> l =
+                OmeroMetadataServiceImpl.getAnnotationsToRemove(toRemove);
+        assertEquals(Arrays.asList(toRemove.get(0), toRemove.get(2)), l);
+    }
+
+}
@@ -0,0 +1,280 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.ServerError;
+import omero.api.SearchPrx;
+import omero.gateway.SecurityContext;
+import omero.gateway.exception.DSAccessException;
+import omero.gateway.model.DataObject;
+import omero.gateway.model.DatasetData;
+import omero.gateway.model.ImageData;
+import omero.gateway.model.SearchParameters;
+import omero.gateway.model.SearchResult;
+import omero.gateway.model.SearchResultCollection;
+import omero.gateway.model.SearchScope;
+import omero.model.DatasetI;
+import omero.model.IObject;
+import omero.model.ImageI;
+
+/**
+ * Verifies that {@link PagedSearch} delivers the batches of the search
+ * service in order, one type after the other, and closes the service once
+ * the last page has been read, on error and when closed.
+ *
+ * @since 5.8.5
+ */
+public class TestPagedSearch
+    extends TestCase
+{
+
+    /** The batches of results served for each type, in order. */
+    private List<List<IObject>> images, datasets;
+
+    /** The batches of the type currently searched for. */
+    private LinkedList<List<IObject>> batches;
+
+    /** The error thrown when the results are read, if any. */
+    private Exception error;
+
+    /** The services opened. */
+    private int opened;
+
+    /** The services closed. */
+    private int closed;
+
+    /** The search reading the batches recorded by the test. */
+    private class Search
+        extends PagedSearch
+    {
+
+        /**
+         * Creates a new instance searching for the images and datasets.
+         */
+        Search()
+        {
+            super(null, new SecurityContext(1), createParameters(), 3);
+        }
+
+        SearchPrx createService()
+        {
+            opened++;
+            InvocationHandler handler = new InvocationHandler() {
+                public Object invoke(Object proxy, Method method,
+                        Object[] args)
+                    throws Throwable
+                {
+                    String name = method.getName();
+                    if ("onlyType".equals(name)) {
+                        batches = new LinkedList<List<IObject>>(
+                                ((String) args[0]).contains("Image") ?
+                                        images : datasets);
+                    } else if ("hasNext".equals(name)) {
+                        return !batches.isEmpty();
+                    } else if ("results".equals(name)) {
+                        if (error != null) throw error;
+                        return batches.poll();
+                    } else if ("equals".equals(name)) {
+                        return proxy == args[0];
+                    } else if ("hashCode".equals(name)) {
+                        return System.identityHashCode(proxy);
+                    }
+                    return null;
+                }
+            };
+            return (SearchPrx) Proxy.newProxyInstance(
+                    getClass().getClassLoader(),
+                    new Class<?>[] {SearchPrx.class}, handler);
+        }
+
+        void closeService(SearchPrx service) { closed++; }
+    }
+
+    /**
+     * Creates the parameters of a search for the images and datasets.
+     *
+     * @return See above.
+     */
+    private static SearchParameters createParameters()
+    {
+        List<Class<? extends DataObject>> types =
+                new ArrayList<Class<? extends DataObject>>();
+        types.add(ImageData.class);
+        types.add(DatasetData.class);
+        return new SearchParameters(new HashSet<SearchScope>(), types,
+                "test");
+    }
+
+    /**
+     * Creates a batch of images.
+     *
+     * @param ids The identifiers of the images.
+     * @return See above.
+     */
+    private static List<IObject> images(long... ids)
+    {
+        List<IObject> l = new ArrayList<IObject>();
+        for (long id : ids)
+            l.add(new ImageI(id, true));
+        return l;
+    }
+
+    /**
+     * Checks that the page holds the specified objects, in order.
+     *
+     * @param page The page.
+     * @param type The type of the objects.
+     * @param ids The identifiers of the objects.
+     */
+    private static void assertPage(SearchResultCollection page, Class<?> type,
+            long... ids)
+    {
+        assertFalse(page.isError());
+        assertEquals(ids.length, page.size());
+        for (int i = 0; i < ids.length; i++) {
+            SearchResult r = page.get(i);
+            assertEquals(type, r.getType());
+            assertEquals(ids[i], r.getObjectId());
+        }
+    }
+
+    /**
+     * Serves two batches of images and one of datasets.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+    {
+        images = new ArrayList<List<IObject>>();
+        images.add(images(1, 2, 3));
+        images.add(images(4, 5));
+        datasets = new ArrayList<List<IObject>>();
+        List<IObject> l = new ArrayList<IObject>();
+        l.add(new DatasetI(6L, true));
+        datasets.add(l);
+        error = null;
+        opened = 0;
+        closed = 0;
+    }
+
+    /**
+     * Tests that the batches are delivered as pages in order, one type
+     * after the other, and that the service is closed after the last page.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testPages()
+        throws Exception
+    {
+        Search search = new Search();
+        assertTrue(search.hasNext());
+        assertPage(search.next(), ImageData.class, 1, 2, 3);
+        assertPage(search.next(), ImageData.class, 4, 5);
+        assertPage(search.next(), DatasetData.class, 6);
+        assertEquals(0, closed);
+        assertTrue(search.hasNext());
+        assertTrue(search.next().isEmpty());
+        assertFalse(search.hasNext());
+        assertEquals(1, opened);
+        assertEquals(1, closed);
+        search.close();
+        assertEquals("Service closed twice.", 1, closed);
+    }
+
+    /**
+     * Tests that a type without results doesn't make an empty page.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testSkipEmptyType()
+        throws Exception
+    {
+        images.clear();
+        Search search = new Search();
+        assertPage(search.next(), DatasetData.class, 6);
+    }
+
+    /**
+     * Tests that an error of the service is carried by the page and closes
+     * the service.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testServerError()
+        throws Exception
+    {
+        error = new ServerError();
+        Search search = new Search();
+        SearchResultCollection page = search.next();
+        assertTrue(page.isError());
+        assertEquals(SearchResultCollection.GENERAL_ERROR, page.getError());
+        assertFalse(search.hasNext());
+        assertEquals(1, closed);
+    }
+
+    /**
+     * Tests that another error is thrown and closes the service.
+     */
+    public void testError()
+    {
+        error = new IllegalStateException();
+        Search search = new Search();
+        try {
+            search.next();
+            fail("The error should have been thrown.");
+        } catch (Exception e) {
+            assertTrue(e instanceof DSAccessException);
+        }
+        assertFalse(search.hasNext());
+        assertEquals(1, closed);
+    }
+
+    /**
+     * Tests that closing the search closes the service before the last
+     * page.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testClose()
+        throws Exception
+    {
+        Search search = new Search();
+        search.next();
+        search.close();
+        assertFalse(search.hasNext());
+        assertEquals(1, closed);
+    }
+
+}
@@ -0,0 +1,249 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.ServerError;
+import omero.api.RawPixelsStorePrx;
+import omero.gateway.SecurityContext;
+
+/**
+ * Verifies that {@link RawPixelsStorePool} reuses the released stores per
+ * pixels set, keeps at most {@link RawPixelsStorePool#MAX_IDLE} idle stores
+ * and closes the stores idle for too long.
+ *
+ * @since 5.8.5
+ */
+public class TestRawPixelsStorePool
+    extends TestCase
+{
+
+    /** The identifier of the pixels set the stores cannot be opened for. */
+    private static final long INVALID = -1;
+
+    /** The pool opening fake stores and recording the closed ones. */
+    private class Pool
+        extends RawPixelsStorePool
+    {
+
+        /** Creates a new instance. */
+        Pool() { super(null); }
+
+        RawPixelsStorePrx createStore(SecurityContext ctx)
+        {
+            InvocationHandler handler = new InvocationHandler() {
+                public Object invoke(Object proxy, Method method,
+                        Object[] args)
+                    throws Throwable
+                {
+                    if ("setPixelsId".equals(method.getName()) &&
+                            INVALID == ((Long) args[0]).longValue())
+                        throw new ServerError();
+                    if ("equals".equals(method.getName()))
+                        return proxy == args[0];
+                    if ("hashCode".equals(method.getName()))
+                        return System.identityHashCode(proxy);
+                    return null;
+                }
+            };
+            RawPixelsStorePrx store = (RawPixelsStorePrx)
+                Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[] {RawPixelsStorePrx.class}, handler);
+            opened.add(store);
+            return store;
+        }
+
+        void closeStore(SecurityContext ctx, RawPixelsStorePrx proxy)
+        {
+            closed.add(proxy);
+        }
+    }
+
+    /** The stores opened. */
+    private List<RawPixelsStorePrx> opened;
+
+    /** The stores closed. */
+    private List<RawPixelsStorePrx> closed;
+
+    /** The pool to test. */
+    private Pool pool;
+
+    /** The security context of the stores. */
+    private SecurityContext ctx;
+
+    /**
+     * Creates a pool keeping the idle stores for a minute.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+    {
+        opened = new ArrayList<RawPixelsStorePrx>();
+        closed = new ArrayList<RawPixelsStorePrx>();
+        pool = new Pool();
+        pool.setIdleTime(60000);
+        ctx = new SecurityContext(1);
+    }
+
+    /**
+     * Stops the eviction of the idle stores.
+     * @see TestCase#tearDown()
+     */
+    protected void tearDown()
+    {
+        pool.setIdleTime(0);
+    }
+
+    /**
+     * Tests that a released store is reused for the same pixels set only.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testReuse()
+        throws Exception
+    {
+        RawPixelsStorePrx store = pool.acquire(ctx, 1);
+        pool.release(1, store, true);
+        assertEquals(1, pool.getIdleCount());
+        assertSame(store, pool.acquire(ctx, 1));
+        assertEquals(0, pool.getIdleCount());
+        assertNotSame(store, pool.acquire(ctx, 2));
+        assertNotSame(store, pool.acquire(new SecurityContext(2), 1));
+        assertEquals(3, opened.size());
+        assertTrue(closed.isEmpty());
+    }
+
+    /**
+     * Tests that at most {@link RawPixelsStorePool#MAX_IDLE} stores are kept
+     * per pixels set, the others being closed when released.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testMaxIdle()
+        throws Exception
+    {
+        int n = RawPixelsStorePool.MAX_IDLE+1;
+        List<RawPixelsStorePrx> stores = new ArrayList<RawPixelsStorePrx>();
+        for (int i = 0; i < n; i++)
+            stores.add(pool.acquire(ctx, 1));
+        for (RawPixelsStorePrx store : stores)
+            pool.release(1, store, true);
+        assertEquals(RawPixelsStorePool.MAX_IDLE, pool.getIdleCount());
+        assertEquals(1, closed.size());
+        assertSame(stores.get(n-1), closed.get(0));
+    }
+
+    /**
+     * Tests that a store is closed when released after an error, when the
+     * stores are not kept or when it is not in use.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testClosedWhenReleased()
+        throws Exception
+    {
+        RawPixelsStorePrx store = pool.acquire(ctx, 1);
+        pool.release(1, store, false);
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, closed.size());
+        pool.release(1, store, true);
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, closed.size());
+
+        pool.setIdleTime(0);
+        store = pool.acquire(ctx, 1);
+        pool.release(1, store, true);
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(2, closed.size());
+    }
+
+    /**
+     * Tests that a store is closed if the pixels set cannot be set.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testInvalidPixels()
+        throws Exception
+    {
+        try {
+            pool.acquire(ctx, INVALID);
+            fail("The pixels set should not be accessible.");
+        } catch (ServerError e) {}
+        assertEquals(1, opened.size());
+        assertEquals(opened, closed);
+    }
+
+    /**
+     * Tests that the stores idle for too long are closed.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testIdleEviction()
+        throws Exception
+    {
+        RawPixelsStorePrx store = pool.acquire(ctx, 1);
+        pool.release(1, store, true);
+        pool.evictIdle();
+        assertEquals(1, pool.getIdleCount());
+
+        pool.setIdleTime(1);
+        Thread.sleep(10);
+        pool.evictIdle();
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, closed.size());
+        assertSame(store, closed.get(0));
+    }
+
+    /**
+     * Tests that the idle stores are closed per group or all at once.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testClose()
+        throws Exception
+    {
+        RawPixelsStorePrx a = pool.acquire(ctx, 1);
+        RawPixelsStorePrx b = pool.acquire(new SecurityContext(2), 1);
+        RawPixelsStorePrx c = pool.acquire(ctx, 2);
+        pool.release(1, a, true);
+        pool.release(1, b, true);
+        pool.release(2, c, true);
+        pool.close(2);
+        assertEquals(2, pool.getIdleCount());
+        assertEquals(1, closed.size());
+        assertSame(b, closed.get(0));
+        pool.clear();
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(3, closed.size());
+    }
+
+}
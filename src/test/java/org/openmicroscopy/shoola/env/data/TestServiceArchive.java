@@ -0,0 +1,339 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.ServerError;
+import omero.rtypes;
+import omero.api.ThumbnailStorePrx;
+import omero.gateway.exception.DSAccessException;
+
+/**
+ * Verifies that the calls recorded by {@link ServiceArchive} are replayed
+ * in order and that the calls not recorded fail.
+ *
+ * @since 5.8.5
+ */
+public class TestServiceArchive
+    extends TestCase
+{
+
+    /** The service to record. */
+    interface Service
+    {
+
+        /**
+         * Returns the values loaded so far followed by the specified one.
+         *
+         * @param name The value to add.
+         * @return See above.
+         * @throws DSAccessException If the value is <code>null</code>.
+         */
+        List<String> load(String name)
+            throws DSAccessException;
+
+        /**
+         * Returns a value which cannot be recorded.
+         *
+         * @return See above.
+         */
+        Object unserializable();
+
+        /**
+         * Returns the number of calls made so far.
+         *
+         * @return See above.
+         */
+        int count();
+
+        /**
+         * Returns a new thumbnail store.
+         *
+         * @return See above.
+         */
+        ThumbnailStorePrx createThumbnailStore();
+
+        /**
+         * Closes the specified store.
+         *
+         * @param store The store to close.
+         */
+        void closeService(ThumbnailStorePrx store);
+    }
+
+    /** The recorded implementation of the service. */
+    private static class ServiceImpl
+        implements Service
+    {
+
+        /** The values loaded so far. */
+        private final List<String> loaded = new ArrayList<String>();
+
+        /** The number of calls made so far. */
+        private int calls;
+
+        /** The last store created. */
+        private ThumbnailStorePrx created;
+
+        /** The number of stores closed. */
+        private int closed;
+
+        public List<String> load(String name)
+            throws DSAccessException
+        {
+            calls++;
+            if (name == null) throw new DSAccessException("No name.");
+            loaded.add(name);
+            return new ArrayList<String>(loaded);
+        }
+
+        public Object unserializable()
+        {
+            calls++;
+            return new Object();
+        }
+
+        public int count() { return ++calls; }
+
+        public ThumbnailStorePrx createThumbnailStore()
+        {
+            InvocationHandler handler = new InvocationHandler() {
+
+                /** The pixels set the store is set to. */
+                private long pixelsID;
+
+                public Object invoke(Object proxy, Method method,
+                        Object[] args)
+                {
+                    String name = method.getName();
+                    if ("setPixelsId".equals(name)) {
+                        pixelsID = (Long) args[0];
+                        return Boolean.TRUE;
+                    }
+                    if ("getThumbnail".equals(name))
+                        return new byte[] {(byte) pixelsID};
+                    return null;
+                }
+            };
+            created = (ThumbnailStorePrx) Proxy.newProxyInstance(
+                    getClass().getClassLoader(),
+                    new Class<?>[] {ThumbnailStorePrx.class}, handler);
+            return created;
+        }
+
+        public void closeService(ThumbnailStorePrx store)
+        {
+            if (store != created)
+                throw new IllegalArgumentException("Not the store created.");
+            closed++;
+        }
+    }
+
+    /** The directory holding the recorded calls. */
+    private File directory;
+
+    /**
+     * Records the calls of a flow.
+     *
+     * @throws Exception If an error occurred.
+     */
+    private void recordFlow()
+        throws Exception
+    {
+        Service service = new ServiceArchive(directory, null).record(
+                Service.class, new ServiceImpl());
+        assertEquals(1, service.load("a").size());
+        assertEquals(2, service.load("a").size());
+        assertEquals(3, service.load("b").size());
+        try {
+            service.load(null);
+            fail("The exception should have been forwarded.");
+        } catch (DSAccessException e) {}
+        assertNotNull(service.unserializable());
+        assertEquals(6, service.count());
+    }
+
+    /**
+     * Creates the directory holding the recorded calls.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+        throws Exception
+    {
+        directory = File.createTempFile("TestServiceArchive", "");
+        directory.delete();
+    }
+
+    /**
+     * Deletes the directory holding the recorded calls.
+     * @see TestCase#tearDown()
+     */
+    protected void tearDown()
+    {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (int i = 0; i < files.length; i++)
+                files[i].delete();
+        }
+        directory.delete();
+    }
+
+    /**
+     * Tests that the recorded results are replayed in the order they were
+     * recorded, the last identical call being served again.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testRoundTrip()
+        throws Exception
+    {
+        recordFlow();
+        assertTrue(new File(directory, ServiceArchive.INDEX).exists());
+        Service service = new ServiceArchive(directory, null).replay(
+                Service.class);
+        assertEquals(1, service.load("a").size());
+        List<String> values = service.load("a");
+        assertEquals(2, values.size());
+        assertEquals("a", values.get(1));
+        assertEquals(3, service.load("b").size());
+        assertEquals(6, service.count());
+        assertEquals(1, service.load("a").size());
+    }
+
+    /**
+     * Tests that the exception thrown while recording is thrown again.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testErrorReplayed()
+        throws Exception
+    {
+        recordFlow();
+        Service service = new ServiceArchive(directory, null).replay(
+                Service.class);
+        try {
+            service.load(null);
+            fail("The recorded exception should have been thrown.");
+        } catch (DSAccessException e) {
+            assertEquals("No name.", e.getMessage());
+        }
+    }
+
+    /**
+     * Tests that a call not recorded throws the exception declared by the
+     * method if any, an {@link UnsupportedOperationException} otherwise.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testMissingRecording()
+        throws Exception
+    {
+        recordFlow();
+        Service service = new ServiceArchive(directory, null).replay(
+                Service.class);
+        try {
+            service.load("c");
+            fail("The call was not recorded.");
+        } catch (DSAccessException e) {}
+        try {
+            service.unserializable();
+            fail("The result cannot have been recorded.");
+        } catch (UndeclaredThrowableException e) {
+            assertTrue(e.getCause() instanceof DSAccessException);
+        }
+    }
+
+    /**
+     * Tests that the thumbnails loaded from a store are replayed for the
+     * pixels set the store is set to.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testThumbnailStore()
+        throws Exception
+    {
+        ServiceImpl impl = new ServiceImpl();
+        Service service = new ServiceArchive(directory, null).record(
+                Service.class, impl);
+        ThumbnailStorePrx store = service.createThumbnailStore();
+        for (long id = 1; id <= 2; id++) {
+            assertTrue(store.setPixelsId(id));
+            store.getThumbnail(rtypes.rint(96), rtypes.rint(96));
+        }
+        service.closeService(store);
+        assertEquals(1, impl.closed);
+
+        service = new ServiceArchive(directory, null).replay(Service.class);
+        store = service.createThumbnailStore();
+        assertTrue(store.setPixelsId(2L));
+        assertTrue(Arrays.equals(new byte[] {2},
+                store.getThumbnail(rtypes.rint(96), rtypes.rint(96))));
+        assertTrue(store.setPixelsId(1L));
+        assertTrue(Arrays.equals(new byte[] {1},
+                store.getThumbnail(rtypes.rint(96), rtypes.rint(96))));
+        try {
+            store.getThumbnail(rtypes.rint(48), rtypes.rint(48));
+            fail("The thumbnail was not recorded.");
+        } catch (ServerError e) {}
+        store.close();
+        service.closeService(store);
+    }
+
+    /**
+     * Tests that the details of the session are saved and loaded, and that
+     * loading them fails if nothing was recorded.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testSession()
+        throws Exception
+    {
+        ServiceArchive archive = new ServiceArchive(directory, null);
+        try {
+            archive.loadSession();
+            fail("No session was saved.");
+        } catch (IOException e) {}
+        Map<String, Object> details = new HashMap<String, Object>();
+        details.put("user", "root");
+        archive.saveSession(details);
+        assertEquals(details,
+                new ServiceArchive(directory, null).loadSession());
+    }
+
+}
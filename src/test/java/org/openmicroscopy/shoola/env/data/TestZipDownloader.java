@@ -0,0 +1,278 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+
+//Java imports
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.api.RawFileStorePrx;
+
+/**
+ * Verifies that {@link ZipDownloader} writes the files in order and leaves
+ * no partial archive when the download fails or is cancelled.
+ *
+ * @since 5.8.5
+ */
+public class TestZipDownloader
+    extends TestCase
+{
+
+    /** The zip to write. */
+    private File zip;
+
+    /**
+     * Returns the value of the byte at the specified position of a file.
+     *
+     * @param fileID The identifier of the file.
+     * @param offset The position.
+     * @return See above.
+     */
+    private static byte valueOf(long fileID, long offset)
+    {
+        return (byte) (fileID*31+offset);
+    }
+
+    /**
+     * Downloader reading the content returned by {@link #valueOf(long, long)}
+     * with stores which only record the file they are set to.
+     */
+    private static class FakeDownloader
+        extends ZipDownloader
+    {
+
+        /** The stores closed. */
+        final List<RawFileStorePrx> closed =
+                Collections.synchronizedList(new ArrayList<RawFileStorePrx>());
+
+        /** The file each store is set to. */
+        private final List<Object[]> files =
+                Collections.synchronizedList(new ArrayList<Object[]>());
+
+        /**
+         * Creates a new instance.
+         *
+         * @param zip The zip to write.
+         */
+        FakeDownloader(File zip) { super(null, null, zip, 2); }
+
+        /**
+         * Returns the file the specified store is set to.
+         *
+         * @param store The store.
+         * @return See above.
+         */
+        long getFileID(RawFileStorePrx store)
+        {
+            synchronized (files) {
+                for (Object[] f : files) {
+                    if (f[0] == store) return (Long) f[1];
+                }
+            }
+            return -1;
+        }
+
+        /** Overridden to create a store recording the file it is set to. */
+        RawFileStorePrx createStore()
+        {
+            final Object[] file = new Object[2];
+            RawFileStorePrx store = (RawFileStorePrx) Proxy.newProxyInstance(
+                    RawFileStorePrx.class.getClassLoader(),
+                    new Class<?>[] {RawFileStorePrx.class},
+                    new InvocationHandler() {
+                        public Object invoke(Object proxy, Method m,
+                                Object[] args) {
+                            String name = m.getName();
+                            if (name.equals("setFileId")) file[1] = args[0];
+                            else if (name.equals("hashCode"))
+                                return System.identityHashCode(proxy);
+                            else if (name.equals("equals"))
+                                return proxy == args[0];
+                            else if (name.equals("toString"))
+                                return "store";
+                            return null;
+                        }
+                    });
+            file[0] = store;
+            files.add(file);
+            return store;
+        }
+
+        /** Overridden to return the content of the file. */
+        byte[] read(RawFileStorePrx store, long offset, int length)
+            throws Exception
+        {
+            long fileID = getFileID(store);
+            byte[] data = new byte[length];
+            for (int i = 0; i < length; i++)
+                data[i] = valueOf(fileID, offset+i);
+            return data;
+        }
+
+        /** Overridden to record the closed stores. */
+        void close(RawFileStorePrx store) { closed.add(store); }
+    }
+
+    /**
+     * Sets up the zip to write.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+        throws Exception
+    {
+        zip = File.createTempFile("TestZipDownloader", ".zip");
+        zip.delete();
+    }
+
+    /**
+     * Deletes the zip.
+     * @see TestCase#tearDown()
+     */
+    protected void tearDown()
+    {
+        zip.delete();
+    }
+
+    /**
+     * Tests that the files are written in order and that the stores are
+     * closed.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testDownload()
+        throws Exception
+    {
+        FakeDownloader downloader = new FakeDownloader(zip);
+        long size = 2L*ZipDownloader.BLOCK_SIZE+5;
+        downloader.add("a.txt", 1L, size);
+        downloader.add("a.txt", 2L, 10L);
+        downloader.add("empty.png", 3L, 0L);
+        assertEquals(zip, downloader.download());
+        ZipFile f = new ZipFile(zip);
+        try {
+            assertEquals(3, f.size());
+            check(f, "a.txt", 1L, size);
+            check(f, "a(1).txt", 2L, 10L);
+            check(f, "empty.png", 3L, 0L);
+        } finally {
+            f.close();
+        }
+        assertEquals(2, downloader.closed.size());
+    }
+
+    /**
+     * Checks the content of the specified entry.
+     *
+     * @param f The zip.
+     * @param name The name of the entry.
+     * @param fileID The identifier of the file.
+     * @param size The size of the file.
+     * @throws IOException If the entry couldn't be read.
+     */
+    private void check(ZipFile f, String name, long fileID, long size)
+        throws IOException
+    {
+        ZipEntry entry = f.getEntry(name);
+        assertNotNull(name, entry);
+        InputStream in = f.getInputStream(entry);
+        try {
+            long offset = 0;
+            int b;
+            while ((b = in.read()) >= 0) {
+                assertEquals(valueOf(fileID, offset), (byte) b);
+                offset++;
+            }
+            assertEquals(size, offset);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Tests that a download failing or cancelled while blocks are being
+     * read leaves no partial archive, closes the stores to abort the reads
+     * in progress and does not interrupt the threads reading.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testCancelledLeavesNoArchive()
+        throws Exception
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+        final boolean[] interrupted = new boolean[1];
+        final boolean[] aborted = new boolean[1];
+        FakeDownloader downloader = new FakeDownloader(zip) {
+
+            byte[] read(RawFileStorePrx store, long offset, int length)
+                throws Exception
+            {
+                if (offset == 0) {
+                    started.await(10, TimeUnit.SECONDS);
+                    throw new IOException("Download cancelled.");
+                }
+                if (offset == ZipDownloader.BLOCK_SIZE) {
+                    //Blocks until the store is closed, as a remote read does.
+                    started.countDown();
+                    aborted[0] = released.await(10, TimeUnit.SECONDS);
+                    interrupted[0] = Thread.currentThread().isInterrupted();
+                    throw new IOException("Store closed.");
+                }
+                return super.read(store, offset, length);
+            }
+
+            void close(RawFileStorePrx store)
+            {
+                super.close(store);
+                released.countDown();
+            }
+        };
+        downloader.add("a.txt", 1L, 4L*ZipDownloader.BLOCK_SIZE);
+        try {
+            downloader.download();
+            fail("The download should have failed.");
+        } catch (IOException e) {
+            //expected
+        }
+        assertFalse(zip.exists());
+        assertTrue(aborted[0]);
+        assertFalse(interrupted[0]);
+        assertEquals(2, downloader.closed.size());
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.model;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.gateway.exception.DSAccessException;
+import omero.gateway.model.TableResult;
+
+/**
+ * Verifies that {@link ColumnarTableResult} reads the rows in windows,
+ * keeps at most {@link ColumnarTableResult#MAX_WINDOWS} windows and groups
+ * the rows by identifier.
+ *
+ * @since 5.8.5
+ */
+public class TestColumnarTableResult
+    extends TestCase
+{
+
+    /** The number of distinct identifiers in the first column. */
+    private static final int IDS = 10;
+
+    /**
+     * Reads a table whose first column holds <code>row%IDS</code> and the
+     * second one <code>row/2.0</code>, recording the windows read.
+     */
+    private class Reader
+        implements ColumnarTableResult.WindowReader
+    {
+
+        public Object[] read(long start, int length)
+            throws DSAccessException
+        {
+            reads.add(start);
+            long[] ids = new long[length];
+            double[] values = new double[length];
+            for (int i = 0; i < length; i++) {
+                ids[i] = (start+i)%IDS;
+                values[i] = (start+i)/2.0;
+            }
+            return new Object[] {ids, values};
+        }
+
+        public void close() { closed = true; }
+    }
+
+    /** The first row of the windows read. */
+    private List<Long> reads;
+
+    /** Whether the reader was closed. */
+    private boolean closed;
+
+    /**
+     * Creates a table of the specified number of rows.
+     *
+     * @param rows The number of rows.
+     * @return See above.
+     */
+    private ColumnarTableResult createTable(long rows)
+    {
+        return new ColumnarTableResult(new String[] {"id", "value"},
+                new String[] {"", ""}, rows, new HashMap<Integer, Integer>(),
+                new Reader());
+    }
+
+    /**
+     * Resets the windows read.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+    {
+        reads = new ArrayList<Long>();
+        closed = false;
+    }
+
+    /**
+     * Tests that the values are read from the window holding the row and
+     * that the window is read once.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testWindowRead()
+        throws Exception
+    {
+        int size = ColumnarTableResult.WINDOW_SIZE;
+        ColumnarTableResult table = createTable(size+10);
+        assertEquals(size+10, table.getRowCount());
+        assertEquals(2, table.getColumnCount());
+        assertEquals(3L, table.getLong(3, 0));
+        assertEquals(1.5, table.getDouble(3, 1));
+        assertEquals(Long.valueOf(4), table.getValueAt(4, 0));
+        assertEquals(1, reads.size());
+        Object[] row = table.getRow(size+9);
+        assertEquals(Long.valueOf((size+9)%IDS), row[0]);
+        assertEquals(Double.valueOf((size+9)/2.0), row[1]);
+        assertEquals(2, reads.size());
+        assertEquals(Long.valueOf(size), reads.get(1));
+        table.getRow(size);
+        table.getRow(0);
+        assertEquals(2, reads.size());
+        try {
+            table.getRow(size+10);
+            fail("The row is out of the table.");
+        } catch (IndexOutOfBoundsException e) {}
+        table.close();
+        assertTrue(closed);
+    }
+
+    /**
+     * Tests that the least recently used window is evicted once more than
+     * {@link ColumnarTableResult#MAX_WINDOWS} windows have been read.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testWindowEviction()
+        throws Exception
+    {
+        int size = ColumnarTableResult.WINDOW_SIZE;
+        int n = ColumnarTableResult.MAX_WINDOWS;
+        ColumnarTableResult table = createTable((long) size*(n+1));
+        for (int i = 0; i < n; i++)
+            table.getRow((long) i*size);
+        table.getRow(0);
+        table.getRow((long) n*size);
+        assertEquals(n+1, reads.size());
+        table.getRow(0);
+        assertEquals(n+1, reads.size());
+        table.getRow(size);
+        assertEquals(n+2, reads.size());
+        assertEquals(Long.valueOf(size), reads.get(n+1));
+    }
+
+    /**
+     * Tests that the rows are grouped by identifier, the last row of each
+     * identifier being kept.
+     *
+     * @throws Exception If an error occurred.
+     */
+    public void testGroupBy()
+        throws Exception
+    {
+        int rows = ColumnarTableResult.WINDOW_SIZE+15;
+        TableResult result = createTable(rows).groupBy(0);
+        Object[][] data = result.getData();
+        assertEquals(IDS, data.length);
+        for (int i = 0; i < data.length; i++) {
+            long id = (Long) data[i][0];
+            assertEquals((long) i, id);
+            long last = rows-1-((rows-1-id+IDS)%IDS);
+            assertEquals(Double.valueOf(last/2.0), data[i][1]);
+        }
+    }
+
+    /**
+     * Tests that all the rows are returned by {@link TableResult#getData()}.
+     */
+    public void testGetData()
+    {
+        int rows = ColumnarTableResult.WINDOW_SIZE+3;
+        Object[][] data = createTable(rows).getData();
+        assertEquals(rows, data.length);
+        assertEquals(Long.valueOf((rows-3)%IDS), data[rows-3][0]);
+        assertEquals(Double.valueOf((rows-1)/2.0), data[rows-1][1]);
+        assertEquals(2, reads.size());
+    }
+
+}
@@ -0,0 +1,231 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.util;
+
+
+//Java imports
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.gateway.model.DatasetData;
+import omero.gateway.model.ImageData;
+import omero.model.DatasetI;
+import omero.model.EventI;
+import omero.model.IObject;
+import omero.model.ImageI;
+import omero.model.PixelsI;
+
+/**
+ * Verifies the canonicalisation of the objects by {@link IdentityMap}.
+ *
+ * @since 5.8.5
+ */
+public class TestIdentityMap
+    extends TestCase
+{
+
+    /** The map to test. */
+    private IdentityMap map;
+
+    /** The events received. */
+    private List<PropertyChangeEvent> events;
+
+    /**
+     * Sets the identifier of the last event updating the object.
+     *
+     * @param object The object to handle.
+     * @param version The identifier of the event.
+     */
+    private static void setVersion(IObject object, long version)
+    {
+        object.getDetails().setUpdateEvent(new EventI(version, false));
+    }
+
+    /**
+     * Creates an image.
+     *
+     * @param id The identifier of the image.
+     * @param name The name of the image.
+     * @param version The identifier of the last update event.
+     * @param pixels Pass <code>true</code> to load the pixels.
+     * @return See above.
+     */
+    private static ImageData image(long id, String name, long version,
+            boolean pixels)
+    {
+        ImageI image = new ImageI(id, true);
+        image.setName(omero.rtypes.rstring(name));
+        if (pixels) image.addPixels(new PixelsI(id, true));
+        setVersion(image, version);
+        return new ImageData(image);
+    }
+
+    /**
+     * Creates a dataset.
+     *
+     * @param id The identifier of the dataset.
+     * @param version The identifier of the last update event.
+     * @param images Pass <code>true</code> to load the images.
+     * @return See above.
+     */
+    private static DatasetData dataset(long id, long version, boolean images)
+    {
+        DatasetI dataset = new DatasetI(id, true);
+        dataset.setName(omero.rtypes.rstring("dataset"));
+        if (!images) dataset.unloadImageLinks();
+        setVersion(dataset, version);
+        return new DatasetData(dataset);
+    }
+
+    /** Runs the changes scheduled on the Swing thread. */
+    private void drainSwingThread()
+        throws Exception
+    {
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {}
+        });
+    }
+
+    @Override
+    protected void setUp()
+    {
+        map = new IdentityMap();
+        events = new ArrayList<PropertyChangeEvent>();
+        map.addPropertyChangeListener(new PropertyChangeListener() {
+            public void propertyChange(PropertyChangeEvent evt) {
+                assertTrue(SwingUtilities.isEventDispatchThread());
+                events.add(evt);
+            }
+        });
+    }
+
+    public void testReturnsFirstCopy()
+        throws Exception
+    {
+        ImageData a = image(1, "a", 1, false);
+        ImageData b = image(1, "a", 1, false);
+        assertSame(a, map.canonical(a));
+        assertSame(a, map.canonical(b));
+        assertSame(a, map.canonical(a));
+        assertEquals(1, map.size());
+        drainSwingThread();
+        assertTrue(events.isEmpty());
+    }
+
+    public void testDistinguishesClassAndId()
+    {
+        ImageData a = image(1, "a", 1, false);
+        ImageData b = image(2, "b", 1, false);
+        DatasetData d = dataset(1, 1, true);
+        assertSame(a, map.canonical(a));
+        assertSame(b, map.canonical(b));
+        assertSame(d, map.canonical(d));
+        assertEquals(3, map.size());
+    }
+
+    public void testUnsavedObjectNotRegistered()
+    {
+        ImageData a = new ImageData(new ImageI());
+        assertSame(a, map.canonical(a));
+        assertEquals(0, map.size());
+    }
+
+    public void testFresherVersionMergedOnSwingThread()
+        throws Exception
+    {
+        ImageData a = image(1, "old", 1, false);
+        map.canonical(a);
+        assertSame(a, map.canonical(image(1, "new", 2, false)));
+        drainSwingThread();
+        assertEquals("new", a.getName());
+        assertEquals(1, events.size());
+        assertSame(a, events.get(0).getNewValue());
+        assertNull(events.get(0).getOldValue());
+    }
+
+    public void testOlderVersionNotMerged()
+        throws Exception
+    {
+        ImageData a = image(1, "new", 2, false);
+        map.canonical(a);
+        assertSame(a, map.canonical(image(1, "old", 1, false)));
+        drainSwingThread();
+        assertEquals("new", a.getName());
+        assertTrue(events.isEmpty());
+    }
+
+    public void testVersionsMergedInOrder()
+        throws Exception
+    {
+        ImageData a = image(1, "v1", 1, false);
+        map.canonical(a);
+        map.canonical(image(1, "v3", 3, false));
+        map.canonical(image(1, "v2", 2, false));
+        drainSwingThread();
+        assertEquals("v3", a.getName());
+    }
+
+    public void testImageWithPixelsReplacesCanonical()
+        throws Exception
+    {
+        ImageData a = image(1, "a", 1, false);
+        ImageData b = image(1, "a", 1, true);
+        map.canonical(a);
+        assertSame(b, map.canonical(b));
+        assertSame(b, map.canonical(image(1, "a", 1, false)));
+        drainSwingThread();
+        assertEquals(1, events.size());
+        assertSame(a, events.get(0).getOldValue());
+        assertSame(b, events.get(0).getNewValue());
+    }
+
+    public void testContainersLoadedDifferentlyNotShared()
+    {
+        DatasetData a = dataset(1, 1, true);
+        DatasetData b = dataset(1, 1, false);
+        map.canonical(a);
+        assertSame(b, map.canonical(b));
+        assertSame(a, map.canonical(dataset(1, 1, true)));
+    }
+
+    public void testCollectedObjectPurged()
+        throws Exception
+    {
+        map.canonical(image(1, "a", 1, false));
+        for (int i = 0; i < 50 && map.size() > 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(0, map.size());
+        ImageData b = image(1, "b", 1, false);
+        assertSame(b, map.canonical(b));
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.util;
+
+
+//Java imports
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+
+/**
+ * Verifies the bucketing and the statistics of {@link LatencyHistogram}.
+ *
+ * @since 5.8.5
+ */
+public class TestLatencyHistogram
+    extends TestCase
+{
+
+    /** The histogram to test. */
+    private LatencyHistogram histogram;
+
+    /**
+     * Creates the histogram.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+    {
+        histogram = new LatencyHistogram();
+    }
+
+    /**
+     * Tests that a latency equal to a bound falls into the bucket of that
+     * bound and a latency above it into the next one.
+     */
+    public void testBounds()
+    {
+        long[] bounds = LatencyHistogram.BOUNDS;
+        for (int i = 0; i < bounds.length; i++) {
+            histogram.record(bounds[i]);
+            histogram.record(bounds[i]+1);
+        }
+        long[] counts = histogram.getCounts();
+        assertEquals(bounds.length+1, counts.length);
+        assertEquals(1, counts[0]);
+        for (int i = 1; i < bounds.length; i++)
+            assertEquals(2, counts[i]);
+        assertEquals(1, counts[bounds.length]);
+    }
+
+    /**
+     * Tests that the latencies below the first bound, including zero, fall
+     * into the first bucket and that the last bucket is unbounded.
+     */
+    public void testFirstAndLastBuckets()
+    {
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(Long.MAX_VALUE/2);
+        long[] counts = histogram.getCounts();
+        assertEquals(2, counts[0]);
+        assertEquals(1, counts[counts.length-1]);
+    }
+
+    /**
+     * Tests the count, total, mean and maximum.
+     */
+    public void testStatistics()
+    {
+        assertEquals(0, histogram.getMean());
+        histogram.record(5);
+        histogram.record(15);
+        histogram.record(40);
+        assertEquals(3, histogram.getCount());
+        assertEquals(60, histogram.getTotal());
+        assertEquals(20, histogram.getMean());
+        assertEquals(40, histogram.getMax());
+    }
+
+    /**
+     * Tests that the percentiles are the upper bounds of the buckets,
+     * capped by the maximum latency.
+     */
+    public void testPercentile()
+    {
+        assertEquals(0, histogram.getPercentile(0.5));
+        for (int i = 0; i < 9; i++)
+            histogram.record(5);
+        assertEquals(5, histogram.getPercentile(0.5));
+        histogram.record(700);
+        assertEquals(10, histogram.getPercentile(0.5));
+        assertEquals(10, histogram.getPercentile(0.9));
+        assertEquals(700, histogram.getPercentile(0.95));
+        histogram.record(50000);
+        assertEquals(10, histogram.getPercentile(0.5));
+        assertEquals(50000, histogram.getPercentile(1));
+    }
+
+    /**
+     * Tests that the counts returned are a copy and that a reset clears
+     * the distribution.
+     */
+    public void testReset()
+    {
+        histogram.record(20);
+        histogram.getCounts()[1] = 10;
+        assertEquals(1, histogram.getCounts()[1]);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getCounts()[1]);
+    }
+
+}
@@ -0,0 +1,240 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.util;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.gateway.model.ImageData;
+import omero.gateway.model.TagAnnotationData;
+import omero.model.IObject;
+import omero.model.ImageAnnotationLink;
+import omero.model.ImageAnnotationLinkI;
+import omero.model.ImageI;
+import omero.model.TagAnnotationI;
+
+/**
+ * Verifies the expiry, the invalidation and the isolation of the entries
+ * of {@link MetadataCache}.
+ *
+ * @since 5.8.5
+ */
+public class TestMetadataCache
+    extends TestCase
+{
+
+    /** The identifier of the group. */
+    private static final long GROUP = 3L;
+
+    /** The time-to-live used by the tests in milliseconds. */
+    private static final long TTL = 60000L;
+
+    /**
+     * Creates a tag.
+     *
+     * @param id The identifier of the tag.
+     * @param value The value of the tag.
+     * @return See above.
+     */
+    private static TagAnnotationData tag(long id, String value)
+    {
+        TagAnnotationData tag = new TagAnnotationData(
+                new TagAnnotationI(id, true));
+        tag.setTagValue(value);
+        return tag;
+    }
+
+    /**
+     * Creates a link between an image and a tag.
+     *
+     * @param imageID The identifier of the image.
+     * @param tagID The identifier of the tag.
+     * @return See above.
+     */
+    private static ImageAnnotationLink link(long imageID, long tagID)
+    {
+        ImageAnnotationLink link = new ImageAnnotationLinkI();
+        link.setParent(new ImageI(imageID, false));
+        link.setChild(new TagAnnotationI(tagID, false));
+        return link;
+    }
+
+    /**
+     * Caches the specified tag as the annotation of the image.
+     *
+     * @param cache The cache to handle.
+     * @param imageID The identifier of the image.
+     * @param tag The tag.
+     */
+    private static void put(MetadataCache cache, long imageID,
+            TagAnnotationData tag)
+    {
+        List<IObject> links = new ArrayList<IObject>();
+        links.add(link(imageID, tag.getId()));
+        cache.putBundle(GROUP, ImageData.class, imageID, -1,
+                Arrays.asList(tag), links);
+    }
+
+    /**
+     * Returns the bundle of the specified image or <code>null</code>.
+     *
+     * @param cache The cache to handle.
+     * @param imageID The identifier of the image.
+     * @return See above.
+     */
+    private static MetadataCache.Bundle get(MetadataCache cache, long imageID)
+    {
+        return cache.getBundle(GROUP, ImageData.class, imageID, -1);
+    }
+
+    /**
+     * Tests that the entries are discarded once they have outlived the
+     * time-to-live.
+     *
+     * @throws Exception Thrown if the test is interrupted.
+     */
+    public void testTimeToLive()
+        throws Exception
+    {
+        MetadataCache cache = new MetadataCache(200);
+        put(cache, 1L, tag(10L, "a"));
+        cache.putList(GROUP, Arrays.asList(tag(11L, "b")), "tags");
+        assertNotNull(get(cache, 1L));
+        assertNotNull(cache.getList(GROUP, "tags"));
+        Thread.sleep(400);
+        assertNull(get(cache, 1L));
+        assertNull(cache.getList(GROUP, "tags"));
+    }
+
+    /** Tests that nothing is cached if the cache is disabled. */
+    public void testDisabled()
+    {
+        MetadataCache cache = new MetadataCache(0);
+        put(cache, 1L, tag(10L, "a"));
+        cache.putList(GROUP, Arrays.asList(tag(11L, "b")), "tags");
+        assertNull(get(cache, 1L));
+        assertNull(cache.getList(GROUP, "tags"));
+        cache.setTimeToLive(TTL);
+        put(cache, 1L, tag(10L, "a"));
+        assertNotNull(get(cache, 1L));
+        cache.setTimeToLive(0);
+        assertNull(get(cache, 1L));
+    }
+
+    /**
+     * Tests that saving links, as done by <code>saveArray</code>, discards
+     * the bundle of the annotated object and the lists only.
+     */
+    public void testInvalidateAfterSave()
+    {
+        MetadataCache cache = new MetadataCache(TTL);
+        put(cache, 1L, tag(10L, "a"));
+        put(cache, 2L, tag(10L, "a"));
+        cache.putList(GROUP, Arrays.asList(tag(11L, "b")), "tags");
+        List<IObject> saved = new ArrayList<IObject>();
+        saved.add(link(1L, 11L));
+        cache.invalidate(saved);
+        assertNull(get(cache, 1L));
+        assertNotNull(get(cache, 2L));
+        assertNull(cache.getList(GROUP, "tags"));
+    }
+
+    /**
+     * Tests that deleting an annotation discards the bundles holding it.
+     */
+    public void testInvalidateAfterDelete()
+    {
+        MetadataCache cache = new MetadataCache(TTL);
+        put(cache, 1L, tag(10L, "a"));
+        put(cache, 2L, tag(10L, "a"));
+        put(cache, 3L, tag(12L, "c"));
+        List<IObject> deleted = new ArrayList<IObject>();
+        deleted.add(new TagAnnotationI(10L, false));
+        cache.invalidate(deleted);
+        assertNull(get(cache, 1L));
+        assertNull(get(cache, 2L));
+        assertNotNull(get(cache, 3L));
+    }
+
+    /**
+     * Tests that the objects returned by the cache are not shared with the
+     * cache nor with the objects returned to other callers.
+     */
+    public void testCopyIsolation()
+    {
+        MetadataCache cache = new MetadataCache(TTL);
+        TagAnnotationData tag = tag(10L, "a");
+        put(cache, 1L, tag);
+        tag.setTagValue("changed by the caller");
+        Collection first = get(cache, 1L).getAnnotations();
+        Collection second = get(cache, 1L).getAnnotations();
+        TagAnnotationData a = (TagAnnotationData) first.iterator().next();
+        TagAnnotationData b = (TagAnnotationData) second.iterator().next();
+        assertNotSame(a, b);
+        assertNotSame(a.asIObject(), b.asIObject());
+        assertEquals("a", a.getTagValue());
+        a.setTagValue("changed by the first caller");
+        assertEquals("a", b.getTagValue());
+        assertEquals("a", ((TagAnnotationData) get(cache, 1L).getAnnotations()
+                .iterator().next()).getTagValue());
+
+        ImageAnnotationLink link = (ImageAnnotationLink)
+                get(cache, 1L).getLinks().iterator().next();
+        link.setParent(new ImageI(5L, false));
+        link = (ImageAnnotationLink) get(cache, 1L).getLinks().iterator()
+                .next();
+        assertEquals(1L, link.getParent().getId().getValue());
+    }
+
+    /**
+     * Tests that the lists returned by the cache are not shared with the
+     * cache.
+     */
+    public void testListIsolation()
+    {
+        MetadataCache cache = new MetadataCache(TTL);
+        List<TagAnnotationData> tags = new ArrayList<TagAnnotationData>();
+        tags.add(tag(10L, "a"));
+        cache.putList(GROUP, tags, "tags");
+        tags.get(0).setTagValue("changed by the caller");
+        tags.add(tag(11L, "b"));
+        Collection l = cache.getList(GROUP, "tags");
+        assertEquals(1, l.size());
+        TagAnnotationData t = (TagAnnotationData) l.iterator().next();
+        assertEquals("a", t.getTagValue());
+        t.setTagValue("changed");
+        l.clear();
+        l = cache.getList(GROUP, "tags");
+        assertEquals(1, l.size());
+        assertEquals("a", ((TagAnnotationData) l.iterator().next())
+                .getTagValue());
+    }
+
+}
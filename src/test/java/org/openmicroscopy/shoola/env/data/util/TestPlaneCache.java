@@ -0,0 +1,179 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.util;
+
+
+//Java imports
+import java.util.Arrays;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+
+/**
+ * Verifies that {@link PlaneCache} discards the least recently used planes
+ * once the cumulated size exceeds the budget and that the planes are shared
+ * among the callers.
+ *
+ * @since 5.8.5
+ */
+public class TestPlaneCache
+    extends TestCase
+{
+
+    /** The identifier of the pixels set. */
+    private static final long PIXELS = 1L;
+
+    /** The size of a plane in bytes. */
+    private static final int PLANE = 100;
+
+    /**
+     * Creates a plane filled with the specified value.
+     *
+     * @param value The value.
+     * @return See above.
+     */
+    private static byte[] plane(int value)
+    {
+        byte[] plane = new byte[PLANE];
+        Arrays.fill(plane, (byte) value);
+        return plane;
+    }
+
+    /**
+     * Verifies that the least recently used planes are discarded once the
+     * budget is exceeded.
+     */
+    public void testEviction()
+    {
+        PlaneCache cache = new PlaneCache(3*PLANE);
+        for (int z = 0; z < 3; z++)
+            cache.put(PIXELS, z, 0, 0, plane(z));
+        assertEquals(3*PLANE, cache.getSize());
+        assertNotNull(cache.get(PIXELS, 0, 0, 0));  //Now the most recent.
+        cache.put(PIXELS, 3, 0, 0, plane(3));
+        assertEquals("Budget not honoured.", 3*PLANE, cache.getSize());
+        assertEquals(3, cache.getCount());
+        assertNull("Least recently used plane kept.",
+                cache.get(PIXELS, 1, 0, 0));
+        assertNotNull(cache.get(PIXELS, 0, 0, 0));
+        assertNotNull(cache.get(PIXELS, 2, 0, 0));
+        assertNotNull(cache.get(PIXELS, 3, 0, 0));
+    }
+
+    /**
+     * Verifies that the eviction is driven by the size of the planes rather
+     * than by their number.
+     */
+    public void testEvictionBySize()
+    {
+        PlaneCache cache = new PlaneCache(3*PLANE);
+        cache.put(PIXELS, 0, 0, 0, plane(0));
+        cache.put(PIXELS, 1, 0, 0, plane(1));
+        cache.put(PIXELS, 2, 0, 0, new byte[2*PLANE]);
+        assertEquals("Budget not honoured.", 3*PLANE, cache.getSize());
+        assertEquals(2, cache.getCount());
+        assertNull(cache.get(PIXELS, 0, 0, 0));
+        assertNotNull(cache.get(PIXELS, 1, 0, 0));
+        cache.put(PIXELS, 3, 0, 0, new byte[4*PLANE]);
+        assertNull("Plane larger than the budget cached.",
+                cache.get(PIXELS, 3, 0, 0));
+        assertNotNull(cache.get(PIXELS, 2, 0, 0));
+        cache.setBudget(PLANE);
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getCount());
+    }
+
+    /**
+     * Verifies that replacing a plane doesn't count it twice.
+     */
+    public void testReplace()
+    {
+        PlaneCache cache = new PlaneCache(3*PLANE);
+        cache.put(PIXELS, 0, 0, 0, plane(0));
+        cache.put(PIXELS, 0, 0, 0, plane(1));
+        assertEquals(PLANE, cache.getSize());
+        assertEquals(1, cache.get(PIXELS, 0, 0, 0)[0]);
+    }
+
+    /**
+     * Verifies that a plane cached by a caller is served to the others and
+     * that each of them gets its own copy.
+     */
+    public void testHitsAcrossCallers()
+        throws Exception
+    {
+        final PlaneCache cache = new PlaneCache(10*PLANE);
+        assertNull(cache.get(PIXELS, 0, 1, 0));
+        cache.put(PIXELS, 0, 1, 0, plane(7));
+        final byte[][] planes = new byte[4][];
+        Thread[] callers = new Thread[planes.length];
+        for (int i = 0; i < callers.length; i++) {
+            final int index = i;
+            callers[i] = new Thread() {
+                public void run()
+                {
+                    planes[index] = cache.get(PIXELS, 0, 1, 0);
+                }
+            };
+            callers[i].start();
+        }
+        for (int i = 0; i < callers.length; i++)
+            callers[i].join();
+        for (int i = 0; i < planes.length; i++) {
+            assertTrue("Wrong plane.", Arrays.equals(plane(7), planes[i]));
+            for (int j = 0; j < i; j++)
+                assertNotSame("Plane shared.", planes[j], planes[i]);
+        }
+        planes[0][0] = 0;
+        assertEquals("Cached plane modified.", 7,
+                cache.get(PIXELS, 0, 1, 0)[0]);
+        assertEquals(planes.length+1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    /**
+     * Verifies that the planes are identified by the pixels set, the
+     * z-section, the channel and the time-point, and discarded per pixels
+     * set.
+     */
+    public void testRemove()
+    {
+        PlaneCache cache = new PlaneCache(10*PLANE);
+        cache.put(PIXELS, 0, 0, 0, plane(1));
+        cache.put(PIXELS, 0, 1, 0, plane(2));
+        cache.put(PIXELS, 0, 0, 1, plane(3));
+        cache.put(PIXELS+1, 0, 0, 0, plane(4));
+        assertEquals(2, cache.get(PIXELS, 0, 1, 0)[0]);
+        assertEquals(3, cache.get(PIXELS, 0, 0, 1)[0]);
+        assertEquals(4, cache.get(PIXELS+1, 0, 0, 0)[0]);
+        cache.remove(PIXELS);
+        assertEquals(1, cache.getCount());
+        assertEquals(PLANE, cache.getSize());
+        assertNull(cache.get(PIXELS, 0, 0, 0));
+        assertNotNull(cache.get(PIXELS+1, 0, 0, 0));
+        cache.clear();
+        assertEquals(0, cache.getSize());
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.views;
+
+
+//Java imports
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.util.concur.tasks.ExecMonitor;
+import org.openmicroscopy.shoola.util.concur.tasks.NullExecMonitor;
+
+/**
+ * Verifies that {@link CallMetrics} records the outcome of the calls per
+ * call type and can be exposed through <i>JMX</i>.
+ *
+ * @since 5.8.5
+ */
+public class TestCallMetrics
+    extends TestCase
+{
+
+    /** A call type. */
+    private static class LoaderA
+        extends BatchCallTree
+    {
+        protected void buildTree() {}
+        protected Object getResult() { return null; }
+    }
+
+    /** Another call type. */
+    private static class LoaderB
+        extends LoaderA
+    {
+    }
+
+    private CallMetrics target;
+
+    private CallMetrics.CallStats find(String name)
+    {
+        for (CallMetrics.CallStats s : target.getCallStats())
+            if (s.getName().endsWith(name)) return s;
+        return null;
+    }
+
+    protected void setUp()
+    {
+        target = new CallMetrics();
+    }
+
+    public void testOutcomes()
+    {
+        ExecMonitor m = target.monitor(new LoaderA(), new NullExecMonitor());
+        m.onStart();
+        m.update(1);
+        m.onEnd(null);
+        m = target.monitor(new LoaderA(), new NullExecMonitor());
+        m.onStart();
+        m.onAbort(new Exception());
+        m = target.monitor(new LoaderB(), new NullExecMonitor());
+        m.onCancel();  //Cancelled before being started.
+        ExecMonitor pending = target.monitor(new LoaderB(), null);
+        pending.onStart();
+
+        CallMetrics.CallStats a = find("LoaderA"), b = find("LoaderB");
+        assertEquals(2, a.getCount());
+        assertEquals(0, a.getInFlight());
+        assertEquals(1, a.getFailed());
+        assertEquals(0, a.getCancelled());
+        assertEquals(2, b.getCount());
+        assertEquals(1, b.getInFlight());
+        assertEquals(1, b.getCancelled());
+        assertEquals(4, target.getSubmittedCount());
+        assertEquals(1, target.getInFlightCount());
+        assertEquals(1, target.getCancelledCount());
+        assertEquals(1, target.getFailedCount());
+        assertEquals(-1, target.getQueueLength());
+
+        target.reset();
+        assertEquals(0, target.getSubmittedCount());
+        assertEquals(1, target.getInFlightCount());
+        pending.onEnd(null);
+        assertEquals(0, target.getInFlightCount());
+    }
+
+    public void testHistogram()
+    {
+        CallMetrics.CallStats s = new CallMetrics.CallStats("Loader");
+        for (int i = 0; i < 19; i++)
+            s.ended(CallMetrics.DONE, 5);
+        s.ended(CallMetrics.DONE, 200);
+        long[] h = s.getHistogram();
+        assertEquals(19, h[0]);
+        assertEquals(1, h[4]);
+        assertEquals(10, s.getLatencyPercentile(0.5));
+        assertEquals(10, s.getLatency95());
+        assertEquals(200, s.getLatencyPercentile(1));
+        assertEquals(200, s.getMaxLatency());
+        assertEquals(14, s.getMeanLatency());
+    }
+
+    public void testJMX()
+        throws Exception
+    {
+        target.monitor(new LoaderA(), null).onEnd(null);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(CallMetrics.OBJECT_NAME+",test=1");
+        server.registerMBean(target, name);
+        try {
+            assertEquals(Long.valueOf(1),
+                    server.getAttribute(name, "SubmittedCount"));
+            Object stats = server.getAttribute(name, "CallStats");
+            assertNotNull(stats);
+            assertTrue(((String) server.getAttribute(name, "Report"))
+                    .indexOf("LoaderA") > 0);
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+}
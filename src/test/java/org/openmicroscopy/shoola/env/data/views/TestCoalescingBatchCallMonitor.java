@@ -0,0 +1,117 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.views;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackBatchEvent;
+import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackEvent;
+import org.openmicroscopy.shoola.env.data.events.DSCallOutcomeEvent;
+import org.openmicroscopy.shoola.env.event.AgentEvent;
+import org.openmicroscopy.shoola.env.event.AgentEventListener;
+import org.openmicroscopy.shoola.util.concur.tasks.ExecMonitor;
+
+/**
+ * Verifies that a {@link CoalescingBatchCallMonitor} delivers the progress
+ * notifications piled up while the <i>Swing</i> dispatching thread is busy
+ * as one batch, in order and before the outcome.
+ *
+ * @since 5.8.5
+ */
+public class TestCoalescingBatchCallMonitor
+    extends TestCase
+{
+
+    private static final long TIMEOUT = 5000;
+
+    private List<AgentEvent> events;  //Events delivered to the observer.
+
+    private CountDownLatch outcome;  //Released with the outcome event.
+
+    private AgentEventListener observer;
+
+    public void setUp()
+    {
+        events = new ArrayList<AgentEvent>();
+        outcome = new CountDownLatch(1);
+        observer = new AgentEventListener() {
+            public void eventFired(AgentEvent e)
+            {
+                assertTrue("Not in the dispatching thread.",
+                        SwingUtilities.isEventDispatchThread());
+                events.add(e);
+                if (e instanceof DSCallOutcomeEvent) outcome.countDown();
+            }
+        };
+    }
+
+    public void testCoalesce()
+        throws Exception
+    {
+        final CountDownLatch busy = new CountDownLatch(1);
+        SwingUtilities.invokeLater(new Runnable() {
+            public void run()
+            {
+                try {
+                    busy.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ie) {
+                    //Ignore.
+                }
+            }
+        });
+        FakeBatchCallTree tree = new FakeBatchCallTree() {
+            protected ExecMonitor getMonitor(AgentEventListener o)
+            {
+                return new CoalescingBatchCallMonitor(this, o);
+            }
+        };
+        tree.exec(observer);  //Runs synchronously.
+        busy.countDown();
+        assertTrue("No outcome.", outcome.await(TIMEOUT,
+                TimeUnit.MILLISECONDS));
+        assertEquals("Notifications not coalesced.", 2, events.size());
+        assertTrue("Outcome not delivered last.",
+                events.get(1) instanceof DSCallOutcomeEvent);
+        List<DSCallFeedbackEvent> l =
+                ((DSCallFeedbackBatchEvent) events.get(0)).getEvents();
+        //onStart plus one update per leaf.
+        assertEquals("Notifications lost.",
+                tree.getActualLeavesCount()+1, l.size());
+        for (int i = 0; i < l.size(); i++)
+            assertEquals("Notifications out of order.",
+                    Integer.valueOf(i+1), l.get(i).getPartialResult());
+        assertEquals("Wrong percent done.", 100,
+                l.get(l.size()-1).getPercentDone());
+    }
+
+}
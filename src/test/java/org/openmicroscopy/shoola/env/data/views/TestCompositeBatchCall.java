@@ -25,11 +25,14 @@ package org.openmicroscopy.shoola.env.data.views;
 
 
 //Java imports
+import java.util.concurrent.atomic.AtomicInteger;
 
 //Third-party libraries
 import junit.framework.TestCase;
 
 //Application-internal dependencies
+import org.openmicroscopy.shoola.util.concur.tasks.AsyncProcessor;
+import org.openmicroscopy.shoola.util.concur.tasks.CancelToken;
 
 /** 
  * Routine unit test for {@link CompositeBatchCall}.
@@ -125,5 +128,57 @@ public class TestCompositeBatchCall
             assertEquals("L"+i+" should have been called only once.", 
                     1, L[i].getDoCallCount());
     }
+    
+    /**
+     * Verifies that a failing child of a parallel node cancels its siblings
+     * and that the failure is only thrown once they have all stopped.
+     */
+    public void testParallelFailureStopsSiblings()
+        throws Exception
+    {
+        final int siblings = 3;
+        final AtomicInteger running = new AtomicInteger(),
+                            cancelled = new AtomicInteger();
+        CompositeBatchCall node = new CompositeBatchCall();
+        node.setParallelism(siblings+1, new AsyncProcessor());
+        for (int i = 0; i < siblings; i++) {
+            node.add(new BatchCall("Sibling "+i) {
+                public void doCall() throws Exception
+                {
+                    running.incrementAndGet();
+                    try {
+                        long end = System.currentTimeMillis()+5000;
+                        while (System.currentTimeMillis() < end) {
+                            if (CancelToken.isCurrentCancelled()) {
+                                cancelled.incrementAndGet();
+                                throw new InterruptedException();
+                            }
+                            Thread.sleep(5);
+                        }
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }
+            });
+        }
+        node.add(new BatchCall("Faulty") {
+            public void doCall() throws Exception
+            {
+                Thread.sleep(50);
+                throw new IllegalStateException("Faulty");
+            }
+        });
+        long start = System.currentTimeMillis();
+        try {
+            while (!node.isDone()) node.doStep();
+            fail("The failure should have been thrown.");
+        } catch (IllegalStateException e) {
+            assertEquals("Wrong failure.", "Faulty", e.getMessage());
+        }
+        assertTrue("Siblings not stopped.",
+                System.currentTimeMillis()-start < 4000);
+        assertEquals("Siblings still running.", 0, running.get());
+        assertEquals("Siblings not cancelled.", siblings, cancelled.get());
+    }
 
 }
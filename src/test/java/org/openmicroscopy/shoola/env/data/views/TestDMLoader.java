@@ -0,0 +1,205 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.views;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.gateway.SecurityContext;
+import omero.gateway.model.DatasetData;
+import omero.gateway.model.ImageData;
+import omero.gateway.model.ProjectData;
+import org.openmicroscopy.shoola.env.config.Registry;
+import org.openmicroscopy.shoola.env.config.RegistryFactory;
+import org.openmicroscopy.shoola.env.data.NullOmeroPojoService;
+import org.openmicroscopy.shoola.env.data.events.DSCallOutcomeEvent;
+import org.openmicroscopy.shoola.env.data.views.calls.DMLoader;
+import org.openmicroscopy.shoola.env.event.AgentEvent;
+import org.openmicroscopy.shoola.env.event.AgentEventListener;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
+import org.openmicroscopy.shoola.util.concur.tasks.ExecMonitor;
+import org.openmicroscopy.shoola.util.concur.tasks.SyncProcessor;
+
+/**
+ * Verifies that {@link DMLoader} loads the requested page of the images of
+ * a dataset.
+ *
+ * @since 5.8.5
+ */
+public class TestDMLoader
+    extends TestCase
+{
+
+    /** The identifier of the dataset. */
+    private static final long DATASET = 7;
+
+    /** The number of images in the dataset. */
+    private static final int IMAGES = 1200;
+
+    /** The service serving the pages of the images of the dataset. */
+    private class PagedService
+        extends NullOmeroPojoService
+    {
+
+        public Collection<ImageData> loadContainerLeaves(SecurityContext ctx,
+                Class rootNodeType, long rootNodeID, int offset, int limit)
+        {
+            assertEquals(DatasetData.class, rootNodeType);
+            assertEquals(DATASET, rootNodeID);
+            pages.add(new int[] {offset, limit});
+            List<ImageData> images = new ArrayList<ImageData>();
+            for (int i = offset; i < Math.min(IMAGES, offset+limit); i++) {
+                ImageData image = new ImageData();
+                image.setId(i+1);
+                images.add(image);
+            }
+            return images;
+        }
+    }
+
+    /** The pages requested, offset and limit. */
+    private List<int[]> pages;
+
+    /** The registry in place before the test. */
+    private Registry previous;
+
+    /**
+     * Loads the specified page.
+     *
+     * @param offset The index of the first image.
+     * @param limit The maximum number of images.
+     * @return See above.
+     */
+    private List<ImageData> loadPage(int offset, int limit)
+    {
+        DMLoader loader = new DMLoader(new SecurityContext(1),
+                DatasetData.class, DATASET, offset, limit) {
+            protected CmdProcessor getProcessor()
+            {
+                return new SyncProcessor();
+            }
+            protected ExecMonitor getMonitor(AgentEventListener observer)
+            {
+                return new SyncBatchCallMonitor(this, observer);
+            }
+        };
+        final List<Object> results = new ArrayList<Object>();
+        //exec is not inherited by the trees of the calls package.
+        ((BatchCallTree) loader).exec(new AgentEventListener() {
+            public void eventFired(AgentEvent e)
+            {
+                if (e instanceof DSCallOutcomeEvent) {
+                    DSCallOutcomeEvent outcome = (DSCallOutcomeEvent) e;
+                    assertNull(outcome.getException());
+                    results.add(outcome.getResult());
+                }
+            }
+        });
+        assertEquals(1, results.size());
+        return new ArrayList<ImageData>((Collection<ImageData>)
+                results.get(0));
+    }
+
+    /**
+     * Binds the paged service to the registry used by the calls.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+    {
+        pages = new ArrayList<int[]>();
+        previous = DataViewsFactory.getContext();
+        Registry registry = RegistryFactory.makeNew();
+        RegistryFactory.linkOS(new PagedService(), registry);
+        DataViewsFactory.setContext(registry);
+    }
+
+    /**
+     * Restores the registry.
+     * @see TestCase#tearDown()
+     */
+    protected void tearDown()
+    {
+        DataViewsFactory.setContext(previous);
+    }
+
+    /**
+     * Tests that the pages are requested with the passed offset and limit,
+     * the last page being shorter.
+     */
+    public void testPages()
+    {
+        List<ImageData> images = new ArrayList<ImageData>();
+        int offset = 0;
+        List<ImageData> page;
+        do {
+            page = loadPage(offset, 500);
+            images.addAll(page);
+            offset += page.size();
+        } while (page.size() == 500);
+        assertEquals(IMAGES, images.size());
+        assertEquals(3, pages.size());
+        assertEquals(0, pages.get(0)[0]);
+        assertEquals(500, pages.get(1)[0]);
+        assertEquals(1000, pages.get(2)[0]);
+        assertEquals(200, page.size());
+        for (int i = 0; i < images.size(); i++)
+            assertEquals(i+1, images.get(i).getId());
+    }
+
+    /**
+     * Tests that a page after the last image is empty.
+     */
+    public void testEmptyPage()
+    {
+        assertTrue(loadPage(IMAGES, 500).isEmpty());
+    }
+
+    /**
+     * Tests that the pages not valid or of containers other than datasets
+     * are rejected in the caller's thread.
+     */
+    public void testInvalidPage()
+    {
+        SecurityContext ctx = new SecurityContext(1);
+        try {
+            new DMLoader(ctx, ProjectData.class, DATASET, 0, 500);
+            fail("Only the images of a dataset are paged.");
+        } catch (IllegalArgumentException e) {}
+        try {
+            new DMLoader(ctx, DatasetData.class, DATASET, -1, 500);
+            fail("The offset cannot be negative.");
+        } catch (IllegalArgumentException e) {}
+        try {
+            new DMLoader(ctx, DatasetData.class, DATASET, 0, 0);
+            fail("The limit must be positive.");
+        } catch (IllegalArgumentException e) {}
+        assertTrue(pages.isEmpty());
+    }
+
+}
@@ -0,0 +1,251 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.views;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackEvent;
+import org.openmicroscopy.shoola.env.data.events.DSCallOutcomeEvent;
+import org.openmicroscopy.shoola.env.event.AgentEvent;
+import org.openmicroscopy.shoola.env.event.AgentEventListener;
+import org.openmicroscopy.shoola.util.concur.tasks.AsyncProcessor;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
+import org.openmicroscopy.shoola.util.concur.tasks.ExecMonitor;
+
+/**
+ * Verifies that identical {@link BatchCallTree}s in flight share one
+ * execution whose events are delivered to all the observers.
+ *
+ * @since 5.8.5
+ */
+public class TestInFlightCalls
+    extends TestCase
+{
+
+    private static final long TIMEOUT = 5000;
+
+    private static final CmdProcessor PROCESSOR = new AsyncProcessor();
+
+    private int executions;  //The number of trees actually executed.
+
+    private CountDownLatch first;  //Released when the first call is done.
+
+    private CountDownLatch gate;  //Blocks the second call until released.
+
+    /** Runs two calls, the second one waits for the gate. */
+    private class SharedTree
+        extends BatchCallTree
+    {
+
+        private final Object key;
+
+        SharedTree(Object key) { this.key = key; }
+
+        protected void buildTree()
+        {
+            synchronized (TestInFlightCalls.this) { executions++; }
+            add(new BatchCall("First") {
+                public void doCall()
+                {
+                    setPartialResult("first");
+                    first.countDown();
+                }
+            });
+            add(new BatchCall("Second") {
+                public void doCall() throws Exception
+                {
+                    gate.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                    setPartialResult("second");
+                }
+            });
+        }
+
+        protected Object getResult() { return key; }
+
+        protected Object getRequestKey() { return makeRequestKey(null, key); }
+
+        protected CmdProcessor getProcessor() { return PROCESSOR; }
+
+        protected ExecMonitor getMonitor(AgentEventListener observer)
+        {
+            return new SyncBatchCallMonitor(this, observer);
+        }
+
+    }
+
+    /** Records the events it's notified of. */
+    private static class Observer
+        implements AgentEventListener
+    {
+
+        final List<AgentEvent> events = new ArrayList<AgentEvent>();
+
+        final CountDownLatch outcome = new CountDownLatch(1);
+
+        public synchronized void eventFired(AgentEvent e)
+        {
+            events.add(e);
+            if (e instanceof DSCallOutcomeEvent) outcome.countDown();
+        }
+
+        DSCallOutcomeEvent awaitOutcome()
+            throws InterruptedException
+        {
+            assertTrue("No outcome.",
+                    outcome.await(TIMEOUT, TimeUnit.MILLISECONDS));
+            synchronized (this) {
+                return (DSCallOutcomeEvent) events.get(events.size()-1);
+            }
+        }
+
+        synchronized List<Object> getPartialResults()
+        {
+            List<Object> l = new ArrayList<Object>();
+            for (AgentEvent e : events) {
+                if (e instanceof DSCallFeedbackEvent) {
+                    Object r = ((DSCallFeedbackEvent) e).getPartialResult();
+                    if (r != null) l.add(r);
+                }
+            }
+            return l;
+        }
+
+    }
+
+    protected void setUp()
+    {
+        first = new CountDownLatch(1);
+        gate = new CountDownLatch(1);
+    }
+
+    protected void tearDown() { gate.countDown(); }
+
+    public void testShared()
+        throws Exception
+    {
+        Observer o1 = new Observer(), o2 = new Observer();
+        new SharedTree("shared").exec(o1);
+        assertTrue("First call not run.",
+                first.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        new SharedTree("shared").exec(o2);  //Joins the first tree.
+        gate.countDown();
+        assertEquals("shared", o1.awaitOutcome().getResult());
+        assertEquals("shared", o2.awaitOutcome().getResult());
+        assertEquals("Request not shared.", 1, executions);
+        assertEquals("[first, second]", o1.getPartialResults().toString());
+        assertEquals("Feedback not replayed.", o1.getPartialResults(),
+                o2.getPartialResults());
+    }
+
+    public void testDistinct()
+        throws Exception
+    {
+        Observer o1 = new Observer(), o2 = new Observer();
+        new SharedTree("a").exec(o1);
+        new SharedTree("b").exec(o2);
+        gate.countDown();
+        assertEquals("a", o1.awaitOutcome().getResult());
+        assertEquals("b", o2.awaitOutcome().getResult());
+        assertEquals("Distinct requests shared.", 2, executions);
+    }
+
+    public void testCancel()
+        throws Exception
+    {
+        Observer o1 = new Observer(), o2 = new Observer();
+        CallHandle h1 = new SharedTree("cancel").exec(o1);
+        CallHandle h2 = new SharedTree("cancel").exec(o2);
+        h2.cancel();
+        assertTrue("Cancellation not delivered.",
+                o2.awaitOutcome().wasCancelled());
+        h1.cancel();
+        assertTrue("Cancellation not delivered.",
+                o1.awaitOutcome().wasCancelled());
+
+        //No observers left, so the next request is executed anew.
+        Observer o3 = new Observer();
+        new SharedTree("cancel").exec(o3);
+        gate.countDown();
+        assertEquals("cancel", o3.awaitOutcome().getResult());
+        assertEquals("Cancelled request still shared.", 2, executions);
+    }
+
+    /** Waits for the replays posted to the Swing dispatching thread. */
+    private static void flushReplays()
+        throws Exception
+    {
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {}
+        });
+    }
+
+    public void testProgressCollapsed()
+        throws Exception
+    {
+        InFlightCalls calls = new InFlightCalls();
+        Observer o1 = new Observer(), o2 = new Observer();
+        InFlightCalls.SharedCall call = calls.new SharedCall("progress", o1);
+        call.eventFired(new DSCallFeedbackEvent(10, null, "first"));
+        for (int i = 20; i < 100; i++)
+            call.eventFired(new DSCallFeedbackEvent(i, null, null));
+        call.eventFired(new DSCallFeedbackEvent(100, null, "second"));
+        assertTrue(call.join(o2));
+        flushReplays();
+        assertEquals(82, o1.events.size());
+        assertEquals("Progress not collapsed.", 3, o2.events.size());
+        assertEquals(99,
+                ((DSCallFeedbackEvent) o2.events.get(1)).getPercentDone());
+        assertEquals("[first, second]", o2.getPartialResults().toString());
+    }
+
+    public void testHistoryCapped()
+        throws Exception
+    {
+        InFlightCalls calls = new InFlightCalls();
+        Observer o1 = new Observer(), o2 = new Observer(),
+                o3 = new Observer();
+        InFlightCalls.SharedCall call = calls.new SharedCall("capped", o1);
+        for (int i = 0; i < InFlightCalls.MAX_HISTORY-1; i++)
+            call.eventFired(new DSCallFeedbackEvent(0, null, i));
+        assertTrue(call.join(o2));
+        call.eventFired(new DSCallFeedbackEvent(0, null, "last"));
+        assertFalse("Capped call still shared.", call.join(o3));
+        flushReplays();
+        //The observer joining before the cap still gets all the events.
+        assertEquals(o1.getPartialResults(), o2.getPartialResults());
+        assertEquals(InFlightCalls.MAX_HISTORY,
+                o2.getPartialResults().size());
+        assertTrue(o3.events.isEmpty());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,223 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.views;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.gateway.SecurityContext;
+import omero.gateway.exception.DSAccessException;
+import omero.gateway.model.SearchParameters;
+import omero.gateway.model.SearchResultCollection;
+import org.openmicroscopy.shoola.env.LookupNames;
+import org.openmicroscopy.shoola.env.config.Registry;
+import org.openmicroscopy.shoola.env.config.RegistryFactory;
+import org.openmicroscopy.shoola.env.data.NullOmeroPojoService;
+import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackEvent;
+import org.openmicroscopy.shoola.env.data.events.DSCallOutcomeEvent;
+import org.openmicroscopy.shoola.env.data.util.SearchCursor;
+import org.openmicroscopy.shoola.env.data.views.calls.ObjectFinder;
+import org.openmicroscopy.shoola.env.event.AgentEvent;
+import org.openmicroscopy.shoola.env.event.AgentEventListener;
+import org.openmicroscopy.shoola.util.concur.tasks.CancelToken;
+import org.openmicroscopy.shoola.util.concur.tasks.SyncProcessor;
+
+/**
+ * Verifies that {@link ObjectFinder} delivers the pages of a search in
+ * order and closes the cursor once the last page has been read, on error
+ * and when the search is cancelled.
+ *
+ * @since 5.8.5
+ */
+public class TestObjectFinder
+    extends TestCase
+{
+
+    /** The number of pages of the search. */
+    private static final int PAGES = 3;
+
+    /** The cursor serving {@link #PAGES} pages. */
+    private class Cursor
+        implements SearchCursor
+    {
+
+        public boolean hasNext() { return !closed && read < PAGES; }
+
+        public SearchResultCollection next()
+            throws DSAccessException
+        {
+            if (read == failingPage)
+                throw new DSAccessException("Page "+read, null);
+            SearchResultCollection page = new SearchResultCollection();
+            pages.add(page);
+            read++;
+            return page;
+        }
+
+        public void close() { closed = true; }
+    }
+
+    /** The service opening the cursor. */
+    private class SearchService
+        extends NullOmeroPojoService
+    {
+
+        public SearchCursor openSearch(SecurityContext ctx,
+                SearchParameters context, int pageSize)
+        {
+            opened++;
+            return new Cursor();
+        }
+    }
+
+    /** The pages served by the cursor, in order. */
+    private List<SearchResultCollection> pages;
+
+    /** The partial results delivered. */
+    private List<Object> delivered;
+
+    /** The number of pages read. */
+    private int read;
+
+    /** The index of the page failing to be read, <code>-1</code> if none. */
+    private int failingPage;
+
+    /** Flag indicating to cancel the search after the first page. */
+    private boolean cancel;
+
+    /** The number of cursors opened. */
+    private int opened;
+
+    /** Flag indicating that the cursor was closed. */
+    private boolean closed;
+
+    /** The outcome of the search. */
+    private DSCallOutcomeEvent outcome;
+
+    /** The registry in place before the test. */
+    private Registry previous;
+
+    /** Runs the search. */
+    private void search()
+    {
+        ObjectFinder finder = new ObjectFinder(new SecurityContext(1), null,
+                10);
+        //exec is not inherited by the trees of the calls package.
+        ((BatchCallTree) finder).exec(new AgentEventListener() {
+            public void eventFired(AgentEvent e)
+            {
+                if (e instanceof DSCallOutcomeEvent) {
+                    outcome = (DSCallOutcomeEvent) e;
+                } else if (e instanceof DSCallFeedbackEvent) {
+                    Object r = ((DSCallFeedbackEvent) e).getPartialResult();
+                    if (r == null) return;
+                    delivered.add(r);
+                    //Runs in the thread executing the search, as would the
+                    //cancellation requested by the user between two pages.
+                    if (cancel) CancelToken.current().cancel();
+                }
+            }
+        });
+        assertNotNull("No outcome.", outcome);
+        assertEquals(1, opened);
+    }
+
+    /**
+     * Binds the search service to the registry used by the calls.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+    {
+        pages = new ArrayList<SearchResultCollection>();
+        delivered = new ArrayList<Object>();
+        read = 0;
+        failingPage = -1;
+        cancel = false;
+        opened = 0;
+        closed = false;
+        outcome = null;
+        previous = DataViewsFactory.getContext();
+        Registry registry = RegistryFactory.makeNew();
+        RegistryFactory.linkOS(new SearchService(), registry);
+        registry.bind(LookupNames.CMD_PROCESSOR, new SyncProcessor());
+        registry.bind(LookupNames.MONITOR_FACTORY, new SyncMonitorFactory());
+        DataViewsFactory.setContext(registry);
+    }
+
+    /**
+     * Restores the registry.
+     * @see TestCase#tearDown()
+     */
+    protected void tearDown()
+    {
+        DataViewsFactory.setContext(previous);
+    }
+
+    /**
+     * Tests that the pages but the last one are delivered in order as
+     * partial results, the last one being the result, and that the cursor
+     * is closed.
+     */
+    public void testPages()
+    {
+        search();
+        assertNull(outcome.getException());
+        assertEquals(PAGES, pages.size());
+        assertEquals(pages.subList(0, PAGES-1), delivered);
+        assertSame(pages.get(PAGES-1), outcome.getResult());
+        assertTrue("Cursor not closed.", closed);
+    }
+
+    /**
+     * Tests that a page failing to be read fails the search and closes the
+     * cursor.
+     */
+    public void testError()
+    {
+        failingPage = 1;
+        search();
+        assertTrue(outcome.getException() instanceof DSAccessException);
+        assertEquals(pages, delivered);
+        assertTrue("Cursor not closed.", closed);
+    }
+
+    /**
+     * Tests that cancelling the search between two pages closes the cursor
+     * and stops reading the pages.
+     */
+    public void testCancel()
+    {
+        cancel = true;
+        search();
+        assertTrue(outcome.wasCancelled());
+        assertEquals(1, pages.size());
+        assertTrue("Cursor not closed.", closed);
+    }
+
+}
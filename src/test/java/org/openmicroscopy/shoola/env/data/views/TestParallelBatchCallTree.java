@@ -0,0 +1,167 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.views;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackEvent;
+import org.openmicroscopy.shoola.env.data.events.DSCallOutcomeEvent;
+import org.openmicroscopy.shoola.env.event.AgentEvent;
+import org.openmicroscopy.shoola.env.event.AgentEventListener;
+import org.openmicroscopy.shoola.util.concur.tasks.AsyncProcessor;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
+import org.openmicroscopy.shoola.util.concur.tasks.ExecMonitor;
+
+/**
+ * Verifies that a {@link BatchCallTree} set to run its calls in parallel
+ * honours the degree of parallelism and delivers the partial result of each
+ * call with its own feedback event.
+ *
+ * @since 5.8.5
+ */
+public class TestParallelBatchCallTree
+    extends TestCase
+{
+
+    private static final int CALLS = 12;
+
+    private static final int PARALLELISM = 3;
+
+    private static final long TIMEOUT = 5000;
+
+    private int running, maxRunning;  //Calls running at the same time.
+
+    private List<AgentEvent> events;  //Events delivered to the observer.
+
+    private CountDownLatch outcome;  //Released with the outcome event.
+
+    private AgentEventListener observer;
+
+    /** Runs {@link #CALLS} calls, each publishing its own index. */
+    private class ParallelTree
+        extends BatchCallTree
+    {
+
+        private final CmdProcessor processor = new AsyncProcessor();
+
+        private final int faultyCall;
+
+        ParallelTree(int faultyCall)
+        {
+            this.faultyCall = faultyCall;
+            setParallelism(PARALLELISM);
+        }
+
+        protected void buildTree()
+        {
+            for (int i = 0; i < CALLS; i++) {
+                final int index = i;
+                add(new BatchCall("Call "+i) {
+                    public void doCall() throws Exception
+                    {
+                        synchronized (TestParallelBatchCallTree.this) {
+                            maxRunning = Math.max(maxRunning, ++running);
+                        }
+                        Thread.sleep(20);
+                        synchronized (TestParallelBatchCallTree.this) {
+                            running--;
+                        }
+                        if (index == faultyCall)
+                            throw new Exception("Call "+index);
+                        setPartialResult(Integer.valueOf(index));
+                    }
+                });
+            }
+        }
+
+        protected Object getResult() { return Boolean.TRUE; }
+
+        protected CmdProcessor getProcessor() { return processor; }
+
+        protected ExecMonitor getMonitor(AgentEventListener observer)
+        {
+            return new SyncBatchCallMonitor(this, observer);
+        }
+
+    }
+
+    protected void setUp()
+    {
+        events = new ArrayList<AgentEvent>();
+        outcome = new CountDownLatch(1);
+        observer = new AgentEventListener() {
+            public void eventFired(AgentEvent e)
+            {
+                synchronized (events) { events.add(e); }
+                if (e instanceof DSCallOutcomeEvent) outcome.countDown();
+            }
+        };
+    }
+
+    public void testNormalOutcome()
+        throws Exception
+    {
+        new ParallelTree(-1).exec(observer);
+        assertTrue("No outcome.",
+                outcome.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Set<Object> results = new HashSet<Object>();
+        int feedbacks = 0;
+        for (AgentEvent e : events) {
+            if (!(e instanceof DSCallFeedbackEvent)) continue;
+            Object r = ((DSCallFeedbackEvent) e).getPartialResult();
+            if (r != null) assertTrue("Result delivered twice.", results.add(r));
+            feedbacks++;
+        }
+        assertEquals("One feedback event per call expected.", CALLS+1,
+                feedbacks);
+        assertEquals("Partial result missing.", CALLS, results.size());
+        assertEquals(100, ((DSCallFeedbackEvent) events.get(CALLS))
+                .getPercentDone());
+        DSCallOutcomeEvent o = (DSCallOutcomeEvent) events.get(CALLS+1);
+        assertEquals(Boolean.TRUE, o.getResult());
+        assertTrue("Calls not run in parallel.", maxRunning > 1);
+        assertTrue("Parallelism not honoured.", maxRunning <= PARALLELISM);
+    }
+
+    public void testException()
+        throws Exception
+    {
+        new ParallelTree(5).exec(observer);
+        assertTrue("No outcome.",
+                outcome.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        AgentEvent last = events.get(events.size()-1);
+        assertTrue("Exception not delivered.",
+                ((DSCallOutcomeEvent) last).hasException());
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data.views;
+
+
+//Java imports
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.gateway.SecurityContext;
+import omero.gateway.model.AnnotationData;
+import omero.gateway.model.DataObject;
+import omero.gateway.model.ImageData;
+import omero.gateway.model.TagAnnotationData;
+import omero.model.ImageAnnotationLinkI;
+import org.openmicroscopy.shoola.env.config.Registry;
+import org.openmicroscopy.shoola.env.config.RegistryFactory;
+import org.openmicroscopy.shoola.env.data.OmeroMetadataService;
+import org.openmicroscopy.shoola.env.data.events.DSCallOutcomeEvent;
+import org.openmicroscopy.shoola.env.data.views.calls.StructuredAnnotationSaver;
+import org.openmicroscopy.shoola.env.event.AgentEvent;
+import org.openmicroscopy.shoola.env.event.AgentEventListener;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
+import org.openmicroscopy.shoola.util.concur.tasks.ExecMonitor;
+import org.openmicroscopy.shoola.util.concur.tasks.SyncProcessor;
+
+/**
+ * Verifies that {@link StructuredAnnotationSaver} saves a batch annotation
+ * in chunks of {@link OmeroMetadataService#BATCH_SIZE} objects, the objects
+ * to remove which are not annotations being only handled with the first
+ * chunk.
+ *
+ * @since 5.8.5
+ */
+public class TestStructuredAnnotationSaver
+    extends TestCase
+{
+
+    /** The objects passed to each call saving the links. */
+    private List<List<DataObject>> chunks;
+
+    /** The objects to remove passed to each call saving the links. */
+    private List<List<Object>> removals;
+
+    /** The annotations passed to each call saving the links. */
+    private List<List<AnnotationData>> linked;
+
+    /** The objects returned as the targets of the batch annotation. */
+    private List<DataObject> targets;
+
+    /** The registry in place before the test. */
+    private Registry previous;
+
+    /**
+     * Creates the specified number of images.
+     *
+     * @param n The number of images.
+     * @return See above.
+     */
+    private static List<DataObject> images(int n)
+    {
+        List<DataObject> images = new ArrayList<DataObject>();
+        for (int i = 0; i < n; i++) {
+            ImageData image = new ImageData();
+            image.setId(i+1);
+            images.add(image);
+        }
+        return images;
+    }
+
+    /**
+     * Creates a service recording the calls saving the links.
+     *
+     * @return See above.
+     */
+    private OmeroMetadataService createService()
+    {
+        return (OmeroMetadataService) Proxy.newProxyInstance(
+                OmeroMetadataService.class.getClassLoader(),
+                new Class<?>[] {OmeroMetadataService.class},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method m,
+                            Object[] args) {
+                        String name = m.getName();
+                        if (name.equals("loadBatchTargets")) return targets;
+                        if (name.equals("prepareAnnotations")) return args[1];
+                        if (name.equals("saveAnnotationLinks")) {
+                            chunks.add(new ArrayList<DataObject>(
+                                    (Collection<DataObject>) args[1]));
+                            linked.add((List<AnnotationData>) args[2]);
+                            removals.add((List<Object>) args[3]);
+                            return Integer.valueOf(0);
+                        }
+                        throw new UnsupportedOperationException(name);
+                    }
+                });
+    }
+
+    /**
+     * Saves a batch annotation of the {@link #targets}.
+     *
+     * @param toAdd The annotations to add.
+     * @param toRemove The objects to remove.
+     */
+    private void save(List<AnnotationData> toAdd, List<Object> toRemove)
+    {
+        StructuredAnnotationSaver saver = new StructuredAnnotationSaver(
+                new SecurityContext(1), new ArrayList<DataObject>(targets),
+                toAdd, toRemove, null, 1, true) {
+            protected CmdProcessor getProcessor()
+            {
+                return new SyncProcessor();
+            }
+            protected ExecMonitor getMonitor(AgentEventListener observer)
+            {
+                return new SyncBatchCallMonitor(this, observer);
+            }
+        };
+        final List<Object> results = new ArrayList<Object>();
+        //exec is not inherited by the trees of the calls package.
+        ((BatchCallTree) saver).exec(new AgentEventListener() {
+            public void eventFired(AgentEvent e)
+            {
+                if (e instanceof DSCallOutcomeEvent) {
+                    DSCallOutcomeEvent outcome = (DSCallOutcomeEvent) e;
+                    assertNull(outcome.getException());
+                    results.add(outcome.getResult());
+                }
+            }
+        });
+        assertEquals(Arrays.asList(targets), results);
+    }
+
+    /**
+     * Checks that the chunks have the specified sizes and hold all the
+     * targets, in order.
+     *
+     * @param sizes The expected sizes.
+     */
+    private void assertChunks(int... sizes)
+    {
+        assertEquals(sizes.length, chunks.size());
+        List<DataObject> all = new ArrayList<DataObject>();
+        for (int i = 0; i < sizes.length; i++) {
+            assertEquals("Wrong size of chunk "+i, sizes[i],
+                    chunks.get(i).size());
+            all.addAll(chunks.get(i));
+        }
+        assertEquals(targets, all);
+    }
+
+    /**
+     * Binds the recording service to the registry used by the calls.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+    {
+        chunks = new ArrayList<List<DataObject>>();
+        removals = new ArrayList<List<Object>>();
+        linked = new ArrayList<List<AnnotationData>>();
+        previous = DataViewsFactory.getContext();
+        Registry registry = RegistryFactory.makeNew();
+        RegistryFactory.linkMS(createService(), registry);
+        DataViewsFactory.setContext(registry);
+    }
+
+    /**
+     * Restores the registry.
+     * @see TestCase#tearDown()
+     */
+    protected void tearDown()
+    {
+        DataViewsFactory.setContext(previous);
+    }
+
+    /**
+     * Tests that the objects are split at the chunk boundaries and that
+     * every chunk gets the annotations to link.
+     */
+    public void testChunks()
+    {
+        int size = OmeroMetadataService.BATCH_SIZE;
+        List<AnnotationData> toAdd = new ArrayList<AnnotationData>();
+        toAdd.add(new TagAnnotationData("Tag"));
+        targets = images(2*size+size/2);
+        save(toAdd, null);
+        assertChunks(size, size, size/2);
+        for (List<AnnotationData> l : linked)
+            assertEquals(toAdd, l);
+    }
+
+    /**
+     * Tests that a number of objects multiple of the chunk size doesn't
+     * lead to an empty chunk and that one more object leads to a new one.
+     */
+    public void testChunkBoundaries()
+    {
+        int size = OmeroMetadataService.BATCH_SIZE;
+        targets = images(size);
+        save(null, null);
+        assertChunks(size);
+        chunks.clear();
+        targets = images(2*size);
+        save(null, null);
+        assertChunks(size, size);
+        chunks.clear();
+        targets = images(size+1);
+        save(null, null);
+        assertChunks(size, 1);
+    }
+
+    /**
+     * Tests that the annotations to remove are handled with every chunk
+     * while the other objects, e.g. the links, are only handled with the
+     * first one.
+     */
+    public void testRemovals()
+    {
+        int size = OmeroMetadataService.BATCH_SIZE;
+        TagAnnotationData tag = new TagAnnotationData("Tag");
+        tag.setId(10);
+        List<Object> toRemove = new ArrayList<Object>();
+        toRemove.add(tag);
+        toRemove.add(new ImageAnnotationLinkI(5L, true));
+        targets = images(3*size);
+        save(null, toRemove);
+        assertChunks(size, size, size);
+        assertEquals(toRemove, removals.get(0));
+        assertEquals(Arrays.<Object>asList(tag), removals.get(1));
+        assertEquals(Arrays.<Object>asList(tag), removals.get(2));
+    }
+
+}
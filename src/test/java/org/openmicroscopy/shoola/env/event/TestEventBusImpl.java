@@ -0,0 +1,184 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.env.event;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+
+/**
+ * Verifies the dispatching of {@link EventBusImpl} in both the synchronous
+ * and the asynchronous mode.
+ *
+ * @since 5.8.5
+ */
+public class TestEventBusImpl
+    extends TestCase
+{
+
+    private static final long TIMEOUT = 5000;
+
+    /** Event that is not coalesced. */
+    private static class PlainEvent
+        extends AgentEvent
+    {
+        final int value;
+        PlainEvent(int value) { this.value = value; }
+    }
+
+    /** State event whose coalescing key is the passed id. */
+    private static class StateEvent
+        extends AgentEvent
+    {
+        final long id;
+        final int value;
+        StateEvent(long id, int value)
+        {
+            this.id = id;
+            this.value = value;
+        }
+        public Object getCoalescingKey() { return id; }
+        public int getCoalescingPolicy() { return EventBus.KEEP_LATEST; }
+    }
+
+    /** Records the events it receives. */
+    private static class Recorder
+        implements AgentEventListener
+    {
+        final List<AgentEvent> events = new ArrayList<AgentEvent>();
+        public void eventFired(AgentEvent e) { events.add(e); }
+    }
+
+    //Blocks the Swing thread until the returned latch is released.
+    private CountDownLatch blockSwingThread()
+        throws Exception
+    {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        SwingUtilities.invokeLater(new Runnable() {
+            public void run() {
+                blocked.countDown();
+                try {
+                    release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ie) {}
+            }
+        });
+        assertTrue(blocked.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        return release;
+    }
+
+    //Waits until all the pending deliveries have run on the Swing thread.
+    private void drainSwingThread()
+        throws Exception
+    {
+        for (int i = 0; i < 10; i++)
+            SwingUtilities.invokeAndWait(new Runnable() {
+                public void run() {}
+            });
+    }
+
+    public void testSynchronousDeliversInline()
+    {
+        EventBusImpl bus = new EventBusImpl();
+        Recorder r = new Recorder();
+        bus.register(r, PlainEvent.class);
+        bus.post(new PlainEvent(1));
+        bus.post(new PlainEvent(2));
+        assertEquals(2, r.events.size());
+    }
+
+    public void testAsynchronousDoesNotBlockPoster()
+        throws Exception
+    {
+        EventBusImpl bus = new EventBusImpl(true);
+        Recorder r = new Recorder();
+        bus.register(r, PlainEvent.class);
+        CountDownLatch release = blockSwingThread();
+        bus.post(new PlainEvent(1));
+        bus.post(new PlainEvent(2));
+        assertTrue(r.events.isEmpty());
+        release.countDown();
+        drainSwingThread();
+        assertEquals(2, r.events.size());
+        assertEquals(1, ((PlainEvent) r.events.get(0)).value);
+        assertEquals(2, ((PlainEvent) r.events.get(1)).value);
+    }
+
+    public void testSynchronousQueuesCoalescedEvents()
+        throws Exception
+    {
+        EventBusImpl bus = new EventBusImpl();
+        Recorder r = new Recorder();
+        bus.register(r, StateEvent.class);
+        CountDownLatch release = blockSwingThread();
+        bus.post(new StateEvent(1, 1));
+        bus.post(new StateEvent(1, 2));
+        assertTrue(r.events.isEmpty());
+        release.countDown();
+        drainSwingThread();
+        assertEquals(1, r.events.size());
+        assertEquals(2, ((StateEvent) r.events.get(0)).value);
+    }
+
+    public void testKeepLatestCollapsesPendingEvents()
+        throws Exception
+    {
+        EventBusImpl bus = new EventBusImpl(true);
+        Recorder r = new Recorder();
+        bus.register(r, StateEvent.class);
+        CountDownLatch release = blockSwingThread();
+        for (int i = 0; i < 100; i++)
+            bus.post(new StateEvent(1, i));
+        bus.post(new StateEvent(2, 0));
+        release.countDown();
+        drainSwingThread();
+        assertEquals(2, r.events.size());
+        assertEquals(99, ((StateEvent) r.events.get(0)).value);
+        assertEquals(2, ((StateEvent) r.events.get(1)).id);
+    }
+
+    public void testRemovedSubscriberNotNotified()
+        throws Exception
+    {
+        EventBusImpl bus = new EventBusImpl(true);
+        Recorder r = new Recorder();
+        bus.register(r, PlainEvent.class);
+        CountDownLatch release = blockSwingThread();
+        bus.post(new PlainEvent(1));
+        bus.remove(r);
+        release.countDown();
+        drainSwingThread();
+        assertTrue(r.events.isEmpty());
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.concur.tasks;
+
+
+//Java imports
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+
+/**
+ * Verifies that cancelling a service being executed signals its
+ * {@link CancelToken}, so that a blocking operation can be aborted.
+ *
+ * @since 5.8.5
+ */
+public class TestCancelToken
+    extends TestCase
+{
+
+    private static final long TIMEOUT = 5000;
+
+    private AsyncProcessor  processor;
+    private CountDownLatch  started;  //Released when the service blocks.
+    private CountDownLatch  aborted;  //Released by the token's callback.
+    private CountDownLatch  cancelled;  //Released by onCancel().
+    private boolean         failed;  //Set by onAbort().
+
+    /** A service blocking on an operation aborted by its token. */
+    private class Service
+        implements Runnable
+    {
+        public void run()
+        {
+            CancelToken token = CancelToken.current();
+            assertNotNull("No token.", token);
+            token.register(new Runnable() {
+                public void run() { aborted.countDown(); }
+            });
+            started.countDown();
+            try {
+                if (!aborted.await(TIMEOUT, TimeUnit.MILLISECONDS))
+                    return;
+            } catch (InterruptedException ie) {
+                return;
+            }
+            throw new RuntimeException("Operation aborted.");
+        }
+    }
+
+    public void setUp()
+    {
+        processor = new AsyncProcessor();
+        started = new CountDownLatch(1);
+        aborted = new CountDownLatch(1);
+        cancelled = new CountDownLatch(1);
+    }
+
+    public void testCancelExecuting()
+        throws Exception
+    {
+        ExecHandle handle = processor.exec(new Service(),
+                new NullExecMonitor() {
+                    public void onCancel() { cancelled.countDown(); }
+                    public void onAbort(Throwable cause) { failed = true; }
+                });
+        assertTrue("Service not started.",
+                started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        handle.cancelExecution();
+        assertTrue("Operation not aborted.",
+                aborted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertTrue("Cancellation not notified.",
+                cancelled.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertFalse("Aborted operation reported as a failure.", failed);
+    }
+
+    public void testRegisterWhenCancelled()
+    {
+        CancelToken token = new CancelToken();
+        token.cancel();
+        token.register(new Runnable() {
+            public void run() { aborted.countDown(); }
+        });
+        assertEquals("Callback not run at once.", 0, aborted.getCount());
+    }
+
+    public void testNoCurrentToken()
+    {
+        assertNull("Token outside a service.", CancelToken.current());
+        assertFalse(CancelToken.isCurrentCancelled());
+    }
+
+}
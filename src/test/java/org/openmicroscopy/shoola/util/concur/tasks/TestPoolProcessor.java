@@ -0,0 +1,268 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.concur.tasks;
+
+
+//Java imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+
+/**
+ * Verifies the scheduling of {@link PoolProcessor}: bounds, priority
+ * classes, fairness among groups, cancellation and termination.
+ *
+ * @since 5.8.5
+ */
+public class TestPoolProcessor
+    extends TestCase
+{
+
+    private static final long TIMEOUT = 5000;
+
+    private PoolProcessor   target;  //Object to test.
+    private List<String>    order;  //The names of the services, as run.
+    private CountDownLatch  gate;  //Blocks the services until released.
+    private int             concurrent, maxConcurrent;
+
+    /** A service that records when it runs and waits for the gate. */
+    private class Service
+        implements Runnable, Prioritized
+    {
+        final String name;
+        final int priority;
+        final Object group;
+        final CountDownLatch done = new CountDownLatch(1);
+
+        Service(String name, int priority, Object group)
+        {
+            this.name = name;
+            this.priority = priority;
+            this.group = group;
+        }
+
+        public int getPriority() { return priority; }
+
+        public Object getGroup() { return group; }
+
+        public void run()
+        {
+            synchronized (TestPoolProcessor.this) {
+                order.add(name);
+                maxConcurrent = Math.max(maxConcurrent, ++concurrent);
+            }
+            try {
+                gate.await(TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ie) {
+                //Ignore.
+            }
+            synchronized (TestPoolProcessor.this) { concurrent--; }
+            done.countDown();
+        }
+
+        boolean await() throws InterruptedException
+        {
+            return done.await(TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void setUp()
+    {
+        target = new PoolProcessor(2);
+        order = new ArrayList<String>();
+        gate = new CountDownLatch(1);
+    }
+
+    public void tearDown()
+    {
+        gate.countDown();
+        target.terminate(TIMEOUT);
+    }
+
+    /** Waits until the specified number of services have started. */
+    private void awaitStarted(int n)
+        throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis()+TIMEOUT;
+        while (System.currentTimeMillis() < deadline) {
+            synchronized (this) {
+                if (order.size() >= n) return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Services not started.");
+    }
+
+    public void testBound()
+        throws Exception
+    {
+        List<Service> services = new ArrayList<Service>();
+        for (int i = 0; i < 6; i++) {
+            Service s = new Service("p"+i, Prioritized.PREFETCH, null);
+            services.add(s);
+            target.exec(s);
+        }
+        awaitStarted(2);
+        Thread.sleep(100);
+        synchronized (this) {
+            assertEquals("Bound not honoured.", 2, order.size());
+        }
+        gate.countDown();
+        for (Service s : services)
+            assertTrue("Service not run.", s.await());
+        assertEquals("Bound not honoured.", 2, maxConcurrent);
+    }
+
+    public void testInteractiveNotQueued()
+        throws Exception
+    {
+        target.exec(new Service("p0", Prioritized.PREFETCH, null));
+        target.exec(new Service("p1", Prioritized.PREFETCH, null));
+        awaitStarted(2);
+        target.exec(new Service("i0", Prioritized.INTERACTIVE, null));
+        target.exec(new Runnable() {  //Not prioritized, so interactive.
+            public void run()
+            {
+                synchronized (TestPoolProcessor.this) { order.add("i1"); }
+            }
+        });
+        awaitStarted(4);
+    }
+
+    public void testInteractiveBound()
+        throws Exception
+    {
+        target = new PoolProcessor(1, 2);
+        List<Service> services = new ArrayList<Service>();
+        for (int i = 0; i < 4; i++) {
+            Service s = new Service("i"+i, Prioritized.INTERACTIVE, null);
+            services.add(s);
+            target.exec(s);
+        }
+        awaitStarted(2);
+        Thread.sleep(100);
+        synchronized (this) {
+            assertEquals("Bound not honoured.", 2, order.size());
+        }
+        assertEquals("Services not queued.", 2, target.getQueueLength());
+        gate.countDown();
+        for (Service s : services)
+            assertTrue("Service not run.", s.await());
+        assertEquals("Bound not honoured.", 2, maxConcurrent);
+    }
+
+    public void testNestedInteractiveRunInline()
+        throws Exception
+    {
+        target = new PoolProcessor(1, 1);
+        gate.countDown();
+        final Service nested = new Service("i1", Prioritized.INTERACTIVE,
+                null);
+        final CountDownLatch done = new CountDownLatch(1);
+        target.exec(new Runnable() {  //Waits for the service it submits.
+            public void run()
+            {
+                synchronized (TestPoolProcessor.this) { order.add("i0"); }
+                target.exec(nested);
+                try {
+                    if (nested.await()) done.countDown();
+                } catch (InterruptedException ie) {
+                    //Ignore, the test fails.
+                }
+            }
+        });
+        assertTrue("Nested service not run.",
+                done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertEquals("[i0, i1]", order.toString());
+    }
+
+    public void testPriority()
+        throws Exception
+    {
+        target = new PoolProcessor(1);
+        target.exec(new Service("p0", Prioritized.PREFETCH, null));
+        awaitStarted(1);
+        target.exec(new Service("b0", Prioritized.BACKGROUND, null));
+        Service last = new Service("p1", Prioritized.PREFETCH, null);
+        target.exec(last);
+        Service s = new Service("b1", Prioritized.BACKGROUND, null);
+        target.exec(s);
+        gate.countDown();
+        assertTrue("Service not run.", s.await());
+        assertEquals("[p0, p1, b0, b1]", order.toString());
+    }
+
+    public void testFairness()
+        throws Exception
+    {
+        target = new PoolProcessor(1);
+        target.exec(new Service("a0", Prioritized.PREFETCH, "a"));
+        awaitStarted(1);
+        target.exec(new Service("a1", Prioritized.PREFETCH, "a"));
+        target.exec(new Service("a2", Prioritized.PREFETCH, "a"));
+        target.exec(new Service("a3", Prioritized.PREFETCH, "a"));
+        target.exec(new Service("b0", Prioritized.PREFETCH, "b"));
+        Service s = new Service("b1", Prioritized.PREFETCH, "b");
+        target.exec(s);
+        gate.countDown();
+        assertTrue("Service not run.", s.await());
+        awaitStarted(6);
+        assertEquals("[a0, a1, b0, a2, b1, a3]", order.toString());
+    }
+
+    public void testCancelAll()
+        throws Exception
+    {
+        target = new PoolProcessor(1);
+        Service running = new Service("p0", Prioritized.PREFETCH, null);
+        target.exec(running);
+        awaitStarted(1);
+        target.exec(new Service("p1", Prioritized.PREFETCH, null));
+        target.cancelAll();
+        gate.countDown();
+        assertTrue("Service not run.", running.await());
+        Thread.sleep(100);
+        assertEquals("Queued service not cancelled.", "[p0]",
+                order.toString());
+    }
+
+    public void testTerminate()
+        throws Exception
+    {
+        target.exec(new Service("p0", Prioritized.PREFETCH, null));
+        awaitStarted(1);
+        gate.countDown();
+        assertTrue("Workers still running.", target.terminate(TIMEOUT));
+        Service s = new Service("p1", Prioritized.PREFETCH, null);
+        target.exec(s);
+        target.exec(new Service("i0", Prioritized.INTERACTIVE, null));
+        Thread.sleep(100);
+        assertEquals("Processor not disabled.", "[p0]", order.toString());
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.roi.io;
+
+
+//Java imports
+import java.awt.geom.AffineTransform;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import omero.gateway.model.ImageData;
+import omero.gateway.model.ROIData;
+import omero.gateway.model.ShapeData;
+import org.openmicroscopy.shoola.util.roi.ROIComponent;
+import org.openmicroscopy.shoola.util.roi.figures.MeasureRectangleFigure;
+import org.openmicroscopy.shoola.util.roi.model.ROI;
+import org.openmicroscopy.shoola.util.roi.model.ROIShape;
+import org.openmicroscopy.shoola.util.roi.model.util.Coord3D;
+
+/**
+ * Verifies that {@link OutputServerStrategy} only writes the ROIs and shapes
+ * changed since they were loaded.
+ *
+ * @since 5.8.5
+ */
+public class TestOutputServerStrategy
+    extends TestCase
+{
+
+    /** The component hosting the ROIs. */
+    private ROIComponent component;
+
+    /** The ROI with shapes on two planes. */
+    private ROI roi;
+
+    /** The ROI left untouched. */
+    private ROI untouched;
+
+    /**
+     * Adds a shape to the ROI.
+     *
+     * @param r The ROI hosting the shape.
+     * @param z The plane hosting the shape.
+     * @param id The id of the shape or <code>-1</code> for a new shape.
+     * @return See above.
+     * @throws Exception If the shape cannot be added.
+     */
+    private ROIShape addShape(ROI r, int z, long id)
+        throws Exception
+    {
+        MeasureRectangleFigure figure = new MeasureRectangleFigure(10, 10,
+                20, 20, false, id < 0, true, true, true);
+        Coord3D coord = new Coord3D(z, 0);
+        ROIShape s = new ROIShape(r, coord, figure, figure.getBounds());
+        if (id >= 0) s.setROIShapeID(id);
+        component.addShape(r.getID(), coord, s);
+        return s;
+    }
+
+    /**
+     * Returns the ids of the shapes of the ROI.
+     *
+     * @param data The ROI to handle.
+     * @return See above.
+     */
+    private Set<Long> getShapeIDs(ROIData data)
+    {
+        Set<Long> ids = new HashSet<Long>();
+        Iterator<List<ShapeData>> i = data.getIterator();
+        while (i.hasNext()) {
+            for (ShapeData shape : i.next())
+                ids.add(shape.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Creates two stored ROIs, as if loaded from the server.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+        throws Exception
+    {
+        component = new ROIComponent();
+        roi = component.createROI(1, false, true, true, true,
+                Collections.EMPTY_LIST);
+        addShape(roi, 0, 11);
+        addShape(roi, 1, 12);
+        untouched = component.createROI(2, false, true, true, true,
+                Collections.EMPTY_LIST);
+        addShape(untouched, 0, 21);
+        roi.markClean();
+        untouched.markClean();
+    }
+
+    /**
+     * Tests that nothing is written if the ROIs are not modified.
+     *
+     * @throws Exception If the ROIs cannot be written.
+     */
+    public void testNothingModified()
+        throws Exception
+    {
+        OutputServerStrategy strategy = new OutputServerStrategy();
+        assertTrue(strategy.writeModifiedROI(component,
+                new ImageData()).isEmpty());
+        assertTrue(strategy.writeRemovedShapes(component).isEmpty());
+    }
+
+    /**
+     * Tests that only the modified and new shapes of the modified ROI are
+     * written.
+     *
+     * @throws Exception If the ROIs cannot be written.
+     */
+    public void testOnlyDirtyShapes()
+        throws Exception
+    {
+        roi.getShape(new Coord3D(0, 0)).getFigure().transform(
+                AffineTransform.getTranslateInstance(5, 5));
+        addShape(roi, 2, -1);
+        OutputServerStrategy strategy = new OutputServerStrategy();
+        List<ROIData> result = strategy.writeModifiedROI(component,
+                new ImageData());
+        assertEquals(1, result.size());
+        ROIData data = result.get(0);
+        assertEquals(roi.getID(), data.getId());
+        Set<Long> ids = getShapeIDs(data);
+        assertEquals(2, ids.size());
+        assertTrue(ids.contains(11L));
+        assertFalse(ids.contains(12L));
+        assertTrue(strategy.writeRemovedShapes(component).isEmpty());
+    }
+
+    /**
+     * Tests that the removed shapes are written separately and that the ROI
+     * is written without shapes.
+     *
+     * @throws Exception If the ROIs cannot be written.
+     */
+    public void testRemovedShape()
+        throws Exception
+    {
+        component.deleteShape(roi.getID(), new Coord3D(1, 0));
+        OutputServerStrategy strategy = new OutputServerStrategy();
+        List<ROIData> result = strategy.writeModifiedROI(component,
+                new ImageData());
+        assertEquals(1, result.size());
+        assertTrue(getShapeIDs(result.get(0)).isEmpty());
+        List<ShapeData> removed = strategy.writeRemovedShapes(component);
+        assertEquals(1, removed.size());
+        assertEquals(12L, removed.get(0).getId());
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.roi.model;
+
+
+//Java imports
+import java.awt.geom.AffineTransform;
+
+//Third-party libraries
+import junit.framework.TestCase;
+
+//Application-internal dependencies
+import org.openmicroscopy.shoola.util.roi.figures.MeasureRectangleFigure;
+import org.openmicroscopy.shoola.util.roi.model.annotation.AnnotationKeys;
+import org.openmicroscopy.shoola.util.roi.model.util.Coord3D;
+
+/**
+ * Verifies that an {@link ROI} loaded from the server is only marked dirty
+ * when shapes are added, modified or removed.
+ *
+ * @since 5.8.5
+ */
+public class TestROI
+    extends TestCase
+{
+
+    /** The plane hosting the stored shape. */
+    private static final Coord3D STORED = new Coord3D(0, 0);
+
+    /** The ROI to check, loaded from the server. */
+    private ROI roi;
+
+    /** The shape of the ROI, loaded from the server. */
+    private ROIShape shape;
+
+    /**
+     * Adds a shape to the ROI.
+     *
+     * @param coord The plane hosting the shape.
+     * @param id The id of the shape or <code>-1</code> for a new shape.
+     * @return See above.
+     * @throws Exception If the shape cannot be added.
+     */
+    private ROIShape addShape(Coord3D coord, long id)
+        throws Exception
+    {
+        MeasureRectangleFigure figure = new MeasureRectangleFigure(10, 10,
+                20, 20, false, id < 0, true, true, true);
+        ROIShape s = new ROIShape(roi, coord, figure, figure.getBounds());
+        if (id >= 0) s.setROIShapeID(id);
+        roi.addShape(s);
+        return s;
+    }
+
+    /**
+     * Creates a stored ROI with one stored shape.
+     * @see TestCase#setUp()
+     */
+    protected void setUp()
+        throws Exception
+    {
+        roi = new ROI(1, false, true, true, true);
+        shape = addShape(STORED, 2);
+        roi.markClean();
+    }
+
+    /**
+     * Tests that a loaded ROI is not dirty.
+     */
+    public void testLoaded()
+    {
+        assertFalse(roi.isDirty());
+        assertFalse(shape.isDirty());
+        assertTrue(roi.getRemovedShapes().isEmpty());
+    }
+
+    /**
+     * Tests that an ROI not saved yet is always dirty.
+     */
+    public void testClientSide()
+    {
+        ROI created = new ROI(2, true, true, true, true);
+        assertTrue(created.isDirty());
+        created.markClean();
+        assertTrue(created.isDirty());
+    }
+
+    /**
+     * Tests that adding a shape marks the ROI dirty.
+     *
+     * @throws Exception If the shape cannot be added.
+     */
+    public void testShapeAdded()
+        throws Exception
+    {
+        ROIShape added = addShape(new Coord3D(1, 0), -1);
+        assertTrue(roi.isDirty());
+        assertTrue(added.isDirty());
+        assertFalse(shape.isDirty());
+    }
+
+    /**
+     * Tests that moving a shape marks the ROI dirty until it is marked clean.
+     */
+    public void testShapeMoved()
+    {
+        shape.getFigure().transform(
+                AffineTransform.getTranslateInstance(5, 5));
+        assertTrue(shape.isDirty());
+        assertTrue(roi.isDirty());
+        roi.markClean();
+        assertFalse(shape.isDirty());
+        assertFalse(roi.isDirty());
+    }
+
+    /**
+     * Tests that removing a stored shape marks the ROI dirty and records the
+     * shape so that it can be deleted.
+     *
+     * @throws Exception If the shape cannot be removed.
+     */
+    public void testShapeRemoved()
+        throws Exception
+    {
+        roi.deleteShape(STORED);
+        assertTrue(roi.isDirty());
+        assertEquals(1, roi.getRemovedShapes().size());
+        assertSame(shape, roi.getRemovedShapes().get(0));
+        roi.markClean();
+        assertFalse(roi.isDirty());
+        assertTrue(roi.getRemovedShapes().isEmpty());
+    }
+
+    /**
+     * Tests that removing a shape not saved yet leaves the ROI clean.
+     *
+     * @throws Exception If the shape cannot be added or removed.
+     */
+    public void testNewShapeRemoved()
+        throws Exception
+    {
+        Coord3D coord = new Coord3D(1, 0);
+        addShape(coord, -1);
+        roi.deleteShape(coord);
+        assertFalse(roi.isDirty());
+        assertTrue(roi.getRemovedShapes().isEmpty());
+    }
+
+    /**
+     * Tests that changing the annotations of the ROI itself does not mark it
+     * dirty since only the shapes are saved.
+     */
+    public void testAnnotationIgnored()
+    {
+        roi.setAnnotation(AnnotationKeys.TEXT, "changed");
+        assertFalse(roi.isDirty());
+    }
+
+}